@@ -0,0 +1,148 @@
+package de.uni_due.s3.jack3.business.microservices.openobjectutils;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmath.OMOBJ;
+
+import de.uni_due.s3.jack3.entities.tenant.VariableValue;
+import de.uni_due.s3.openchem.OCOBJ;
+import de.uni_due.s3.openobject.OpenObject;
+
+/**
+ * Compares the previous conversion (a new (un)marshaller per call, no caching) with the current implementation of
+ * {@link OpenObjectConverter} on realistic OpenMath payloads. The "previous" and "current" benchmarks of each
+ * conversion are meant to be compared with each other. Run with several threads ("-t 4") to include the contention
+ * on the (un)marshaller pools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenObjectConverterBenchmark {
+
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+	private static final String XML_OO_START = "<oo:OpenObject xmlns:oo=\"http://s3.uni-due.de/OpenObject\" "
+			+ "xmlns:oc=\"http://s3.uni-due.de/OpenChem\" xmlns:om=\"http://www.openmath.org/OpenMath\"><om:OMOBJ>";
+	private static final String XML_OO_END = "</om:OMOBJ></oo:OpenObject>";
+
+	@Param({ "integer", "polynomial", "matrix", "stringList" })
+	private String payloadType;
+
+	private JAXBContext context;
+	private String payload;
+	private OpenObject openObject;
+	private VariableValue variableValue;
+
+	@Setup
+	public void setUp() throws JAXBException {
+		context = JAXBContext.newInstance(OpenObject.class, OMOBJ.class, OCOBJ.class);
+		switch (payloadType) {
+		case "integer":
+			payload = wrap("<om:OMI>42</om:OMI>");
+			break;
+		case "polynomial":
+			payload = polynomial();
+			break;
+		case "matrix":
+			payload = matrix(5);
+			break;
+		default:
+			payload = stringList(30);
+			break;
+		}
+		openObject = previousFromXmlString(payload);
+		variableValue = new VariableValue();
+		variableValue.setContent(payload);
+	}
+
+	private static String wrap(String content) {
+		return XML_HEADER + XML_OO_START + content + XML_OO_END;
+	}
+
+	// 3*x^2 + 2.5*x - 7
+	private static String polynomial() {
+		return wrap("<om:OMA><om:OMS cd=\"arith1\" name=\"plus\"/>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"times\"/><om:OMI>3</om:OMI>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"power\"/><om:OMV name=\"x\"/><om:OMI>2</om:OMI></om:OMA>"
+				+ "</om:OMA>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"times\"/><om:OMF dec=\"2.5\"/><om:OMV name=\"x\"/></om:OMA>"
+				+ "<om:OMI>-7</om:OMI></om:OMA>");
+	}
+
+	private static String matrix(int size) {
+		StringBuilder xml = new StringBuilder("<om:OMA><om:OMS cd=\"linalg2\" name=\"matrix\"/>");
+		for (int row = 0; row < size; row++) {
+			xml.append("<om:OMA><om:OMS cd=\"linalg2\" name=\"matrixrow\"/>");
+			for (int column = 0; column < size; column++) {
+				xml.append("<om:OMI>").append(row * size + column).append("</om:OMI>");
+			}
+			xml.append("</om:OMA>");
+		}
+		return wrap(xml.append("</om:OMA>").toString());
+	}
+
+	private static String stringList(int size) {
+		StringBuilder xml = new StringBuilder("<om:OMA><om:OMS cd=\"list1\" name=\"list\"/>");
+		for (int i = 0; i < size; i++) {
+			xml.append("<om:OMSTR>Option ").append(i).append("</om:OMSTR>");
+		}
+		return wrap(xml.append("</om:OMA>").toString());
+	}
+
+	private OpenObject previousFromXmlString(String xml) throws JAXBException {
+		return (OpenObject) context.createUnmarshaller().unmarshal(new StringReader(xml));
+	}
+
+	@Benchmark
+	public OpenObject fromXmlStringPrevious() throws JAXBException {
+		return previousFromXmlString(payload);
+	}
+
+	@Benchmark
+	public OpenObject fromXmlStringCurrent() {
+		return OpenObjectConverter.fromXmlString(payload);
+	}
+
+	@Benchmark
+	public String toXmlStringPrevious() throws JAXBException {
+		StringWriter sw = new StringWriter();
+		context.createMarshaller().marshal(openObject, sw);
+		return sw.toString();
+	}
+
+	@Benchmark
+	public String toXmlStringCurrent() {
+		return OpenObjectConverter.toXmlString(openObject);
+	}
+
+	/**
+	 * Building EvaluatorMaps repeatedly from the same variable value, e.g. when rendering a stage.
+	 */
+	@Benchmark
+	public OpenObject fromVariableValuePrevious() throws JAXBException {
+		return previousFromXmlString(variableValue.getContent());
+	}
+
+	@Benchmark
+	public OpenObject fromVariableValueCurrent() {
+		return OpenObjectConverter.fromVariableValue(variableValue);
+	}
+}
@@ -1,7 +1,7 @@
 package de.uni_due.s3.jack3.business;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +22,7 @@ import de.uni_due.s3.jack3.business.exceptions.AuthorizationException;
 import de.uni_due.s3.jack3.business.exceptions.AuthorizationException.EType;
 import de.uni_due.s3.jack3.business.exceptions.FolderException;
 import de.uni_due.s3.jack3.business.helpers.ECourseOfferAccess;
+import de.uni_due.s3.jack3.business.helpers.EffectiveFolderRights;
 import de.uni_due.s3.jack3.entities.AbstractEntity;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.providers.FixedListExerciseProvider;
@@ -44,9 +45,9 @@ import de.uni_due.s3.jack3.exceptions.PreconditionException;
 import de.uni_due.s3.jack3.interfaces.TestableSubmission;
 import de.uni_due.s3.jack3.services.BaseService;
 import de.uni_due.s3.jack3.services.CourseOfferService;
-import de.uni_due.s3.jack3.services.FolderService;
 import de.uni_due.s3.jack3.services.UserGroupService;
 import de.uni_due.s3.jack3.services.UserService;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
 
 @RequestScoped
 @Transactional(value = Transactional.TxType.REQUIRED)
@@ -68,7 +69,7 @@ public class AuthorizationBusiness extends AbstractBusiness {
 	private CourseBusiness courseBusiness;
 
 	@Inject
-	private FolderService folderService;
+	private FolderRightsBusiness folderRightsBusiness;
 
 	@Inject
 	private UserGroupService userGroupService;
@@ -613,6 +614,29 @@ public class AuthorizationBusiness extends AbstractBusiness {
 		return hasSpecificRightOnFolder(user, exercise.getFolder(), AccessRight::isRead);
 	}
 
+	/**
+	 * Like {@link #hasGradeRightOnSubmission(User, Submission)}, but for the overview of a submission, so the
+	 * submission does not have to be loaded.
+	 *
+	 * @param exercise
+	 *            The exercise the submission belongs to, or the exercise that was frozen to it
+	 */
+	public boolean hasGradeRightOnSubmission(User user, SubmissionOverview submission, AbstractExercise exercise) {
+		final Long offerId = submission.getCourseOfferId();
+
+		if (!submission.isTestSubmission() && offerId == null) {
+			throw new IllegalStateException("Non-testing " + submission + " should be linked to a course offer!");
+		}
+
+		if (offerId != null) {
+			final CourseOffer offer = courseOfferService.getCourseOfferById(offerId)
+					.orElseThrow(NoSuchJackEntityException::new);
+			return hasSpecificRightOnFolder(user, offer.getFolder(), AccessRight::isGrade);
+		}
+		return hasSpecificRightOnFolder(user, folderBusiness.getFolderForAbstractExercise(exercise),
+				AccessRight::isRead);
+	}
+
 	/**
 	 * User accessed the submission correctly.
 	 *
@@ -731,6 +755,17 @@ public class AuthorizationBusiness extends AbstractBusiness {
 				&& hasGradeRightOnSubmission(currentUser, submission);
 	}
 
+	/**
+	 * Like {@link #isAllowedToDeleteSubmission(User, Submission, CourseOffer, Course, AbstractExercise)}, but for the
+	 * overview of a submission that is accessed from the given exercise. Only test submissions for the exercise itself
+	 * are accessed correctly.
+	 */
+	public boolean isAllowedToDeleteSubmission(User currentUser, SubmissionOverview submission,
+			AbstractExercise accessedExercise) {
+		return !submission.hasCourseRecord() && submission.getExerciseId() == accessedExercise.getId()
+				&& hasGradeRightOnSubmission(currentUser, submission, accessedExercise);
+	}
+
 	/**
 	 * Returns an AccessRight instance representing the union of all rights the given user has on the given folder.
 	 * This union includes all rights the user has directly on this folder, all rights the user has inherited from
@@ -745,7 +780,10 @@ public class AuthorizationBusiness extends AbstractBusiness {
 	 */
 	@Nonnull
 	public AccessRight getMaximumRightForUser(User user, final Folder folder) {
-		return getMaximumRightForUser(user, folder, userBusiness.getUserGroupsForUser(user));
+		if (user == null) {
+			throw new IllegalArgumentException("User must not be null!");
+		}
+		return getMaximumRightForUserAndGroupIds(user, folder, userBusiness.getUserGroupIdsForUser(user));
 	}
 
 	/**
@@ -759,6 +797,12 @@ public class AuthorizationBusiness extends AbstractBusiness {
 	 */
 	@Nonnull
 	public AccessRight getMaximumRightForUser(User user, final Folder folder, final List<UserGroup> userGroups) {
+		return getMaximumRightForUserAndGroupIds(user, folder, FolderRightsBusiness.idsOf(userGroups));
+	}
+
+	@Nonnull
+	private AccessRight getMaximumRightForUserAndGroupIds(User user, final Folder folder,
+			final Collection<Long> userGroupIds) {
 		if (folder == null) {
 			throw new IllegalArgumentException("Folder must not be null!");
 		}
@@ -767,31 +811,20 @@ public class AuthorizationBusiness extends AbstractBusiness {
 			throw new IllegalArgumentException("User must not be null!");
 		}
 
-		Folder folderWithManagingRights = folderService.getFolderWithManagingRights(folder)
-				.orElseThrow(() -> new PreconditionException("The Folder doesn't exist anymore: " + folder));
-
-		// First, we fetch all rights the user themselves has on this folder
-		// (either directly or inherited from parent folders).
-		AccessRight maximumRight = getAllManagingUsers(folderWithManagingRights)
-				.getOrDefault(user, AccessRight.getNone());
-
-		// Second, we fetch the user groups the user is member of and select
-		// those with rights on the folder.
-		final List<UserGroup> groups = new ArrayList<>(userGroups);
-		groups.retainAll(getAllManagingUserGroups(folderWithManagingRights).keySet());
-
-		// Third, we loop over these groups and add the rights found via groups
-		// to the ones found in the first step.
-		for (final UserGroup g : groups) {
-			// This works also if the user has no own rights and thus the first step returned NONE
-			maximumRight = maximumRight.add(getAllManagingUserGroups(folderWithManagingRights).get(g));
+		final EffectiveFolderRights rights = folderRightsBusiness.getEffectiveRights(List.of(folder.getId()))
+				.get(folder.getId());
+		if (rights == null) {
+			throw new PreconditionException("The Folder doesn't exist anymore: " + folder);
 		}
 
-		return maximumRight;
+		// The union of the rights the user has directly or inherited from parent folders, and the rights of the
+		// given user groups
+		return rights.getRightFor(user.getId(), userGroupIds);
 	}
 
 	/**
-	 * Determines a Map of Pairs (ContentFolder, EAccessRight) for a given User and a given List of Folders.
+	 * Determines a Map of Pairs (ContentFolder, EAccessRight) for a given User and a given List of Folders. The rights
+	 * of all folders that are not indexed yet are loaded in one query.
 	 *
 	 * @param user
 	 *            The user, for whom the EAccessRight should be determined
@@ -803,8 +836,22 @@ public class AuthorizationBusiness extends AbstractBusiness {
 	 */
 	public Map<Folder, AccessRight> getMaximumRightForUser(User user, List<Folder> folderList,
 			List<UserGroup> userGroups) {
+		return getMaximumRightForUserAndGroupIds(user, folderList, FolderRightsBusiness.idsOf(userGroups));
+	}
+
+	private Map<Folder, AccessRight> getMaximumRightForUserAndGroupIds(User user, List<Folder> folderList,
+			Collection<Long> userGroupIds) {
+		final Map<Long, EffectiveFolderRights> rightsByFolderId = folderRightsBusiness
+				.getEffectiveRights(FolderRightsBusiness.idsOf(folderList));
+
 		Map<Folder, AccessRight> returnMap = new HashMap<>();
-		folderList.forEach(folder -> returnMap.put(folder, getMaximumRightForUser(user, folder, userGroups)));
+		for (final Folder folder : folderList) {
+			final EffectiveFolderRights rights = rightsByFolderId.get(folder.getId());
+			if (rights == null) {
+				throw new PreconditionException("The Folder doesn't exist anymore: " + folder);
+			}
+			returnMap.put(folder, rights.getRightFor(user.getId(), userGroupIds));
+		}
 		return returnMap;
 	}
 
@@ -818,7 +865,7 @@ public class AuthorizationBusiness extends AbstractBusiness {
 	 * @return Map of Pairs (ContentFolder, EAccessRight), EAccessright is never null
 	 */
 	public Map<Folder, AccessRight> getMaximumRightForUser(User user, List<Folder> folderList) {
-		return getMaximumRightForUser(user,folderList,userBusiness.getUserGroupsForUser(user));
+		return getMaximumRightForUserAndGroupIds(user, folderList, userBusiness.getUserGroupIdsForUser(user));
 	}
 
 
@@ -9,12 +9,15 @@ import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
@@ -98,6 +101,9 @@ public class CourseBusiness extends AbstractBusiness {
 	@Inject
 	private ExerciseBusiness exerciseBusiness;
 
+	@Inject
+	private FolderExercisePoolBusiness folderExercisePoolBusiness;
+
 	@Inject
 	private AuthorizationBusiness authorizationBusiness;
 
@@ -378,27 +384,27 @@ public class CourseBusiness extends AbstractBusiness {
 	}
 
 	private Set<AbstractExercise> drawExercisesFromFolderExerciseProvider(AbstractCourse course) {
-		Set<AbstractExercise> exercisesForCourse = new HashSet<>();
+		Set<Long> exerciseIds = new HashSet<>();
 
-		// We need to search all folders and subfolders for exercises
+		// The IDs of all exercises in the folders and subfolders are cached, only the drawn exercises are loaded
 		final FolderExerciseProvider folderExerciseProvider = (FolderExerciseProvider) course.getContentProvider();
 		for (final ContentFolder contentFolder : folderExerciseProvider.getFolders()) {
 			// Maybe not all exercises shall be used
 			final int numberOfExercisesToBeUsed = folderExerciseProvider.getFoldersMap().get(contentFolder);
+			final List<Long> pool = folderExercisePoolBusiness.getExerciseIds(contentFolder);
 
 			if (numberOfExercisesToBeUsed == FolderExerciseProvider.ALL_EXERCISES) {
 				//Use all child exercises from the folder
-				exercisesForCourse.addAll(exerciseBusiness.getAllExercisesForContentFolderRecursive(contentFolder));
+				exerciseIds.addAll(pool);
 			} else {
 				//Use only a part of the child exercises from the folder
-				List<Exercise> childExercises = exerciseBusiness
-						.getAllExercisesForContentFolderRecursive(contentFolder);
-				Collections.shuffle(childExercises);
-				exercisesForCourse
-						.addAll(childExercises.stream().limit(numberOfExercisesToBeUsed).collect(Collectors.toList()));
+				List<Long> childExerciseIds = new ArrayList<>(pool);
+				Collections.shuffle(childExerciseIds);
+				exerciseIds.addAll(
+						childExerciseIds.subList(0, Math.min(numberOfExercisesToBeUsed, childExerciseIds.size())));
 			}
 		}
-		return exercisesForCourse;
+		return new HashSet<>(exerciseBusiness.getExercisesByIds(exerciseIds));
 	}
 
 	public CourseRecord getCourseRecordById(long courseRecordId) {
@@ -600,10 +606,31 @@ public class CourseBusiness extends AbstractBusiness {
 		return courseRecordService.getAllCourseRecordsForCourseOffersOrderedByStarttime(courseOffers);
 	}
 
+	/**
+	 * Returns the next page of course records of a course offer with fetched users, excluding test submissions.
+	 *
+	 * @param lastId
+	 *            ID of the last course record of the previous page, {@code 0} for the first page
+	 */
+	public List<CourseRecord> getCourseRecordsWithUser(CourseOffer courseOffer, long lastId, int maxResults) {
+		return courseRecordService.getNonTestingCourseRecordsWithUser(courseOffer, lastId, maxResults);
+	}
+
+	/**
+	 * @return The points of the first submission by exercise name by course record ID
+	 */
+	public Map<Long, Map<String, Integer>> getFirstResultPointsByExerciseName(Collection<Long> courseRecordIds) {
+		return submissionService.getFirstResultPointsByExerciseName(courseRecordIds);
+	}
+
 	public List<Submission> getAllSubmissionsForCourseRecord(CourseRecord courseRecord) {
 		return submissionService.getAllSubmissionsForCourseRecord(courseRecord);
 	}
 
+	public List<Submission> getAllSubmissionsWithCommentsForCourseRecord(CourseRecord courseRecord) {
+		return submissionService.getAllSubmissionsWithCommentsForCourseRecord(courseRecord);
+	}
+
 	public Optional<Submission> getLatestSubmissionForCourseRecordAndExercise(CourseRecord courseRecord,
 			AbstractExercise exercise) {
 		return submissionService.getLatestSubmissionForCourseRecordAndExercise(courseRecord, exercise);
@@ -1119,6 +1146,14 @@ public class CourseBusiness extends AbstractBusiness {
 		return courseRecordService.countUnreadCommentsForCourseRecord(courseRecord);
 	}
 
+	/**
+	 * Sets the number of comments and unread comments on the submissions of all given course records. The comments are
+	 * counted with one query per 500 course records instead of two queries per course record.
+	 */
+	public void countCommentsForCourseRecords(Collection<CourseRecord> courseRecords) {
+		courseRecordService.countCommentsForCourseRecords(courseRecords);
+	}
+
 	public List<CourseOffer> getCourseOffersReferencingCourse(AbstractCourse course) {
 		return courseOfferService.getCourseOffersReferencingCourse(course);
 	}
@@ -1245,4 +1280,22 @@ public class CourseBusiness extends AbstractBusiness {
 		}
 		return getRevisionIndexForRevisionId(abstractCourse, courseRecord.getCourseRevisionId());
 	}
+
+	/**
+	 * Like {@link #getCourseRevisionNumberForCourseRecord(CourseRecord)} for multiple course records, but the revisions
+	 * of each course are only loaded once.
+	 *
+	 * @return Map of course record IDs to the revision index of the course of the course record
+	 */
+	public Map<Long, Integer> getCourseRevisionNumbersForCourseRecords(Collection<CourseRecord> courseRecords) {
+		final Map<Long, List<Integer>> revisionsByCourseId = new HashMap<>();
+		final Map<Long, Integer> result = new HashMap<>();
+		for (final CourseRecord courseRecord : courseRecords) {
+			final List<Integer> revisions = revisionsByCourseId.computeIfAbsent(
+					courseRecord.getCourse().getRealCourseId(),
+					courseId -> getRevisionNumbersFor(getCourseByCourseID(courseId)));
+			result.put(courseRecord.getId(), revisions.indexOf(courseRecord.getCourseRevisionId()));
+		}
+		return result;
+	}
 }
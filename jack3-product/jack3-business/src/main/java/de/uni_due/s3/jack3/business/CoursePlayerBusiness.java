@@ -1,6 +1,12 @@
 package de.uni_due.s3.jack3.business;
 
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
 import java.util.Set;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -25,7 +31,6 @@ import de.uni_due.s3.jack3.entities.tenant.EvaluatorExpression;
 import de.uni_due.s3.jack3.entities.tenant.EvaluatorExpression.EDomain;
 import de.uni_due.s3.jack3.entities.tenant.FrozenCourse;
 import de.uni_due.s3.jack3.entities.tenant.ResultFeedbackMapping;
-import de.uni_due.s3.jack3.entities.tenant.Submission;
 import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
 import de.uni_due.s3.jack3.services.CourseRecordService;
 import de.uni_due.s3.jack3.services.CourseService;
@@ -52,63 +57,134 @@ public class CoursePlayerBusiness extends AbstractBusiness {
 	private ConverterBusiness converterBusiness;
 
 	public CourseRecord updateCourseResult(CourseRecord courseRecord) {
-		AbstractCourse course = courseRecord.getCourse();
-		if (!course.isFrozen()) {
-			// Make sure we use the latest version in case of non-frozen courses
-			course = courseService.getCourseWithLazyDataByCourseID(course.getId())
-					.orElseThrow(NoSuchJackEntityException::new);
+		final AbstractCourse course = getCurrentCourse(courseRecord.getCourse());
+
+		if (course.getContentProvider() instanceof FolderExerciseProvider) {
+			final var sw = new StopWatch().start();
+			if (!Hibernate.isInitialized(courseRecord.getExercises())) {
+				courseRecord = courseRecordService.getCourseRecordWithExercises(courseRecord.getId())
+						.orElseThrow(NoSuchJackEntityException::new);
+			}
+			getLogger().debugf("Loading course record exercises took %s", sw.stop().getElapsedMilliseconds());
+		}
+
+		final OptionalInt result = calculateResultPoints(course, courseRecord,
+				getCountingResultPointsByExerciseId(courseRecord));
+		if (result.isPresent()) {
+			courseRecord.setResultPoints(result.getAsInt());
+			return updateCourseRecord(courseRecord);
+		}
+
+		return courseRecord;
+	}
+
+	/**
+	 * Recalculates the results and feedback of the given course records in a new transaction, e.g. after the scoring of
+	 * a course has been changed. The points of all course records are determined with one query per scoring mode, the
+	 * feedback is evaluated only once per course and result. Changed course records are written in JDBC batches when
+	 * the transaction is committed.
+	 *
+	 * @param courseRecordIds
+	 *            IDs of the course records, should be limited to a few hundred per call
+	 * @return Number of course records whose result or feedback has been changed
+	 */
+	@Transactional(value = Transactional.TxType.REQUIRES_NEW)
+	public int recalculateCourseResults(Collection<Long> courseRecordIds) {
+		final List<CourseRecord> courseRecords = courseRecordService.getCourseRecordsWithExercisesByIds(
+				courseRecordIds);
+
+		final Map<ECourseScoring, List<Long>> idsByScoringMode = new EnumMap<>(ECourseScoring.class);
+		for (final CourseRecord courseRecord : courseRecords) {
+			final ECourseScoring scoringMode = courseRecord.getCourse().getScoringMode();
+			if (scoringMode != null) {
+				idsByScoringMode.computeIfAbsent(scoringMode, mode -> new ArrayList<>()).add(courseRecord.getId());
+			}
 		}
+		final Map<Long, Map<Long, Integer>> resultPointsByCourseRecordId = new HashMap<>();
+		resultPointsByCourseRecordId.putAll(submissionService
+				.getLatestResultPointsByCourseRecordId(idsByScoringMode.getOrDefault(ECourseScoring.LAST, List.of())));
+		resultPointsByCourseRecordId.putAll(submissionService
+				.getBestResultPointsByCourseRecordId(idsByScoringMode.getOrDefault(ECourseScoring.BEST, List.of())));
 
+		final Map<Long, AbstractCourse> coursesById = new HashMap<>();
+		final Map<Long, Set<ResultFeedbackMapping>> feedbackMappingsByCourseId = new HashMap<>();
+		final Map<Long, Map<Integer, String>> feedbackByCourseId = new HashMap<>();
+		int changed = 0;
+		for (final CourseRecord courseRecord : courseRecords) {
+			final AbstractCourse course = coursesById.computeIfAbsent(courseRecord.getCourse().getId(),
+					id -> getCurrentCourse(courseRecord.getCourse()));
+			final OptionalInt result = calculateResultPoints(course, courseRecord,
+					resultPointsByCourseRecordId.getOrDefault(courseRecord.getId(), Map.of()));
+			if (result.isEmpty()) {
+				continue;
+			}
+
+			final int resultPoints = result.getAsInt();
+			final String feedback = feedbackByCourseId.computeIfAbsent(course.getId(), id -> new HashMap<>())
+					.computeIfAbsent(resultPoints, points -> getCourseFeedback(course, feedbackMappingsByCourseId
+							.computeIfAbsent(course.getId(), id -> getResultFeedbackMappings(course)), points));
+			if (resultPoints != courseRecord.getResultPoints()
+					|| !feedback.equals(courseRecord.getCourseFeedback())) {
+				courseRecord.setResultPoints(resultPoints);
+				courseRecord.setCourseFeedback(feedback);
+				courseRecordService.mergeCourseRecord(courseRecord);
+				changed++;
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Returns the course to use for calculating results: Frozen courses are returned as they are, for non-frozen
+	 * courses the latest version is loaded.
+	 */
+	private AbstractCourse getCurrentCourse(AbstractCourse course) {
+		if (course.isFrozen()) {
+			return course;
+		}
+		return courseService.getCourseWithLazyDataByCourseID(course.getId())
+				.orElseThrow(NoSuchJackEntityException::new);
+	}
+
+	/**
+	 * Calculates the result of a course record from the points that count for each exercise. For folder providers,
+	 * the exercises of the course record must be loaded.
+	 *
+	 * @return The result or an empty optional if the course record has no result, e.g. because there are no
+	 *         exercises
+	 */
+	private static OptionalInt calculateResultPoints(AbstractCourse course, CourseRecord courseRecord,
+			Map<Long, Integer> resultPoints) {
 		if (course.getContentProvider() instanceof FixedListExerciseProvider) {
-			return updateCourseResultForFixedList(courseRecord,
+			return calculateResultPointsForFixedList(resultPoints,
 					(FixedListExerciseProvider) course.getContentProvider());
 		}
 		if (course.getContentProvider() instanceof FolderExerciseProvider) {
-			return updateCourseResultForFolders(courseRecord, (FolderExerciseProvider) course.getContentProvider());
+			return calculateResultPointsForFolders(courseRecord, resultPoints);
 		}
-
-		return courseRecord;
+		return OptionalInt.empty();
 	}
 
-	private CourseRecord updateCourseResultForFolders(CourseRecord courseRecord,
-			final FolderExerciseProvider folderExerciseProvider) {
-		final var sw = new StopWatch().start();
-		if (!Hibernate.isInitialized(courseRecord.getExercises())) {
-			courseRecord = courseRecordService.getCourseRecordWithExercises(courseRecord.getId())
-					.orElseThrow(NoSuchJackEntityException::new);
-		}
-		getLogger().debugf("Loading course record exercises took %s", sw.stop().getElapsedMilliseconds());
-		Optional<Submission> submission = Optional.empty();
-		final AbstractCourse course = courseRecord.getCourse();
+	private static OptionalInt calculateResultPointsForFolders(CourseRecord courseRecord,
+			Map<Long, Integer> resultPoints) {
 		final Set<AbstractExercise> exercises = courseRecord.getExercises();
 
 		double pointSum = 0.0;
 		double exerciseCount = exercises.size();
 
 		for (AbstractExercise exercise : exercises) {
-			if (course.getScoringMode() == ECourseScoring.LAST) {
-				submission = submissionService.getLatestSubmissionForCourseRecordAndExercise(courseRecord, exercise);
-			} else if (course.getScoringMode() == ECourseScoring.BEST) {
-				submission = submissionService.getBestSubmissionForCourseRecordAndExercise(courseRecord, exercise);
-			}
-			if (submission.isPresent()) {
-				pointSum += submission.get().getResultPoints();
-			}
+			pointSum += resultPoints.getOrDefault(exercise.getId(), 0);
 		}
 
 		if (exerciseCount > 0) {
-			courseRecord.setResultPoints((int) Math.round(pointSum / exerciseCount));
-			return updateCourseRecord(courseRecord);
+			return OptionalInt.of((int) Math.round(pointSum / exerciseCount));
 		}
 
-		return courseRecord;
+		return OptionalInt.empty();
 	}
 
-	private CourseRecord updateCourseResultForFixedList(CourseRecord courseRecord,
+	private static OptionalInt calculateResultPointsForFixedList(Map<Long, Integer> resultPoints,
 			final FixedListExerciseProvider fixedListExerciseProvider) {
-		Optional<Submission> submission = Optional.empty();
-		final AbstractCourse course = courseRecord.getCourse();
-
 		int pointSum = 0;
 		double weightSum = 0.0;
 
@@ -120,41 +196,57 @@ public class CoursePlayerBusiness extends AbstractBusiness {
 				exercise = courseEntry.getExercise();
 			}
 
-			if (course.getScoringMode() == ECourseScoring.LAST) {
-				submission = submissionService.getLatestSubmissionForCourseRecordAndExercise(courseRecord, exercise);
-			} else if (course.getScoringMode() == ECourseScoring.BEST) {
-				submission = submissionService.getBestSubmissionForCourseRecordAndExercise(courseRecord, exercise);
-			}
-			if (submission.isPresent()) {
-				pointSum += submission.get().getResultPoints() * courseEntry.getPoints();
-			}
+			pointSum += resultPoints.getOrDefault(exercise.getId(), 0) * courseEntry.getPoints();
 		}
 
 		if (weightSum > 0) {
-			courseRecord.setResultPoints((int) Math.round(pointSum / weightSum));
-			return updateCourseRecord(courseRecord);
+			return OptionalInt.of((int) Math.round(pointSum / weightSum));
 		}
 
-		return courseRecord;
+		return OptionalInt.empty();
+	}
+
+	/**
+	 * Returns the points that count for the course result per exercise, depending on the scoring mode of the course.
+	 * The points of all exercises are determined with one query.
+	 */
+	private Map<Long, Integer> getCountingResultPointsByExerciseId(CourseRecord courseRecord) {
+		final ECourseScoring scoringMode = courseRecord.getCourse().getScoringMode();
+		if (scoringMode == ECourseScoring.LAST) {
+			return submissionService.getLatestResultPointsByExerciseId(courseRecord);
+		} else if (scoringMode == ECourseScoring.BEST) {
+			return submissionService.getBestResultPointsByExerciseId(courseRecord);
+		}
+		return Map.of();
 	}
 
 	public CourseRecord updateCourseRecord(CourseRecord courseRecord) {
-		AbstractCourse abstractCourse = courseRecord.getCourse();
-		Set<ResultFeedbackMapping> resultFeedbackMappings;
+		final AbstractCourse abstractCourse = courseRecord.getCourse();
+		courseRecord.setCourseFeedback(getCourseFeedback(abstractCourse, getResultFeedbackMappings(abstractCourse),
+				courseRecord.getResultPoints()));
+		return courseRecordService.mergeCourseRecord(courseRecord);
+	}
 
+	private Set<ResultFeedbackMapping> getResultFeedbackMappings(AbstractCourse abstractCourse) {
 		long courseId = abstractCourse.getId();
 		if (abstractCourse.isFrozen()) {
 			FrozenCourse frozen = courseService.getFrozenCourse(courseId).orElseThrow(NoSuchJackEntityException::new);
-			resultFeedbackMappings = frozen.getResultFeedbackMappings();
+			return frozen.getResultFeedbackMappings();
 		} else {
 			Course course = courseService.getCourseWithLazyDataByCourseID(courseId)
 					.orElseThrow(NoSuchJackEntityException::new);
-			resultFeedbackMappings = course.getResultFeedbackMappings();
+			return course.getResultFeedbackMappings();
 		}
+	}
 
+	/**
+	 * Evaluates the result feedback mappings for the given result and returns the feedback text.
+	 */
+	private String getCourseFeedback(AbstractCourse abstractCourse, Set<ResultFeedbackMapping> resultFeedbackMappings,
+			int resultPoints) {
 		StringBuilder feedback = new StringBuilder();
 		EvaluatorMaps evaluatorMaps = new EvaluatorMaps();
-		evaluatorMaps.addMetaVariable("currentResult", courseRecord.getResultPoints());
+		evaluatorMaps.addMetaVariable("currentResult", resultPoints);
 
 		// TODO ms: Add more meta variables here?
 		for (ResultFeedbackMapping feedbackMapping : resultFeedbackMappings) {
@@ -180,8 +272,7 @@ public class CoursePlayerBusiness extends AbstractBusiness {
 			}
 		}
 
-		courseRecord.setCourseFeedback(feedback.toString());
-		return courseRecordService.mergeCourseRecord(courseRecord);
+		return feedback.toString();
 	}
 
 }
@@ -0,0 +1,138 @@
+package de.uni_due.s3.jack3.business;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
+import de.uni_due.s3.jack3.business.helpers.CourseResultRecalculation;
+import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
+import de.uni_due.s3.jack3.services.CourseRecordService;
+import de.uni_due.s3.jack3.utils.StopWatch;
+
+/**
+ * Recalculates the results of all course records of a course offer in the background, e.g. after the scoring of the
+ * course has been changed. The course records are paged by ID and recalculated in chunks, each in its own
+ * transaction via {@link CoursePlayerBusiness#recalculateCourseResults(java.util.Collection)}.
+ *
+ * The progress of the last recalculation per course offer is kept in memory only. A failed recalculation can be
+ * resumed after the last committed chunk as long as the application is running. Since recalculating is idempotent,
+ * it can also simply be started again.
+ */
+@ApplicationScoped
+public class CourseResultRecalculationBusiness extends AbstractBusiness {
+
+	/** Number of course records that are recalculated and written in one transaction. */
+	static final int COURSE_RECORDS_PER_TRANSACTION = 200;
+
+	@Inject
+	private CourseRecordService courseRecordService;
+
+	@Inject
+	private CoursePlayerBusiness coursePlayerBusiness;
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	/** The last recalculation by course offer ID. */
+	private final Map<Long, CourseResultRecalculation> recalculations = new ConcurrentHashMap<>();
+
+	/**
+	 * Starts recalculating all course results of the course offer from the first course record.
+	 *
+	 * @throws ActionNotAllowedException
+	 *             If a recalculation for the course offer is already running
+	 */
+	public CourseResultRecalculation startRecalculation(CourseOffer courseOffer) throws ActionNotAllowedException {
+		return submit(courseOffer, false);
+	}
+
+	/**
+	 * Resumes a failed recalculation after the last committed chunk. Starts a new recalculation if there is no failed
+	 * one for the course offer.
+	 *
+	 * @throws ActionNotAllowedException
+	 *             If a recalculation for the course offer is already running
+	 */
+	public CourseResultRecalculation resumeRecalculation(CourseOffer courseOffer) throws ActionNotAllowedException {
+		return submit(courseOffer, true);
+	}
+
+	private synchronized CourseResultRecalculation submit(CourseOffer courseOffer, boolean resume)
+			throws ActionNotAllowedException {
+		final CourseResultRecalculation previous = recalculations.get(courseOffer.getId());
+		if (previous != null && previous.isRunning()) {
+			throw new ActionNotAllowedException(
+					"The course results of course offer " + courseOffer.getId() + " are already recalculated.");
+		}
+
+		final long numberOfCourseRecords = courseRecordService.countCourseRecordsForCourseOffer(courseOffer);
+		final CourseResultRecalculation recalculation;
+		if (resume && previous != null && previous.isFailed()) {
+			recalculation = previous;
+			recalculation.resume(numberOfCourseRecords);
+		} else {
+			recalculation = new CourseResultRecalculation(courseOffer.getId(), courseOffer.getName());
+			recalculation.start(numberOfCourseRecords);
+			recalculations.put(courseOffer.getId(), recalculation);
+		}
+
+		try {
+			executor.execute(() -> recalculate(courseOffer, recalculation));
+		} catch (RejectedExecutionException e) {
+			recalculation.fail(e.getMessage());
+			throw e;
+		}
+		return recalculation;
+	}
+
+	private void recalculate(CourseOffer courseOffer, CourseResultRecalculation recalculation) {
+		final StopWatch watch = new StopWatch().start();
+		try {
+			List<Long> ids = courseRecordService.getCourseRecordIdsForCourseOffer(courseOffer,
+					recalculation.getLastCourseRecordId(), COURSE_RECORDS_PER_TRANSACTION);
+			while (!ids.isEmpty()) {
+				final int changed = coursePlayerBusiness.recalculateCourseResults(ids);
+				final long lastId = ids.get(ids.size() - 1);
+				recalculation.chunkProcessed(ids.size(), changed, lastId);
+				getLogger().debugf("Recalculated %d course records of course offer %d, %d of them changed.",
+						ids.size(), courseOffer.getId(), changed);
+
+				ids = courseRecordService.getCourseRecordIdsForCourseOffer(courseOffer, lastId,
+						COURSE_RECORDS_PER_TRANSACTION);
+			}
+			recalculation.finish();
+			getLogger().infof("Recalculated %d course results of course offer %d in %s, %d of them changed.",
+					recalculation.getProcessedCourseRecords(), courseOffer.getId(),
+					watch.stop().getElapsedSeconds(), recalculation.getChangedCourseRecords());
+		} catch (RuntimeException e) {
+			recalculation.fail(e.getMessage());
+			getLogger().errorf(e,
+					"Recalculating the course results of course offer %d failed after course record %d.",
+					courseOffer.getId(), recalculation.getLastCourseRecordId());
+		} finally {
+			// E.g. after an OutOfMemoryError, which is not caught above. A recalculation that is left running could
+			// never be started again for this course offer.
+			if (recalculation.isRunning()) {
+				recalculation.fail("Aborted unexpectedly after course record " + recalculation.getLastCourseRecordId());
+			}
+		}
+	}
+
+	/**
+	 * @return The last recalculation of each course offer, the latest first
+	 */
+	public List<CourseResultRecalculation> getRecalculations() {
+		final List<CourseResultRecalculation> result = new ArrayList<>(recalculations.values());
+		result.sort(Comparator.comparing(CourseResultRecalculation::getStartedAt).reversed());
+		return result;
+	}
+}
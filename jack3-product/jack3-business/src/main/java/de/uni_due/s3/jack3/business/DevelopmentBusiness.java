@@ -86,6 +86,15 @@ public class DevelopmentBusiness extends AbstractBusiness {
 	@Inject
 	private DevelopmentService developmentService;
 
+	@Inject
+	private FolderRightsBusiness folderRightsBusiness;
+
+	@Inject
+	private UserGroupMembershipBusiness userGroupMembershipBusiness;
+
+	@Inject
+	private FolderExercisePoolBusiness folderExercisePoolBusiness;
+
 	@Inject
 	private ExerciseBusiness exerciseBusiness;
 
@@ -109,6 +118,9 @@ public class DevelopmentBusiness extends AbstractBusiness {
 	 */
 	public void deleteTenantDatabase() {
 		developmentService.deleteTenantDatabase(EDatabaseType.POSTGRES);
+		folderRightsBusiness.clearIndex();
+		userGroupMembershipBusiness.clearIndex();
+		folderExercisePoolBusiness.clearPools();
 		getLogger().info("Database deleted (Postgres)");
 	}
 
@@ -117,6 +129,9 @@ public class DevelopmentBusiness extends AbstractBusiness {
 	 */
 	public void deleteTenantDatabaseH2() {
 		developmentService.deleteTenantDatabase(EDatabaseType.H2);
+		folderRightsBusiness.clearIndex();
+		userGroupMembershipBusiness.clearIndex();
+		folderExercisePoolBusiness.clearPools();
 		getLogger().info("Database deleted (H2)");
 	}
 
@@ -136,6 +151,7 @@ public class DevelopmentBusiness extends AbstractBusiness {
 		folder.addChildExercise(exercise);
 		folderService.mergeContentFolder(folder);
 		exerciseService.persistExercise(exercise);
+		folderExercisePoolBusiness.contentChanged(folder);
 		return exercise;
 	}
 
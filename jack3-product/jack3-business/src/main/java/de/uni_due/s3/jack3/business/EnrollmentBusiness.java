@@ -4,7 +4,6 @@ import java.text.MessageFormat;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -32,6 +31,7 @@ import de.uni_due.s3.jack3.business.helpers.EnrollmentLogEntry;
 import de.uni_due.s3.jack3.entities.enums.ECourseOfferReviewMode;
 import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
+import de.uni_due.s3.jack3.entities.tenant.CourseOfferSeats;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
 import de.uni_due.s3.jack3.entities.tenant.Enrollment;
 import de.uni_due.s3.jack3.entities.tenant.PresentationFolder;
@@ -114,6 +114,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		// Check conditions
 		ensureNoGlobalPassword(offer);
 		checkEnrollmentPermission(user, offer);
+		reservePlace(user, offer);
 
 		// All conditions are checked here, so we can enroll in the user.
 		Optional<CourseRecord> courseRecord = enroll(user, offer, user, null);
@@ -152,6 +153,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		// Check conditions
 		ensureCorrectGlobalPassword(offer, password);
 		checkEnrollmentPermission(user, offer);
+		reservePlace(user, offer);
 
 		// All conditions are checked here, so we can enroll in the user.
 		Optional<CourseRecord> courseRecord = enroll(user, offer, user, null);
@@ -273,6 +275,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		// Check conditions
 		ensureNoGlobalPassword(offer);
 		checkWaitingListPermission(user, offer);
+		ensureFullWhileLocked(user, offer);
 
 		// All conditions are checked here, so we can put the user on the waiting list.
 		setStatus(user, offer, EEnrollmentStatus.ON_WAITINGLIST, user, null);
@@ -309,6 +312,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		// Check conditions
 		ensureCorrectGlobalPassword(offer, password);
 		checkWaitingListPermission(user, offer);
+		ensureFullWhileLocked(user, offer);
 
 		// All conditions are checked here, so we can put the user on the waiting list.
 		setStatus(user, offer, EEnrollmentStatus.ON_WAITINGLIST, user, null);
@@ -343,8 +347,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 			return;
 		}
 
-		enrollment.updateStatus(EEnrollmentStatus.DISENROLLED, performedBy, explanation);
-		enrollmentService.mergeEnrollment(enrollment);
+		enrollmentService.changeStatus(enrollment, EEnrollmentStatus.DISENROLLED, performedBy, explanation);
 
 		exitCourseAfterDisenrollment(user, offer);
 		try {
@@ -399,19 +402,27 @@ public class EnrollmentBusiness extends AbstractBusiness {
 	}
 
 	/**
-	 * Lets a certain number of users move up, but not more than are on the waiting list.
+	 * Lets a certain number of users move up, but not more than there are free places and users on the waiting list.
+	 * Only the users who move up are loaded from the waiting list.
 	 */
-	private void moveUpUsers(final CourseOffer offer, final long moveUpCount) throws MessagingException {
-		final List<Enrollment> waitingList = getWaitingList(offer);
-		long i = 0;
-		Enrollment toMoveUp;
+	private void moveUpUsers(final CourseOffer offer, final long maxMoveUpCount) throws MessagingException {
+		long moveUpCount = maxMoveUpCount;
+		if (hasParticipantLimit(offer)) {
+			// Concurrent enrollments wait until the users have moved up, so no one takes the free places in between
+			final CourseOfferSeats seats = enrollmentService.lockSeats(offer);
+			moveUpCount = Math.min(moveUpCount, seats.getFreePlaces(offer.getMaxAllowedParticipants()));
+		}
+		if (moveUpCount <= 0) {
+			return;
+		}
+
+		final List<Enrollment> waitingList = enrollmentService.getWaitingList(offer,
+				(int) Math.min(moveUpCount, Integer.MAX_VALUE));
 		int failedEmails = 0;
-		while (i < moveUpCount && !waitingList.isEmpty()) {
+		for (final Enrollment toMoveUp : waitingList) {
 
 			// The first user on waiting list is enrolled
-			toMoveUp = waitingList.remove(0);
-			toMoveUp.updateStatus(EEnrollmentStatus.ENROLLED, null, null);
-			enrollmentService.mergeEnrollment(toMoveUp);
+			enrollmentService.changeStatus(toMoveUp, EEnrollmentStatus.ENROLLED, null, null);
 			// Start submission if necessary
 			startCourseAfterEnrollment(toMoveUp.getUser(), offer);
 
@@ -424,7 +435,6 @@ public class EnrollmentBusiness extends AbstractBusiness {
 						.warn("It was not possible to send an email to the user '" + toMoveUp.getUser().getLoginName()
 								+ "' to inform him that he has moved up on the waiting list.");
 			}
-			i++;
 		}
 
 		if (failedEmails > 0) {
@@ -439,9 +449,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 			String explanation) {
 		final Optional<Enrollment> found = enrollmentService.getEnrollment(user, offer);
 		if (found.isPresent()) {
-			final Enrollment enrollment = found.get();
-			enrollment.updateStatus(status, performedBy, explanation);
-			enrollmentService.mergeEnrollment(enrollment);
+			enrollmentService.changeStatus(found.get(), status, performedBy, explanation);
 		} else {
 			final Enrollment enrollment = new Enrollment(user, offer, status, performedBy, explanation);
 			enrollmentService.persistEnrollment(enrollment);
@@ -484,7 +492,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 
 		if (offer.isExplicitEnrollment()) {
 			// Fill the free places or let all users move up if the limit was removed
-			moveUpUsers(offer, getFreePlaces(offer).orElse(Long.MAX_VALUE));
+			moveUpUsers(offer, Long.MAX_VALUE);
 		}
 	}
 
@@ -539,9 +547,6 @@ public class EnrollmentBusiness extends AbstractBusiness {
 	private void sendEnrollmentEmail(User user, CourseOffer courseOffer)
 			throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if (user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -571,19 +576,16 @@ public class EnrollmentBusiness extends AbstractBusiness {
 			content = MessageFormat.format(content, courseOfferName, link, "");
 		}
 
-		//send the mail
+		//queue the mail
 		emailService.createMail().withRecipients(user.getEmail())
 				.withSubject(MessageFormat.format(subject, courseOfferName))
 				.withHtml(content)
-				.send();
+				.queue();
 	}
 
 	private void sendManuallyEnrollmentEmail(User user, CourseOffer courseOffer, String explanation)
 			throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if(user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -621,18 +623,15 @@ public class EnrollmentBusiness extends AbstractBusiness {
 
 		content = MessageFormat.format(content, courseOfferName, link, enrollmentMessage, explanationMessage);
 
-		//send the mail
+		//queue the mail
 		emailService.createMail() //
 			.withRecipients(user.getEmail()) //
 				.withSubject(MessageFormat.format(subject, courseOfferName))//
-			.withHtml(content).send(); //
+			.withHtml(content).queue(); //
 	}
 
 	private void sendJoinedWaitingListEmail(User user, CourseOffer courseOffer) throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if (user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -662,19 +661,16 @@ public class EnrollmentBusiness extends AbstractBusiness {
 
 		content = MessageFormat.format(content, courseOfferName, link, waitingListMessage);
 
-		//send the mail
+		//queue the mail
 		emailService.createMail() //
 				.withRecipients(user.getEmail()) //
 				.withSubject(MessageFormat.format(subject, courseOfferName))//
-				.withHtml(content).send(); //
+				.withHtml(content).queue(); //
 	}
 
 	private void sendManuallyDisenrollmentEmail(User user, CourseOffer courseOffer, String explanation)
 			throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if (user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -705,19 +701,16 @@ public class EnrollmentBusiness extends AbstractBusiness {
 
 		content = MessageFormat.format(content, courseOfferName, link, explanationMessage);
 
-		//send the mail
+		//queue the mail
 		emailService.createMail() //
 				.withRecipients(user.getEmail()) //
 				.withSubject(MessageFormat.format(subject, courseOfferName))//
-				.withHtml(content).send(); //
+				.withHtml(content).queue(); //
 	}
 
 	private void sendDisenrollmentEmailOnDisabledWaitingList(User user, CourseOffer courseOffer)
 			throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if (user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -740,18 +733,15 @@ public class EnrollmentBusiness extends AbstractBusiness {
 
 		content = MessageFormat.format(content, courseOfferName, link);
 
-		//send the mail
+		//queue the mail
 		emailService.createMail() //
 				.withRecipients(user.getEmail()) //
 				.withSubject(MessageFormat.format(subject, courseOfferName))//
-				.withHtml(content).send(); //
+				.withHtml(content).queue(); //
 	}
 
 	private void sendMoveUpEMail(User user, CourseOffer courseOffer) throws MessagingException {
 
-		if (!emailService.isReady()) {
-			throw new MessagingException("No mail session available");
-		}
 		if (user.getEmail() == null) {
 			throw new MessagingException(
 					"The user does not have an email address. Because of this we can't send the email.");
@@ -781,11 +771,11 @@ public class EnrollmentBusiness extends AbstractBusiness {
 			content = MessageFormat.format(content, courseOfferName, link, "");
 		}
 
-		//send the mail
+		//queue the mail
 		emailService.createMail() //
 				.withRecipients(user.getEmail()) //
 				.withSubject(MessageFormat.format(subject, courseOfferName)) //
-				.withHtml(MessageFormat.format(content, courseOfferName, link)).send(); //
+				.withHtml(MessageFormat.format(content, courseOfferName, link)).queue(); //
 	}
 
 	private String getEmailLinkToCourseOffer(CourseOffer courseOffer) {
@@ -892,9 +882,39 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		}
 	}
 
+	/**
+	 * Checks again after locking the seats of the course offer that the user is not enrolled and that there is a free
+	 * place. Concurrent enrollments wait until this transaction is finished, so the course offer is not overbooked.
+	 */
+	private void reservePlace(User user, CourseOffer offer) throws EnrollmentException {
+		if (!hasParticipantLimit(offer)) {
+			return;
+		}
+		final CourseOfferSeats seats = enrollmentService.lockSeats(offer);
+		ensureNotEnrolled(user, offer);
+		if (seats.getFreePlaces(offer.getMaxAllowedParticipants()) == 0) {
+			throw new EnrollmentException(EnrollmentException.EType.COURSE_IS_FULL);
+		}
+	}
+
+	/**
+	 * Checks again after locking the seats of the course offer that the user is not enrolled and that the course offer
+	 * is still full, so users only join the waiting list if no place has become free in the meantime.
+	 */
+	private void ensureFullWhileLocked(User user, CourseOffer offer) throws EnrollmentException {
+		final CourseOfferSeats seats = enrollmentService.lockSeats(offer);
+		ensureNotEnrolled(user, offer);
+		if (seats.getFreePlaces(offer.getMaxAllowedParticipants()) > 0) {
+			throw new EnrollmentException(EnrollmentException.EType.COURSE_NOT_FULL);
+		}
+	}
+
+	private static boolean hasParticipantLimit(CourseOffer offer) {
+		return offer.isExplicitEnrollment() && offer.getMaxAllowedParticipants() > 0;
+	}
+
 	private void ensureWaitingListEnabled(CourseOffer offer) throws EnrollmentException {
-		if (!offer.isExplicitEnrollment() || offer.getMaxAllowedParticipants() == 0
-				|| !offer.isEnableWaitingList()) {
+		if (!hasParticipantLimit(offer) || !offer.isEnableWaitingList()) {
 			throw new EnrollmentException(EnrollmentException.EType.WAITINGLIST_DISABLED);
 		}
 	}
@@ -1161,12 +1181,12 @@ public class EnrollmentBusiness extends AbstractBusiness {
 		Objects.requireNonNull(offer);
 		offer = courseOfferService.getCourseOfferById(offer.getId()).orElseThrow(NoSuchJackEntityException::new);
 		int max = offer.getMaxAllowedParticipants();
-		if (!offer.isExplicitEnrollment() || max == 0) {
+		if (!hasParticipantLimit(offer)) {
 			// No limit
 			return Optional.empty();
 		}
 
-		long enrolled = enrollmentService.countEnrollments(offer, EEnrollmentStatus.ENROLLED);
+		long enrolled = enrollmentService.countEnrolledUsers(offer);
 		// We have to ensure that the value is non-negative because lecturers can override the restriction so that more
 		// users can be enrolled than allowed.
 		return Optional.of(Math.max(0, max - enrolled));
@@ -1188,9 +1208,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 	 */
 	public List<Enrollment> getWaitingList(CourseOffer offer) {
 		Objects.requireNonNull(offer);
-		List<Enrollment> result = enrollmentService.getEnrollments(offer, EEnrollmentStatus.ON_WAITINGLIST);
-		result.sort(Comparator.comparing(Enrollment::getLastChange));
-		return result;
+		return enrollmentService.getWaitingList(offer, Integer.MAX_VALUE);
 	}
 
 	/**
@@ -1216,7 +1234,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 	 */
 	public long countCurrentEnrollments(CourseOffer offer) {
 		Objects.requireNonNull(offer);
-		return enrollmentService.countEnrollments(offer, EEnrollmentStatus.ENROLLED);
+		return enrollmentService.countEnrolledUsers(offer);
 	}
 
 	/**
@@ -1601,8 +1619,7 @@ public class EnrollmentBusiness extends AbstractBusiness {
 					.orElseThrow(() -> new IllegalStateException(user + " should be disenrolled after exiting " + offer
 							+ " but no enrollment was present! All users who participate in a course must have an Enrollment!"));
 			// No user moves up because implicit enrollment implies that no waiting list is available.
-			enrollment.updateStatus(EEnrollmentStatus.DISENROLLED, null, null);
-			enrollmentService.mergeEnrollment(enrollment);
+			enrollmentService.changeStatus(enrollment, EEnrollmentStatus.DISENROLLED, null, null);
 		}
 	}
 
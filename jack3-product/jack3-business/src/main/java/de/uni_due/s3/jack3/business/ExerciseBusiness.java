@@ -2,6 +2,7 @@ package de.uni_due.s3.jack3.business;
 
 import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -33,6 +34,7 @@ import de.uni_due.s3.jack3.services.RevisionService;
 import de.uni_due.s3.jack3.services.StageSubmissionService;
 import de.uni_due.s3.jack3.services.SubmissionService;
 import de.uni_due.s3.jack3.services.TagService;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
 import de.uni_due.s3.jack3.utils.JackStringUtils;
 
 @RequestScoped
@@ -42,6 +44,9 @@ public class ExerciseBusiness extends AbstractBusiness {
     @Inject
     private ExerciseService exerciseService;
 
+    @Inject
+    private FolderExercisePoolBusiness folderExercisePoolBusiness;
+
     @Inject
     private SubmissionService submissionService;
 
@@ -106,6 +111,7 @@ public class ExerciseBusiness extends AbstractBusiness {
             exerciseService.deleteExercise(frozenversion);
         }
         exerciseService.deleteExercise(exercise);
+        folderExercisePoolBusiness.contentChanged(exercise.getFolder());
     }
 
     /**
@@ -150,6 +156,8 @@ public class ExerciseBusiness extends AbstractBusiness {
 
         folderService.mergeContentFolder(oldParent);
         folderService.mergeContentFolder(folder);
+        folderExercisePoolBusiness.contentChanged(oldParent);
+        folderExercisePoolBusiness.contentChanged(folder);
 
         return updateExercise(exercise);
     }
@@ -224,6 +232,7 @@ public class ExerciseBusiness extends AbstractBusiness {
         targetFolder.addChildExercise(copy);
         folderService.mergeContentFolder(targetFolder);
         exerciseService.persistExercise(copy);
+        folderExercisePoolBusiness.contentChanged(targetFolder);
         return copy;
     }
 
@@ -366,6 +375,15 @@ public class ExerciseBusiness extends AbstractBusiness {
         return exerciseService.getAllExercisesForContentFolderList(folders);
     }
 
+    /**
+     * Returns the exercises with the given IDs with one query. IDs of exercises that do not exist are ignored.
+     *
+     * @return Exercise list without lazy data, unordered
+     */
+    public List<Exercise> getExercisesByIds(Collection<Long> ids) {
+        return exerciseService.getExercisesByIds(ids);
+    }
+
     // ************************************
     // Delegate methods for exerciseService
 
@@ -379,6 +397,7 @@ public class ExerciseBusiness extends AbstractBusiness {
         folder.addChildExercise(exercise);
         folderService.mergeContentFolder(folder);
         exerciseService.persistExercise(exercise);
+        folderExercisePoolBusiness.contentChanged(folder);
         return exercise;
     }
 
@@ -465,6 +484,33 @@ public class ExerciseBusiness extends AbstractBusiness {
         return submissionService.getAllSubmissionsForExerciseAndFrozenVersions(exercise);
     }
 
+    /**
+     * Returns one page of the overviews of all submissions for an exercise and its frozen revisions with one query.
+     *
+     * @see SubmissionService#getSubmissionOverviewsForExerciseAndFrozenVersions(Exercise, boolean, int, int)
+     */
+    public List<SubmissionOverview> getSubmissionOverviewsForExerciseAndFrozenVersions(Exercise exercise,
+            boolean orderByRevision, int first, int pageSize) {
+        return submissionService.getSubmissionOverviewsForExerciseAndFrozenVersions(exercise, orderByRevision, first,
+                pageSize);
+    }
+
+    public Map<Integer, Long> countSubmissionsPerRevisionForExercise(Exercise exercise) {
+        return submissionService.countSubmissionsPerRevisionForExercise(exercise);
+    }
+
+    public long countSubmissionsWithoutCourseRecordForExercise(Exercise exercise) {
+        return submissionService.countSubmissionsWithoutCourseRecordForExercise(exercise);
+    }
+
+    public long countNonTestingSubmissionsForExercise(Exercise exercise) {
+        return submissionService.countSubmissionsForExercise(exercise);
+    }
+
+    public long countAllSubmissionsForExercise(Exercise exercise) {
+        return submissionService.countAllSubmissionsForExercise(exercise);
+    }
+
     public Optional<Submission> getSubmissionWithLazyDataBySubmissionId(long submissionID) {
         return submissionService.getSubmissionnWithLazyDataBySubmissionId(submissionID);
     }
@@ -618,13 +664,12 @@ public class ExerciseBusiness extends AbstractBusiness {
     public Submission addCommentToSubmission(Submission submission, User author, String text, boolean emailVisible) {
         Comment comment = new Comment(author, text, emailVisible);
         baseService.persist(comment);
-        submission.addComment(comment);
 
-        return submissionService.mergeSubmission(submission);
+        return submissionService.addComment(submission, comment);
     }
 
-    public Comment updateComment(Comment comment) {
-        return baseService.merge(comment);
+    public Comment updateComment(Submission submission, Comment comment) {
+        return submissionService.mergeComment(submission, comment);
     }
 
     /**
@@ -651,6 +696,7 @@ public class ExerciseBusiness extends AbstractBusiness {
     public void persistImportedExercise(Exercise exercise, ContentFolder folder) {
         exercise.setFolder(folder);
         exerciseService.persistExercise(exercise);
+        folderExercisePoolBusiness.contentChanged(folder);
     }
 
     public Stage getStageRevisionForStageSubmissionByTimestamp(StageSubmission stageSubmission,
@@ -57,7 +57,6 @@ import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
 import de.uni_due.s3.jack3.services.BaseService;
 import de.uni_due.s3.jack3.services.ExerciseService;
 import de.uni_due.s3.jack3.services.ResultService;
-import de.uni_due.s3.jack3.services.RevisionService;
 import de.uni_due.s3.jack3.services.StageSubmissionService;
 import de.uni_due.s3.jack3.services.SubmissionLogEntryService;
 import de.uni_due.s3.jack3.services.SubmissionService;
@@ -101,7 +100,7 @@ public class ExercisePlayerBusiness extends AbstractBusiness {
 	private ExerciseService exerciseService;
 
 	@Inject
-	private RevisionService revisionService;
+	private ExerciseRevisionCacheBusiness exerciseRevisionCacheBusiness;
 
 	private static List<Class<? extends Stage>> registeredStageTypes;
 
@@ -481,33 +480,34 @@ public class ExercisePlayerBusiness extends AbstractBusiness {
 	 */
 	public String resolvePlaceholders(String text, Submission submission, StageSubmission stageSubmission, Stage stage,
 			boolean useExerciseVariableFromSubmission) {
-		// Preparations: We load the correct version of the exercise
-		AbstractExercise exerciseWithoutLazyData = submission.getExercise();
-		AbstractExercise exercise = null;
+		return resolvePlaceholders(Collections.singletonList(text), submission, stageSubmission, stage,
+				useExerciseVariableFromSubmission).get(0);
+	}
 
-		if (exerciseWithoutLazyData.isFrozen()) {
-			// Frozen exercises have a different query
-			exercise = exerciseService.getFrozenExerciseWithLazyDataById(exerciseWithoutLazyData.getId())
-					.orElseThrow(NoSuchJackEntityException::new);
-		} else {
-			// For normal exercises, we must first retrieve the current revision
-			exercise = exerciseService.getExerciseByIdWithLazyData(exerciseWithoutLazyData.getId())
-					.orElseThrow(NoSuchJackEntityException::new);
-			if (revisionService.getProxiedOrLastPersistedRevisionId(exercise) != submission
-					.getShownExerciseRevisionId()) {
-				// Then we can check whether we actually need an older one
-				exercise = exerciseService.getRevisionOfExerciseWithLazyData(submission.getExercise(),
-						submission.getShownExerciseRevisionId()).orElseThrow(NoSuchJackEntityException::new);
-			}
-		}
+	/**
+	 * Like {@link #resolvePlaceholders(String, Submission, StageSubmission, Stage, boolean)}, but for all texts shown
+	 * at once, e.g. the task description and the answer options of a stage. The exercise is loaded once and all
+	 * variable references are converted with a single converter request.
+	 *
+	 * @param texts
+	 *            The texts that may contain placeholders, may contain {@code null}
+	 * @return The texts with as much placeholders as possible replaced, in the same order
+	 */
+	public List<String> resolvePlaceholders(List<String> texts, Submission submission,
+			StageSubmission stageSubmission, Stage stage, boolean useExerciseVariableFromSubmission) {
+		// Preparations: We take the shown revision of the exercise from the cache, it never changes
+		AbstractExercise exercise = exerciseRevisionCacheBusiness.getShownExercise(submission);
 
 		// Step 1: We replace any markers for JSX graphs
-		text = replaceJSXGraphByJSXGraphName(text, exercise.getJSXGraphs());
+		final Set<JSXGraph> jsxGraphs = exercise.getJSXGraphs();
+		final List<String> textsWithGraphs = texts.stream()
+				.map(text -> replaceJSXGraphByJSXGraphName(text, jsxGraphs))
+				.collect(Collectors.toList());
 
 		// Step 2: We replace any occurrences of variables
 		EvaluatorMaps evaluatorMaps = prepareEvaluatorMaps(submission, stageSubmission, stage,
 				useExerciseVariableFromSubmission);
-		return converterBusiness.replaceVariablesByVariableName(text, evaluatorMaps);
+		return converterBusiness.replaceVariablesByVariableName(textsWithGraphs, evaluatorMaps);
 	}
 
 	private String replaceJSXGraphByJSXGraphName(String inputText, Set<JSXGraph> jsxGraphs) {
@@ -550,8 +550,7 @@ public class ExercisePlayerBusiness extends AbstractBusiness {
 			AbstractExercise exercise = null;
 
 			if (exerciseWithoutLazyData.isFrozen()) {
-				exercise = exerciseService.getFrozenExerciseWithLazyDataById(exerciseWithoutLazyData.getId())
-						.orElseThrow(NoSuchJackEntityException::new);
+				exercise = exerciseRevisionCacheBusiness.getFrozenExercise(exerciseWithoutLazyData.getId());
 			} else {
 				exercise = exerciseService.getExerciseByIdWithLazyData(exerciseWithoutLazyData.getId())
 						.orElseThrow(NoSuchJackEntityException::new);
@@ -979,13 +978,10 @@ public class ExercisePlayerBusiness extends AbstractBusiness {
 
 		final EvaluatorMaps evaluatorMaps = prepareEvaluatorMaps(submission, stageSubmission, currentStage, false);
 
-		for (StageTransition skipTransition : currentStage.getSkipTransitions()) {
-			if (calculatorBusiness.evaluateStageTransitionCondition(skipTransition, evaluatorMaps)) {
-				stageTransition = skipTransition;
-				break;
-			}
-		}
-		return stageTransition;
+		// All skip conditions are evaluated in one single evaluator request
+		StageTransition activeTransition = calculatorBusiness
+				.findFirstActiveTransition(currentStage.getSkipTransitions(), evaluatorMaps, false);
+		return activeTransition != null ? activeTransition : stageTransition;
 	}
 
 	/**
@@ -1012,18 +1008,12 @@ public class ExercisePlayerBusiness extends AbstractBusiness {
 
 		final EvaluatorMaps evaluatorMaps = prepareEvaluatorMaps(submission, stageSubmission, currentStage, false);
 
-		for (final StageTransition otherTransition : currentStage.getStageTransitions()) {
-			// This stageBusiness method finds out whether the given submission triggers the given transition.
-			boolean evaluateTransition = stageBusiness.evaluateTransition(submission, currentStage, stageSubmission,
-					otherTransition, evaluatorMaps);
-			boolean otherConditionEmptyOrTrue = calculatorBusiness.evaluateStageTransitionCondition(otherTransition,
-					evaluatorMaps);
-			if (evaluateTransition && otherConditionEmptyOrTrue) {
-				stageTransition = otherTransition;
-				break;
-			}
-		}
-		return stageTransition;
+		// The stage expressions and conditions of all transitions are evaluated in one single evaluator request. This
+		// is equivalent to calling stageBusiness.evaluateTransition(...) for each transition, since all stage types
+		// evaluate the stage expression of the transition there.
+		StageTransition activeTransition = calculatorBusiness
+				.findFirstActiveTransition(currentStage.getStageTransitions(), evaluatorMaps, true);
+		return activeTransition != null ? activeTransition : stageTransition;
 	}
 
 	public Submission expandSubmission(Submission submission, Stage stage, StageSubmission copyFromStageSubmission) {
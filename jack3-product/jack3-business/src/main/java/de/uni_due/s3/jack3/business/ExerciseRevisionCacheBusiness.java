@@ -0,0 +1,121 @@
+package de.uni_due.s3.jack3.business;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import de.uni_due.s3.jack3.entities.tenant.AbstractExercise;
+import de.uni_due.s3.jack3.entities.tenant.ExerciseResource;
+import de.uni_due.s3.jack3.entities.tenant.FrozenExercise;
+import de.uni_due.s3.jack3.entities.tenant.Submission;
+import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
+import de.uni_due.s3.jack3.services.ExerciseService;
+
+/**
+ * Keeps exercises that can't change anymore in memory: Frozen exercises and revisions of exercises from the audit
+ * tables. Every participant of a course plays the same revision, so it only needs to be loaded once.
+ *
+ * The cached exercises are detached and their object graph (stages, transitions, variable declarations, resources,
+ * ...) is fully initialized. They are shared between all sessions and <strong>must not be modified</strong>. Use them
+ * for displaying and checking submissions only, never for editing or merging. Since they are detached, their folder
+ * can't be accessed. The cached exercises are also held by view scoped beans of the exercise player, their stage and
+ * resource sets are unmodifiable.
+ *
+ * The cache is bounded by the approximate memory of the exercises. The content of the exercise resources is loaded with
+ * the exercise and usually outweighs the rest of the object graph, so each exercise weighs the size of its resources
+ * plus a fixed estimate for the rest.
+ */
+@ApplicationScoped
+public class ExerciseRevisionCacheBusiness extends AbstractBusiness {
+
+	/** Maximum total weight of the cached exercises in bytes. */
+	public static final long MAX_CACHED_BYTES = 256L * 1024 * 1024;
+
+	/** Estimated size of an exercise without the content of its resources in bytes. */
+	public static final int EXERCISE_BASE_BYTES = 64 * 1024;
+
+	private final Cache<String, AbstractExercise> exerciseCache = CacheBuilder.newBuilder()
+			.maximumWeight(MAX_CACHED_BYTES)
+			.weigher((String key, AbstractExercise exercise) -> getWeight(exercise))
+			.recordStats()
+			.build();
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	/**
+	 * Returns the exercise in the revision that was shown to the author of the submission. This is either the frozen
+	 * exercise or the revision {@link Submission#getShownExerciseRevisionId()} of a regular exercise.
+	 */
+	public AbstractExercise getShownExercise(Submission submission) {
+		final AbstractExercise exercise = submission.getExercise();
+		if (exercise.isFrozen()) {
+			return getFrozenExercise(exercise.getId());
+		}
+		return getExerciseRevision(exercise.getId(), submission.getShownExerciseRevisionId());
+	}
+
+	/**
+	 * @return The frozen exercise with all data except the folder
+	 * @throws NoSuchJackEntityException
+	 *             If there is no frozen exercise with this ID
+	 */
+	public FrozenExercise getFrozenExercise(long frozenExerciseId) {
+		return (FrozenExercise) cached("FrozenExercise:" + frozenExerciseId,
+				() -> exerciseService.getFrozenExerciseWithObjectGraphById(frozenExerciseId));
+	}
+
+	/**
+	 * @return The revision of the exercise with all data except the folder
+	 * @throws NoSuchJackEntityException
+	 *             If the exercise does not exist in this revision
+	 */
+	public AbstractExercise getExerciseRevision(long exerciseId, int revisionId) {
+		return cached("Exercise:" + exerciseId + "@" + revisionId,
+				() -> exerciseService.getRevisionOfExerciseWithLazyData(exerciseId, revisionId));
+	}
+
+	public CacheStats getCacheStatistics() {
+		return exerciseCache.stats();
+	}
+
+	public long getCacheSize() {
+		return exerciseCache.size();
+	}
+
+	public void clearCache() {
+		exerciseCache.invalidateAll();
+	}
+
+	/**
+	 * @return The approximate memory of the exercise in bytes
+	 */
+	static int getWeight(AbstractExercise exercise) {
+		long weight = EXERCISE_BASE_BYTES;
+		for (final ExerciseResource resource : exercise.getExerciseResources()) {
+			weight += resource.getSize();
+		}
+		return (int) Math.min(weight, Integer.MAX_VALUE);
+	}
+
+	/*
+	 * Like in EvaluatorBusiness we don't use Cache.get(key, loader), because it wraps all exceptions. If two threads
+	 * request the same exercise simultaneously, it is loaded twice, which is harmless.
+	 */
+	private AbstractExercise cached(String key, Supplier<Optional<? extends AbstractExercise>> loader) {
+		final AbstractExercise cachedExercise = exerciseCache.getIfPresent(key);
+		if (cachedExercise != null) {
+			return cachedExercise;
+		}
+
+		final AbstractExercise exercise = loader.get().orElseThrow(NoSuchJackEntityException::new);
+		exerciseCache.put(key, exercise);
+		return exercise;
+	}
+}
@@ -1,14 +1,16 @@
 package de.uni_due.s3.jack3.business;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.StringJoiner;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -16,9 +18,13 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
 import de.uni_due.s3.jack3.business.exceptions.AuthorizationException;
 import de.uni_due.s3.jack3.business.helpers.EFolderChildType;
+import de.uni_due.s3.jack3.business.helpers.FolderRightsPropagation;
 import de.uni_due.s3.jack3.entities.AbstractEntity;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.tenant.AbstractCourse;
@@ -63,6 +69,12 @@ public class FolderBusiness extends AbstractBusiness {
 	@Inject
 	private CourseBusiness courseBusiness;
 
+	@Inject
+	private FolderRightsBusiness folderRightsBusiness;
+
+	@Inject
+	private FolderExercisePoolBusiness folderExercisePoolBusiness;
+
 	public PresentationFolder createPresentationFolder(String name, PresentationFolder parentFolder) {
 
 		Objects.requireNonNull(parentFolder, "You must specifiy a parent folder.");
@@ -141,6 +153,7 @@ public class FolderBusiness extends AbstractBusiness {
 
 		// Is the Folder empty? If not it can't be deleted
 		if (presentationFolder.getChildrenCourseOffer().isEmpty() && presentationFolder.getChildrenFolder().isEmpty()) {
+			folderRightsBusiness.folderRightsChanged(List.of(folder.getId()));
 			folderService.deleteFolder(folder);
 		} else {
 			throw new PreconditionException(
@@ -173,7 +186,8 @@ public class FolderBusiness extends AbstractBusiness {
 	}
 
 	/**
-	 * Deletes the content folder and all containing data(child exercises/courses/folder) recursively.
+	 * Deletes the content folder and all containing data(child exercises/courses/folder). The whole subtree is loaded
+	 * at once.
 	 * 
 	 * @param folder
 	 *            which is empty or contains only deletable data
@@ -184,39 +198,75 @@ public class FolderBusiness extends AbstractBusiness {
 	 */
 	private void deleteContentFolderWithDeletableData(ContentFolder folder, User user)
 			throws ActionNotAllowedException {
-		folder = folderService.getContentFolderWithLazyData(folder);
-		//delete exercises
-		for (AbstractExercise exercise : folder.getChildrenExercises()) {
-			exerciseBusiness.deleteExercise((Exercise) exercise, user);
-		}
+		// Parents come before their children
+		final List<ContentFolder> folders = getContentFolderSubtreeWithContent(folder);
+
+		for (ContentFolder subtreeFolder : folders) {
+			//delete exercises
+			for (AbstractExercise exercise : new ArrayList<>(subtreeFolder.getChildrenExercises())) {
+				exerciseBusiness.deleteExercise((Exercise) exercise, user);
+			}
 
-		//delete courses
-		for (AbstractCourse course : folder.getChildrenCourses()) {
-			courseBusiness.deleteCourse((Course) course, user);
+			//delete courses
+			for (AbstractCourse course : new ArrayList<>(subtreeFolder.getChildrenCourses())) {
+				courseBusiness.deleteCourse((Course) course, user);
+			}
 		}
 
-		//delete folders
-		for (Folder childfolder : folder.getChildrenFolder()) {
-			this.deleteContentFolderWithDeletableData((ContentFolder) childfolder, user);
+		//delete folders, children before their parents
+		folderRightsBusiness.folderRightsChanged(FolderRightsBusiness.idsOf(folders));
+		folderExercisePoolBusiness.contentChanged(folder);
+		for (ContentFolder subtreeFolder : Lists.reverse(folders)) {
+			folderService.deleteFolder(subtreeFolder);
 		}
-		//delete folder
-		folderService.deleteFolder(folder);
+	}
 
+	/**
+	 * Loads the given folder and all direct and indirect child folders including their courses and exercises. Parents
+	 * come before their children in the returned list, the given folder is the first element.
+	 */
+	private List<ContentFolder> getContentFolderSubtreeWithContent(ContentFolder root) {
+		final List<Long> folderIds = new ArrayList<>();
+		folderIds.add(root.getId());
+		folderIds.addAll(folderService.getAllChildFolderIds(root));
+
+		final List<ContentFolder> folders = folderService.getContentFoldersWithContent(folderIds);
+		if (folders.isEmpty() || folders.get(0).getId() != root.getId()) {
+			throw new PreconditionException("The Folder doesn't exist anymore: " + root);
+		}
+		return folders;
 	}
 
 	public Optional<Folder> getFolderWithManagingRights(Folder folder) {
 		return folderService.getFolderWithManagingRights(folder, Folder.class);
 	}
 
-	//REVIEW SW: hier könnte man ggf. noch optimieren
+	/**
+	 * Loads the rights data of all given folders in one query. The returned list has the same order as the given list.
+	 */
 	public List<Folder> getFoldersWithManagingRights(List<Folder> folderList) {
+		final Map<Long, Folder> foldersById = new HashMap<>();
+		for (final Folder folder : folderService
+				.getFoldersWithManagingRights(FolderRightsBusiness.idsOf(folderList))) {
+			foldersById.put(folder.getId(), folder);
+		}
+
 		List<Folder> listOfOptionalFolders = new ArrayList<>();
-		folderList.forEach((folder) -> listOfOptionalFolders.add(getFolderWithManagingRights(folder)
-				.orElseThrow(() -> new PreconditionException("The Folder doesn't exist anymore: " + folder))));
+		for (final Folder folder : folderList) {
+			final Folder folderWithManagingRights = foldersById.get(folder.getId());
+			if (folderWithManagingRights == null) {
+				throw new PreconditionException("The Folder doesn't exist anymore: " + folder);
+			}
+			listOfOptionalFolders.add(folderWithManagingRights);
+		}
 		return listOfOptionalFolders;
 	}
 
+	/**
+	 * Saves the folder. As the folder's rights may have changed, its entry in the folder rights index is renewed.
+	 */
 	public Folder updateFolder(Folder folder) {
+		folderRightsBusiness.folderRightsChanged(List.of(folder.getId()));
 		return folderService.mergeFolder(folder);
 	}
 
@@ -237,7 +287,7 @@ public class FolderBusiness extends AbstractBusiness {
 		folder.addInheritedUserRights(authorizationBusiness.getAllManagingUsers(parentFolder));
 		folder.addInheritedUserGroupRights(authorizationBusiness.getAllManagingUserGroups(parentFolder));
 
-		folder = folderService.mergeFolder(folder);
+		folder = updateFolder(folder);
 
 		for (Folder f : folder.getChildrenFolder()) {
 			resetFolderRights(f);
@@ -283,9 +333,7 @@ public class FolderBusiness extends AbstractBusiness {
 		final AccessRight totalRights = folder.getInheritedManagingUsers().getOrDefault(user, AccessRight.getNone())
 				.add(newRights);
 
-		for (final Folder child : folderService.getChildrenFolder(folder)) {
-			propagateFolderRightsChangeForUser(child, user, totalRights);
-		}
+		propagateFolderRightsChangeForUser(folder, user, totalRights);
 	}
 
 	/**
@@ -293,27 +341,73 @@ public class FolderBusiness extends AbstractBusiness {
 	 *
 	 * @return The return value indicates for how many users the rights have been reset.
 	 */
+	@Transactional(value = Transactional.TxType.NOT_SUPPORTED)
 	public int propagateFullRightsForAllPersonalFolders() {
-		int numberOfChanges = 0;
+		return propagateFullRightsForAllPersonalFolders(percent -> {
+		});
+	}
+
+	/**
+	 * Grants all users with edit rights full access to their personal folder. All changes, including the rights
+	 * inherited by the child folders, are computed up front from one query for the folder hierarchy. They are written
+	 * in chunks of {@link FolderRightsBusiness#FOLDERS_PER_TRANSACTION} folders, each in its own transaction. The
+	 * personal folders themselves are written last, so if a chunk fails, the affected users are fixed by the next call.
+	 *
+	 * @param progress
+	 *            Receives the percentage of written folders after each chunk.
+	 * @return The return value indicates for how many users the rights have been reset.
+	 */
+	@Transactional(value = Transactional.TxType.NOT_SUPPORTED)
+	public int propagateFullRightsForAllPersonalFolders(IntConsumer progress) {
 		final AccessRight fullRight = AccessRight.getFull();
-		for (final User user : userBusiness.getAllUsersWithEditRights()) {
-			Folder folder = getFolderWithManagingRights(user.getPersonalFolder())
-					.orElseThrow(NoSuchJackEntityException::new);
+		final List<User> users = userBusiness.getAllUsersWithEditRights();
+
+		final List<Long> personalFolderIds = new ArrayList<>(users.size());
+		for (final User user : users) {
+			if (user.getPersonalFolder() == null) {
+				throw new NoSuchJackEntityException("User " + user.getLoginName() + " has no personal folder.");
+			}
+			personalFolderIds.add(user.getPersonalFolder().getId());
+		}
+		final Map<Long, Folder> personalFolders = new HashMap<>();
+		for (final Folder folder : folderService.getFoldersWithManagingRights(personalFolderIds)) {
+			personalFolders.put(folder.getId(), folder);
+		}
+
+		final Map<Long, List<Long>> childIdsByParentId = folderService.getChildFolderIdsByParentId();
+		final FolderRightsPropagation inheritedRights = new FolderRightsPropagation();
+		final FolderRightsPropagation personalFolderRights = new FolderRightsPropagation();
+		int numberOfChanges = 0;
+		for (final User user : users) {
+			final Folder folder = personalFolders.get(user.getPersonalFolder().getId());
+			if (folder == null) {
+				throw new NoSuchJackEntityException();
+			}
 
 			final AccessRight actualRight = folder.getManagingUsers().getOrDefault(user, AccessRight.getNone());
 			if (actualRight.equals(fullRight))
 				continue;
 
-			// The actual rights of the user on the personal folder must be set to FULL
-			// This is similar to the method above
-			folder.addUserRight(user, fullRight);
-			folder = updateFolder(folder);
-			for (final Folder child : folderService.getChildrenFolder(folder)) {
-				propagateFolderRightsChangeForUser(child, user, fullRight);
-			}
+			// The actual rights of the user on the personal folder must be set to FULL, the child folders inherit them
+			personalFolderRights.setUserRight(folder.getId(), user, fullRight);
+			inheritedRights.setInheritedUserRight(
+					FolderService.getAllChildFolderIds(childIdsByParentId, folder.getId()), user, fullRight);
 			numberOfChanges++;
 		}
 
+		final int numberOfFolders = inheritedRights.getFolderIds().size()
+				+ personalFolderRights.getFolderIds().size();
+		int writtenFolders = 0;
+		for (final FolderRightsPropagation propagation : List.of(inheritedRights, personalFolderRights)) {
+			for (final List<Long> chunk : Iterables.partition(propagation.getFolderIds(),
+					FolderRightsBusiness.FOLDERS_PER_TRANSACTION)) {
+				folderRightsBusiness.applyInNewTransaction(propagation, chunk);
+				writtenFolders += chunk.size();
+				getLogger().debugf("Wrote full rights for personal folders to %d of %d folders.", writtenFolders,
+						numberOfFolders);
+				progress.accept(writtenFolders * 100 / numberOfFolders);
+			}
+		}
 		return numberOfChanges;
 	}
 
@@ -344,14 +438,12 @@ public class FolderBusiness extends AbstractBusiness {
 		final AccessRight totalRights = folder.getInheritedManagingUserGroups()
 				.getOrDefault(userGroup, AccessRight.getNone()).add(newRights);
 
-		for (final Folder child : folderService.getChildrenFolder(folder)) {
-			propagateFolderRightsChangeForUserGroup(child, userGroup, totalRights);
-		}
+		propagateFolderRightsChangeForUserGroup(folder, userGroup, totalRights);
 	}
 
 	/**
-	 * Sets the given rights as inherited rights for the given user to the given
-	 * folder and all of its children.
+	 * Sets the given rights as inherited rights for the given user to all direct and indirect children of the given
+	 * folder. The changes for the whole subtree are computed up front and written together.
 	 *
 	 * @param folder
 	 * @param user
@@ -359,23 +451,17 @@ public class FolderBusiness extends AbstractBusiness {
 	 */
 	private void propagateFolderRightsChangeForUser(Folder folder, User user, AccessRight rights) {
 		if (user == null) {
-			throw new NullPointerException("User group must not be null.");
+			throw new NullPointerException("User must not be null.");
 		}
 
-		folder = getFolderWithManagingRights(folder).orElseThrow(AssertionError::new);
-
-		folder.addInheritedUserRight(user, rights);
-
-		folder = updateFolder(folder);
-
-		for (final Folder childFolder : folderService.getChildrenFolder(folder)) {
-			propagateFolderRightsChangeForUser(childFolder, user, rights);
-		}
+		final FolderRightsPropagation propagation = new FolderRightsPropagation();
+		propagation.setInheritedUserRight(folderService.getAllChildFolderIds(folder), user, rights);
+		folderRightsBusiness.apply(propagation);
 	}
 
 	/**
-	 * Sets the given rights as inherited rights for the given user group to the
-	 * given folder and all of its children.
+	 * Sets the given rights as inherited rights for the given user group to all direct and indirect children of the
+	 * given folder. The changes for the whole subtree are computed up front and written together.
 	 *
 	 * @param folder
 	 * @param userGroup
@@ -386,15 +472,9 @@ public class FolderBusiness extends AbstractBusiness {
 			throw new NullPointerException("User group must not be null.");
 		}
 
-		folder = getFolderWithManagingRights(folder).orElseThrow(AssertionError::new);
-
-		folder.addInheritedUserGroupRight(userGroup, rights);
-
-		folder = updateFolder(folder);
-
-		for (final Folder childFolder : folderService.getChildrenFolder(folder)) {
-			propagateFolderRightsChangeForUserGroup(childFolder, userGroup, rights);
-		}
+		final FolderRightsPropagation propagation = new FolderRightsPropagation();
+		propagation.setInheritedUserGroupRight(folderService.getAllChildFolderIds(folder), userGroup, rights);
+		folderRightsBusiness.apply(propagation);
 	}
 
 	/**
@@ -407,7 +487,7 @@ public class FolderBusiness extends AbstractBusiness {
 			if (!folder.isChildOf(user.getPersonalFolder())) {
 				folder = folderService.getFolderWithManagingRights(folder).orElseThrow(AssertionError::new);
 				folder.deleteAllUserRights(user);
-				folderService.mergeFolder(folder);
+				updateFolder(folder);
 			}
 		}
 	}
@@ -420,7 +500,7 @@ public class FolderBusiness extends AbstractBusiness {
 		for (Folder folder : folders) {
 			folder = folderService.getFolderWithManagingRights(folder).orElseThrow(AssertionError::new);
 			folder.deleteAllUserRights(user);
-			folderService.mergeFolder(folder);
+			updateFolder(folder);
 		}
 	}
 
@@ -530,6 +610,16 @@ public class FolderBusiness extends AbstractBusiness {
 		return contentFolderAccessRightMap;
 	}
 
+	/**
+	 * Counts the courses and exercises that are direct children of the given content folders without loading them.
+	 *
+	 * @return Number of courses and exercises, by ID of the folder. Folders without content are omitted.
+	 */
+	public Map<Long, Long> getNumberOfContentsByFolderId(Collection<ContentFolder> folders) {
+		return folderService.getNumberOfContentsByFolderId(
+				folders.stream().map(ContentFolder::getId).collect(Collectors.toList()));
+	}
+
 	public ContentFolder getContentRoot() {
 		return folderService.getContentFolderWithLazyData(folderService.getContentRoot());
 	}
@@ -588,6 +678,10 @@ public class FolderBusiness extends AbstractBusiness {
 		folderService.mergeFolder(oldParent);
 		folderService.mergeFolder(newParent);
 		folderService.mergeFolder(folderToMove);
+		if (folderToMove instanceof ContentFolder) {
+			folderExercisePoolBusiness.contentChanged((ContentFolder) oldParent);
+			folderExercisePoolBusiness.contentChanged((ContentFolder) newParent);
+		}
 	}
 
 	public ContentFolder getContentFolderWithLazyData(Folder folder) {
@@ -657,45 +751,44 @@ public class FolderBusiness extends AbstractBusiness {
 	}
 
 	/**
-	 * Returns all direct and indirect child folders.
+	 * Returns all direct and indirect child folders. The subtree is loaded with a constant number of queries,
+	 * independent of its depth.
 	 */
 	public List<ContentFolder> getAllChildContentFolders(ContentFolder root, boolean includeRoot) {
-		final List<ContentFolder> directChildren = folderService.getChildrenContentFolder(root);
-		final List<ContentFolder> children = new LinkedList<>(directChildren);
+		return getAllChildFolders(root, includeRoot, ContentFolder.class);
+	}
 
-		for (ContentFolder directChild : directChildren) {
-			children.addAll(getAllChildContentFolders(directChild, false));
-		}
+	/**
+	 * Returns all direct and indirect child folders including their courses and exercises. The subtree is loaded with
+	 * a constant number of queries, independent of its depth.
+	 */
+	public List<ContentFolder> getAllChildContentFoldersWithContent(ContentFolder root, boolean includeRoot) {
+		final List<ContentFolder> children = new ArrayList<>(
+				folderService.getContentFoldersWithContent(folderService.getAllChildFolderIds(root)));
 		if (includeRoot)
 			children.add(root);
 		return children;
 	}
 
 	/**
-	 * Returns all direct and indirect child folders.
+	 * Returns all direct and indirect child folders. The subtree is loaded with a constant number of queries,
+	 * independent of its depth.
 	 */
 	public List<PresentationFolder> getAllChildPresentationFolders(PresentationFolder root, boolean includeRoot) {
-		final List<PresentationFolder> directChildren = folderService.getChildrenPresentationFolder(root);
-		final List<PresentationFolder> children = new LinkedList<>(directChildren);
-
-		for (PresentationFolder directChild : directChildren) {
-			children.addAll(getAllChildPresentationFolders(directChild, false));
-		}
-		if (includeRoot)
-			children.add(root);
-		return children;
+		return getAllChildFolders(root, includeRoot, PresentationFolder.class);
 	}
 
 	/**
-	 * Returns all direct and indirect child folders.
+	 * Returns all direct and indirect child folders. The subtree is loaded with a constant number of queries,
+	 * independent of its depth.
 	 */
 	public List<Folder> getAllChildFolders(Folder root, boolean includeRoot) {
-		final List<Folder> directChildren = folderService.getChildrenFolder(root);
-		final List<Folder> children = new LinkedList<>(directChildren);
+		return getAllChildFolders(root, includeRoot, Folder.class);
+	}
 
-		for (Folder directChild : directChildren) {
-			children.addAll(getAllChildFolders(directChild, false));
-		}
+	private <T extends Folder> List<T> getAllChildFolders(T root, boolean includeRoot, Class<T> clazz) {
+		final List<T> children = new ArrayList<>(
+				folderService.getFoldersByIds(folderService.getAllChildFolderIds(root), clazz));
 		if (includeRoot)
 			children.add(root);
 		return children;
@@ -940,35 +1033,39 @@ public class FolderBusiness extends AbstractBusiness {
 	 * @return true if the folder is deletable
 	 */
 	public boolean isContentFolderDeletable(ContentFolder folder, User user) {
+		final List<ContentFolder> folders = getContentFolderSubtreeWithContent(folder);
+		final Set<Long> foldersWithChildFolders = folders.stream() //
+				.map(Folder::getParentFolder) //
+				.filter(Objects::nonNull) //
+				.map(Folder::getId) //
+				.collect(Collectors.toSet());
+
+		// Each folder in the subtree is deletable if it is empty or if the conditions above are met
+		for (ContentFolder subtreeFolder : folders) {
+			//folder is empty
+			if (subtreeFolder.getChildrenExercises().isEmpty() && subtreeFolder.getChildrenCourses().isEmpty()
+					&& !foldersWithChildFolders.contains(subtreeFolder.getId())) {
+				continue;
+			}
 
-		folder = folderService.getContentFolderWithLazyData(folder);
-
-		//folder is empty
-		if (this.isFolderEmpty(folder)) {
-			return true;
-		}
-
-		//user has edit rights on folder
-		if (authorizationBusiness.isAllowedToEditFolder(user, folder)) {
+			//user has edit rights on folder
+			if (!authorizationBusiness.isAllowedToEditFolder(user, subtreeFolder)) {
+				return false;
+			}
 
 			//all exercises are deletable
-			if (!folder.getChildrenExercises().stream()
+			if (!subtreeFolder.getChildrenExercises().stream()
 					.allMatch(ex -> exerciseBusiness.isExerciseDeletableByUser((Exercise) ex, user))) {
 				return false;
 			}
 
 			//all courses are deletable
-			if (!folder.getChildrenCourses().stream()
+			if (!subtreeFolder.getChildrenCourses().stream()
 					.allMatch(c -> courseBusiness.isCourseDeletableByUser((Course) c, user))) {
 				return false;
 			}
-
-			//all folders are deletable
-			return folder.getChildrenFolder().stream()
-					.allMatch(fold -> this.isContentFolderDeletable((ContentFolder) fold, user));
 		}
-		return false;
-
+		return true;
 	}
 
 	/*
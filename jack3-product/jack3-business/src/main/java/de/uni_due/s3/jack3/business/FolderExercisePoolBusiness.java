@@ -0,0 +1,92 @@
+package de.uni_due.s3.jack3.business;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.uni_due.s3.jack3.business.helpers.TransactionalInvalidation;
+import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
+import de.uni_due.s3.jack3.services.ExerciseService;
+import de.uni_due.s3.jack3.services.FolderService;
+
+/**
+ * Keeps the IDs of all exercises in content folders and their subfolders, so exercises for courses with a
+ * {@link de.uni_due.s3.jack3.entities.tenant.FolderExerciseProvider} can be drawn without searching the folder tree and
+ * loading all exercises whenever a course is started. A missing pool is built with two queries.
+ *
+ * All changes of the content tree, i.e. creating, moving, copying or deleting exercises or content folders, must be
+ * reported via {@link #contentChanged(ContentFolder)}. Because a pool contains the subfolders, the pools of the changed
+ * folder and its ancestors are dropped immediately and again when the transaction is completed. Until then, these
+ * pools are used for the current lookup only, see {@link TransactionalInvalidation}.
+ */
+@ApplicationScoped
+public class FolderExercisePoolBusiness extends AbstractBusiness {
+
+	/** Maximum number of folders for which pools are kept. */
+	public static final int MAX_POOLS = 10_000;
+
+	/** Pools are rebuilt after this time, in case the content tree has been changed without reporting it. */
+	public static final Duration MAX_POOL_AGE = Duration.ofMinutes(10);
+
+	@Inject
+	private FolderService folderService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private Event<TransactionalInvalidation.Change> changeEvent;
+
+	private final Cache<Long, List<Long>> pools = CacheBuilder.newBuilder()
+			.maximumSize(MAX_POOLS)
+			.expireAfterWrite(MAX_POOL_AGE)
+			.build();
+
+	private final TransactionalInvalidation invalidation = new TransactionalInvalidation(pools::invalidateAll,
+			pools::invalidateAll);
+
+	/**
+	 * Returns the IDs of all exercises in the folder and its direct and indirect subfolders. A built pool is only kept
+	 * if the folder has not been reported as changed while it was built.
+	 *
+	 * @return Unmodifiable, unordered list of exercise IDs
+	 */
+	public List<Long> getExerciseIds(ContentFolder folder) {
+		final List<Long> pool = pools.getIfPresent(folder.getId());
+		if (pool != null) {
+			return pool;
+		}
+
+		final long stamp = invalidation.getStamp(folder.getId());
+		final List<Long> folderIds = new ArrayList<>(folderService.getAllChildFolderIds(folder));
+		folderIds.add(folder.getId());
+		final List<Long> builtPool = List.copyOf(exerciseService.getAllExerciseIdsForContentFolderIds(folderIds));
+
+		invalidation.keepIfUnchanged(folder.getId(), stamp, () -> pools.put(folder.getId(), builtPool));
+		return builtPool;
+	}
+
+	/**
+	 * Drops the pools of the given folder and its direct and indirect parent folders until the current transaction is
+	 * completed. Must be called for the folder that directly contains the changed exercise or subfolder, while the
+	 * folder is part of the content tree. When content is moved, both the old and the new folder must be reported.
+	 */
+	public void contentChanged(ContentFolder folder) {
+		changeEvent.fire(invalidation.changed(folderService.getFolderAndAncestorIds(folder)));
+	}
+
+	/**
+	 * Drops all pools, e.g. after the database has been cleared.
+	 */
+	public void clearPools() {
+		invalidation.clear();
+		getLogger().info("Cleared folder exercise pools.");
+	}
+}
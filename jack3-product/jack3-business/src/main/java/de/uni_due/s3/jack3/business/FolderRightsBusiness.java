@@ -0,0 +1,165 @@
+package de.uni_due.s3.jack3.business;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.Iterables;
+
+import de.uni_due.s3.jack3.business.helpers.EffectiveFolderRights;
+import de.uni_due.s3.jack3.business.helpers.FolderRightsPropagation;
+import de.uni_due.s3.jack3.business.helpers.TransactionalInvalidation;
+import de.uni_due.s3.jack3.entities.AbstractEntity;
+import de.uni_due.s3.jack3.entities.tenant.Folder;
+import de.uni_due.s3.jack3.services.FolderService;
+
+/**
+ * Keeps an index of the {@link EffectiveFolderRights} per folder, so rights checks do not have to load the four
+ * rights maps of a folder again and again. Folders that are not indexed yet are loaded together in one query.
+ *
+ * All changes of folder rights must be reported via {@link #folderRightsChanged(Collection)}. The entries of the
+ * changed folders are removed immediately and again when the transaction is completed. Until then, the changed folders
+ * are not indexed, so neither uncommitted nor rolled back rights get into the index, see
+ * {@link TransactionalInvalidation}.
+ */
+@ApplicationScoped
+public class FolderRightsBusiness extends AbstractBusiness {
+
+	/** Maximum number of folders kept in the index. */
+	public static final int MAX_INDEXED_FOLDERS = 50_000;
+
+	/** Entries are reloaded after this time, in case the rights have been changed bypassing this index. */
+	public static final Duration MAX_INDEX_AGE = Duration.ofMinutes(30);
+
+	/** Maximum number of folder IDs passed to a single query. */
+	private static final int MAX_FOLDERS_PER_QUERY = 500;
+
+	/** Maximum number of folders written in one transaction when large propagations are split into chunks. */
+	public static final int FOLDERS_PER_TRANSACTION = MAX_FOLDERS_PER_QUERY;
+
+	@Inject
+	private FolderService folderService;
+
+	@Inject
+	private Event<TransactionalInvalidation.Change> changeEvent;
+
+	private final Cache<Long, EffectiveFolderRights> index = CacheBuilder.newBuilder()
+			.maximumSize(MAX_INDEXED_FOLDERS)
+			.expireAfterWrite(MAX_INDEX_AGE)
+			.recordStats()
+			.build();
+
+	private final TransactionalInvalidation invalidation = new TransactionalInvalidation(index::invalidateAll,
+			index::invalidateAll);
+
+	/**
+	 * Returns the effective rights for the folders with the given IDs. Folders that do not exist are missing in the
+	 * returned map.
+	 */
+	public Map<Long, EffectiveFolderRights> getEffectiveRights(Collection<Long> folderIds) {
+		final Map<Long, EffectiveFolderRights> result = new HashMap<>();
+		final Set<Long> missing = new LinkedHashSet<>();
+		for (final Long folderId : folderIds) {
+			final EffectiveFolderRights rights = index.getIfPresent(folderId);
+			if (rights != null) {
+				result.put(folderId, rights);
+			} else {
+				missing.add(folderId);
+			}
+		}
+
+		for (final List<Long> partition : Iterables.partition(missing, MAX_FOLDERS_PER_QUERY)) {
+			final Map<Long, Long> stamps = new HashMap<>();
+			for (final Long folderId : partition) {
+				stamps.put(folderId, invalidation.getStamp(folderId));
+			}
+			for (final Folder folder : folderService.getFoldersWithManagingRights(partition)) {
+				final EffectiveFolderRights rights = EffectiveFolderRights.of(folder);
+				result.put(folder.getId(), rights);
+				invalidation.keepIfUnchanged(folder.getId(), stamps.get(folder.getId()),
+						() -> index.put(folder.getId(), rights));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the folders from the index until the current transaction is completed. Must be called whenever the
+	 * managing rights of folders are changed or folders are deleted.
+	 */
+	public void folderRightsChanged(Collection<Long> folderIds) {
+		if (!folderIds.isEmpty()) {
+			changeEvent.fire(invalidation.changed(folderIds));
+		}
+	}
+
+	/**
+	 * Writes all changes of the propagation in the current transaction. The affected folders are loaded in chunks, the
+	 * updates are sent to the database in JDBC batches when the transaction is flushed.
+	 */
+	@Transactional(TxType.REQUIRED)
+	public void apply(FolderRightsPropagation propagation) {
+		for (final List<Long> chunk : Iterables.partition(propagation.getFolderIds(), MAX_FOLDERS_PER_QUERY)) {
+			applyToFolders(propagation, chunk);
+		}
+	}
+
+	/**
+	 * Writes the changes of the propagation for the given folders in a new transaction. Callers split large
+	 * propagations into chunks of {@link #FOLDERS_PER_TRANSACTION} folders, so neither the transaction nor the
+	 * persistence context grows with the number of affected folders.
+	 */
+	@Transactional(TxType.REQUIRES_NEW)
+	public void applyInNewTransaction(FolderRightsPropagation propagation, Collection<Long> folderIds) {
+		applyToFolders(propagation, folderIds);
+	}
+
+	private void applyToFolders(FolderRightsPropagation propagation, Collection<Long> folderIds) {
+		folderRightsChanged(folderIds);
+		for (final Folder folder : folderService.getFoldersWithManagingRights(folderIds)) {
+			propagation.applyTo(folder);
+			folderService.mergeFolder(folder);
+		}
+	}
+
+	/**
+	 * Removes all folders from the index, e.g. after the database has been cleared.
+	 */
+	public void clearIndex() {
+		invalidation.clear();
+		getLogger().info("Cleared folder rights index.");
+	}
+
+	public long getIndexedFolders() {
+		return index.size();
+	}
+
+	public CacheStats getIndexStatistics() {
+		return index.stats();
+	}
+
+	/**
+	 * Returns the IDs of the given entities in a new list.
+	 */
+	static List<Long> idsOf(Collection<? extends AbstractEntity> entities) {
+		final List<Long> ids = new ArrayList<>(entities.size());
+		for (final AbstractEntity entity : entities) {
+			ids.add(entity.getId());
+		}
+		return ids;
+	}
+}
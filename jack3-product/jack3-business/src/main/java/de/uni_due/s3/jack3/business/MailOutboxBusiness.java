@@ -0,0 +1,232 @@
+package de.uni_due.s3.jack3.business;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.internet.InternetAddress;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.google.common.collect.Lists;
+
+import de.uni_due.s3.jack3.business.helpers.LatencyHistogram;
+import de.uni_due.s3.jack3.business.helpers.MailOutboxStatistics;
+import de.uni_due.s3.jack3.business.helpers.MailRetryPolicy;
+import de.uni_due.s3.jack3.entities.maintenance.OutboundMail;
+import de.uni_due.s3.jack3.services.EmailService;
+import de.uni_due.s3.jack3.services.OutboundMailService;
+import de.uni_due.s3.jack3.services.OutboundMailService.MailQueued;
+
+/**
+ * Delivers the mails in the outbox in the background. Delivery is started after a transaction that queued a mail has
+ * been committed and periodically by the {@link de.uni_due.s3.jack3.business.singleton.JackJanitor}, which also
+ * covers retries and mails queued before a restart.
+ *
+ * Only one delivery runs at a time on each node. It claims the due mails in chunks, so several nodes do not send the
+ * same mails, and splits each chunk into batches that are sent in parallel, each batch over one connection to the mail
+ * server. A failed mail is retried as decided by the {@link MailRetryPolicy}, but only for the recipients that have
+ * not received it yet. Mails that are given up are kept as failed.
+ *
+ * Only mails without secrets may be queued, because the outbox stores them in the database. Mails with passwords are
+ * sent immediately instead.
+ */
+@ApplicationScoped
+public class MailOutboxBusiness extends AbstractBusiness {
+
+	/** Claimed mails are due again after this time if the claiming node has not recorded the outcome. */
+	static final Duration CLAIM_DURATION = Duration.ofMinutes(15);
+
+	@Inject
+	private OutboundMailService outboundMailService;
+
+	@Inject
+	private EmailService emailService;
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	/** Number of batches that are sent in parallel. */
+	@Inject
+	@ConfigProperty(name = "jack3.mail.workers", defaultValue = "2")
+	private int workers;
+
+	/** Number of mails that are sent over one connection. */
+	@Inject
+	@ConfigProperty(name = "jack3.mail.batch-size", defaultValue = "50")
+	private int batchSize;
+
+	@Inject
+	@ConfigProperty(name = "jack3.mail.max-attempts", defaultValue = "10")
+	private int maxAttempts;
+
+	private final LatencyHistogram deliveryLatency = new LatencyHistogram(Duration.ofHours(1));
+
+	private final AtomicLong deliveredMails = new AtomicLong();
+
+	private final AtomicLong failedAttempts = new AtomicLong();
+
+	private MailRetryPolicy retryPolicy;
+
+	private final AtomicBoolean delivering = new AtomicBoolean();
+
+	/** Set if mails may have become due since the running delivery has loaded the due mails. */
+	private volatile boolean deliveryRequested;
+
+	@PostConstruct
+	public void initialize() {
+		retryPolicy = new MailRetryPolicy(maxAttempts);
+	}
+
+	void deliverAfterSuccess(@Observes(during = TransactionPhase.AFTER_SUCCESS) MailQueued queued) {
+		deliverQueuedMails();
+	}
+
+	/**
+	 * Starts delivering all due mails in the background. If a delivery is running already, it looks for due mails
+	 * again when it is finished.
+	 */
+	public void deliverQueuedMails() {
+		deliveryRequested = true;
+		if (!delivering.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			executor.execute(this::deliverDueMails);
+		} catch (RejectedExecutionException e) {
+			delivering.set(false);
+			getLogger().warn("Could not start delivering queued mails, they are delivered by the next scheduled run.",
+					e);
+		}
+	}
+
+	private void deliverDueMails() {
+		final int chunkSize = workers * batchSize;
+		boolean failed = false;
+		try {
+			boolean moreMails;
+			do {
+				deliveryRequested = false;
+				final LocalDateTime now = LocalDateTime.now();
+				final List<OutboundMail> dueMails = outboundMailService.claimDueMails(now, now.plus(CLAIM_DURATION),
+						chunkSize);
+				deliverInParallel(Lists.partition(dueMails, batchSize));
+				moreMails = dueMails.size() == chunkSize;
+			} while (moreMails || deliveryRequested);
+		} catch (RuntimeException e) {
+			failed = true;
+			getLogger().error("Delivering queued mails failed, they are delivered by the next scheduled run.", e);
+		} finally {
+			delivering.set(false);
+		}
+
+		// A request may have arrived after the last check, but before the flag was reset
+		if (!failed && deliveryRequested) {
+			deliverQueuedMails();
+		}
+	}
+
+	private void deliverInParallel(List<List<OutboundMail>> batches) {
+		if (batches.isEmpty()) {
+			return;
+		}
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (final List<OutboundMail> batch : batches.subList(1, batches.size())) {
+			futures.add(CompletableFuture.runAsync(() -> deliverBatch(batch), executor));
+		}
+		// The delivering thread sends the first batch itself instead of waiting idle
+		deliverBatch(batches.get(0));
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+	}
+
+	private void deliverBatch(List<OutboundMail> batch) {
+		Map<Integer, MessagingException> failures;
+		try {
+			failures = emailService.sendAll(batch.stream().map(OutboundMail::getMessage).collect(Collectors.toList()),
+					batch.stream().map(OutboundMail::getRecipients).collect(Collectors.toList()));
+		} catch (MessagingException e) {
+			failures = new HashMap<>();
+			for (int i = 0; i < batch.size(); i++) {
+				failures.put(i, e);
+			}
+		}
+
+		final LocalDateTime now = LocalDateTime.now();
+		final List<Long> delivered = new ArrayList<>();
+		final List<OutboundMail> failed = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i++) {
+			final OutboundMail mail = batch.get(i);
+			final MessagingException failure = failures.get(i);
+			if (failure == null) {
+				delivered.add(mail.getId());
+				deliveryLatency.record(Duration.between(mail.getQueuedAt(), now).toMillis());
+				continue;
+			}
+
+			final int attempts = mail.getAttempts() + 1;
+			Optional<LocalDateTime> nextAttemptAt = retryPolicy.getNextAttemptAt(attempts, now);
+			if (isPartiallySent(failure)) {
+				final SendFailedException partialFailure = (SendFailedException) failure;
+				final Address[] validUnsent = partialFailure.getValidUnsentAddresses();
+				if (validUnsent != null && validUnsent.length > 0) {
+					mail.partiallySent(InternetAddress.toString(validUnsent));
+				} else {
+					// Only rejected recipients are left, so another attempt cannot deliver the mail to anyone
+					mail.partiallySent(InternetAddress.toString(partialFailure.getInvalidAddresses()));
+					nextAttemptAt = Optional.empty();
+				}
+			}
+
+			failed.add(mail);
+			if (nextAttemptAt.isPresent()) {
+				mail.failedAttempt(failure.getMessage(), nextAttemptAt.get());
+				getLogger().warnf("Delivering mail %d to %s failed, attempt %d of %d: %s", mail.getId(),
+						mail.getRecipients(), attempts, maxAttempts, failure.getMessage());
+			} else {
+				mail.failed(failure.getMessage(), now);
+				getLogger().errorf(failure, "Giving up delivering mail %d to %s after %d attempts.", mail.getId(),
+						mail.getRecipients(), attempts);
+			}
+		}
+
+		outboundMailService.deleteMails(delivered);
+		outboundMailService.mergeMails(failed);
+		deliveredMails.addAndGet(delivered.size());
+		failedAttempts.addAndGet(failed.size());
+	}
+
+	/**
+	 * @return If the server has accepted the mail for some recipients, but rejected it for others
+	 */
+	private static boolean isPartiallySent(MessagingException failure) {
+		if (!(failure instanceof SendFailedException)) {
+			return false;
+		}
+		final Address[] validSent = ((SendFailedException) failure).getValidSentAddresses();
+		return validSent != null && validSent.length > 0;
+	}
+
+	public MailOutboxStatistics getStatistics() {
+		return new MailOutboxStatistics(outboundMailService.countQueuedMails(), outboundMailService.countFailedMails(),
+				deliveredMails.get(), failedAttempts.get(), deliveryLatency.getSnapshot());
+	}
+}
@@ -3,11 +3,15 @@ package de.uni_due.s3.jack3.business;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.servlet.http.HttpServletRequest;
@@ -15,6 +19,9 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.jboss.logging.Logger.Level;
 
+import de.uni_due.s3.jack3.business.helpers.LatencyHistogram;
+import de.uni_due.s3.jack3.services.utils.QueryCounter;
+
 @ApplicationScoped
 public class PerformanceBusiness extends AbstractBusiness {
 
@@ -40,7 +47,17 @@ public class PerformanceBusiness extends AbstractBusiness {
 
 		private final long expiry;
 
-		private Entry(final HttpServletRequest request,final HttpServletResponse response,final long duration) {
+		private final String viewId;
+
+		private final Map<String, Long> phaseMillis;
+
+		private final QueryCounter.Counts queries;
+
+		private Entry(final HttpServletRequest request,final HttpServletResponse response,final long duration,
+				final String viewId,final Map<String, Long> phaseMillis,final QueryCounter.Counts queries) {
+			this.viewId = viewId != null ? viewId : UNKNOWN_VIEW;
+			this.phaseMillis = Collections.unmodifiableMap(new LinkedHashMap<>(phaseMillis));
+			this.queries = queries;
 			this.protocol = request.getProtocol();
 			this.method = request.getMethod();
 			this.path = request.getRequestURI().substring(request.getContextPath().length());
@@ -79,6 +96,21 @@ public class PerformanceBusiness extends AbstractBusiness {
 			return status;
 		}
 
+		public String getViewId() {
+			return viewId;
+		}
+
+		/**
+		 * Returns the time spent in each JSF phase that has been executed, in the order of execution.
+		 */
+		public Map<String, Long> getPhaseMillis() {
+			return phaseMillis;
+		}
+
+		public QueryCounter.Counts getQueries() {
+			return queries;
+		}
+
 		public boolean isSlow() {
 			return millis >= SLOW;
 		}
@@ -89,66 +121,244 @@ public class PerformanceBusiness extends AbstractBusiness {
 
 		@Override
 		public String toString() {
-			return String.format("%s %s HTTP %d %d ms.",method,path,status,millis);
+			return String.format("%s %s HTTP %d %d ms, %s %s.",method,path,status,millis,queries,phaseMillis);
 		}
 	}
 
-	public static final Duration MAX_AGE = Duration.ofMinutes(5);
+	/**
+	 * The latency percentiles of all requests of one type to one path.
+	 */
+	public static class PathStatistics {
 
-	private final Object lock;
+		private final String path;
 
-	private final LinkedList<Entry> entries;
+		private final String type;
 
-	private long nextLogging;
+		private final LatencyHistogram.Snapshot latency;
 
-	PerformanceBusiness() {
-		this.entries = new LinkedList<>();
-		this.lock = new Object();
-		this.nextLogging = nextLoggingTime();
+		private PathStatistics(final String path, final String type, final LatencyHistogram.Snapshot latency) {
+			this.path = path;
+			this.type = type;
+			this.latency = latency;
+		}
+
+		public String getPath() {
+			return path;
+		}
+
+		public String getType() {
+			return type;
+		}
+
+		public LatencyHistogram.Snapshot getLatency() {
+			return latency;
+		}
 	}
 
-	public void addEntry(final HttpServletRequest request, final HttpServletResponse response, final long ms) {
-		final Entry entry = new Entry(request,response,ms);
-		List<Entry> entriesToLog;
+	/**
+	 * The average database work and phase timings of the recent requests to one JSF view.
+	 */
+	public static class ViewStatistics {
+
+		private final String viewId;
+
+		private final long requests;
+
+		private final double averageMillis;
+
+		private final Map<String, Double> averagePhaseMillis;
+
+		private final double averageStatements;
+
+		private final long maxStatements;
+
+		private final double averageAuditStatements;
+
+		private final double averageEntitiesLoaded;
+
+		private ViewStatistics(final String viewId, final List<Entry> entries) {
+			this.viewId = viewId;
+			this.requests = entries.size();
+			this.averageMillis = entries.stream().mapToLong(Entry::getMillis).average().orElse(0);
+			this.averageStatements = entries.stream().mapToInt(e -> e.getQueries().getStatements()).average().orElse(0);
+			this.maxStatements = entries.stream().mapToInt(e -> e.getQueries().getStatements()).max().orElse(0);
+			this.averageAuditStatements = entries.stream().mapToInt(e -> e.getQueries().getAuditStatements())
+				.average().orElse(0);
+			this.averageEntitiesLoaded = entries.stream().mapToInt(e -> e.getQueries().getEntitiesLoaded())
+				.average().orElse(0);
+			// A phase that was skipped by a request counts as 0 ms for that request
+			final Map<String, Double> phases = new LinkedHashMap<>();
+			for (final Entry entry : entries) {
+				entry.getPhaseMillis().forEach((phase, ms) -> phases.merge(phase, (double) ms, Double::sum));
+			}
+			phases.replaceAll((phase, total) -> total / requests);
+			this.averagePhaseMillis = Collections.unmodifiableMap(phases);
+		}
+
+		public String getViewId() {
+			return viewId;
+		}
 
-		synchronized (lock) {
-			removeOutdateEntries();
-			entries.add(entry);
-			entriesToLog = getEntriesToLog();
+		public long getRequests() {
+			return requests;
 		}
 
+		public double getAverageMillis() {
+			return averageMillis;
+		}
+
+		/**
+		 * Returns the average time per JSF phase, keyed by the phase name (e.g. "RENDER_RESPONSE").
+		 */
+		public Map<String, Double> getAveragePhaseMillis() {
+			return averagePhaseMillis;
+		}
+
+		public double getAverageStatements() {
+			return averageStatements;
+		}
+
+		public long getMaxStatements() {
+			return maxStatements;
+		}
+
+		public double getAverageAuditStatements() {
+			return averageAuditStatements;
+		}
+
+		public double getAverageEntitiesLoaded() {
+			return averageEntitiesLoaded;
+		}
+	}
+
+	public static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+	/** View ID of requests for which no view has been restored or created. */
+	public static final String UNKNOWN_VIEW = "-";
+
+	/** Number of recent requests that are kept for the request list. */
+	static final int MAX_ENTRIES = 2048;
+
+	/** Maximum number of distinct paths with own statistics, further paths are counted as {@link #OTHER_PATHS}. */
+	static final int MAX_PATHS = 500;
+
+	static final String OTHER_PATHS = "(other)";
+
+	private static final Pattern SESSION_ID = Pattern.compile(";jsessionid=[^/]*", Pattern.CASE_INSENSITIVE);
+
+	private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+	/* Ring buffer of the most recent entries, written without locking */
+	private final AtomicReferenceArray<Entry> entries;
+
+	private final AtomicLong nextEntry;
+
+	private final Map<String, LatencyHistogram> histograms;
+
+	private final AtomicLong nextLogging;
+
+	PerformanceBusiness() {
+		this.entries = new AtomicReferenceArray<>(MAX_ENTRIES);
+		this.nextEntry = new AtomicLong();
+		this.histograms = new ConcurrentHashMap<>();
+		this.nextLogging = new AtomicLong(nextLoggingTime());
+	}
+
+	/**
+	 * Records a processed JSF request.
+	 *
+	 * @param viewId
+	 *            The ID of the view that has been rendered or restored, may be {@code null}
+	 * @param phaseMillis
+	 *            The time spent in each JSF phase, keyed by the phase name
+	 * @param queries
+	 *            The database work done for the request
+	 */
+	public void addEntry(final HttpServletRequest request, final HttpServletResponse response, final long ms,
+			final String viewId, final Map<String, Long> phaseMillis, final QueryCounter.Counts queries) {
+		final Entry entry = new Entry(request,response,ms,viewId,phaseMillis,queries);
+
+		entries.set((int) (nextEntry.getAndIncrement() % MAX_ENTRIES), entry);
+		histogramOf(normalizePath(entry.getPath()), entry.getType()).record(ms);
+
 		if (entry.isSlow()) {
 			logSlowRequest(request,entry);
 		}
 
+		final List<Entry> entriesToLog = getEntriesToLog();
 		if (!entriesToLog.isEmpty()) {
 			logEntrySummary(entriesToLog);
 		}
 	}
 
+	/**
+	 * Returns the most recent entries that are not expired. This does not block concurrent calls of
+	 * {@link #addEntry(HttpServletRequest, HttpServletResponse, long, String, Map, QueryCounter.Counts)}.
+	 */
 	public List<Entry> getEntries() {
-		synchronized (lock) {
-			removeOutdateEntries();
-			return new ArrayList<>(entries);
+		final List<Entry> result = new ArrayList<>(MAX_ENTRIES);
+		for (int i = 0; i < MAX_ENTRIES; i++) {
+			final Entry entry = entries.get(i);
+			if ((entry != null) && !entry.isExpired()) {
+				result.add(entry);
+			}
 		}
+		return result;
 	}
 
-	/* Must be called with lock acquired! */
-	private void removeOutdateEntries() {
-		final Iterator<Entry> it = entries.iterator();
-		while (it.hasNext() && it.next().isExpired()) {
-			it.remove();
+	/**
+	 * Returns the latency percentiles of the last {@link #MAX_AGE} per path and request type.
+	 */
+	public List<PathStatistics> getPathStatistics() {
+		final List<PathStatistics> result = new ArrayList<>(histograms.size());
+		histograms.forEach((key, histogram) -> {
+			final LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+			if (snapshot.getCount() > 0) {
+				final int separator = key.indexOf(' ');
+				result.add(new PathStatistics(key.substring(separator + 1), key.substring(0, separator), snapshot));
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Returns the phase timings and database work of the recent requests per view, computed from
+	 * {@link #getEntries()}.
+	 */
+	public List<ViewStatistics> getViewStatistics() {
+		return getEntries().stream()
+			.collect(Collectors.groupingBy(Entry::getViewId))
+			.entrySet().stream()
+			.map(group -> new ViewStatistics(group.getKey(), group.getValue()))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Removes session IDs and replaces numeric path segments, so requests for different entities of the same view
+	 * share their statistics.
+	 */
+	static String normalizePath(final String path) {
+		final String withoutSession = SESSION_ID.matcher(path).replaceAll("");
+		return NUMERIC_SEGMENT.matcher(withoutSession).replaceAll("/{id}");
+	}
+
+	private LatencyHistogram histogramOf(final String path, final String type) {
+		final String key = type + " " + path;
+		final LatencyHistogram histogram = histograms.get(key);
+		if (histogram != null) {
+			return histogram;
 		}
+		// The limit may be exceeded slightly by concurrent requests, which is fine
+		final String boundedKey = histograms.size() < MAX_PATHS ? key : type + " " + OTHER_PATHS;
+		return histograms.computeIfAbsent(boundedKey, k -> new LatencyHistogram(MAX_AGE));
 	}
 
-	/* Must be called with lock acquired! */
 	private List<Entry> getEntriesToLog() {
-		if (System.currentTimeMillis() < nextLogging) {
+		final long next = nextLogging.get();
+		if ((System.currentTimeMillis() < next) || !nextLogging.compareAndSet(next, nextLoggingTime())) {
 			return Collections.emptyList();
 		}
-
-		nextLogging = nextLoggingTime();
-		return new ArrayList<>(entries);
+		return getEntries();
 	}
 
 	private long nextLoggingTime() {
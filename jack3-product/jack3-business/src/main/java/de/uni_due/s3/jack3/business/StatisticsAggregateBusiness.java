@@ -0,0 +1,192 @@
+package de.uni_due.s3.jack3.business;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import de.uni_due.s3.jack3.business.helpers.CourseStatistics;
+import de.uni_due.s3.jack3.business.helpers.ExerciseStatistics;
+import de.uni_due.s3.jack3.business.helpers.TransactionalInvalidation;
+import de.uni_due.s3.jack3.entities.tenant.Course;
+import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
+import de.uni_due.s3.jack3.entities.tenant.Exercise;
+import de.uni_due.s3.jack3.services.CommentService;
+import de.uni_due.s3.jack3.services.CourseRecordService;
+import de.uni_due.s3.jack3.services.EnrollmentService;
+import de.uni_due.s3.jack3.services.SubmissionService;
+import de.uni_due.s3.jack3.services.UserService;
+import de.uni_due.s3.jack3.services.utils.StatisticsChange;
+
+/**
+ * Keeps the key figures of courses, course offers and exercises, so statistic pages do not have to run their aggregate
+ * queries on every request. Missing aggregates are built with a few grouped queries, e.g. the score figures of a course
+ * are all derived from the number of course records per score.
+ *
+ * The services fire a {@link StatisticsChange} whenever submissions, course records or enrollments are saved or
+ * deleted. The affected aggregates are removed immediately and again when the transaction is completed, so they are
+ * rebuilt from the committed data, see {@link TransactionalInvalidation}. Changes of other courses, course offers or
+ * exercises do not prevent an aggregate from being kept. New submissions, the most frequent change, only increment the
+ * submission counts of the present aggregates after the transaction has been committed, so the aggregates stay cached
+ * while students are working on exercises.
+ */
+@ApplicationScoped
+public class StatisticsAggregateBusiness extends AbstractBusiness {
+
+	/** Maximum number of aggregates kept per type. */
+	public static final int MAX_AGGREGATES = 10_000;
+
+	/** Aggregates are rebuilt after this time, in case data has been changed bypassing the services. */
+	public static final Duration MAX_AGGREGATE_AGE = Duration.ofHours(1);
+
+	@Inject
+	private CourseRecordService courseRecordService;
+
+	@Inject
+	private SubmissionService submissionService;
+
+	@Inject
+	private CommentService commentService;
+
+	@Inject
+	private EnrollmentService enrollmentService;
+
+	@Inject
+	private UserService userService;
+
+	@Inject
+	private Event<TransactionalInvalidation.Change> changeEvent;
+
+	private final Cache<Long, CourseStatistics> courseStatistics = newCache();
+
+	private final Cache<Long, CourseStatistics> courseOfferStatistics = newCache();
+
+	private final Cache<Long, ExerciseStatistics> exerciseStatistics = newCache();
+
+	private final TransactionalInvalidation courseInvalidation = newInvalidation(courseStatistics);
+
+	private final TransactionalInvalidation courseOfferInvalidation = newInvalidation(courseOfferStatistics);
+
+	private final TransactionalInvalidation exerciseInvalidation = newInvalidation(exerciseStatistics);
+
+	private static <T> Cache<Long, T> newCache() {
+		return CacheBuilder.newBuilder()
+				.maximumSize(MAX_AGGREGATES)
+				.expireAfterWrite(MAX_AGGREGATE_AGE)
+				.build();
+	}
+
+	private static TransactionalInvalidation newInvalidation(Cache<Long, ?> cache) {
+		return new TransactionalInvalidation(cache::invalidateAll, cache::invalidateAll);
+	}
+
+	/**
+	 * Returns the key figures of a course, including frozen revisions of the course.
+	 */
+	public CourseStatistics getStatistics(Course course) {
+		return get(courseStatistics, courseInvalidation, course.getId(), () -> new CourseStatistics(
+				userService.countAllParticipantsForCourse(course),
+				courseRecordService.getScoreDistributionForCourse(course),
+				courseRecordService.countTestCourseRecordsForCourse(course),
+				submissionService.countSubmissionsForCourse(course),
+				commentService.countNontestingUnreadComments(course)));
+	}
+
+	/**
+	 * Returns the key figures of a course offer. All participants who have ever interacted with the course offer are
+	 * counted.
+	 */
+	public CourseStatistics getStatistics(CourseOffer courseOffer) {
+		return get(courseOfferStatistics, courseOfferInvalidation, courseOffer.getId(), () -> new CourseStatistics(
+				// Enrollments are unique for course offers and users
+				enrollmentService.countEnrollments(courseOffer),
+				courseRecordService.getScoreDistributionForCourseOffer(courseOffer),
+				0,
+				submissionService.countSubmissionsForCourseOffer(courseOffer),
+				commentService.countUnreadComments(courseOffer)));
+	}
+
+	/**
+	 * Returns the key figures of an exercise, including frozen revisions of the exercise.
+	 */
+	public ExerciseStatistics getStatistics(Exercise exercise) {
+		return get(exerciseStatistics, exerciseInvalidation, exercise.getId(), () -> new ExerciseStatistics(
+				submissionService.countSubmissionsForExercise(exercise),
+				submissionService.countAllSubmissionsForExercise(exercise),
+				commentService.countNontestingUnreadComments(exercise)));
+	}
+
+	private static <T> T get(Cache<Long, T> cache, TransactionalInvalidation invalidation, long id,
+			Supplier<T> builder) {
+		final T present = cache.getIfPresent(id);
+		if (present != null) {
+			return present;
+		}
+
+		final long stamp = invalidation.getStamp(id);
+		final T aggregate = builder.get();
+		invalidation.keepIfUnchanged(id, stamp, () -> cache.put(id, aggregate));
+		return aggregate;
+	}
+
+	/**
+	 * Removes all aggregates, they are rebuilt from the database when they are requested the next time.
+	 */
+	public void rebuildAll() {
+		courseInvalidation.clear();
+		courseOfferInvalidation.clear();
+		exerciseInvalidation.clear();
+		getLogger().info("Removed all statistics aggregates, they are rebuilt on demand.");
+	}
+
+	/**
+	 * @return Number of aggregates that are currently kept
+	 */
+	public long size() {
+		return courseStatistics.size() + courseOfferStatistics.size() + exerciseStatistics.size();
+	}
+
+	void removeChanged(@Observes StatisticsChange change) {
+		if (change.isNewSubmission()) {
+			addSubmission(change);
+			return;
+		}
+		changed(courseInvalidation, change.getCourseIds());
+		changed(courseOfferInvalidation, change.getCourseOfferIds());
+		changed(exerciseInvalidation, change.getExerciseIds());
+	}
+
+	private void addSubmission(StatisticsChange change) {
+		// Testing submissions are only counted for course offers and in all submissions of an exercise
+		if (!change.isTestSubmission()) {
+			updated(courseStatistics, courseInvalidation, change.getCourseIds(), CourseStatistics::withNewSubmission);
+		}
+		updated(courseOfferStatistics, courseOfferInvalidation, change.getCourseOfferIds(),
+				CourseStatistics::withNewSubmission);
+		updated(exerciseStatistics, exerciseInvalidation, change.getExerciseIds(),
+				statistics -> statistics.withNewSubmission(change.isTestSubmission()));
+	}
+
+	private void changed(TransactionalInvalidation invalidation, Set<Long> ids) {
+		if (!ids.isEmpty()) {
+			changeEvent.fire(invalidation.changed(ids));
+		}
+	}
+
+	private <T> void updated(Cache<Long, T> cache, TransactionalInvalidation invalidation, Set<Long> ids,
+			UnaryOperator<T> update) {
+		if (!ids.isEmpty()) {
+			changeEvent.fire(invalidation.updated(ids, (Collection<Long> keys) -> keys
+					.forEach(id -> cache.asMap().computeIfPresent(id, (key, aggregate) -> update.apply(aggregate)))));
+		}
+	}
+}
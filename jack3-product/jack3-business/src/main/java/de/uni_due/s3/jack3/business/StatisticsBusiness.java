@@ -4,58 +4,65 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 
+import de.uni_due.s3.jack3.business.helpers.CourseStatistics;
+import de.uni_due.s3.jack3.business.helpers.ExerciseStatistics;
 import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
 import de.uni_due.s3.jack3.entities.tenant.Exercise;
-import de.uni_due.s3.jack3.services.CommentService;
-import de.uni_due.s3.jack3.services.CourseRecordService;
-import de.uni_due.s3.jack3.services.EnrollmentService;
-import de.uni_due.s3.jack3.services.SubmissionService;
-import de.uni_due.s3.jack3.services.UserService;
 
 /**
  * Contains methods that collect various statistic data about exercises, courses and course offers. Unless otherwise
  * specified, all queries refering to submissions / course records ignore testing submissions / course records.
+ *
+ * The key figures are answered from the aggregates kept by {@link StatisticsAggregateBusiness}.
  */
 @RequestScoped
 @Transactional(value = Transactional.TxType.REQUIRED)
 public class StatisticsBusiness extends AbstractBusiness {
 
 	@Inject
-	private EnrollmentService enrollmentService;
+	private StatisticsAggregateBusiness statisticsAggregateBusiness;
 
-	@Inject
-	private CourseRecordService courseRecordService;
-
-	@Inject
-	private SubmissionService submissionService;
+	/**
+	 * Returns all key figures of the course offer.
+	 */
+	public CourseStatistics getStatistics(final CourseOffer courseOffer) {
+		return statisticsAggregateBusiness.getStatistics(courseOffer);
+	}
 
-	@Inject
-	private CommentService commentService;
+	/**
+	 * Returns all key figures of the course including frozen courses.
+	 */
+	public CourseStatistics getStatistics(final Course course) {
+		return statisticsAggregateBusiness.getStatistics(course);
+	}
 
-	@Inject
-	private UserService userService;
+	/**
+	 * Returns all key figures of the exercise including frozen exercises.
+	 */
+	public ExerciseStatistics getStatistics(final Exercise exercise) {
+		return statisticsAggregateBusiness.getStatistics(exercise);
+	}
 
 	/**
 	 * Counts all participants who have ever interacted with the course offer.
 	 */
 	public long countParticipants(final CourseOffer courseOffer) {
-		// We can simply count all enrollments because enrollments are unique for course offers and users.
-		return enrollmentService.countEnrollments(courseOffer);
+		return getStatistics(courseOffer).getParticipants();
 	}
 
 	/**
 	 * Counts all course records for a course offer.
 	 */
 	public long countCourseRecords(final CourseOffer courseOffer) {
-		return courseRecordService.countCourseRecordsForCourseOffer(courseOffer);
+		return getStatistics(courseOffer).getCourseRecords();
 	}
 
 	/**
 	 * Returns the average score of all course records for a course offer.
 	 */
 	public double getAverageScore(final CourseOffer courseOffer) {
-		return courseRecordService.getAverageScoreForCourseOffer(courseOffer);
+		return getStatistics(courseOffer).getAverageScore();
 	}
 
 
@@ -63,105 +70,112 @@ public class StatisticsBusiness extends AbstractBusiness {
 	 * Returns the highest score of all course records for a course offer.
 	 */
 	public int getHighestScore(final CourseOffer courseOffer) {
-		return courseRecordService.getHighestScoreForCourseOffer(courseOffer);
+		return getStatistics(courseOffer).getHighestScore();
 	}
 
 	/**
 	 * Returns the lowest score of all course records for a course offer.
 	 */
 	public int getLowestScore(final CourseOffer courseOffer) {
-		return courseRecordService.getLowestScoreForCourseOffer(courseOffer);
+		return getStatistics(courseOffer).getLowestScore();
 	}
 
 	/**
 	 * Counts all exercise submissions for a course offer.
 	 */
 	public long countSubmissions(final CourseOffer courseOffer) {
-		return submissionService.countSubmissionsForCourseOffer(courseOffer);
+		return getStatistics(courseOffer).getSubmissions();
 	}
 
 	/**
 	 * Counts all unread comments for course offers.
 	 */
 	public long countUnreadComments(final CourseOffer courseOffer) {
-		return commentService.countUnreadComments(courseOffer);
+		return getStatistics(courseOffer).getUnreadComments();
 	}
 
 	/**
 	 * Counts all participants who have ever interacted with the course including participations in frozen courses.
 	 */
 	public long countParticipants(final Course course) {
-		return userService.countAllParticipantsForCourse(course);
+		return getStatistics(course).getParticipants();
 	}
 
 	/**
 	 * Counts all course records for a course including course records for frozen courses.
 	 */
 	public long countCourseRecords(final Course course) {
-		return courseRecordService.countCourseRecordsForCourse(course);
+		return getStatistics(course).getCourseRecords();
 	}
 
 	/**
 	 * Counts all <strong>test</strong> course records for a course including course records for frozen courses.
 	 */
 	public long countTestCourseRecords(final Course course) {
-		return courseRecordService.countTestCourseRecordsForCourse(course);
+		return getStatistics(course).getTestCourseRecords();
 	}
 
 	/**
 	 * Returns the average score of all course records for a course offer including course records for frozen courses.
 	 */
 	public double getAverageScore(final Course course) {
-		return courseRecordService.getAverageScoreForCourse(course);
+		return getStatistics(course).getAverageScore();
 	}
 
 	/**
 	 * Returns the highest score of all course records for a course offer including course records for frozen courses.
 	 */
 	public int getHighestScore(final Course course) {
-		return courseRecordService.getHighestScoreForCourse(course);
+		return getStatistics(course).getHighestScore();
 	}
 
 	/**
 	 * Returns the lowest score of all course records for a course offer including course records for frozen courses.
 	 */
 	public int getLowestScore(final Course course) {
-		return courseRecordService.getLowestScoreForCourse(course);
+		return getStatistics(course).getLowestScore();
 	}
 
 	/**
 	 * Counts all exercise submissions for a course offer including submissions for frozen courses.
 	 */
 	public long countSubmissions(final Course course) {
-		return submissionService.countSubmissionsForCourse(course);
+		return getStatistics(course).getSubmissions();
 	}
 
 	/**
 	 * Counts all unread comments for course offers including unread comments in course records for frozen courses.
 	 */
 	public long countUnreadComments(final Course course) {
-		return commentService.countNontestingUnreadComments(course);
+		return getStatistics(course).getUnreadComments();
 	}
 
 	/**
 	 * Counts all exercise submissions including submissions for frozen exercises.
 	 */
 	public long countSubmissions(final Exercise exercise) {
-		return submissionService.countSubmissionsForExercise(exercise);
+		return getStatistics(exercise).getSubmissions();
 	}
 
 	/**
 	 * Counts all exercise submissions including submissions for frozen exercises and testing submissions.
 	 */
 	public long countAllSubmissions(final Exercise exercise) {
-		return submissionService.countAllSubmissionsForExercise(exercise);
+		return getStatistics(exercise).getAllSubmissions();
 	}
 
 	/**
 	 * Counts all unread comments for exercises including unread comments for frozen exercises.
 	 */
 	public long countUnreadComments(final Exercise exercise) {
-		return commentService.countNontestingUnreadComments(exercise);
+		return getStatistics(exercise).getUnreadComments();
+	}
+
+	/**
+	 * Removes all precomputed key figures, they are rebuilt when they are requested the next time.
+	 */
+	public void rebuildStatistics() {
+		statisticsAggregateBusiness.rebuildAll();
 	}
 
 }
@@ -0,0 +1,27 @@
+package de.uni_due.s3.jack3.business;
+
+import javax.annotation.Resource;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.transaction.Status;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import de.uni_due.s3.jack3.business.helpers.TransactionalInvalidation;
+
+/**
+ * Completes the {@link TransactionalInvalidation.Change changes} of all in-memory caches when the transaction that
+ * fired them is completed, whether it has been committed or rolled back.
+ */
+@ApplicationScoped
+public class TransactionalInvalidationBusiness extends AbstractBusiness {
+
+	@Resource
+	private TransactionSynchronizationRegistry transactionRegistry;
+
+	void completeChange(@Observes(during = TransactionPhase.AFTER_COMPLETION) TransactionalInvalidation.Change change) {
+		final int status = transactionRegistry.getTransactionStatus();
+		// Without a transaction, the change has already been written when the event is observed
+		change.complete(status == Status.STATUS_COMMITTED || status == Status.STATUS_NO_TRANSACTION);
+	}
+}
@@ -1,6 +1,9 @@
 package de.uni_due.s3.jack3.business;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +23,10 @@ import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.auth.server.SecurityIdentity;
 import org.wildfly.security.authz.Attributes;
 
+import com.google.common.collect.Iterables;
+
 import de.uni_due.s3.jack3.business.helpers.PublicUserName;
+import de.uni_due.s3.jack3.business.helpers.PublicUserNameFormat;
 import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.Folder;
 import de.uni_due.s3.jack3.entities.tenant.Password;
@@ -40,6 +46,9 @@ import de.uni_due.s3.jack3.utils.StringGenerator;
 @Transactional(value = Transactional.TxType.REQUIRED)
 public class UserBusiness extends AbstractBusiness {
 
+	/** Maximum number of users that are loaded with one query when public user names are constructed. */
+	public static final int MAX_USERS_PER_QUERY = 500;
+
 	@Inject
 	private UserService userService;
 
@@ -64,22 +73,36 @@ public class UserBusiness extends AbstractBusiness {
 	@Inject
 	private ConfigurationBusiness configurationBusiness;
 
+	@Inject
+	private UserGroupMembershipBusiness userGroupMembershipBusiness;
+
+	// Public user names are cached for the current request, because they are requested for each row of a table.
+	private PublicUserNameFormat publicUserNameFormat;
+
+	private final Map<Long, PublicUserName> clearNamesByUserId = new HashMap<>();
+
+	/** Whether a user (first ID) may see clear names in a folder (second ID) */
+	private final Map<List<Long>, Boolean> clearNameRights = new HashMap<>();
+
 	public List<UserGroup> getAllUserGroups() {
 		return userGroupService.getAllUserGroups();
 	}
 
+	/**
+	 * Lists all user groups in which a user is a direct or indirect member.
+	 *
+	 * @return User group list with lazy data (member lists), ordered by user group name
+	 */
 	public List<UserGroup> getUserGroupsForUser(User user) {
-		final List<UserGroup> resultGroups = new LinkedList<>();
-
-		final List<UserGroup> allGroups = getAllUserGroups();
-
-		for (final UserGroup u : allGroups) {
-			if (u.containsUserAsAnyMember(user)) {
-				resultGroups.add(u);
-			}
-		}
+		return userGroupService.getUserGroupsByIds(getUserGroupIdsForUser(user));
+	}
 
-		return resultGroups;
+	/**
+	 * Returns the IDs of all user groups in which a user is a direct or indirect member. In contrast to
+	 * {@link #getUserGroupsForUser(User)}, no user groups are loaded.
+	 */
+	public Set<Long> getUserGroupIdsForUser(User user) {
+		return userGroupMembershipBusiness.getUserGroupIds(user);
 	}
 
 	// REVIEW bo: sollte das nach AuthorizationBusiness verschoben werden?
@@ -252,6 +275,7 @@ public class UserBusiness extends AbstractBusiness {
 			folderBusiness.removeUserRightsOnNonPersonalContentFolders(user);
 		}
 
+		clearNamesByUserId.remove(user.getId());
 		return userService.mergeUser(user);
 	}
 
@@ -274,6 +298,7 @@ public class UserBusiness extends AbstractBusiness {
 	}
 
 	public void deleteUserGroup(UserGroup userGroup) {
+		userGroupMembershipBusiness.membershipsChanged();
 		userGroupService.removeUserGroup(userGroup);
 	}
 
@@ -305,6 +330,7 @@ public class UserBusiness extends AbstractBusiness {
 	public void removeUserGroupFromUserGroup(UserGroup memberGroup, UserGroup parentGroup) {
 		parentGroup = userGroupService.getUserGroupWithMemberGroups(parentGroup);
 		parentGroup.removeMemberGroup(memberGroup);
+		userGroupMembershipBusiness.membershipsChanged();
 		userGroupService.mergeUserGroup(parentGroup);
 	}
 
@@ -314,6 +340,7 @@ public class UserBusiness extends AbstractBusiness {
 	public void addUserGroupToUserGroup(UserGroup memberGroup, UserGroup parentGroup) {
 		parentGroup = userGroupService.getUserGroupWithMemberGroups(parentGroup);
 		parentGroup.addMemberGroup(memberGroup);
+		userGroupMembershipBusiness.membershipsChanged();
 		userGroupService.mergeUserGroup(parentGroup);
 	}
 
@@ -323,6 +350,7 @@ public class UserBusiness extends AbstractBusiness {
 	public void removeUserFromUserGroup(User user, UserGroup group) {
 		group = userGroupService.getUserGroupWithMemberUsers(group);
 		group.removeMemberUser(user);
+		userGroupMembershipBusiness.membershipsChanged();
 		userGroupService.mergeUserGroup(group);
 	}
 
@@ -332,10 +360,12 @@ public class UserBusiness extends AbstractBusiness {
 	public void addUserToUserGroup(User user, UserGroup group) {
 		group = userGroupService.getUserGroupWithMemberUsers(group);
 		group.addMemberUser(user);
+		userGroupMembershipBusiness.membershipsChanged();
 		userGroupService.mergeUserGroup(group);
 	}
 
 	public UserGroup updateUserGroup(UserGroup userGroup) {
+		userGroupMembershipBusiness.membershipsChanged();
 		return userGroupService.mergeUserGroup(userGroup);
 	}
 
@@ -351,6 +381,7 @@ public class UserBusiness extends AbstractBusiness {
 		user.setEmail(newEmail);
 		user.setHasAdminRights(newAdminRights);
 		user.setHasEditRights(newEditRights);
+		clearNamesByUserId.remove(user.getId());
 		userService.mergeUser(user);
 	}
 
@@ -434,56 +465,86 @@ public class UserBusiness extends AbstractBusiness {
 
 		// If we don't know the folder or the asking user, or the asking user has not enough rights on a folder, we
 		// return the pseudonym
-		if (folder == null || askingUser == null
-				|| !authorizationBusiness.hasExtendedReadOnFolder(askingUser, folder)) {
+		if (!mayReadClearNames(askingUser, folder)) {
 			return PublicUserName.ofPseudonym(forUser.getPseudonym());
 		}
 
 		// If we are here, a user asks for the name of another user and has enough rights, so we construct the display
 		// name based on the configuration settings.
-		List<String> nameConfig = configurationBusiness.getValueList("publicUserName");
-		String publicName = "";
-
-		// If there is a primary display name pattern, we apply that
-		if (nameConfig.size() > 0) {
-			publicName = replaceProfileFields(nameConfig.get(0), profileFieldService.getAllFields(), forUser);
-		}
+		return clearNamesByUserId.computeIfAbsent(forUser.getId(), id -> getPublicUserNameFormat()
+				.format(userService.getUserById(id).orElseThrow(IllegalStateException::new)));
+	}
 
-		// If the first try resulted in an empty string and there is another pattern, we apply that
-		if (publicName.isEmpty() && nameConfig.size() > 1) {
-			publicName = replaceProfileFields(nameConfig.get(1), profileFieldService.getAllFields(), forUser);
+	/**
+	 * Constructs the public names of multiple users that are shown to the same user in the same folder, see
+	 * {@link #getPublicUserName(User, User, Folder)}. The rights of the asking user are only checked once and the users
+	 * are loaded with one query per {@value #MAX_USERS_PER_QUERY} users.
+	 *
+	 * @return Map of user IDs to the public names of the users
+	 */
+	public Map<Long, PublicUserName> getPublicUserNames(Collection<User> forUsers, User askingUser, Folder folder) {
+		final Map<Long, PublicUserName> publicUserNames = new HashMap<>();
+		final boolean clearNames = mayReadClearNames(askingUser, folder);
+
+		if (clearNames) {
+			final Set<Long> missingUserIds = new HashSet<>();
+			for (final User forUser : forUsers) {
+				if (forUser != null && !clearNamesByUserId.containsKey(forUser.getId())) {
+					missingUserIds.add(forUser.getId());
+				}
+			}
+			for (final List<Long> userIds : Iterables.partition(missingUserIds, MAX_USERS_PER_QUERY)) {
+				for (final User user : userService.getUsersByIds(userIds)) {
+					clearNamesByUserId.put(user.getId(), getPublicUserNameFormat().format(user));
+				}
+			}
 		}
 
-		// If we still have an empty string, we use the default fallback
-		if (publicName.isEmpty()) {
-			publicName = forUser.getLoginName();
+		for (final User forUser : forUsers) {
+			if (forUser == null) {
+				continue;
+			}
+			final PublicUserName name;
+			if (forUser.equals(askingUser)) {
+				name = PublicUserName.of(forUser.getLoginName());
+			} else if (clearNames) {
+				// Users that could not be loaded again are named from the given entity
+				name = clearNamesByUserId.computeIfAbsent(forUser.getId(),
+						id -> getPublicUserNameFormat().format(forUser));
+			} else {
+				name = PublicUserName.ofPseudonym(forUser.getPseudonym());
+			}
+			publicUserNames.put(forUser.getId(), name);
 		}
-
-		return PublicUserName.of(publicName);
+		return publicUserNames;
 	}
 
-	private String replaceProfileFields(String pattern, List<ProfileField> fields, User user) {
-		user = userService.getUserById(user.getId()).orElseThrow(IllegalStateException::new);
-
-		String displayName = new String(pattern);
-
-		for (ProfileField publicProfileField : fields) {
-			displayName = displayName.replace("[" + publicProfileField.getName() + "]",
-					user.getProfileData().get(publicProfileField));
+	private boolean mayReadClearNames(User askingUser, Folder folder) {
+		if (folder == null || askingUser == null) {
+			return false;
 		}
+		return clearNameRights.computeIfAbsent(List.of(askingUser.getId(), folder.getId()),
+				ids -> authorizationBusiness.hasExtendedReadOnFolder(askingUser, folder));
+	}
 
-		displayName = displayName.replace("[loginname]", user.getLoginName());
-
-		if (user.getEmail() != null) {
-			displayName = displayName.replace("[email]", user.getEmail());
-		} else {
-			displayName = displayName.replace("[email]", "");
+	private PublicUserNameFormat getPublicUserNameFormat() {
+		if (publicUserNameFormat == null) {
+			publicUserNameFormat = PublicUserNameFormat.compile(configurationBusiness.getValueList("publicUserName"),
+					profileFieldService.getAllFields());
 		}
+		return publicUserNameFormat;
+	}
 
-		return displayName.strip();
+	/**
+	 * Discards the public user names cached for the current request, e.g. because profile data has been changed.
+	 */
+	private void clearPublicUserNames() {
+		publicUserNameFormat = null;
+		clearNamesByUserId.clear();
 	}
 
 	public ProfileField updateProfileField(ProfileField profileField) {
+		clearPublicUserNames();
 		return profileFieldService.updateProfileField(profileField);
 	}
 }
@@ -0,0 +1,82 @@
+package de.uni_due.s3.jack3.business;
+
+import java.util.Set;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import de.uni_due.s3.jack3.business.helpers.TransactionalInvalidation;
+import de.uni_due.s3.jack3.business.helpers.UserGroupMembershipIndex;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.services.UserGroupService;
+
+/**
+ * Keeps the {@link UserGroupMembershipIndex}, so the user groups of a user can be looked up without loading all user
+ * groups and walking through their members. The index is built with two queries for the direct memberships when it is
+ * needed first.
+ *
+ * All changes of user group memberships must be reported via {@link #membershipsChanged()}. The index is dropped
+ * immediately and again when the transaction is completed. Until then, a rebuilt index is used for the current lookup
+ * only, so neither uncommitted nor rolled back memberships get into the index, see {@link TransactionalInvalidation}.
+ */
+@ApplicationScoped
+public class UserGroupMembershipBusiness extends AbstractBusiness {
+
+	/** The index is kept as a single entry, every change of memberships changes all keys. */
+	private static final long INDEX_KEY = 0;
+
+	@Inject
+	private UserGroupService userGroupService;
+
+	@Inject
+	private Event<TransactionalInvalidation.Change> changeEvent;
+
+	/** The current index, or {@code null} if it must be rebuilt. */
+	private volatile UserGroupMembershipIndex index;
+
+	private final TransactionalInvalidation invalidation = new TransactionalInvalidation(keys -> index = null,
+			() -> index = null);
+
+	/**
+	 * @return IDs of all user groups the user is a direct or indirect member of
+	 */
+	public Set<Long> getUserGroupIds(User user) {
+		return getIndex().getUserGroupIds(user.getId());
+	}
+
+	/**
+	 * Returns the current index, building it if necessary. A built index is only kept if no memberships have been
+	 * changed while it was built, because it might have been built before the change was committed.
+	 */
+	UserGroupMembershipIndex getIndex() {
+		final UserGroupMembershipIndex present = index;
+		if (present != null) {
+			return present;
+		}
+
+		final long stamp = invalidation.getStamp(INDEX_KEY);
+		final UserGroupMembershipIndex builtIndex = UserGroupMembershipIndex.of(
+				userGroupService.getMemberUserIdsByUserGroupId(), userGroupService.getMemberGroupIdsByUserGroupId());
+		if (invalidation.keepIfUnchanged(INDEX_KEY, stamp, () -> index = builtIndex)) {
+			getLogger().debugf("Built user group membership index for %d users.", builtIndex.getNumberOfUsers());
+		}
+		return builtIndex;
+	}
+
+	/**
+	 * Drops the index until the current transaction is completed. Must be called whenever members are added to or
+	 * removed from user groups or user groups are deleted.
+	 */
+	public void membershipsChanged() {
+		changeEvent.fire(invalidation.changedAll());
+	}
+
+	/**
+	 * Drops the index, e.g. after the database has been cleared.
+	 */
+	public void clearIndex() {
+		invalidation.clear();
+		getLogger().info("Cleared user group membership index.");
+	}
+}
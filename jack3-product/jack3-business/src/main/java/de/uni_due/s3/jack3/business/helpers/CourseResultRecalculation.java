@@ -0,0 +1,143 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the recalculation of all course results of a course offer. The course records are processed in
+ * ascending order of their IDs, so a failed recalculation can be continued after the last processed course record.
+ *
+ * The progress is written by the thread running the recalculation and read by views, so all accessors are
+ * synchronized.
+ */
+public final class CourseResultRecalculation {
+
+	public enum EState {
+		RUNNING,
+		FINISHED,
+		FAILED;
+	}
+
+	private final long courseOfferId;
+	private final String courseOfferName;
+
+	private EState state;
+	private long numberOfCourseRecords;
+	private long processedCourseRecords;
+	private long changedCourseRecords;
+	private long lastCourseRecordId;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+	private String errorMessage;
+
+	public CourseResultRecalculation(long courseOfferId, String courseOfferName) {
+		this.courseOfferId = courseOfferId;
+		this.courseOfferName = courseOfferName;
+	}
+
+	/**
+	 * Starts the recalculation from the first course record.
+	 */
+	public synchronized void start(long numberOfCourseRecords) {
+		processedCourseRecords = 0;
+		changedCourseRecords = 0;
+		lastCourseRecordId = 0;
+		resume(numberOfCourseRecords);
+	}
+
+	/**
+	 * Continues the recalculation after the last processed course record.
+	 *
+	 * @param numberOfCourseRecords
+	 *            Number of all course records, including those already processed
+	 */
+	public synchronized void resume(long numberOfCourseRecords) {
+		this.numberOfCourseRecords = numberOfCourseRecords;
+		state = EState.RUNNING;
+		startedAt = LocalDateTime.now();
+		finishedAt = null;
+		errorMessage = null;
+	}
+
+	/**
+	 * Records that a chunk of course records has been committed.
+	 */
+	public synchronized void chunkProcessed(int processed, int changed, long lastId) {
+		processedCourseRecords += processed;
+		changedCourseRecords += changed;
+		lastCourseRecordId = lastId;
+		// Course records might have been added in the meantime
+		numberOfCourseRecords = Math.max(numberOfCourseRecords, processedCourseRecords);
+	}
+
+	public synchronized void finish() {
+		state = EState.FINISHED;
+		finishedAt = LocalDateTime.now();
+	}
+
+	public synchronized void fail(String errorMessage) {
+		state = EState.FAILED;
+		finishedAt = LocalDateTime.now();
+		this.errorMessage = errorMessage;
+	}
+
+	public long getCourseOfferId() {
+		return courseOfferId;
+	}
+
+	public String getCourseOfferName() {
+		return courseOfferName;
+	}
+
+	public synchronized EState getState() {
+		return state;
+	}
+
+	public synchronized boolean isRunning() {
+		return state == EState.RUNNING;
+	}
+
+	public synchronized boolean isFailed() {
+		return state == EState.FAILED;
+	}
+
+	public synchronized long getNumberOfCourseRecords() {
+		return numberOfCourseRecords;
+	}
+
+	public synchronized long getProcessedCourseRecords() {
+		return processedCourseRecords;
+	}
+
+	public synchronized long getChangedCourseRecords() {
+		return changedCourseRecords;
+	}
+
+	/**
+	 * @return ID of the last course record that has been committed, {@code 0} if none has been committed yet
+	 */
+	public synchronized long getLastCourseRecordId() {
+		return lastCourseRecordId;
+	}
+
+	/**
+	 * @return Progress in percent
+	 */
+	public synchronized int getProgress() {
+		if (state == EState.FINISHED || numberOfCourseRecords == 0) {
+			return state == EState.FINISHED ? 100 : 0;
+		}
+		return (int) (processedCourseRecords * 100 / numberOfCourseRecords);
+	}
+
+	public synchronized LocalDateTime getStartedAt() {
+		return startedAt;
+	}
+
+	public synchronized LocalDateTime getFinishedAt() {
+		return finishedAt;
+	}
+
+	public synchronized String getErrorMessage() {
+		return errorMessage;
+	}
+}
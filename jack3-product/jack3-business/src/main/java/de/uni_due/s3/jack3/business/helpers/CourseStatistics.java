@@ -0,0 +1,130 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Precomputed key figures of a course or a course offer. Scores are only computed from non-testing course records.
+ * Course offers have no testing course records.
+ *
+ * @see de.uni_due.s3.jack3.business.StatisticsAggregateBusiness
+ */
+@Immutable
+public final class CourseStatistics {
+
+	/** Number of scores combined in one bar of the {@link #getScoreHistogram() score histogram}. */
+	public static final int HISTOGRAM_BUCKET_SIZE = 10;
+
+	private static final int MAX_SCORE = 100;
+
+	private final long participants;
+	private final long courseRecords;
+	private final long testCourseRecords;
+	private final long submissions;
+	private final long unreadComments;
+	private final double averageScore;
+	private final int highestScore;
+	private final int lowestScore;
+	private final long[] scoreHistogram = new long[MAX_SCORE / HISTOGRAM_BUCKET_SIZE];
+
+	/**
+	 * @param scoreDistribution
+	 *            Number of non-testing course records by result points
+	 */
+	public CourseStatistics(long participants, Map<Integer, Long> scoreDistribution, long testCourseRecords,
+			long submissions, long unreadComments) {
+		this.participants = participants;
+		this.testCourseRecords = testCourseRecords;
+		this.submissions = submissions;
+		this.unreadComments = unreadComments;
+
+		long count = 0;
+		long sum = 0;
+		int highest = Integer.MIN_VALUE;
+		int lowest = Integer.MAX_VALUE;
+		for (final Map.Entry<Integer, Long> entry : scoreDistribution.entrySet()) {
+			final int score = entry.getKey();
+			count += entry.getValue();
+			sum += score * entry.getValue();
+			highest = Math.max(highest, score);
+			lowest = Math.min(lowest, score);
+
+			final int bucket = Math.min(Math.max(score, 0), MAX_SCORE - 1) / HISTOGRAM_BUCKET_SIZE;
+			scoreHistogram[bucket] += entry.getValue();
+		}
+		courseRecords = count;
+		// Like the aggregate functions in the database, but 0 instead of null if there are no course records
+		averageScore = count == 0 ? 0 : (double) sum / count;
+		highestScore = count == 0 ? 0 : highest;
+		lowestScore = count == 0 ? 0 : lowest;
+	}
+
+	private CourseStatistics(CourseStatistics statistics, long submissions) {
+		participants = statistics.participants;
+		courseRecords = statistics.courseRecords;
+		testCourseRecords = statistics.testCourseRecords;
+		this.submissions = submissions;
+		unreadComments = statistics.unreadComments;
+		averageScore = statistics.averageScore;
+		highestScore = statistics.highestScore;
+		lowestScore = statistics.lowestScore;
+		System.arraycopy(statistics.scoreHistogram, 0, scoreHistogram, 0, scoreHistogram.length);
+	}
+
+	/**
+	 * @return The key figures after a submission has been created
+	 */
+	public CourseStatistics withNewSubmission() {
+		return new CourseStatistics(this, submissions + 1);
+	}
+
+	public long getParticipants() {
+		return participants;
+	}
+
+	public long getCourseRecords() {
+		return courseRecords;
+	}
+
+	public long getTestCourseRecords() {
+		return testCourseRecords;
+	}
+
+	public long getSubmissions() {
+		return submissions;
+	}
+
+	public long getUnreadComments() {
+		return unreadComments;
+	}
+
+	public double getAverageScore() {
+		return averageScore;
+	}
+
+	public int getHighestScore() {
+		return highestScore;
+	}
+
+	public int getLowestScore() {
+		return lowestScore;
+	}
+
+	/**
+	 * @return Number of course records per score range: the first element counts the scores 0 to 9, the second 10 to
+	 *         19 and so on. The last element also counts the score 100.
+	 */
+	public long[] getScoreHistogram() {
+		return scoreHistogram.clone();
+	}
+
+	@Override
+	public String toString() {
+		return "CourseStatistics[participants=" + participants + ", courseRecords=" + courseRecords
+				+ ", testCourseRecords=" + testCourseRecords + ", submissions=" + submissions + ", unreadComments="
+				+ unreadComments + ", averageScore=" + averageScore + ", scoreHistogram="
+				+ Arrays.toString(scoreHistogram) + "]";
+	}
+}
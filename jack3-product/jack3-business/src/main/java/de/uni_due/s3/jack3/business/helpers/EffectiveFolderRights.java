@@ -0,0 +1,77 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+import de.uni_due.s3.jack3.entities.AccessRight;
+import de.uni_due.s3.jack3.entities.tenant.Folder;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.entities.tenant.UserGroup;
+
+/**
+ * The rights users and user groups have on a folder, combining the rights granted on the folder itself and the rights
+ * inherited from parent folders. Users and user groups are referenced by their IDs, so instances can be shared
+ * between requests without holding detached entities.
+ */
+@Immutable
+public final class EffectiveFolderRights {
+
+	private final Map<Long, AccessRight> userRights;
+	private final Map<Long, AccessRight> userGroupRights;
+
+	EffectiveFolderRights(Map<Long, AccessRight> userRights, Map<Long, AccessRight> userGroupRights) {
+		this.userRights = Map.copyOf(userRights);
+		this.userGroupRights = Map.copyOf(userGroupRights);
+	}
+
+	/**
+	 * Computes the effective rights from a folder whose managing rights are loaded.
+	 */
+	public static EffectiveFolderRights of(Folder folder) {
+		final Map<Long, AccessRight> userRights = new HashMap<>();
+		addUserRights(userRights, folder.getManagingUsers());
+		addUserRights(userRights, folder.getInheritedManagingUsers());
+
+		final Map<Long, AccessRight> userGroupRights = new HashMap<>();
+		addUserGroupRights(userGroupRights, folder.getManagingUserGroups());
+		addUserGroupRights(userGroupRights, folder.getInheritedManagingUserGroups());
+
+		return new EffectiveFolderRights(userRights, userGroupRights);
+	}
+
+	private static void addUserRights(Map<Long, AccessRight> target, Map<User, AccessRight> rights) {
+		rights.forEach((user, right) -> add(target, user.getId(), right));
+	}
+
+	private static void addUserGroupRights(Map<Long, AccessRight> target, Map<UserGroup, AccessRight> rights) {
+		rights.forEach((userGroup, right) -> add(target, userGroup.getId(), right));
+	}
+
+	private static void add(Map<Long, AccessRight> target, long id, AccessRight right) {
+		if (right != null) {
+			target.merge(id, right, AccessRight::add);
+		}
+	}
+
+	/**
+	 * Returns the union of the rights the user has on the folder, either directly or because of a membership in one
+	 * of the given user groups.
+	 *
+	 * @param userId
+	 *            ID of the user
+	 * @param userGroupIds
+	 *            IDs of the user groups the user is member of
+	 */
+	@Nonnull
+	public AccessRight getRightFor(long userId, Collection<Long> userGroupIds) {
+		AccessRight right = userRights.getOrDefault(userId, AccessRight.getNone());
+		for (final Long userGroupId : userGroupIds) {
+			right = right.add(userGroupRights.get(userGroupId));
+		}
+		return right;
+	}
+}
@@ -0,0 +1,57 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Precomputed key figures of an exercise, including its frozen revisions.
+ *
+ * @see de.uni_due.s3.jack3.business.StatisticsAggregateBusiness
+ */
+@Immutable
+public final class ExerciseStatistics {
+
+	private final long submissions;
+	private final long allSubmissions;
+	private final long unreadComments;
+
+	public ExerciseStatistics(long submissions, long allSubmissions, long unreadComments) {
+		this.submissions = submissions;
+		this.allSubmissions = allSubmissions;
+		this.unreadComments = unreadComments;
+	}
+
+	/**
+	 * @return The key figures after a submission has been created
+	 */
+	public ExerciseStatistics withNewSubmission(boolean testSubmission) {
+		return new ExerciseStatistics(testSubmission ? submissions : submissions + 1, allSubmissions + 1,
+				unreadComments);
+	}
+
+	/**
+	 * @return Number of non-testing submissions
+	 */
+	public long getSubmissions() {
+		return submissions;
+	}
+
+	/**
+	 * @return Number of submissions including testing submissions
+	 */
+	public long getAllSubmissions() {
+		return allSubmissions;
+	}
+
+	/**
+	 * @return Number of unread comments on non-testing submissions
+	 */
+	public long getUnreadComments() {
+		return unreadComments;
+	}
+
+	@Override
+	public String toString() {
+		return "ExerciseStatistics[submissions=" + submissions + ", allSubmissions=" + allSubmissions
+				+ ", unreadComments=" + unreadComments + "]";
+	}
+}
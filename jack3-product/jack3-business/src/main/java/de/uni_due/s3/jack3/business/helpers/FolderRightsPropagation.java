@@ -0,0 +1,103 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import de.uni_due.s3.jack3.entities.AccessRight;
+import de.uni_due.s3.jack3.entities.tenant.Folder;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.entities.tenant.UserGroup;
+
+/**
+ * Collects changes of folder rights for any number of users and user groups before they are written. The changes are
+ * grouped by folder, so every affected folder is loaded and written only once, no matter how many principals are
+ * changed on it. The affected folders can be processed in chunks, see {@link #getFolderIds()}.
+ */
+public final class FolderRightsPropagation {
+
+	private final Map<Long, List<Consumer<Folder>>> changesByFolderId = new LinkedHashMap<>();
+
+	private int numberOfChanges;
+
+	/**
+	 * Sets the right of the user on the folder. {@link AccessRight#getNone()} removes the right.
+	 */
+	public void setUserRight(long folderId, User user, AccessRight right) {
+		Objects.requireNonNull(user);
+		Objects.requireNonNull(right);
+		addChange(folderId, folder -> folder.addUserRight(user, right));
+	}
+
+	/**
+	 * Sets the right the user inherits on each of the folders. {@link AccessRight#getNone()} removes the right.
+	 */
+	public void setInheritedUserRight(Collection<Long> folderIds, User user, AccessRight right) {
+		Objects.requireNonNull(user);
+		Objects.requireNonNull(right);
+		final Consumer<Folder> change = folder -> folder.addInheritedUserRight(user, right);
+		for (final Long folderId : folderIds) {
+			addChange(folderId, change);
+		}
+	}
+
+	/**
+	 * Sets the right of the user group on the folder. {@link AccessRight#getNone()} removes the right.
+	 */
+	public void setUserGroupRight(long folderId, UserGroup userGroup, AccessRight right) {
+		Objects.requireNonNull(userGroup);
+		Objects.requireNonNull(right);
+		addChange(folderId, folder -> folder.addUserGroupRight(userGroup, right));
+	}
+
+	/**
+	 * Sets the right the user group inherits on each of the folders. {@link AccessRight#getNone()} removes the right.
+	 */
+	public void setInheritedUserGroupRight(Collection<Long> folderIds, UserGroup userGroup, AccessRight right) {
+		Objects.requireNonNull(userGroup);
+		Objects.requireNonNull(right);
+		final Consumer<Folder> change = folder -> folder.addInheritedUserGroupRight(userGroup, right);
+		for (final Long folderId : folderIds) {
+			addChange(folderId, change);
+		}
+	}
+
+	private void addChange(long folderId, Consumer<Folder> change) {
+		changesByFolderId.computeIfAbsent(folderId, id -> new ArrayList<>()).add(change);
+		numberOfChanges++;
+	}
+
+	/**
+	 * Applies all changes collected for the given folder in the order they were added. Does nothing if there are no
+	 * changes for the folder. The managing rights of the folder must be loaded.
+	 */
+	public void applyTo(Folder folder) {
+		for (final Consumer<Folder> change : changesByFolderId.getOrDefault(folder.getId(), List.of())) {
+			change.accept(folder);
+		}
+	}
+
+	/**
+	 * @return IDs of all affected folders in the order they have been changed first.
+	 */
+	public Set<Long> getFolderIds() {
+		return Collections.unmodifiableSet(changesByFolderId.keySet());
+	}
+
+	/**
+	 * @return Number of single rights that are changed, summed up over all folders.
+	 */
+	public int getNumberOfChanges() {
+		return numberOfChanges;
+	}
+
+	public boolean isEmpty() {
+		return changesByFolderId.isEmpty();
+	}
+}
@@ -0,0 +1,198 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Records durations in milliseconds over a sliding time window and computes percentiles from them. Like an HDR
+ * histogram, durations are counted in buckets with logarithmic boundaries: Each power of two is divided into
+ * {@value #SUB_BUCKETS} buckets, so a percentile is at most 25% larger than the exact value.
+ *
+ * The window is divided into {@value #SLICES} slices, each covering a fixed period. When a slice is reused for a new
+ * period, its counts are reset. Recording does not take any lock, so a few values recorded at the moment a slice is
+ * reset may get lost.
+ */
+public class LatencyHistogram {
+
+	/** Number of buckets per power of two. */
+	static final int SUB_BUCKETS = 4;
+
+	/** Durations of 2^MAX_EXPONENT ms (about 4.6 hours) and more are counted in the last bucket. */
+	private static final int MAX_EXPONENT = 24;
+
+	private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+	static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+
+	/** Number of slices the window is divided into. */
+	static final int SLICES = 5;
+
+	/**
+	 * The percentiles of the durations recorded in the window.
+	 */
+	public static final class Snapshot {
+
+		private final long count;
+		private final double mean;
+		private final long p50;
+		private final long p95;
+		private final long p99;
+		private final long max;
+
+		private Snapshot(long count, double mean, long p50, long p95, long p99, long max) {
+			this.count = count;
+			this.mean = mean;
+			this.p50 = p50;
+			this.p95 = p95;
+			this.p99 = p99;
+			this.max = max;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public double getMean() {
+			return mean;
+		}
+
+		public long getP50() {
+			return p50;
+		}
+
+		public long getP95() {
+			return p95;
+		}
+
+		public long getP99() {
+			return p99;
+		}
+
+		public long getMax() {
+			return max;
+		}
+	}
+
+	private static final class Slice {
+
+		private final AtomicLong period = new AtomicLong(Long.MIN_VALUE);
+		private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+		private final AtomicLong total = new AtomicLong();
+		private final AtomicLong max = new AtomicLong();
+
+		private void reset(long newPeriod) {
+			final long oldPeriod = period.get();
+			if (oldPeriod < newPeriod && period.compareAndSet(oldPeriod, newPeriod)) {
+				for (int i = 0; i < BUCKETS; i++) {
+					counts.set(i, 0);
+				}
+				total.set(0);
+				max.set(0);
+			}
+		}
+	}
+
+	private final long sliceMillis;
+	private final LongSupplier clock;
+	private final Slice[] slices = new Slice[SLICES];
+
+	public LatencyHistogram(Duration window) {
+		this(window, System::currentTimeMillis);
+	}
+
+	LatencyHistogram(Duration window, LongSupplier clock) {
+		this.sliceMillis = Math.max(1, window.toMillis() / SLICES);
+		this.clock = clock;
+		for (int i = 0; i < SLICES; i++) {
+			slices[i] = new Slice();
+		}
+	}
+
+	public void record(long millis) {
+		final long value = Math.max(0, millis);
+		final long period = clock.getAsLong() / sliceMillis;
+		final Slice slice = slices[(int) (period % SLICES)];
+		if (slice.period.get() != period) {
+			slice.reset(period);
+		}
+		slice.counts.incrementAndGet(bucketOf(value));
+		slice.total.addAndGet(value);
+		slice.max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * Sums up all slices of the current window. This does not block concurrent recording.
+	 */
+	public Snapshot getSnapshot() {
+		final long currentPeriod = clock.getAsLong() / sliceMillis;
+		final long[] counts = new long[BUCKETS];
+		long count = 0;
+		long total = 0;
+		long max = 0;
+		for (Slice slice : slices) {
+			final long period = slice.period.get();
+			if (period <= currentPeriod - SLICES || period > currentPeriod) {
+				continue;
+			}
+			for (int i = 0; i < BUCKETS; i++) {
+				final long bucketCount = slice.counts.get(i);
+				counts[i] += bucketCount;
+				count += bucketCount;
+			}
+			total += slice.total.get();
+			max = Math.max(max, slice.max.get());
+		}
+
+		if (count == 0) {
+			return new Snapshot(0, Double.NaN, 0, 0, 0, 0);
+		}
+		return new Snapshot(count, (double) total / count, percentile(counts, count, 0.5, max),
+				percentile(counts, count, 0.95, max), percentile(counts, count, 0.99, max), max);
+	}
+
+	/**
+	 * Returns the upper bound of the bucket containing the given percentile, but not more than the maximum.
+	 */
+	private static long percentile(long[] counts, long count, double percentile, long max) {
+		final long rank = (long) Math.ceil(percentile * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	/*
+	 * Values below SUB_BUCKETS have their own bucket. Larger values are assigned by their highest bit (the exponent)
+	 * and the SUB_BUCKET_BITS bits below it.
+	 */
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		final int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+		if (exponent == MAX_EXPONENT) {
+			return BUCKETS - 1;
+		}
+		final int subBucket = (int) (value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		if (bucket == BUCKETS - 1) {
+			return Long.MAX_VALUE;
+		}
+		final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		final int subBucket = bucket % SUB_BUCKETS;
+		final long lowerBound = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+		return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+}
@@ -0,0 +1,63 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Key figures of the mail outbox. The numbers of delivered mails and of failed attempts are counted since the last
+ * restart, the delivery latency is the time between queueing and delivering a mail.
+ *
+ * @see de.uni_due.s3.jack3.business.MailOutboxBusiness
+ */
+@Immutable
+public final class MailOutboxStatistics {
+
+	private final long queuedMails;
+	private final long undeliverableMails;
+	private final long deliveredMails;
+	private final long failedAttempts;
+	private final LatencyHistogram.Snapshot deliveryLatency;
+
+	public MailOutboxStatistics(long queuedMails, long undeliverableMails, long deliveredMails, long failedAttempts,
+			LatencyHistogram.Snapshot deliveryLatency) {
+		this.queuedMails = queuedMails;
+		this.undeliverableMails = undeliverableMails;
+		this.deliveredMails = deliveredMails;
+		this.failedAttempts = failedAttempts;
+		this.deliveryLatency = deliveryLatency;
+	}
+
+	/**
+	 * @return Number of mails waiting for delivery
+	 */
+	public long getQueuedMails() {
+		return queuedMails;
+	}
+
+	/**
+	 * @return Number of mails that have been given up and are kept as failed in the outbox
+	 */
+	public long getUndeliverableMails() {
+		return undeliverableMails;
+	}
+
+	public long getDeliveredMails() {
+		return deliveredMails;
+	}
+
+	public long getFailedAttempts() {
+		return failedAttempts;
+	}
+
+	/**
+	 * @return Delivery latency of the mails delivered in the last hour
+	 */
+	public LatencyHistogram.Snapshot getDeliveryLatency() {
+		return deliveryLatency;
+	}
+
+	@Override
+	public String toString() {
+		return "MailOutboxStatistics[queuedMails=" + queuedMails + ", undeliverableMails=" + undeliverableMails
+				+ ", deliveredMails=" + deliveredMails + ", failedAttempts=" + failedAttempts + "]";
+	}
+}
@@ -0,0 +1,63 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Decides when delivering a mail of the outbox is attempted again after it has failed. The delay grows exponentially
+ * up to a maximum. After the maximum number of attempts, the mail is given up.
+ *
+ * @see de.uni_due.s3.jack3.business.MailOutboxBusiness
+ */
+@Immutable
+public final class MailRetryPolicy {
+
+	/** Delay after the first failed attempt, doubled after each further failed attempt. */
+	public static final Duration FIRST_RETRY_DELAY = Duration.ofMinutes(1);
+
+	public static final Duration MAX_RETRY_DELAY = Duration.ofHours(6);
+
+	private final int maxAttempts;
+
+	/**
+	 * @param maxAttempts
+	 *            Number of attempts after which a mail is given up, at least 1
+	 */
+	public MailRetryPolicy(int maxAttempts) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("At least one attempt is required, but got " + maxAttempts);
+		}
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * @param attempts
+	 *            Number of failed attempts, at least 1
+	 * @return The time to wait before the next attempt
+	 */
+	public static Duration getRetryDelay(int attempts) {
+		final Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 20));
+		return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+	}
+
+	/**
+	 * @param attempts
+	 *            Number of failed attempts including the one that has just failed
+	 * @param failedAt
+	 *            The time the last attempt has failed
+	 * @return The time of the next attempt, or empty if the mail is given up
+	 */
+	public Optional<LocalDateTime> getNextAttemptAt(int attempts, LocalDateTime failedAt) {
+		if (attempts >= maxAttempts) {
+			return Optional.empty();
+		}
+		return Optional.of(failedAt.plus(getRetryDelay(attempts)));
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+}
@@ -0,0 +1,110 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.uni_due.s3.jack3.entities.tenant.ProfileField;
+import de.uni_due.s3.jack3.entities.tenant.User;
+
+/**
+ * The display name patterns configured by the administrator (configuration key "publicUserName"), parsed once so that
+ * the names of many users can be constructed without searching the patterns again. A pattern may contain the
+ * placeholders {@code [loginname]}, {@code [email]} and {@code [<name of a profile field>]}. Profile fields take
+ * precedence over the other placeholders, unknown placeholders are kept as they are.
+ *
+ * <p>
+ * If the first pattern results in an empty name, the second pattern is applied. If there is still no name, the login
+ * name is used.
+ * </p>
+ */
+@Immutable
+public final class PublicUserNameFormat {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\[([^\\[\\]]*)\\]");
+
+	/** Parts of each pattern, the name is constructed by joining the values of all parts */
+	private final List<List<Function<User, String>>> patterns;
+
+	private PublicUserNameFormat(List<List<Function<User, String>>> patterns) {
+		this.patterns = patterns;
+	}
+
+	/**
+	 * @param patterns
+	 *            The configured display name patterns, only the first two are used
+	 * @param profileFields
+	 *            All profile fields that can be used as placeholders
+	 */
+	public static PublicUserNameFormat compile(List<String> patterns, Collection<ProfileField> profileFields) {
+		final Map<String, ProfileField> fieldsByName = new HashMap<>();
+		for (final ProfileField field : profileFields) {
+			fieldsByName.putIfAbsent(field.getName(), field);
+		}
+
+		final List<List<Function<User, String>>> compiled = new ArrayList<>();
+		for (final String pattern : patterns.subList(0, Math.min(2, patterns.size()))) {
+			compiled.add(compilePattern(pattern, fieldsByName));
+		}
+		return new PublicUserNameFormat(compiled);
+	}
+
+	private static List<Function<User, String>> compilePattern(String pattern, Map<String, ProfileField> fields) {
+		final List<Function<User, String>> parts = new ArrayList<>();
+		final Matcher matcher = PLACEHOLDER.matcher(pattern);
+		int end = 0;
+		while (matcher.find()) {
+			addLiteral(parts, pattern.substring(end, matcher.start()));
+			parts.add(compilePlaceholder(matcher.group(1), matcher.group(), fields));
+			end = matcher.end();
+		}
+		addLiteral(parts, pattern.substring(end));
+		return parts;
+	}
+
+	private static void addLiteral(List<Function<User, String>> parts, String literal) {
+		if (!literal.isEmpty()) {
+			parts.add(user -> literal);
+		}
+	}
+
+	private static Function<User, String> compilePlaceholder(String name, String placeholder,
+			Map<String, ProfileField> fields) {
+		final ProfileField field = fields.get(name);
+		if (field != null) {
+			return user -> Objects.toString(user.getProfileData().get(field), "");
+		}
+		if ("loginname".equals(name)) {
+			return User::getLoginName;
+		}
+		if ("email".equals(name)) {
+			return user -> Objects.toString(user.getEmail(), "");
+		}
+		return user -> placeholder;
+	}
+
+	/**
+	 * Constructs the clear name of a user. The profile data of the user must be loaded.
+	 */
+	public PublicUserName format(User user) {
+		for (final List<Function<User, String>> pattern : patterns) {
+			final StringBuilder name = new StringBuilder();
+			for (final Function<User, String> part : pattern) {
+				name.append(part.apply(user));
+			}
+			final String publicName = name.toString().strip();
+			if (!publicName.isEmpty()) {
+				return PublicUserName.of(publicName);
+			}
+		}
+		return PublicUserName.of(user.getLoginName());
+	}
+}
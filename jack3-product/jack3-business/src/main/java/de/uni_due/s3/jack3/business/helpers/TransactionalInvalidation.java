@@ -0,0 +1,221 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an in-memory cache of database data consistent with the transactions that change the data. Entries are keyed
+ * by entity IDs.
+ *
+ * A change removes the affected entries immediately and again when its transaction is completed, because other
+ * requests may have loaded the old data in the meantime. Until then, the affected entries are not cached, so neither
+ * uncommitted nor rolled back data gets into the cache. To complete a change after its transaction, the {@link Change}
+ * returned by {@link #changed(Collection)} or {@link #changedAll()} must be fired as a CDI event, it is observed by
+ * {@code TransactionalInvalidationBusiness}. Without a transaction, the change is completed immediately.
+ *
+ * Loading an entry works as follows:
+ *
+ * <pre>
+ * final long stamp = invalidation.getStamp(id);
+ * final T entry = load(id);
+ * invalidation.keepIfUnchanged(id, stamp, () -&gt; cache.put(id, entry));
+ * </pre>
+ *
+ * Each key has a stamp that is incremented by every change of the key, so changes of other keys do not prevent an
+ * entry from being cached. The stamps are kept in a fixed number of stripes, keys that share a stripe are treated as
+ * changed together.
+ *
+ * Frequent changes whose effect on an entry is known, e.g. a counter that is incremented, can be reported with
+ * {@link #updated(Collection, Consumer)} instead. The entries are kept and updated after the transaction has been
+ * committed, so they can still be read from the cache meanwhile.
+ */
+public final class TransactionalInvalidation {
+
+	/**
+	 * A change of the cached data. Must be fired as a CDI event, it is observed after completion of the transaction.
+	 */
+	public static final class Change {
+
+		private final TransactionalInvalidation invalidation;
+
+		/** The changed keys, or {@code null} if all keys have been changed. */
+		private final Set<Long> keys;
+
+		/** Updates the present entries after a commit, or {@code null} if they are removed. */
+		private final Consumer<Collection<Long>> update;
+
+		private Change(TransactionalInvalidation invalidation, Set<Long> keys, Consumer<Collection<Long>> update) {
+			this.invalidation = invalidation;
+			this.keys = keys;
+			this.update = update;
+		}
+
+		/**
+		 * Removes the affected entries again and allows caching them again. Used if the outcome of the transaction is
+		 * unknown.
+		 */
+		public void complete() {
+			complete(false);
+		}
+
+		/**
+		 * Updates the affected entries if the transaction has been committed and the change is an update, otherwise
+		 * removes them again. Allows caching the entries again.
+		 */
+		public void complete(boolean committed) {
+			invalidation.complete(this, committed);
+		}
+	}
+
+	private static final int STRIPES = 1024;
+
+	private final Consumer<Collection<Long>> invalidateKeys;
+
+	private final Runnable invalidateAll;
+
+	private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+	/** Incremented whenever all keys are changed. */
+	private final AtomicLong epoch = new AtomicLong();
+
+	/** Number of uncompleted transactions that changed a key, by key. */
+	private final Map<Long, Integer> pendingKeys = new ConcurrentHashMap<>();
+
+	/** Number of uncompleted transactions that changed all keys. */
+	private final AtomicInteger pendingAll = new AtomicInteger();
+
+	/**
+	 * @param invalidateKeys
+	 *            Removes the entries with the given keys from the cache
+	 * @param invalidateAll
+	 *            Removes all entries from the cache
+	 */
+	public TransactionalInvalidation(Consumer<Collection<Long>> invalidateKeys, Runnable invalidateAll) {
+		this.invalidateKeys = invalidateKeys;
+		this.invalidateAll = invalidateAll;
+	}
+
+	/**
+	 * Returns the current stamp of the key. Must be called before the entry is loaded.
+	 */
+	public long getStamp(long key) {
+		// Both counters only grow, so the sum changes whenever one of them changes
+		return epoch.get() + stamps.get(stripeOf(key));
+	}
+
+	/**
+	 * Runs the given action to put a loaded entry into the cache, unless the key has been changed since the stamp was
+	 * taken or a change of the key is not completed yet.
+	 *
+	 * @return {@code true} if the entry has been kept
+	 */
+	public boolean keepIfUnchanged(long key, long stamp, Runnable keep) {
+		if (!isUnchanged(key, stamp)) {
+			return false;
+		}
+		keep.run();
+		// A change that started meanwhile may have removed the entry before it was put
+		if (!isUnchanged(key, stamp)) {
+			invalidateKeys.accept(Set.of(key));
+			return false;
+		}
+		return true;
+	}
+
+	private boolean isUnchanged(long key, long stamp) {
+		return pendingAll.get() == 0 && !pendingKeys.containsKey(key) && getStamp(key) == stamp;
+	}
+
+	/**
+	 * Removes the entries with the given keys until the current transaction is completed.
+	 *
+	 * @return The change that must be fired as a CDI event
+	 */
+	public Change changed(Collection<Long> keys) {
+		final Set<Long> changedKeys = Set.copyOf(keys);
+		for (final Long key : changedKeys) {
+			pendingKeys.merge(key, 1, Integer::sum);
+		}
+		invalidate(changedKeys);
+		return new Change(this, changedKeys, null);
+	}
+
+	/**
+	 * Keeps the entries with the given keys, they are updated after the current transaction has been committed. Until
+	 * then, entries that are loaded for these keys are not cached, because they may already contain the change. If the
+	 * transaction is rolled back, the entries are removed.
+	 *
+	 * @param update
+	 *            Applies the change to the present entries with the given keys
+	 * @return The change that must be fired as a CDI event
+	 */
+	public Change updated(Collection<Long> keys, Consumer<Collection<Long>> update) {
+		final Set<Long> changedKeys = Set.copyOf(keys);
+		for (final Long key : changedKeys) {
+			pendingKeys.merge(key, 1, Integer::sum);
+		}
+		return new Change(this, changedKeys, update);
+	}
+
+	/**
+	 * Removes all entries until the current transaction is completed.
+	 *
+	 * @return The change that must be fired as a CDI event
+	 */
+	public Change changedAll() {
+		pendingAll.incrementAndGet();
+		invalidate(null);
+		return new Change(this, null, null);
+	}
+
+	private void complete(Change change, boolean committed) {
+		if (committed && change.update != null) {
+			// Entries loaded by other requests in the meantime may already contain the change, so they must not be
+			// kept. The present entries have been cached before the change started.
+			for (final Long key : change.keys) {
+				stamps.incrementAndGet(stripeOf(key));
+			}
+			change.update.accept(change.keys);
+		} else {
+			// Remove entries loaded by other requests in the meantime before they may be cached again
+			invalidate(change.keys);
+		}
+		if (change.keys == null) {
+			pendingAll.decrementAndGet();
+			return;
+		}
+		for (final Long key : change.keys) {
+			pendingKeys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+		}
+	}
+
+	/**
+	 * Removes all entries, e.g. after the database has been cleared. Changes that are not completed yet are kept.
+	 */
+	public void clear() {
+		invalidate(null);
+	}
+
+	private void invalidate(Set<Long> keys) {
+		// The stamps must be incremented before the entries are removed, see keepIfUnchanged
+		if (keys == null) {
+			epoch.incrementAndGet();
+			invalidateAll.run();
+		} else if (!keys.isEmpty()) {
+			for (final Long key : keys) {
+				stamps.incrementAndGet(stripeOf(key));
+			}
+			invalidateKeys.accept(keys);
+		}
+	}
+
+	private static int stripeOf(long key) {
+		return Math.floorMod(Long.hashCode(key), STRIPES);
+	}
+}
@@ -0,0 +1,90 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The transitive closure of user group memberships: For every user, the IDs of all user groups the user is a direct
+ * or indirect member of. A user is an indirect member of a group if the user is a member of one of its (direct or
+ * indirect) member groups. The closure is computed once from the direct memberships, so a lookup only depends on the
+ * number of groups of the user and not on the number or nesting of all groups.
+ */
+@Immutable
+public final class UserGroupMembershipIndex {
+
+	private final Map<Long, Set<Long>> userGroupIdsByUserId;
+
+	private UserGroupMembershipIndex(Map<Long, Set<Long>> userGroupIdsByUserId) {
+		this.userGroupIdsByUserId = userGroupIdsByUserId;
+	}
+
+	/**
+	 * Computes the index from the direct memberships. Cyclic memberships are allowed.
+	 *
+	 * @param memberUserIdsByUserGroupId
+	 *            IDs of the direct member users, by ID of the user group
+	 * @param memberGroupIdsByUserGroupId
+	 *            IDs of the direct member groups, by ID of the user group
+	 */
+	public static UserGroupMembershipIndex of(Map<Long, ? extends Collection<Long>> memberUserIdsByUserGroupId,
+			Map<Long, ? extends Collection<Long>> memberGroupIdsByUserGroupId) {
+		// Invert the group memberships, so we can walk up from a group to all groups containing it
+		final Map<Long, Set<Long>> parentIdsByUserGroupId = new HashMap<>();
+		memberGroupIdsByUserGroupId.forEach((parentId, memberIds) -> {
+			for (final Long memberId : memberIds) {
+				parentIdsByUserGroupId.computeIfAbsent(memberId, id -> new HashSet<>()).add(parentId);
+			}
+		});
+
+		final Map<Long, Set<Long>> closureByUserGroupId = new HashMap<>();
+		final Map<Long, Set<Long>> userGroupIdsByUserId = new HashMap<>();
+		memberUserIdsByUserGroupId.forEach((userGroupId, memberIds) -> {
+			final Set<Long> closure = closureByUserGroupId.computeIfAbsent(userGroupId,
+					id -> closureOf(id, parentIdsByUserGroupId));
+			for (final Long userId : memberIds) {
+				userGroupIdsByUserId.computeIfAbsent(userId, id -> new HashSet<>()).addAll(closure);
+			}
+		});
+
+		userGroupIdsByUserId.replaceAll((userId, userGroupIds) -> Set.copyOf(userGroupIds));
+		return new UserGroupMembershipIndex(Map.copyOf(userGroupIdsByUserId));
+	}
+
+	/**
+	 * Returns the given group together with all groups containing it directly or indirectly.
+	 */
+	private static Set<Long> closureOf(Long userGroupId, Map<Long, Set<Long>> parentIdsByUserGroupId) {
+		final Set<Long> closure = new HashSet<>();
+		final ArrayDeque<Long> queue = new ArrayDeque<>(List.of(userGroupId));
+		while (!queue.isEmpty()) {
+			final Long id = queue.poll();
+			if (closure.add(id)) {
+				queue.addAll(parentIdsByUserGroupId.getOrDefault(id, Set.of()));
+			}
+		}
+		return closure;
+	}
+
+	/**
+	 * @return IDs of all user groups the user is a direct or indirect member of
+	 */
+	@Nonnull
+	public Set<Long> getUserGroupIds(long userId) {
+		return userGroupIdsByUserId.getOrDefault(userId, Set.of());
+	}
+
+	/**
+	 * @return Number of users that are a member of at least one user group
+	 */
+	public int getNumberOfUsers() {
+		return userGroupIdsByUserId.size();
+	}
+}
@@ -0,0 +1,409 @@
+package de.uni_due.s3.jack3.business.messaging;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.logging.Logger;
+
+/**
+ * Outbound pipeline for messages to the checker backends. Messages are queued per topic and published in batches by a
+ * worker of the given executor. For each topic, only a limited number of messages may be in flight, i.e. published
+ * but not yet acknowledged by the broker. Further messages stay in the queue until earlier ones are acknowledged, so a
+ * burst of submissions does not overflow the emitter.
+ *
+ * The queue of each topic is bounded. Messages that don't fit into it are dropped, so the caller must be able to
+ * publish them again later (messages of jobs are persisted by {@link MessageBusiness} for this reason). A message of a
+ * job that is queued or in flight already is not queued a second time.
+ *
+ * A message that is rejected by the broker, or not acknowledged within {@link #ACK_TIMEOUT}, is retried up to
+ * {@link #MAX_ATTEMPTS} times. It is queued again at the tail of the queue after an exponentially growing delay, so
+ * a message that keeps failing does not hold up the later messages of its topic.
+ */
+public class CheckerJobPipeline {
+
+	/** Maximum number of messages that are published by one worker run per topic. */
+	static final int BATCH_SIZE = 20;
+
+	/** Maximum number of attempts to publish a message. */
+	static final int MAX_ATTEMPTS = 3;
+
+	/** Delay before the first retry, doubled for each further retry. */
+	static final Duration FIRST_RETRY_DELAY = Duration.ofSeconds(1);
+
+	static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(1);
+
+	/** A published message that is not acknowledged within this time counts as rejected. */
+	static final Duration ACK_TIMEOUT = Duration.ofSeconds(60);
+
+	/**
+	 * Runs tasks after a delay.
+	 */
+	@FunctionalInterface
+	public interface Scheduler {
+		void schedule(Runnable task, Duration delay);
+	}
+
+	/**
+	 * A message that is waiting to be published.
+	 */
+	public static final class OutboundMessage {
+
+		private final byte[] serializedDto;
+		private final String topic;
+		private final Long jobId;
+		private long queuedAt;
+		private int attempts;
+
+		/**
+		 * @param jobId
+		 *            The ID of the {@link de.uni_due.s3.jack3.entities.tenant.Job} this message belongs to, may be
+		 *            {@code null} for messages without a job (e.g. console requests)
+		 */
+		public OutboundMessage(byte[] serializedDto, String topic, Long jobId) {
+			this.serializedDto = serializedDto;
+			this.topic = topic;
+			this.jobId = jobId;
+		}
+
+		public byte[] getSerializedDto() {
+			return serializedDto;
+		}
+
+		public String getTopic() {
+			return topic;
+		}
+
+		public Long getJobId() {
+			return jobId;
+		}
+
+		@Override
+		public String toString() {
+			return "message" + (jobId != null ? " for job " + jobId : "") + " to topic '" + topic + "'";
+		}
+	}
+
+	/**
+	 * Statistics of one topic. All values are read without locking, so a snapshot may be slightly inconsistent.
+	 */
+	public static final class TopicStatistics {
+
+		private final String topic;
+		private final Queue<OutboundMessage> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicInteger queued = new AtomicInteger();
+		private final AtomicInteger inFlight = new AtomicInteger();
+		private final AtomicLong published = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong overflowed = new AtomicLong();
+		private final AtomicLong timedOut = new AtomicLong();
+		private final AtomicLong totalPublishNanos = new AtomicLong();
+		private final AtomicLong maxPublishNanos = new AtomicLong();
+		private final AtomicLong finishedJobs = new AtomicLong();
+		private final AtomicLong totalTurnaroundMillis = new AtomicLong();
+		private final AtomicLong maxTurnaroundMillis = new AtomicLong();
+		private volatile int maxInFlight;
+
+		private TopicStatistics(String topic) {
+			this.topic = topic;
+		}
+
+		public String getTopic() {
+			return topic;
+		}
+
+		/** Number of messages waiting to be published, including messages waiting for a retry. */
+		public int getQueueDepth() {
+			return queued.get();
+		}
+
+		/** Number of published messages that have not been acknowledged yet. */
+		public int getInFlight() {
+			return inFlight.get();
+		}
+
+		public int getMaxInFlight() {
+			return maxInFlight;
+		}
+
+		public long getPublished() {
+			return published.get();
+		}
+
+		public long getFailed() {
+			return failed.get();
+		}
+
+		/** Number of messages that have been dropped because the queue was full. */
+		public long getOverflowed() {
+			return overflowed.get();
+		}
+
+		/** Number of attempts that were not acknowledged in time. */
+		public long getTimedOut() {
+			return timedOut.get();
+		}
+
+		/** Average time from queueing a message until it is acknowledged by the broker. */
+		public double getAveragePublishMillis() {
+			final long count = published.get();
+			return count == 0 ? Double.NaN : Duration.ofNanos(totalPublishNanos.get()).toMillis() / (double) count;
+		}
+
+		public long getMaxPublishMillis() {
+			return Duration.ofNanos(maxPublishNanos.get()).toMillis();
+		}
+
+		/** Number of jobs for which a checker result has been received. */
+		public long getFinishedJobs() {
+			return finishedJobs.get();
+		}
+
+		/** Average time from starting a job until its checker result is received. */
+		public double getAverageTurnaroundMillis() {
+			final long count = finishedJobs.get();
+			return count == 0 ? Double.NaN : totalTurnaroundMillis.get() / (double) count;
+		}
+
+		public long getMaxTurnaroundMillis() {
+			return maxTurnaroundMillis.get();
+		}
+	}
+
+	private final BiConsumer<String, Message<byte[]>> emitter;
+	private final Executor executor;
+	private final Scheduler scheduler;
+	private final ToIntFunction<String> maxInFlightForTopic;
+	private final int maxQueued;
+	private final Consumer<OutboundMessage> onPublished;
+	private final Logger logger;
+	private final LongSupplier nanoTime;
+
+	private final Map<String, TopicStatistics> topics = new ConcurrentHashMap<>();
+	private final Set<Long> queuedOrInFlightJobIds = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+	/**
+	 * @param emitter
+	 *            Publishes a message to the given topic, must call the ack or nack function of the message
+	 *            eventually
+	 * @param executor
+	 *            Executes the worker that publishes queued messages
+	 * @param scheduler
+	 *            Runs delayed retries and checks for missing acknowledgements
+	 * @param maxInFlightForTopic
+	 *            Returns the maximum number of unacknowledged messages for a topic
+	 * @param maxQueued
+	 *            Maximum number of messages waiting to be published per topic
+	 * @param onPublished
+	 *            Called for every message that has been acknowledged by the broker
+	 */
+	public CheckerJobPipeline(BiConsumer<String, Message<byte[]>> emitter, Executor executor, Scheduler scheduler,
+			ToIntFunction<String> maxInFlightForTopic, int maxQueued, Consumer<OutboundMessage> onPublished,
+			Logger logger) {
+		this(emitter, executor, scheduler, maxInFlightForTopic, maxQueued, onPublished, logger, System::nanoTime);
+	}
+
+	CheckerJobPipeline(BiConsumer<String, Message<byte[]>> emitter, Executor executor, Scheduler scheduler,
+			ToIntFunction<String> maxInFlightForTopic, int maxQueued, Consumer<OutboundMessage> onPublished,
+			Logger logger, LongSupplier nanoTime) {
+		this.emitter = emitter;
+		this.executor = executor;
+		this.scheduler = scheduler;
+		this.maxInFlightForTopic = maxInFlightForTopic;
+		this.maxQueued = maxQueued;
+		this.onPublished = onPublished;
+		this.logger = logger;
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Queues the message and schedules a worker to publish it. This method does not block.
+	 *
+	 * @return {@code false} if the message has not been queued, because the queue of its topic is full or the message
+	 *         of the same job is queued or in flight already
+	 */
+	public boolean enqueue(OutboundMessage message) {
+		if (message.getJobId() != null && !queuedOrInFlightJobIds.add(message.getJobId())) {
+			return false;
+		}
+
+		final TopicStatistics topic = topicFor(message.getTopic());
+		if (topic.queued.incrementAndGet() > maxQueued) {
+			topic.queued.decrementAndGet();
+			topic.overflowed.incrementAndGet();
+			forget(message);
+			logger.warn("The queue of topic '" + topic.getTopic() + "' is full, " + message + " is not queued.");
+			return false;
+		}
+
+		message.queuedAt = nanoTime.getAsLong();
+		topic.queue.offer(message);
+		scheduleDrain();
+		return true;
+	}
+
+	/**
+	 * Records the time a job took from starting it until its result has been received.
+	 */
+	public void recordTurnaround(String topicName, Duration turnaround) {
+		final TopicStatistics topic = topicFor(topicName);
+		topic.finishedJobs.incrementAndGet();
+		topic.totalTurnaroundMillis.addAndGet(turnaround.toMillis());
+		topic.maxTurnaroundMillis.accumulateAndGet(turnaround.toMillis(), Math::max);
+	}
+
+	public List<TopicStatistics> getStatistics() {
+		return new ArrayList<>(topics.values());
+	}
+
+	private TopicStatistics topicFor(String topicName) {
+		return topics.computeIfAbsent(topicName, name -> {
+			final TopicStatistics topic = new TopicStatistics(name);
+			topic.maxInFlight = maxInFlightForTopic.applyAsInt(name);
+			return topic;
+		});
+	}
+
+	/*
+	 * At most one worker is scheduled at a time. A worker that finds new messages after clearing the flag schedules
+	 * itself again, so no message is left behind.
+	 */
+	private void scheduleDrain() {
+		if (!drainScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			drainScheduled.set(false);
+			logger.error("Could not schedule publishing of checker jobs.", e);
+		}
+	}
+
+	private void drain() {
+		try {
+			topics.values().forEach(this::publishBatch);
+		} finally {
+			drainScheduled.set(false);
+		}
+		if (topics.values().stream().anyMatch(this::canPublish)) {
+			scheduleDrain();
+		}
+	}
+
+	private boolean canPublish(TopicStatistics topic) {
+		return !topic.queue.isEmpty() && topic.inFlight.get() < topic.maxInFlight;
+	}
+
+	private void publishBatch(TopicStatistics topic) {
+		for (int i = 0; i < BATCH_SIZE && canPublish(topic); i++) {
+			final OutboundMessage message = topic.queue.poll();
+			if (message == null) {
+				return;
+			}
+			topic.queued.decrementAndGet();
+			publish(topic, message);
+		}
+	}
+
+	private void publish(TopicStatistics topic, OutboundMessage message) {
+		message.attempts++;
+		topic.inFlight.incrementAndGet();
+		final AtomicBoolean completed = new AtomicBoolean();
+		scheduler.schedule(() -> {
+			if (completed.compareAndSet(false, true)) {
+				topic.timedOut.incrementAndGet();
+				onRejected(topic, message, new TimeoutException("No acknowledgement within " + ACK_TIMEOUT));
+			}
+		}, ACK_TIMEOUT);
+		final Message<byte[]> kafkaMessage = Message.of(message.getSerializedDto(), () -> {
+			if (completed.compareAndSet(false, true)) {
+				onAcknowledged(topic, message);
+			}
+			return CompletableFuture.completedFuture(null);
+		}, reason -> {
+			if (completed.compareAndSet(false, true)) {
+				onRejected(topic, message, reason);
+			}
+			return CompletableFuture.completedFuture(null);
+		});
+
+		try {
+			emitter.accept(message.getTopic(), kafkaMessage);
+		} catch (RuntimeException e) {
+			// E.g. the emitter's buffer is full or the channel is cancelled
+			if (completed.compareAndSet(false, true)) {
+				onRejected(topic, message, e);
+			}
+		}
+	}
+
+	private void onAcknowledged(TopicStatistics topic, OutboundMessage message) {
+		final long nanos = nanoTime.getAsLong() - message.queuedAt;
+		topic.inFlight.decrementAndGet();
+		topic.published.incrementAndGet();
+		topic.totalPublishNanos.addAndGet(nanos);
+		topic.maxPublishNanos.accumulateAndGet(nanos, Math::max);
+		forget(message);
+		try {
+			onPublished.accept(message);
+		} catch (RuntimeException e) {
+			logger.error("Could not handle acknowledgement of " + message + ".", e);
+		}
+		scheduleDrain();
+	}
+
+	private void onRejected(TopicStatistics topic, OutboundMessage message, Throwable reason) {
+		topic.inFlight.decrementAndGet();
+		if (message.attempts < MAX_ATTEMPTS) {
+			final Duration delay = getRetryDelay(message.attempts);
+			logger.warn("Publishing " + message + " failed, it is queued again in " + delay.toMillis() + " ms: "
+					+ reason);
+			// Counted as queued while waiting, so the queue is not filled beyond its bound meanwhile
+			topic.queued.incrementAndGet();
+			scheduler.schedule(() -> {
+				topic.queue.offer(message);
+				scheduleDrain();
+			}, delay);
+		} else {
+			topic.failed.incrementAndGet();
+			forget(message);
+			logger.error("Publishing " + message + " failed " + message.attempts + " times, giving up.", reason);
+		}
+		scheduleDrain();
+	}
+
+	private void forget(OutboundMessage message) {
+		if (message.getJobId() != null) {
+			queuedOrInFlightJobIds.remove(message.getJobId());
+		}
+	}
+
+	/**
+	 * @param attempts
+	 *            Number of failed attempts, at least 1
+	 * @return The time to wait before the next attempt
+	 */
+	static Duration getRetryDelay(int attempts) {
+		final Duration delay = FIRST_RETRY_DELAY.multipliedBy(1L << Math.min(attempts - 1, 20));
+		return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+	}
+}
@@ -0,0 +1,162 @@
+package de.uni_due.s3.jack3.business.messaging;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Processes incoming checker results concurrently. Each result is assigned to one of a fixed number of lanes by a
+ * partition key (the course record ID), and the results of a lane are processed one after another. Thus results that
+ * update the same course record are processed in the order they were received, while other results are processed in
+ * parallel.
+ *
+ * The number of pending results is limited without blocking the consumer: {@link #whenCapacityAvailable()} completes
+ * only while fewer than the maximum number of results are pending. The consumer returns it to the messaging system,
+ * which does not deliver the next result before, so a backlog stays in the topic instead of in memory.
+ */
+public class CheckerResultDispatcher {
+
+	/**
+	 * Runs the tasks it receives one after another on the underlying executor.
+	 */
+	private final class Lane {
+
+		private final Queue<Runnable> tasks = new ArrayDeque<>();
+		private boolean running;
+
+		void execute(Runnable task) {
+			synchronized (this) {
+				tasks.offer(task);
+				if (running) {
+					return;
+				}
+				running = true;
+			}
+			try {
+				executor.execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				// Process the results in the calling thread rather than losing them, there are at most maxPending
+				logger.warn("Could not schedule processing of checker results, they are processed synchronously.", e);
+				drain();
+			}
+		}
+
+		/**
+		 * Runs the tasks until the lane is empty. The lock is only held to take the next task, so results can be
+		 * dispatched to this lane meanwhile.
+		 */
+		private void drain() {
+			Runnable task;
+			while ((task = next()) != null) {
+				runSafely(task);
+			}
+		}
+
+		private synchronized Runnable next() {
+			final Runnable task = tasks.poll();
+			if (task == null) {
+				running = false;
+			}
+			return task;
+		}
+	}
+
+	private final Executor executor;
+	private final Logger logger;
+	private final Lane[] lanes;
+	private final int maxPending;
+	private final AtomicLong processed = new AtomicLong();
+
+	/** Guards {@link #pending} and {@link #capacityAvailable}. */
+	private final Object capacityLock = new Object();
+	private int pending;
+	private CompletableFuture<Void> capacityAvailable = CompletableFuture.completedFuture(null);
+
+	/**
+	 * @param lanes
+	 *            Number of results that may be processed at the same time
+	 * @param maxPending
+	 *            Number of results that may be waiting or processed before {@link #whenCapacityAvailable()} waits
+	 */
+	public CheckerResultDispatcher(Executor executor, int lanes, int maxPending, Logger logger) {
+		this.executor = executor;
+		this.logger = logger;
+		this.lanes = new Lane[lanes];
+		for (int i = 0; i < lanes; i++) {
+			this.lanes[i] = new Lane();
+		}
+		this.maxPending = maxPending;
+	}
+
+	/**
+	 * Processes the task after all tasks that have been dispatched before with the same partition key. Never blocks,
+	 * the caller must wait for {@link #whenCapacityAvailable()} before dispatching the next task.
+	 *
+	 * @return Completes when the task has returned or thrown an exception, which is logged
+	 */
+	public CompletionStage<Void> dispatch(long partitionKey, Runnable task) {
+		final CompletableFuture<Void> completion = new CompletableFuture<>();
+		synchronized (capacityLock) {
+			pending++;
+			if (pending >= maxPending && capacityAvailable.isDone()) {
+				capacityAvailable = new CompletableFuture<>();
+			}
+		}
+		lanes[Math.floorMod(Long.hashCode(partitionKey), lanes.length)].execute(() -> {
+			try {
+				runSafely(task);
+			} finally {
+				processed.incrementAndGet();
+				release();
+				completion.complete(null);
+			}
+		});
+		return completion;
+	}
+
+	/**
+	 * @return Completes when fewer than the maximum number of results are pending
+	 */
+	public CompletionStage<Void> whenCapacityAvailable() {
+		synchronized (capacityLock) {
+			return capacityAvailable;
+		}
+	}
+
+	private void release() {
+		final CompletableFuture<Void> available;
+		synchronized (capacityLock) {
+			pending--;
+			available = pending < maxPending ? capacityAvailable : null;
+		}
+		// Completed outside of the lock, because it continues with consuming the next result
+		if (available != null) {
+			available.complete(null);
+		}
+	}
+
+	public long getProcessedResults() {
+		return processed.get();
+	}
+
+	public int getPendingResults() {
+		synchronized (capacityLock) {
+			return pending;
+		}
+	}
+
+	private void runSafely(Runnable task) {
+		try {
+			task.run();
+		} catch (RuntimeException e) {
+			// An exception must not stop the lane, otherwise later results for other submissions would be lost
+			logger.error("Error occured while processing checker result.", e);
+		}
+	}
+}
@@ -1,11 +1,28 @@
 package de.uni_due.s3.jack3.business.messaging;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.enterprise.inject.spi.CDI;
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.reactive.messaging.Acknowledgment;
 import org.eclipse.microprofile.reactive.messaging.Channel;
 import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
@@ -18,7 +35,10 @@ import de.uni_due.s3.jack.dto.generated.BackendResultData.BackendResult;
 import de.uni_due.s3.jack.dto.generated.ConsoleEvaluationResponse.ConsoleEvalResponse;
 import de.uni_due.s3.jack3.business.AbstractBusiness;
 import de.uni_due.s3.jack3.business.ExercisePlayerBusiness;
+import de.uni_due.s3.jack3.business.messaging.CheckerJobPipeline.OutboundMessage;
+import de.uni_due.s3.jack3.business.messaging.CheckerJobPipeline.TopicStatistics;
 import de.uni_due.s3.jack3.business.stagetypes.AbstractStageBusiness;
+import de.uni_due.s3.jack3.entities.maintenance.OutboundCheckerMessage;
 import de.uni_due.s3.jack3.entities.tenant.ConsoleResult;
 import de.uni_due.s3.jack3.entities.tenant.Job;
 import de.uni_due.s3.jack3.entities.tenant.Stage;
@@ -27,6 +47,8 @@ import de.uni_due.s3.jack3.entities.tenant.Submission;
 import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
 import de.uni_due.s3.jack3.multitenancy.TenantConfigSource;
 import de.uni_due.s3.jack3.services.BaseService;
+import de.uni_due.s3.jack3.services.JobService;
+import de.uni_due.s3.jack3.services.OutboundCheckerMessageService;
 import de.uni_due.s3.jack3.services.StageSubmissionService;
 import de.uni_due.s3.jack3.services.SubmissionService;
 import io.smallrye.reactive.messaging.kafka.api.KafkaMetadataUtil;
@@ -45,6 +67,12 @@ import io.smallrye.reactive.messaging.kafka.api.OutgoingKafkaRecordMetadata;
 @ApplicationScoped
 public class MessageBusiness extends AbstractBusiness {
 
+	/**
+	 * Persisted messages that have not been acknowledged this long after they have been queued or published again
+	 * are published again.
+	 */
+	static final Duration REPUBLISH_AFTER = Duration.ofMinutes(5);
+
 	@Inject
 	@Channel("check-request")
 	private Emitter<byte[]> messageEmitter;
@@ -61,6 +89,100 @@ public class MessageBusiness extends AbstractBusiness {
 	@Inject
 	private SubmissionService submissionService;
 
+	@Inject
+	private JobService jobService;
+
+	@Inject
+	private OutboundCheckerMessageService outboundCheckerMessageService;
+
+	@Inject
+	private Event<OutboundMessage> outboundMessageEvent;
+
+	@Resource
+	private ManagedExecutorService executor;
+
+	@Resource
+	private ManagedScheduledExecutorService scheduledExecutor;
+
+	/**
+	 * Maximum number of messages per topic that are sent to Kafka, but not yet acknowledged. This can be overwritten
+	 * for a single topic with the property "jack3.checker.&lt;topic&gt;.max-in-flight".
+	 */
+	@Inject
+	@ConfigProperty(name = "jack3.checker.max-in-flight", defaultValue = "50")
+	private int defaultMaxInFlight;
+
+	/**
+	 * Maximum number of messages per topic that wait to be sent to Kafka. Messages of jobs that don't fit into the
+	 * queue are published again by {@link #publishUnpublishedMessages()}.
+	 */
+	@Inject
+	@ConfigProperty(name = "jack3.checker.max-queued", defaultValue = "1000")
+	private int maxQueued;
+
+	/**
+	 * Number of checker results that are processed in parallel. Results for the same course record are always
+	 * processed one after another.
+	 */
+	@Inject
+	@ConfigProperty(name = "jack3.checker.result-workers", defaultValue = "4")
+	private int resultWorkers;
+
+	/**
+	 * Maximum number of received checker results that are not processed yet. If this is reached, no more results
+	 * are consumed from Kafka until a result has been processed.
+	 */
+	@Inject
+	@ConfigProperty(name = "jack3.checker.max-pending-results", defaultValue = "100")
+	private int maxPendingResults;
+
+	private CheckerJobPipeline pipeline;
+
+	private CheckerResultDispatcher resultDispatcher;
+
+	@PostConstruct
+	public void initialize() {
+		pipeline = new CheckerJobPipeline(this::emit, executor, this::schedule, this::getMaxInFlight, maxQueued,
+				this::deletePublishedMessage, getLogger());
+		resultDispatcher = new CheckerResultDispatcher(executor, resultWorkers, maxPendingResults, getLogger());
+	}
+
+	/*
+	 * Messages that are due and have not been published before the last shutdown are published again when the
+	 * application has started, see FirstTimeSetupBusiness for this workaround.
+	 */
+	private void publishAfterStartup(@Observes @Initialized(ApplicationScoped.class) Object ignored) {
+		executor.execute(this::publishUnpublishedMessages);
+	}
+
+	/**
+	 * Publishes the persisted messages of unfinished jobs again that have not been acknowledged within
+	 * {@link #REPUBLISH_AFTER}, e.g. because they did not fit into the queue or the broker was not reachable. Messages
+	 * that are still queued or in flight on this node are not published twice.
+	 *
+	 * The due messages are claimed before, so they are published by one node only, and they are not due again for
+	 * {@link #REPUBLISH_AFTER}. Messages of finished or deleted jobs are deleted instead.
+	 */
+	public void publishUnpublishedMessages() {
+		final int deleted = outboundCheckerMessageService.deleteMessagesOfFinishedJobs();
+		if (deleted > 0) {
+			getLogger().info("Deleted " + deleted + " unpublished messages of finished or deleted checker jobs.");
+		}
+
+		final LocalDateTime now = LocalDateTime.now();
+		final List<OutboundCheckerMessage> messages = outboundCheckerMessageService.claimDueMessages(now,
+				now.plus(REPUBLISH_AFTER), maxQueued);
+		int published = 0;
+		for (OutboundCheckerMessage message : messages) {
+			if (pipeline.enqueue(new OutboundMessage(message.getPayload(), message.getTopic(), message.getJobId()))) {
+				published++;
+			}
+		}
+		if (published > 0) {
+			getLogger().info("Publishing " + published + " checker job messages again.");
+		}
+	}
+
 	/**
 	 * Kafka is configured via <a
 	 * href="file:../resources/META-INF/microprofile-config.properties">microprofile-config.properties</a>. The actual
@@ -78,29 +200,58 @@ public class MessageBusiness extends AbstractBusiness {
 	 * -DJackCustomHostname="my-awesome-name"
 	 * </pre>
 	 *
+	 * The result is processed asynchronously. It is acknowledged when its transaction has been committed, and the
+	 * connector only commits the offsets of acknowledged results, so results that have not been processed before a
+	 * crash are received again. The returned stage completes when the dispatcher can take another result, the
+	 * connector does not deliver the next result before.
 	 */
 	@Incoming("checker-results")
-	public void checkerResult(BackendResult backendResult) {
+	@Acknowledgment(Acknowledgment.Strategy.MANUAL)
+	public CompletionStage<Void> checkerResult(Message<BackendResult> message) {
+		final BackendResult backendResult = message.getPayload();
 		// We catch all exceptions while processing the result here and just log them to prevent the messaging system to
 		// stop working if uncaught exceptions occur
 		try {
-			handleIncomingCheckerResult(backendResult);
+			long jobId = backendResult.getJobMetaInfo().getJobId();
+			long partitionKey = jobService.getCourseRecordOrSubmissionIdForJob(jobId)
+					.orElseThrow(() -> new NoSuchJackEntityException("Job with ID " + jobId + " not found in the db!"));
+			// The actual processing is done asynchronously, exceptions there are logged by the dispatcher. Results for
+			// the same course record are processed one after another, because they update the same entity.
+			final MessageBusiness transactionalBusiness = CDI.current().select(MessageBusiness.class).get();
+			resultDispatcher //
+					.dispatch(partitionKey, () -> transactionalBusiness.handleIncomingCheckerResult(backendResult)) //
+					.thenCompose(ignored -> message.ack());
 		} catch (Exception e) {
 			// Beware: By catching and aborting here we won't get the same result deliverd to us again
 			getLogger().error("Error occured while receiving checker result from kafka. Aborting...", e);
+			return message.ack();
 		}
+		return resultDispatcher.whenCapacityAvailable();
 	}
 
-	void handleIncomingCheckerResult(BackendResult backendResult) {
+	/**
+	 * Processes the result of a checker in a new transaction. Results that have been received already are ignored.
+	 */
+	@Transactional(value = Transactional.TxType.REQUIRES_NEW)
+	public void handleIncomingCheckerResult(BackendResult backendResult) {
 		getLogger().info("New result '" + backendResult.getResult() + "' received from Kafka: "
 				+ backendResult.getJobMetaInfo());
 
 		long jobId = backendResult.getJobMetaInfo().getJobId();
-		Job job = baseService.findById(Job.class, jobId, true)
+		Job job = jobService.getJobWithSubmissionsById(jobId)
 				.orElseThrow(() -> new NoSuchJackEntityException("Job with ID " + jobId + " not found in the db!"));
 
+		if (job.getFinishedAt() != null) {
+			// Kafka guarantees at-least-once delivery, so the same result may be received more than once
+			getLogger().warn("Result for job " + jobId + " has already been received, ignoring it: "
+					+ backendResult.getJobMetaInfo());
+			return;
+		}
+
 		job.setFinished();
 		baseService.merge(job);
+		outboundCheckerMessageService.deleteMessagesOfJob(jobId);
+		recordTurnaround(job);
 
 		AbstractStageBusiness stageBusiness = getStageBusiness(job);
 		stageBusiness.handleAsyncCheckerResult(backendResult, job);
@@ -122,7 +273,7 @@ public class MessageBusiness extends AbstractBusiness {
 	}
 
 	/**
-	 * See {@link #checkerResult(BackendResult)}
+	 * See {@link #checkerResult(Message)}
 	 *
 	 * @param consoleEvalResponse
 	 */
@@ -146,8 +297,10 @@ public class MessageBusiness extends AbstractBusiness {
 						+ " was requested to be updated, but was not found in the DB!"));
 
 		if (consoleResult.isResponseReceived()) {
-			throw new VerifyException("The response of a console eval request has already been received, "
-					+ "but was requested to be set again! " + consoleEvalResponse);
+			// Kafka guarantees at-least-once delivery, so the same response may be received more than once
+			getLogger().warn("The response of console eval request " + consoleResultId
+					+ " has already been received, ignoring it: " + consoleEvalResponse);
+			return;
 		}
 
 		consoleResult.setResponse(output);
@@ -157,16 +310,69 @@ public class MessageBusiness extends AbstractBusiness {
 		baseService.merge(consoleResult);
 	}
 
+	/**
+	 * Sends a message that does not belong to a {@link Job}, see {@link #sendSerializedDtoToKafka(byte[], String, Long)}.
+	 */
+	public void sendSerializedDtoToKafka(byte[] serializedDto, String topic) {
+		sendSerializedDtoToKafka(serializedDto, topic, null);
+	}
+
+	/**
+	 * Queues the message for the given topic. If this is called within a transaction, the message is queued after
+	 * the transaction has been committed successfully, so a checker never receives a job that is not in the database.
+	 * The message is published asynchronously by the {@link CheckerJobPipeline}, which limits the number of
+	 * unacknowledged messages per topic.
+	 *
+	 * Messages of jobs are persisted in the same transaction and deleted when the broker has acknowledged them, so
+	 * they are not lost if the application stops before.
+	 *
+	 * @param jobId
+	 *            ID of the job the message belongs to, used for logging and metrics, may be {@code null}
+	 */
+	public void sendSerializedDtoToKafka(byte[] serializedDto, String topic, Long jobId) {
+		if (jobId != null) {
+			final LocalDateTime now = LocalDateTime.now();
+			outboundCheckerMessageService.persistMessage(
+					new OutboundCheckerMessage(serializedDto, topic, jobId, now, now.plus(REPUBLISH_AFTER)));
+		}
+		outboundMessageEvent.fire(new OutboundMessage(serializedDto, topic, jobId));
+	}
+
+	void queueAfterSuccess(@Observes(during = TransactionPhase.AFTER_SUCCESS) OutboundMessage message) {
+		pipeline.enqueue(message);
+	}
+
+	private void deletePublishedMessage(OutboundMessage message) {
+		if (message.getJobId() == null) {
+			return;
+		}
+		// Acknowledgements are received on a thread of the messaging system, that should not access the database
+		try {
+			executor.execute(() -> outboundCheckerMessageService.deleteMessagesOfJob(message.getJobId()));
+		} catch (RejectedExecutionException e) {
+			// The message is published again later, the result is only processed once
+			getLogger().warn("Could not delete published message of job " + message.getJobId() + ".", e);
+		}
+	}
+
+	private void schedule(Runnable task, Duration delay) {
+		try {
+			scheduledExecutor.schedule(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// Unpublished messages of jobs are published again by the janitor
+			getLogger().error("Could not schedule task of the checker job pipeline.", e);
+		}
+	}
+
 	/**
 	 * Since the Emitter Interface doesn't provide a direct way to change the outgoing topic, we add the topic as
 	 * metadata to the message and then emit it to the channel "check-request".
 	 */
-	public void sendSerializedDtoToKafka(byte[] serializedDto, String topic) {
+	private void emit(String topic, Message<byte[]> message) {
 		OutgoingKafkaRecordMetadata<byte[]> topicMetaData = OutgoingKafkaRecordMetadata.<byte[]>builder()
 				.withTopic(topic) //
 				.build();
-		Message<byte[]> serializedDtoMsg = Message.of(serializedDto);
-		messageEmitter.send(KafkaMetadataUtil.writeOutgoingKafkaMetadata(serializedDtoMsg, topicMetaData));
+		messageEmitter.send(KafkaMetadataUtil.writeOutgoingKafkaMetadata(message, topicMetaData));
 	}
 
 	/**
@@ -200,6 +406,29 @@ public class MessageBusiness extends AbstractBusiness {
 		return serializedDto;
 	}
 
+	/**
+	 * Returns the statistics of all topics that messages have been sent to.
+	 */
+	public List<TopicStatistics> getCheckerPipelineStatistics() {
+		return pipeline.getStatistics();
+	}
+
+	private int getMaxInFlight(String topic) {
+		return ConfigProvider.getConfig() //
+				.getOptionalValue("jack3.checker." + topic + ".max-in-flight", Integer.class) //
+				.orElse(defaultMaxInFlight);
+	}
+
+	private void recordTurnaround(Job job) {
+		if (job.getStartedAt() == null) {
+			return;
+		}
+		final Duration turnaround = Duration.between(job.getStartedAt(), job.getFinishedAt());
+		getLogger().debug("Job " + job.getId() + " on topic '" + job.getKafkaTopic() + "' finished after "
+				+ turnaround.toMillis() + " ms");
+		pipeline.recordTurnaround(job.getKafkaTopic(), turnaround);
+	}
+
 	private AbstractStageBusiness getStageBusiness(Job job) {
 		final String receiverBusinessName = "de.uni_due.s3.jack3.business.stagetypes." + job.getStageTypeName()
 				+ "Business";
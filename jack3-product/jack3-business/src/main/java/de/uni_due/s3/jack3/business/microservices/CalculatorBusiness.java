@@ -1,5 +1,7 @@
 package de.uni_due.s3.jack3.business.microservices;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -9,6 +11,8 @@ import javax.inject.Inject;
 import de.uni_due.s3.evaluator_api.calculator.request.CalculatorRequest;
 import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResponse;
 import de.uni_due.s3.jack3.business.AbstractBusiness;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorBooleanResults;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorExceptionMessage;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorRequestProducer;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorResponseBooleanizeHandler;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorResponseEvaluationHandler;
@@ -22,13 +26,21 @@ import de.uni_due.s3.jack3.entities.tenant.VariableValue;
 @ApplicationScoped
 public class CalculatorBusiness extends AbstractBusiness {
 
+	private static final String TRANSITION_EXPRESSION_PREFIX = "transitionExpression";
+	private static final String TRANSITION_CONDITION_PREFIX = "transitionCondition";
+
 	@Inject
 	private EvaluatorBusiness eurekaBusiness;
 
 	public Map<String, VariableValue> initVariables(List<VariableDeclaration> variableDeclarations)
 			throws InternalErrorEvaluatorException {
-		return calculateToEvaluationMap(
-				CalculatorRequestProducer.byVariableDeclarations(variableDeclarations, new EvaluatorMaps()));
+		// Variable declarations are usually meant to produce different values for each submission
+		CalculatorRequest request = CalculatorRequestProducer.byVariableDeclarations(variableDeclarations,
+				new EvaluatorMaps());
+		if (request.getTasks().isEmpty()) {
+			return new HashMap<>();
+		}
+		return CalculatorResponseEvaluationHandler.convertToEvaluatedMap(eurekaBusiness.calculateUncached(request));
 	}
 
 	public Map<String, VariableValue> variableUpdate(List<VariableUpdate> variableUpdates, EvaluatorMaps maps)
@@ -46,6 +58,84 @@ public class CalculatorBusiness extends AbstractBusiness {
 		return booleanizeTransitionExpression(transition.getConditionExpression(), maps);
 	}
 
+	/**
+	 * Returns the first transition from the given list that is active, i.e. whose condition (and stage expression, if
+	 * requested) is empty or evaluates to true. All expressions of all transitions are sent to the evaluator in one
+	 * single request instead of one request per expression.
+	 *
+	 * The result is the same as evaluating the transitions one after another: An evaluation error of a transition is
+	 * only reported if no transition before it is active.
+	 *
+	 * @param transitions
+	 *            The transitions to check, in the order in which they should be checked
+	 * @param maps
+	 *            The meta object containing variable values
+	 * @param includeStageExpression
+	 *            If true, the stage expression of each transition has to be true as well, otherwise only the condition
+	 *            expression is checked (e.g. for skip transitions)
+	 * @return The first active transition or null, if no transition is active
+	 */
+	public StageTransition findFirstActiveTransition(List<StageTransition> transitions, EvaluatorMaps maps,
+			boolean includeStageExpression) throws InternalErrorEvaluatorException {
+		Map<String, EvaluatorExpression> expressions = new LinkedHashMap<>();
+		for (int i = 0; i < transitions.size(); i++) {
+			StageTransition transition = transitions.get(i);
+			if (includeStageExpression) {
+				putIfNotEmpty(expressions, TRANSITION_EXPRESSION_PREFIX + i, transition.getStageExpression());
+			}
+			putIfNotEmpty(expressions, TRANSITION_CONDITION_PREFIX + i, transition.getConditionExpression());
+		}
+
+		CalculatorBooleanResults results = calculateToBooleans(expressions, maps);
+
+		for (int i = 0; i < transitions.size(); i++) {
+			// Both expressions are always checked, so an error is reported even if the other expression is false
+			boolean expressionEmptyOrTrue = !includeStageExpression
+					|| isEmptyOrTrue(TRANSITION_EXPRESSION_PREFIX + i, expressions, results);
+			boolean conditionEmptyOrTrue = isEmptyOrTrue(TRANSITION_CONDITION_PREFIX + i, expressions, results);
+			if (expressionEmptyOrTrue && conditionEmptyOrTrue) {
+				return transitions.get(i);
+			}
+		}
+		return null;
+	}
+
+	private static void putIfNotEmpty(Map<String, EvaluatorExpression> expressions, String name,
+			EvaluatorExpression expression) {
+		if (expression != null && !expression.isEmpty()) {
+			expressions.put(name, expression);
+		}
+	}
+
+	private static boolean isEmptyOrTrue(String name, Map<String, EvaluatorExpression> expressions,
+			CalculatorBooleanResults results) throws InternalErrorEvaluatorException {
+		if (!expressions.containsKey(name)) {
+			return true; // empty conditions are considered true, since a transition without condition is always active
+		}
+		return results.get(name);
+	}
+
+	/**
+	 * Evaluates all given expressions to booleans with one single request. Empty expressions are not sent to the
+	 * evaluator, so there is no result for them. Evaluation errors are not thrown here, but when the result of the
+	 * erroneous expression is requested.
+	 *
+	 * @param expressions
+	 *            The expressions to evaluate, their keys are used to look up the results
+	 * @param maps
+	 *            The meta object containing variable values
+	 */
+	public CalculatorBooleanResults calculateToBooleans(Map<String, EvaluatorExpression> expressions,
+			EvaluatorMaps maps) {
+		Map<String, EvaluatorExpression> nonEmptyExpressions = new LinkedHashMap<>();
+		expressions.forEach((name, expression) -> putIfNotEmpty(nonEmptyExpressions, name, expression));
+
+		Map<String, CalculatorExceptionMessage> errors = new HashMap<>();
+		Map<String, Boolean> results = CalculatorResponseBooleanizeHandler.convertToBooleanizedMap(
+				calculate(CalculatorRequestProducer.createBooleanRequest(nonEmptyExpressions, maps)), errors);
+		return new CalculatorBooleanResults(results, errors);
+	}
+
 	private boolean booleanizeTransitionExpression(EvaluatorExpression expression, EvaluatorMaps maps)
 			throws InternalErrorEvaluatorException {
 		if (expression.isEmpty()) {
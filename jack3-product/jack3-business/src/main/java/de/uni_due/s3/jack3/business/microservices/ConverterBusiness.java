@@ -1,6 +1,13 @@
 package de.uni_due.s3.jack3.business.microservices;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -14,15 +21,16 @@ import de.uni_due.s3.evaluator_api.converter.response.ConverterResponse;
 import de.uni_due.s3.evaluator_api.converter.response.ConverterResult;
 import de.uni_due.s3.evaluator_api.converter.response.ConverterResultType;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorContext;
-import de.uni_due.s3.evaluator_api.properties.EvaluatorContextVariable;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorProperties;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorVariableType;
 import de.uni_due.s3.jack3.business.AbstractBusiness;
 import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterException;
+import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterExceptionMessage;
 import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterFormatPropertiesProducer;
 import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterRequestProducer;
 import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterResponseHandler;
 import de.uni_due.s3.jack3.business.microservices.converterutils.InternalErrorConverterException;
+import de.uni_due.s3.jack3.business.microservices.evaluatorutils.EvaluatorContextProducer;
 import de.uni_due.s3.jack3.business.microservices.evaluatorutils.EvaluatorPropertiesProducer;
 import de.uni_due.s3.jack3.business.microservices.openobjectutils.OpenObjectConverter;
 import de.uni_due.s3.jack3.business.microservices.placeholderutils.Placeholder;
@@ -36,24 +44,39 @@ import de.uni_due.s3.openobject.OpenObject;
 @ApplicationScoped
 public class ConverterBusiness extends AbstractBusiness {
 
+	private static final String LIST_ITEM_PREFIX = "item";
+
 	@Inject
 	private EvaluatorBusiness eurekaBusiness;
 
-	private static ConverterTask createTaskFor(OpenObject openObject, ConverterTaskType type) {
-		EvaluatorProperties props = EvaluatorPropertiesProducer.byOpenObject("name", EvaluatorVariableType.VAR,
+	private static ConverterTask createTaskFor(String name, OpenObject openObject, ConverterTaskType type) {
+		EvaluatorProperties props = EvaluatorPropertiesProducer.byOpenObject(name, EvaluatorVariableType.VAR,
 				openObject);
 		ConverterFormatProperties formatProps = ConverterFormatPropertiesProducer.NONE;
 		return new ConverterTask(props, type, formatProps);
 	}
 
+	private static void addTaskFor(ConverterRequest request, String name, VariableValue variableValue,
+			ConverterTaskType type) {
+		request.context.addVariable(
+				EvaluatorContextProducer.createVariable(name, variableValue, EvaluatorVariableType.VAR));
+		request.addTask(createTaskFor(name, OpenObjectConverter.fromVariableValue(variableValue), type));
+	}
+
 	private static ConverterRequest createRequestForSingleTask(VariableValue variableValue, ConverterTaskType type) {
-		OpenObject openObject = OpenObjectConverter.fromVariableValue(variableValue);
 		ConverterRequest request = new ConverterRequest();
 		request.context = new EvaluatorContext();
-		request.context.addVariable(new EvaluatorContextVariable(
-				EvaluatorPropertiesProducer.byOpenObject("name", EvaluatorVariableType.VAR, openObject), openObject));
-		ConverterTask task = createTaskFor(openObject, type);
-		request.addTask(task);
+		addTaskFor(request, "name", variableValue, type);
+		return request;
+	}
+
+	private static ConverterRequest createRequestForListItems(List<VariableValue> variableValues,
+			ConverterTaskType type) {
+		ConverterRequest request = new ConverterRequest();
+		request.context = new EvaluatorContext();
+		for (int i = 0; i < variableValues.size(); i++) {
+			addTaskFor(request, LIST_ITEM_PREFIX + i, variableValues.get(i), type);
+		}
 		return request;
 	}
 
@@ -71,6 +94,22 @@ public class ConverterBusiness extends AbstractBusiness {
 		throw new ConverterException("Single converter result type is wrong!");
 	}
 
+	private static List<String> getStringContentsOf(ConverterResponse response, int size) throws ConverterException {
+		Map<String, ConverterResult> resultsByName = new HashMap<>();
+		for (ConverterResult result : response.getResults()) {
+			resultsByName.putIfAbsent(result.properties.name, result);
+		}
+		List<String> contents = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			ConverterResult result = resultsByName.get(LIST_ITEM_PREFIX + i);
+			if (result == null) {
+				throw new ConverterException("There is no ConverterResult for list item " + i + "!");
+			}
+			contents.add(getStringContentOf(result));
+		}
+		return contents;
+	}
+
 	private static List<OpenObject> getOpenObjectListContentOf(ConverterResult result) throws ConverterException {
 		if (ConverterResultType.OPEN_OBJECT_LIST.equals(result.type)) {
 			return result.content.getListResult();
@@ -107,6 +146,29 @@ public class ConverterBusiness extends AbstractBusiness {
 		return getListContentOf(result);
 	}
 
+	/**
+	 * Like {@link #convertToString(VariableValue)}, but converts all values with one single converter request, e.g. the
+	 * items of a list returned by {@link #convertToList(VariableValue)}.
+	 *
+	 * @return The converted values in the same order
+	 */
+	public List<String> convertToStrings(List<VariableValue> variableValues)
+			throws InternalErrorConverterException, ConverterException {
+		ConverterRequest request = createRequestForListItems(variableValues, ConverterTaskType.STRING);
+		return getStringContentsOf(doConverterRequest(request), variableValues.size());
+	}
+
+	/**
+	 * Like {@link #convertToLaTeX(VariableValue)}, but converts all values with one single converter request.
+	 *
+	 * @return The converted values in the same order
+	 */
+	public List<String> convertToLaTeX(List<VariableValue> variableValues)
+			throws InternalErrorConverterException, ConverterException {
+		ConverterRequest request = createRequestForListItems(variableValues, ConverterTaskType.LATEX);
+		return getStringContentsOf(doConverterRequest(request), variableValues.size());
+	}
+
 	/**
 	 * Replaces all occurrences of variable references in the given text, if values for those are available in the
 	 * EvaluatorMaps object. Variable references to names that are not available in the object are not replaced.
@@ -136,6 +198,58 @@ public class ConverterBusiness extends AbstractBusiness {
 		}
 	}
 
+	/**
+	 * Like {@link #replaceVariablesByVariableName(String, EvaluatorMaps)}, but for several texts with only one
+	 * converter request. Placeholders that occur in several texts are converted once. As for a single text, a text in
+	 * which a variable reference could not be converted is returned unchanged.
+	 *
+	 * @param texts
+	 *            The texts in which variable references should be replaced, may contain {@code null}
+	 * @param maps
+	 *            A EvaluatorMaps object containing variable values.
+	 * @return The texts with replaced variable references in the same order
+	 */
+	public List<String> replaceVariablesByVariableName(List<String> texts, EvaluatorMaps maps) {
+		final List<List<Placeholder>> placeholdersPerText = new ArrayList<>(texts.size());
+		final Set<Placeholder> allPlaceholders = new LinkedHashSet<>();
+		for (final String text : texts) {
+			final List<Placeholder> placeholders = text == null ? Collections.emptyList()
+					: PlaceholderFinder.findPlaceholderForText(text);
+			placeholdersPerText.add(placeholders);
+			allPlaceholders.addAll(placeholders);
+		}
+
+		final Map<Placeholder, ConverterExceptionMessage> failures = new HashMap<>();
+		final List<PlaceholderReplacement> replacements;
+		try {
+			final ConverterRequest request = ConverterRequestProducer.ofDefinedPlaceholdersAndMaps(allPlaceholders,
+					maps, failures);
+			allPlaceholders.removeAll(failures.keySet());
+			final ConverterResponse response = doConverterRequest(request);
+			replacements = ConverterResponseHandler.getPlaceholderReplacements(allPlaceholders, response, failures);
+		} catch (InternalErrorConverterException e) {
+			getLogger().error("Could not Convert all Variables due to: " + e.getMessage());
+			return new ArrayList<>(texts);
+		}
+
+		final List<String> result = new ArrayList<>(texts.size());
+		for (int i = 0; i < texts.size(); i++) {
+			final String text = texts.get(i);
+			final List<ConverterExceptionMessage> errors = placeholdersPerText.get(i).stream().distinct()
+					.map(failures::get).filter(Objects::nonNull).collect(Collectors.toList());
+			if (text == null) {
+				result.add(null);
+			} else if (errors.isEmpty()) {
+				result.add(PlaceholderReplacer.replaceTextBy(text, replacements));
+			} else {
+				getLogger().error("Could not Convert all Variables due to: " + new ConverterException(errors)
+						.getMessage());
+				result.add(text);
+			}
+		}
+		return result;
+	}
+
 	private String replaceVariablesInText(String text, EvaluatorMaps maps)
 			throws InternalErrorConverterException, ConverterException {
 		List<Placeholder> placeholders = PlaceholderFinder.findPlaceholderForText(text);
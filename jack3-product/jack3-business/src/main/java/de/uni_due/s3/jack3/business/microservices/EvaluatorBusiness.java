@@ -1,16 +1,33 @@
 package de.uni_due.s3.jack3.business.microservices;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
 import de.uni_due.s3.evaluator_api.calculator.ICalculatorService;
 import de.uni_due.s3.evaluator_api.calculator.request.CalculatorRequest;
+import de.uni_due.s3.evaluator_api.calculator.request.CalculatorTask;
 import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResponse;
 import de.uni_due.s3.evaluator_api.converter.IConverterService;
 import de.uni_due.s3.evaluator_api.converter.request.ConverterRequest;
+import de.uni_due.s3.evaluator_api.converter.request.ConverterTask;
 import de.uni_due.s3.evaluator_api.converter.response.ConverterResponse;
+import de.uni_due.s3.evaluator_api.properties.EvaluatorContext;
+import de.uni_due.s3.evaluator_api.properties.EvaluatorContextVariable;
 import de.uni_due.s3.jack3.business.AbstractBusiness;
+import de.uni_due.s3.jack3.business.microservices.evaluatorutils.EvaluatorContextProducer;
 import feign.Feign;
 import feign.jaxb.JAXBContextFactory;
 import feign.jaxb.JAXBDecoder;
@@ -21,8 +38,28 @@ import feign.slf4j.Slf4jLogger;
 @ApplicationScoped
 public class EvaluatorBusiness extends AbstractBusiness {
 
+	/** Maximum number of responses kept in the result cache. */
+	public static final long MAX_CACHED_RESPONSES = 10_000;
+
+	/** Maximum time a response is kept in the result cache. */
+	public static final Duration MAX_CACHE_AGE = Duration.ofMinutes(30);
+
+	/**
+	 * Calls of the random functions of the evaluator (e.g. "randomIntegerBetween(1,4)"), which produce different
+	 * results for identical inputs, so responses to requests containing them must not be cached. All of these
+	 * functions are named "random" followed by an upper case letter. Variables or other functions that only contain
+	 * "random" in their name are not matched.
+	 */
+	private static final Pattern NON_DETERMINISTIC_EXPRESSION = Pattern.compile("\\brandom[A-Z]\\w*\\s*\\(");
+
 	private static JAXBContextFactory jaxbFactory = new JAXBContextFactory.Builder().build();
 
+	private final Cache<List<Object>, Object> resultCache = CacheBuilder.newBuilder()
+			.maximumSize(MAX_CACHED_RESPONSES)
+			.expireAfterWrite(MAX_CACHE_AGE)
+			.recordStats()
+			.build();
+
 	private ICalculatorService calculatorService;
 
 	private IConverterService converterService;
@@ -46,11 +83,123 @@ public class EvaluatorBusiness extends AbstractBusiness {
 			.target(serviceClass, "http://evaluator-service");
 	}
 
+	/**
+	 * Sends the request to the evaluator. The response is taken from the result cache if the same request has been
+	 * sent before and all of its expressions are deterministic.
+	 */
 	public CalculatorResponse calculate(CalculatorRequest request) {
+		if (!isDeterministic(request)) {
+			return calculateUncached(request);
+		}
+		return cached(request, keyOf(request), CalculatorResponse.class, this::calculateUncached);
+	}
+
+	/**
+	 * Sends the request to the evaluator, bypassing the result cache. This must be used for requests whose results
+	 * are expected to differ between calls, e.g. the initialization of variables.
+	 */
+	public CalculatorResponse calculateUncached(CalculatorRequest request) {
 		return calculatorService.calculate(request);
 	}
 
+	/**
+	 * Sends the request to the evaluator or takes the response from the result cache, since conversions are always
+	 * deterministic.
+	 */
 	public ConverterResponse convert(ConverterRequest request) {
+		return cached(request, keyOf(request), ConverterResponse.class, this::convertUncached);
+	}
+
+	/**
+	 * Sends the request to the evaluator, bypassing the result cache.
+	 */
+	public ConverterResponse convertUncached(ConverterRequest request) {
 		return converterService.convert(request);
 	}
+
+	public CacheStats getCacheStatistics() {
+		return resultCache.stats();
+	}
+
+	public long getCacheSize() {
+		return resultCache.size();
+	}
+
+	public void clearCache() {
+		resultCache.invalidateAll();
+	}
+
+	private static boolean isDeterministic(CalculatorRequest request) {
+		return request.getTasks().stream()
+				.noneMatch(task -> task.expression != null
+						&& NON_DETERMINISTIC_EXPRESSION.matcher(task.expression).find());
+	}
+
+	/*
+	 * We don't use Cache.get(key, loader) here, because it wraps all exceptions of the evaluator call. If two threads
+	 * send the same request simultaneously, the evaluator is called twice, which is harmless.
+	 */
+	private <Q, R> R cached(Q request, Optional<List<Object>> key, Class<R> responseType,
+			Function<Q, R> evaluatorCall) {
+		if (key.isEmpty()) {
+			return evaluatorCall.apply(request);
+		}
+
+		final Object cachedResponse = resultCache.getIfPresent(key.get());
+		if (responseType.isInstance(cachedResponse)) {
+			return responseType.cast(cachedResponse);
+		}
+
+		final R response = evaluatorCall.apply(request);
+		resultCache.put(key.get(), response);
+		return response;
+	}
+
+	/**
+	 * Computes the key of a calculator request from its fields: The context variables and for each task its
+	 * expression, type and properties. Two requests have the same key iff the evaluator gets the same input.
+	 */
+	private static Optional<List<Object>> keyOf(CalculatorRequest request) {
+		final List<Object> key = new ArrayList<>();
+		key.add(CalculatorRequest.class);
+		for (final CalculatorTask task : request.getTasks()) {
+			key.add(Arrays.asList(task.expression, task.type, task.properties.name, task.properties.variableType,
+					task.properties.domainType));
+		}
+		return addContextTo(key, request.context);
+	}
+
+	/**
+	 * Computes the key of a converter request from its fields: The context variables, whose values are converted, and
+	 * for each task the converted variable, the conversion type and the format. Like for calculator requests, the key
+	 * does not rely on equals() of the evaluator API classes.
+	 */
+	private static Optional<List<Object>> keyOf(ConverterRequest request) {
+		final List<Object> key = new ArrayList<>();
+		key.add(ConverterRequest.class);
+		for (final ConverterTask task : request.getTasks()) {
+			key.add(Arrays.asList(task.properties.name, task.properties.variableType, task.properties.domainType,
+					task.type, task.format.decimals, task.format.siPrefix));
+		}
+		return addContextTo(key, request.context);
+	}
+
+	/**
+	 * Adds the properties and the value XML of every context variable to the key. The value XML is known for all
+	 * variables created by {@link EvaluatorContextProducer}, for other variables no key can be computed and the
+	 * request is not cached.
+	 */
+	private static Optional<List<Object>> addContextTo(List<Object> key, EvaluatorContext context) {
+		if (context != null) {
+			for (final EvaluatorContextVariable variable : context.getVariables()) {
+				final Optional<String> valueXml = EvaluatorContextProducer.getValueXml(variable);
+				if (valueXml.isEmpty()) {
+					return Optional.empty();
+				}
+				key.add(Arrays.asList(variable.properties.name, variable.properties.variableType,
+						variable.properties.domainType, valueXml.get()));
+			}
+		}
+		return Optional.of(key);
+	}
 }
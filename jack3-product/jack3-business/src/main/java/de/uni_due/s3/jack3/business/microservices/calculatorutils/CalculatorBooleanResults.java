@@ -0,0 +1,37 @@
+package de.uni_due.s3.jack3.business.microservices.calculatorutils;
+
+import java.util.Map;
+
+/**
+ * Boolean results of several expressions that were sent to the evaluator in a single request. An evaluation error is
+ * only reported when the result of the erroneous expression is requested. Callers can thus evaluate all expressions
+ * up front and still ignore errors of expressions that do not matter, e.g. of rules after a terminal rule.
+ */
+public class CalculatorBooleanResults {
+
+	private final Map<String, Boolean> results;
+	private final Map<String, CalculatorExceptionMessage> errors;
+
+	public CalculatorBooleanResults(Map<String, Boolean> results, Map<String, CalculatorExceptionMessage> errors) {
+		this.results = results;
+		this.errors = errors;
+	}
+
+	/**
+	 * @param name
+	 *            The name under which the expression was passed to the evaluator
+	 * @return The result of the expression
+	 * @throws InternalErrorEvaluatorException
+	 *             If the expression could not be evaluated or was not part of the request
+	 */
+	public boolean get(String name) throws InternalErrorEvaluatorException {
+		if (errors.containsKey(name)) {
+			throw new InternalErrorEvaluatorException(errors.get(name).getMessage());
+		}
+		Boolean result = results.get(name);
+		if (result == null) {
+			throw new InternalErrorEvaluatorException("Evaluator returned no result for " + name + ".");
+		}
+		return result;
+	}
+}
@@ -1,6 +1,7 @@
 package de.uni_due.s3.jack3.business.microservices.calculatorutils;
 
 import java.util.List;
+import java.util.Map;
 
 import de.uni_due.s3.evaluator_api.calculator.request.CalculatorRequest;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorContext;
@@ -49,6 +50,22 @@ public class CalculatorRequestProducer {
 		return request;
 	}
 
+	/**
+	 * Creates one request containing a boolean task for each given expression. The map keys are used as task names, so
+	 * the results can be assigned to the expressions again after the response has been received.
+	 */
+	public static CalculatorRequest createBooleanRequest(Map<String, EvaluatorExpression> expressions,
+			EvaluatorMaps maps) {
+		return new CalculatorRequestProducer(EvaluatorContextProducer.byEvaluatorMaps(maps))
+				.createCalculatorBooleanRequestBy(expressions);
+	}
+
+	private CalculatorRequest createCalculatorBooleanRequestBy(Map<String, EvaluatorExpression> expressions) {
+		expressions.forEach((name, expression) -> request
+				.addTask(CalculatorTaskProducer.singleBooleanTaskByEvaluatorExpression(name, expression)));
+		return request;
+	}
+
 	public static CalculatorRequest createEvaluationRequest(String name, EvaluatorExpression expression,
 			EvaluatorMaps maps) {
 		return new CalculatorRequestProducer(EvaluatorContextProducer.byEvaluatorMaps(maps))
@@ -13,6 +13,7 @@ public class CalculatorResponseBooleanizeHandler {
 
 	private final CalculatorResponse response;
 	private final List<CalculatorExceptionMessage> errors = new ArrayList<>();
+	private final Map<String, CalculatorExceptionMessage> errorsByName = new HashMap<>();
 	private final Map<String, Boolean> results = new HashMap<>();
 
 	private CalculatorResponseBooleanizeHandler(CalculatorResponse response) {
@@ -28,6 +29,18 @@ public class CalculatorResponseBooleanizeHandler {
 		}
 	}
 
+	/**
+	 * Converts the response without failing on erroneous results. Errors are collected per task name in the given map
+	 * instead, so that the caller can decide which of them are relevant.
+	 */
+	public static Map<String, Boolean> convertToBooleanizedMap(CalculatorResponse response,
+			Map<String, CalculatorExceptionMessage> errorsByName) {
+		CalculatorResponseBooleanizeHandler handler = new CalculatorResponseBooleanizeHandler(response);
+		response.getResults().forEach(handler::handleResult);
+		errorsByName.putAll(handler.errorsByName);
+		return handler.results;
+	}
+
 	private Map<String, Boolean> convertToBooleanizedMap() throws CalculatorException {
 		response.getResults().forEach(this::handleResult);
 		if (!errors.isEmpty())
@@ -40,12 +53,18 @@ public class CalculatorResponseBooleanizeHandler {
 		if (CalculatorResultType.BOOLEAN.equals(result.type)) {
 			results.put(getNameOf(result), getBooleanizedOf(result));
 		} else if (CalculatorResultType.EXCEPTION.equals(result.type)) {
-			errors.add(new CalculatorExceptionMessage(result.properties.name, result.content.exceptionMessage));
+			addError(result, result.content.exceptionMessage);
 		} else {
-			errors.add(new CalculatorExceptionMessage(result.properties.name, "Evaluation has wrong type!"));
+			addError(result, "Evaluation has wrong type!");
 		}
 	}
 
+	private void addError(CalculatorResult result, String message) {
+		CalculatorExceptionMessage error = new CalculatorExceptionMessage(getNameOf(result), message);
+		errors.add(error);
+		errorsByName.put(getNameOf(result), error);
+	}
+
 	private static String getNameOf(CalculatorResult result) {
 		return result.properties.name;
 	}
@@ -12,6 +12,10 @@ public class ConverterExceptionMessage {
 		this.exceptionMessage = exceptionMessage;
 	}
 
+	public Placeholder getPlaceholder() {
+		return placeholder;
+	}
+
 	public String getMessage() {
 		return "Variable " + placeholder.getWholeRegex() + " could not be converted, due to : " + exceptionMessage;
 	}
@@ -1,7 +1,9 @@
 package de.uni_due.s3.jack3.business.microservices.converterutils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import de.uni_due.s3.evaluator_api.converter.request.ConverterRequest;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorContext;
@@ -25,6 +27,22 @@ public class ConverterRequestProducer {
 		return new ConverterRequestProducer(context).createConverterRequest(placeholders);
 	}
 
+	/**
+	 * Like {@link #ofPlaceholdersAndMaps(List, EvaluatorMaps)}, but placeholders that refer to undefined variables are
+	 * left out instead of failing the whole request.
+	 *
+	 * @param failures
+	 *            Receives an error for each placeholder that was left out
+	 */
+	public static ConverterRequest ofDefinedPlaceholdersAndMaps(Collection<Placeholder> placeholders,
+			EvaluatorMaps maps, Map<Placeholder, ConverterExceptionMessage> failures) {
+		EvaluatorContext context = EvaluatorContextProducer.byEvaluatorMaps(maps);
+		ConverterRequestProducer producer = new ConverterRequestProducer(context);
+		placeholders.forEach(producer::convertToConverterTask);
+		producer.errors.forEach(error -> failures.put(error.getPlaceholder(), error));
+		return producer.request;
+	}
+
 	private ConverterRequest createConverterRequest(List<Placeholder> placeholders) throws ConverterException {
 		placeholders.forEach(this::convertToConverterTask);
 		if (!errors.isEmpty())
@@ -1,7 +1,9 @@
 package de.uni_due.s3.jack3.business.microservices.converterutils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import de.uni_due.s3.evaluator_api.converter.response.ConverterResponse;
@@ -25,6 +27,23 @@ public class ConverterResponseHandler {
 		return new ConverterResponseHandler(response).fetchReplacementsFor(placeholders);
 	}
 
+	/**
+	 * Like {@link #getAllPlaceholderReplacements(List, ConverterResponse)}, but a placeholder that could not be
+	 * converted does not fail the others.
+	 *
+	 * @param failures
+	 *            Receives an error for each placeholder that could not be converted
+	 * @return Replacements for the converted placeholders
+	 */
+	public static List<PlaceholderReplacement> getPlaceholderReplacements(Collection<Placeholder> placeholders,
+			ConverterResponse response, Map<Placeholder, ConverterExceptionMessage> failures) {
+		ConverterResponseHandler handler = new ConverterResponseHandler(response);
+		placeholders.forEach(handler::handlePlaceholder);
+		handler.errors.forEach(error -> failures.put(error.getPlaceholder(), error));
+		handler.replacements.removeIf(replacement -> failures.containsKey(replacement.getPlaceholder()));
+		return handler.replacements;
+	}
+
 	private List<PlaceholderReplacement> fetchReplacementsFor(List<Placeholder> placeholders)
 			throws ConverterException {
 		placeholders.forEach(this::handlePlaceholder);
@@ -1,5 +1,10 @@
 package de.uni_due.s3.jack3.business.microservices.evaluatorutils;
 
+import java.util.Optional;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import de.uni_due.s3.evaluator_api.properties.EvaluatorContext;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorContextVariable;
 import de.uni_due.s3.evaluator_api.properties.EvaluatorDomainType;
@@ -12,6 +17,14 @@ import de.uni_due.s3.openobject.OpenObject;
 
 public class EvaluatorContextProducer {
 
+	/*
+	 * The XML of the value of each created context variable, so requests can be compared without marshalling them.
+	 * Weak keys are compared by identity and don't keep variables alive that are not referenced anymore.
+	 */
+	private static final Cache<EvaluatorContextVariable, String> valueXmlOfVariables = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build();
+
 	private final EvaluatorContext context = new EvaluatorContext();
 
 	public static EvaluatorContext byEvaluatorMaps(EvaluatorMaps maps) {
@@ -59,11 +72,25 @@ public class EvaluatorContextProducer {
 	}
 
 	private void addEvaluatorContextVariable(String name, VariableValue value, EvaluatorVariableType variableType) {
+		context.addVariable(createVariable(name, value, variableType));
+	}
+
+	public static EvaluatorContextVariable createVariable(String name, VariableValue value,
+			EvaluatorVariableType variableType) {
 		OpenObject oo = OpenObjectConverter.fromVariableValue(value);
 		EvaluatorDomainType domainType = EvaluatorDomainTypeProducer.byOpenObject(oo);
 		EvaluatorProperties properties = new EvaluatorProperties(name, variableType, domainType);
 		EvaluatorContextVariable variable = new EvaluatorContextVariable(properties, oo);
-		context.addVariable(variable);
+		valueXmlOfVariables.put(variable, value.getContent());
+		return variable;
+	}
+
+	/**
+	 * Returns the XML of the value of a context variable that was created by this producer. Variables that were
+	 * created elsewhere are unknown.
+	 */
+	public static Optional<String> getValueXml(EvaluatorContextVariable variable) {
+		return Optional.ofNullable(valueXmlOfVariables.getIfPresent(variable));
 	}
 
 }
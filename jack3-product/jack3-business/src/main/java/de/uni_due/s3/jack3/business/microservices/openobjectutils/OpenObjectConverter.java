@@ -7,6 +7,9 @@ import javax.xml.bind.JAXBException;
 
 import org.openmath.OMOBJ;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import de.uni_due.s3.jack3.entities.tenant.VariableValue;
 import de.uni_due.s3.jack3.exceptions.JackRuntimeException;
 import de.uni_due.s3.openchem.OCOBJ;
@@ -17,12 +20,43 @@ import de.uni_due.s3.openobject.OpenObject;
  * OpenObject to String based XML representation and the other way around using the un/marshalling process of
  * JAXBContext.
  * 
+ * The OpenObjects parsed from VariableValues are cached per VariableValue instance, since the same values are
+ * converted again each time EvaluatorMaps are turned into an evaluator request. Callers must not modify the returned
+ * OpenObjects.
+ * 
  * @author Sebastian Pobel
  */
 public class OpenObjectConverter {
 
+	/** Maximum number of VariableValues for which the parsed OpenObject is kept. */
+	private static final long MAX_CACHED_VARIABLE_VALUES = 10_000;
+
 	private static OpenObjectJAXBContext holder = OpenObjectJAXBContext.INSTANCE;
 
+	/*
+	 * Weak keys are compared by identity, so this cache never calls equals/hashCode of the entity and does not keep
+	 * VariableValues alive that are not referenced anymore.
+	 */
+	private static final Cache<VariableValue, ParsedContent> parsedVariableValues = CacheBuilder.newBuilder()
+			.weakKeys()
+			.maximumSize(MAX_CACHED_VARIABLE_VALUES)
+			.build();
+
+	/**
+	 * The parsed OpenObject together with the XML it has been parsed from. The content of a VariableValue may be
+	 * changed after it has been cached, so we must check that it is still the same.
+	 */
+	private static final class ParsedContent {
+
+		private final String xml;
+		private final OpenObject openObject;
+
+		private ParsedContent(String xml, OpenObject openObject) {
+			this.xml = xml;
+			this.openObject = openObject;
+		}
+	}
+
 	public static String toXmlString(OpenObject openObject) {
 		try {
 			return marshalOpenObject(openObject);
@@ -40,7 +74,15 @@ public class OpenObjectConverter {
 	}
 
 	public static OpenObject fromVariableValue(VariableValue variableValue) {
-		return OpenObjectConverter.fromXmlString(variableValue.getContent());
+		final String xml = variableValue.getContent();
+		final ParsedContent cached = parsedVariableValues.getIfPresent(variableValue);
+		if (cached != null && cached.xml.equals(xml)) {
+			return cached.openObject;
+		}
+
+		final OpenObject openObject = OpenObjectConverter.fromXmlString(xml);
+		parsedVariableValues.put(variableValue, new ParsedContent(xml, openObject));
+		return openObject;
 	}
 
 	private static OpenObject castObjectToOpenObject(Object object) {
@@ -54,12 +96,15 @@ public class OpenObjectConverter {
 	}
 
 	private static Object unmarshalXmlToObject(String xml) throws JAXBException {
-		return holder.getJAXBContext().createUnmarshaller().unmarshal(new StringReader(xml));
+		return holder.withUnmarshaller(unmarshaller -> unmarshaller.unmarshal(new StringReader(xml)));
 	}
 
 	private static String marshalOpenObject(OpenObject openObject) throws JAXBException {
 		StringWriter sw = new StringWriter();
-		holder.getJAXBContext().createMarshaller().marshal(openObject, sw);
+		holder.withMarshaller(marshaller -> {
+			marshaller.marshal(openObject, sw);
+			return null;
+		});
 		return sw.toString();
 	}
 
@@ -1,7 +1,12 @@
 package de.uni_due.s3.jack3.business.microservices.openobjectutils;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 
 import org.openmath.OMOBJ;
 
@@ -9,12 +14,23 @@ import de.uni_due.s3.jack3.exceptions.JackRuntimeException;
 import de.uni_due.s3.openchem.OCOBJ;
 import de.uni_due.s3.openobject.OpenObject;
 
+/**
+ * Holds the shared JAXBContext for OpenObjects and pools the (not thread-safe) marshallers and unmarshallers created
+ * from it, since creating them is expensive compared to the small documents we usually convert.
+ */
 class OpenObjectJAXBContext {
 
+	/** Maximum number of idle marshallers and unmarshallers that are kept in each pool. */
+	private static final int MAX_POOL_SIZE = 64;
+
 	static OpenObjectJAXBContext INSTANCE;
 
 	private JAXBContext context;
 
+	private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+
+	private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+
 	private OpenObjectJAXBContext() throws JAXBException {
 		context = JAXBContext.newInstance(OpenObject.class, OMOBJ.class, OCOBJ.class);
 	}
@@ -30,4 +46,45 @@ class OpenObjectJAXBContext {
 	JAXBContext getJAXBContext() {
 		return context;
 	}
+
+	@FunctionalInterface
+	interface JAXBFunction<T, R> {
+		R apply(T t) throws JAXBException;
+	}
+
+	/**
+	 * Applies the function to a pooled marshaller. The marshaller must not be used after the function returned.
+	 */
+	<R> R withMarshaller(JAXBFunction<Marshaller, R> function) throws JAXBException {
+		Marshaller marshaller = marshallers.poll();
+		if (marshaller == null) {
+			marshaller = context.createMarshaller();
+		}
+		final R result = function.apply(marshaller);
+		release(marshallers, marshaller);
+		return result;
+	}
+
+	/**
+	 * Applies the function to a pooled unmarshaller. The unmarshaller must not be used after the function returned.
+	 */
+	<R> R withUnmarshaller(JAXBFunction<Unmarshaller, R> function) throws JAXBException {
+		Unmarshaller unmarshaller = unmarshallers.poll();
+		if (unmarshaller == null) {
+			unmarshaller = context.createUnmarshaller();
+		}
+		final R result = function.apply(unmarshaller);
+		release(unmarshallers, unmarshaller);
+		return result;
+	}
+
+	/*
+	 * Only (un)marshallers that were used without exception are returned to the pool, so a broken instance is never
+	 * reused. The pool size check is not atomic, but a few more pooled instances don't matter.
+	 */
+	private static <T> void release(Queue<T> pool, T instance) {
+		if (pool.size() < MAX_POOL_SIZE) {
+			pool.offer(instance);
+		}
+	}
 }
@@ -7,6 +7,8 @@ import javax.ejb.Schedule;
 import javax.ejb.Singleton;
 import javax.inject.Inject;
 
+import de.uni_due.s3.jack3.business.MailOutboxBusiness;
+import de.uni_due.s3.jack3.business.messaging.MessageBusiness;
 import de.uni_due.s3.jack3.entities.maintenance.TempDir;
 import de.uni_due.s3.jack3.services.AbstractServiceBean;
 import de.uni_due.s3.jack3.services.BaseService;
@@ -24,6 +26,12 @@ public class JackJanitor extends AbstractServiceBean {
 	@Inject
 	BaseService baseService;
 
+	@Inject
+	MailOutboxBusiness mailOutboxBusiness;
+
+	@Inject
+	MessageBusiness messageBusiness;
+
 	/**
 	 * When exporting a folder structure the directories can't be deleted immediately while they are streamed to the
 	 * user. We look every hour if there are dirs to be deleted and delete them if they are at least 5 minutes old
@@ -40,6 +48,24 @@ public class JackJanitor extends AbstractServiceBean {
 		});
 	}
 
+	/**
+	 * Queued mails are delivered when the transaction that queued them is committed. We look every minute for mails
+	 * that are due for a retry or have been queued before a restart.
+	 */
+	@Schedule(hour = "*", minute = "*", persistent = false)
+	public void deliverQueuedMails() {
+		mailOutboxBusiness.deliverQueuedMails();
+	}
+
+	/**
+	 * Checker job messages are published when the transaction that created the job is committed. We look every
+	 * minute for messages that have not been published, e.g. because the broker was not reachable.
+	 */
+	@Schedule(hour = "*", minute = "*", persistent = false)
+	public void publishUnpublishedCheckerMessages() {
+		messageBusiness.publishUnpublishedMessages();
+	}
+
 	private boolean atLeastFiveMinutesOld(TempDir dir) {
 		return dir.getCreated().until(LocalDateTime.now(), ChronoUnit.MINUTES) >= 5;
 	}
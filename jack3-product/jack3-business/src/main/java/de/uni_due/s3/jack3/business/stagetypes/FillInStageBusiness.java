@@ -8,9 +8,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,6 +32,7 @@ import de.uni_due.s3.jack3.business.ExercisePlayerBusiness;
 import de.uni_due.s3.jack3.business.microservices.CalculatorBusiness;
 import de.uni_due.s3.jack3.business.microservices.ConverterBusiness;
 import de.uni_due.s3.jack3.business.microservices.EvaluatorMaps;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorBooleanResults;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.InternalErrorEvaluatorException;
 import de.uni_due.s3.jack3.business.microservices.openobjectutils.OpenObjectConverter;
 import de.uni_due.s3.jack3.business.microservices.variableutils.VariableValueFactory;
@@ -84,12 +87,56 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 		}
 	}
 
+	/**
+	 * Points and feedback that result from the rules of a stage. If a rule could not be evaluated, only the failed
+	 * expression and the error are set.
+	 */
+	static final class RuleGrading {
+
+		private int points;
+		private final FeedbackJoiner feedback = new FeedbackJoiner();
+		private EvaluatorExpression failedExpression;
+		private InternalErrorEvaluatorException error;
+
+		private RuleGrading failed(EvaluatorExpression expression, InternalErrorEvaluatorException e) {
+			failedExpression = expression;
+			error = e;
+			return this;
+		}
+
+		int getPoints() {
+			return points;
+		}
+
+		String getFeedback() {
+			return feedback.toString();
+		}
+
+		EvaluatorExpression getFailedExpression() {
+			return failedExpression;
+		}
+
+		InternalErrorEvaluatorException getError() {
+			return error;
+		}
+	}
+
 	private static final long serialVersionUID = 6062746824056036828L;
 
 	private static final String NAME = "name";
+	private static final String CORRECT_ANSWER_RULE = "correctAnswerRule";
+	private static final String FEEDBACK_RULE = "feedbackRule";
 	public static final String HTML_INPUT = "<input";
 	public static final String HTML_SELECT = "<select";
 	public static final String TASK_DESCRIPTION_DIVIDER_PATTERN = "<input(.+?)/>|<select(.+?)</select>";
+	public static final Pattern TASK_DESCRIPTION_DIVIDER = Pattern.compile(TASK_DESCRIPTION_DIVIDER_PATTERN);
+
+	/** Drop-down items that consist of a single variable reference, optionally in a LaTeX environment */
+	private static final Pattern VARIABLE_ITEM_PATTERN = Pattern
+			.compile("\\$?\\[" + EXERCISE_IDENTIFIER + "=.+\\]\\$?");
+
+	/** Patterns for {@link #getAttributeValue(String, String)}, by attribute name */
+	private static final Map<String, Pattern> ATTRIBUTE_PATTERNS = new ConcurrentHashMap<>();
 
 	private static final Pattern NUMBER_PATTERN = Pattern
 			.compile("^(?<operator>[\\+\\-])?(?:(?<integer>\\d+)|(?<predecimal>\\d*)[\\.\\,](?<postdecimal>\\d+))$");
@@ -145,64 +192,17 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 
 		final FillInSubmission fillInSubmission = (FillInSubmission) stagesubmission;
 
-		int points = 0;
-		final FeedbackJoiner feedback = new FeedbackJoiner();
-
 		FillInStage fillInStage = (FillInStage) stage;
-		// Correct Answer Feedback
-		boolean correctAnswerMatched = false;
-		for (Rule correctAnswerRule : fillInStage.getCorrectAnswerRulesAsList()) {
-			if (correctAnswerRule.getValidationExpression().isEmpty()) {
-				continue;
-			}
-			try {
-				if (evaluatorBusiness.calculateToBoolean(correctAnswerRule.getValidationExpression(), evaluatorMaps)) {
-					points = CORRECT_ANSWER_POINTS;
-					feedback.add(fillInStage.getCorrectAnswerFeedback());
-					correctAnswerMatched = true;
-					break;
-				}
-			} catch (InternalErrorEvaluatorException e) {
-				return getStageSubmissionForEvaluationException(e, e.getMessage(), fillInSubmission, submission,
-						correctAnswerRule.getValidationExpression(), fillInStage);
-			}
-		}
-
-		// if correct answer not matched check if other feedback matches else user get default feedback
-		if (!correctAnswerMatched) {
-			boolean userGetsDefaultFeedback = true;
-
-			// Iterate over rules to generate feedback and points
-			for (Rule rule : fillInStage.getFeedbackRulesAsList()) {
-
-				EvaluatorExpression ruleExpressionEvaluatorNotation = rule.getValidationExpression();
-				try {
-					// In FillIn-Feedback an empty Evaluator Expression is interpreted as False and will be skipped
-					// See also #438
-					if (!ruleExpressionEvaluatorNotation.isEmpty()
-							&& evaluatorBusiness.calculateToBoolean(ruleExpressionEvaluatorNotation, evaluatorMaps)) {
-						userGetsDefaultFeedback = false;
-						points += rule.getPoints();
-						feedback.add(rule.getFeedbackText());
-
-						if (rule.isTerminal()) {
-							break;
-						}
-					}
-				} catch (InternalErrorEvaluatorException e) {
-					return getStageSubmissionForEvaluationException(e, e.getMessage(), fillInSubmission, submission,
-							ruleExpressionEvaluatorNotation, fillInStage);
-				}
-			}
-
-			if (userGetsDefaultFeedback) {
-				feedback.add(fillInStage.getDefaultFeedback());
-				points = fillInStage.getDefaultResult();
-			}
+		// All rules are evaluated with one request, their order is applied to the results afterwards
+		final RuleGrading grading = gradeByRules(fillInStage,
+				evaluatorBusiness.calculateToBooleans(getRuleExpressions(fillInStage), evaluatorMaps));
+		if (grading.getError() != null) {
+			return getStageSubmissionForEvaluationException(grading.getError(), grading.getError().getMessage(),
+					fillInSubmission, submission, grading.getFailedExpression(), fillInStage);
 		}
 
 		// Score must be between 0 and 100!
-		points = Math.min(100, Math.max(0, points));
+		int points = Math.min(100, Math.max(0, grading.getPoints()));
 
 		// Report result
 		// 1. Create result object
@@ -210,7 +210,7 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 
 		// 2. Add additional data to result object
 		result.setPoints(points);
-		result.setPublicComment(feedback.toString());
+		result.setPublicComment(grading.getFeedback());
 
 		// 3. Store additional data
 		resultService.persistResult(result);
@@ -219,6 +219,80 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 		return exercisePlayerBusiness.addResultToSubmission(submission, fillInSubmission, stage, result);
 	}
 
+	/**
+	 * @return The validation expressions of all correct answer rules and feedback rules, by the names used in
+	 *         {@link #gradeByRules(FillInStage, CalculatorBooleanResults)}
+	 */
+	static Map<String, EvaluatorExpression> getRuleExpressions(FillInStage fillInStage) {
+		final Map<String, EvaluatorExpression> expressions = new LinkedHashMap<>();
+		final List<Rule> correctAnswerRules = fillInStage.getCorrectAnswerRulesAsList();
+		for (int i = 0; i < correctAnswerRules.size(); i++) {
+			expressions.put(CORRECT_ANSWER_RULE + i, correctAnswerRules.get(i).getValidationExpression());
+		}
+		final List<Rule> feedbackRules = fillInStage.getFeedbackRulesAsList();
+		for (int i = 0; i < feedbackRules.size(); i++) {
+			expressions.put(FEEDBACK_RULE + i, feedbackRules.get(i).getValidationExpression());
+		}
+		return expressions;
+	}
+
+	/**
+	 * Applies the rules of the stage to the results of their validation expressions. The outcome is the same as if the
+	 * expressions were evaluated one after another: The first matching correct answer rule wins. Otherwise all
+	 * matching feedback rules count up to the first matching terminal rule. Errors of expressions that would not have
+	 * been evaluated are ignored.
+	 */
+	static RuleGrading gradeByRules(FillInStage fillInStage, CalculatorBooleanResults ruleResults) {
+		final RuleGrading grading = new RuleGrading();
+
+		// Correct Answer Feedback
+		final List<Rule> correctAnswerRules = fillInStage.getCorrectAnswerRulesAsList();
+		for (int i = 0; i < correctAnswerRules.size(); i++) {
+			final EvaluatorExpression expression = correctAnswerRules.get(i).getValidationExpression();
+			if (expression.isEmpty()) {
+				continue;
+			}
+			try {
+				if (ruleResults.get(CORRECT_ANSWER_RULE + i)) {
+					grading.points = CORRECT_ANSWER_POINTS;
+					grading.feedback.add(fillInStage.getCorrectAnswerFeedback());
+					return grading;
+				}
+			} catch (InternalErrorEvaluatorException e) {
+				return grading.failed(expression, e);
+			}
+		}
+
+		// Correct answer not matched, check if other feedback matches else user gets default feedback
+		boolean userGetsDefaultFeedback = true;
+		final List<Rule> feedbackRules = fillInStage.getFeedbackRulesAsList();
+		for (int i = 0; i < feedbackRules.size(); i++) {
+			final Rule rule = feedbackRules.get(i);
+			final EvaluatorExpression expression = rule.getValidationExpression();
+			try {
+				// In FillIn-Feedback an empty Evaluator Expression is interpreted as False and will be skipped
+				// See also #438
+				if (!expression.isEmpty() && ruleResults.get(FEEDBACK_RULE + i)) {
+					userGetsDefaultFeedback = false;
+					grading.points += rule.getPoints();
+					grading.feedback.add(rule.getFeedbackText());
+
+					if (rule.isTerminal()) {
+						break;
+					}
+				}
+			} catch (InternalErrorEvaluatorException e) {
+				return grading.failed(expression, e);
+			}
+		}
+
+		if (userGetsDefaultFeedback) {
+			grading.feedback.add(fillInStage.getDefaultFeedback());
+			grading.points = fillInStage.getDefaultResult();
+		}
+		return grading;
+	}
+
 	private StageSubmission getStageSubmissionForEvaluationException(Exception e, String enMessage,
 			FillInSubmission fillInSubmission, Submission submission,
 			EvaluatorExpression ruleExpressionEvaluatorNotation, FillInStage fillInStage) {
@@ -315,8 +389,7 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 		String text = exercisePlayerBusiness.resolvePlaceholders(htmlText, submission, stagesubmission, fillInStage,
 				true);
 
-		Pattern patternInputOrSelect = Pattern.compile(TASK_DESCRIPTION_DIVIDER_PATTERN);
-		Matcher matcherInputOrSelect = patternInputOrSelect.matcher(text);
+		Matcher matcherInputOrSelect = TASK_DESCRIPTION_DIVIDER.matcher(text);
 
 		List<SubmissionField> submissionFields = new ArrayList<>();
 
@@ -341,13 +414,14 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 	 * @return value of the attribute
 	 */
 	public String getAttributeValue(String attributeName, String htmlElementCode) {
-		Pattern attributPattern = Pattern.compile(attributeName + "=[\"]([^\"]*)[\"]");
+		Pattern attributPattern = ATTRIBUTE_PATTERNS.computeIfAbsent(attributeName,
+				name -> Pattern.compile(name + "=[\"]([^\"]*)[\"]"));
 		Matcher attributMatcher = attributPattern.matcher(htmlElementCode);
 		if (!attributMatcher.find(0)) {
 			return null;
 		}
 
-		return attributMatcher.group().substring(attributeName.length() + 2, attributMatcher.group().length() - 1);
+		return attributMatcher.group(1);
 	}
 
 	private FillInSubmissionField getFillInSubmissionField(String inputFieldHtmlCode, FillInStage fillInStage) {
@@ -402,7 +476,7 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 		// If the only answer option is a variable with a list, the drop-down items are replaced with the list.
 		boolean answerOptionsProcessed = false;
 		if ((dropDownField.getItems().size() == 1)
-				&& dropDownField.getItems().get(0).matches("\\$?\\[" + EXERCISE_IDENTIFIER + "=.+\\]\\$?")) {
+				&& VARIABLE_ITEM_PATTERN.matcher(dropDownField.getItems().get(0)).matches()) {
 			String variableName = dropDownField.getItems().get(0);
 			boolean renderInLatex = variableName.startsWith("$") && variableName.endsWith("$");
 			variableName = variableName.replace("$", "");
@@ -410,12 +484,14 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 
 			try {
 				VariableValue varValue = stagesubmission.getVariableValues().get(variableName);
-				for (VariableValue variableListItem : converterBusiness.convertToList(varValue)) {
-					if (renderInLatex) {
-						items.add("$" + converterBusiness.convertToLaTeX(variableListItem) + "$");
-					} else {
-						items.add(converterBusiness.convertToString(variableListItem));
+				// All list items are converted with one request
+				List<VariableValue> variableListItems = converterBusiness.convertToList(varValue);
+				if (renderInLatex) {
+					for (String latexItem : converterBusiness.convertToLaTeX(variableListItems)) {
+						items.add("$" + latexItem + "$");
 					}
+				} else {
+					items.addAll(converterBusiness.convertToStrings(variableListItems));
 				}
 				answerOptionsProcessed = true;
 			} catch (Exception e) {
@@ -429,12 +505,8 @@ public class FillInStageBusiness extends AbstractStageBusiness implements Serial
 		// If there was an error while replacing the drop-down items with the variable or the field does not have
 		// dynamic answer options, just process the saved drop-down items and replace variables
 		if (!answerOptionsProcessed) {
-			for (String dropDownItem : dropDownField.getItems()) {
-				String itemText = exercisePlayerBusiness.resolvePlaceholders(dropDownItem, submission,
-						stagesubmission,
-						fillInStage, true);
-				items.add(itemText);
-			}
+			items.addAll(exercisePlayerBusiness.resolvePlaceholders(dropDownField.getItems(),
+					submission, stagesubmission, fillInStage, true));
 		}
 
 		// Save original order and reorder items if randomize is checked
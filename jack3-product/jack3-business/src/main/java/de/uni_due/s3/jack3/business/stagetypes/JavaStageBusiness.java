@@ -275,7 +275,7 @@ public class JavaStageBusiness extends AbstractStageBusiness implements Serializ
 
 		getLogger().info("Sending Job to Topic '" + job.getKafkaTopic() + "'");
 
-		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), TRACINGJAVACHECKER);
+		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), TRACINGJAVACHECKER, job.getId());
 
 		job.setStarted();
 		baseService.merge(job);
@@ -328,7 +328,7 @@ public class JavaStageBusiness extends AbstractStageBusiness implements Serializ
 
 		getLogger().info("Sending Job to Topic '" + job.getKafkaTopic() + "'");
 
-		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), GREQLJAVACHECKER);
+		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), GREQLJAVACHECKER, job.getId());
 
 		job.setStarted();
 		baseService.merge(job);
@@ -376,7 +376,7 @@ public class JavaStageBusiness extends AbstractStageBusiness implements Serializ
 
 		getLogger().info("Sending Job to Topic '" + job.getKafkaTopic() + "'");
 
-		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), METRICSJAVACHECKER);
+		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), METRICSJAVACHECKER, job.getId());
 
 		job.setStarted();
 		baseService.merge(job);
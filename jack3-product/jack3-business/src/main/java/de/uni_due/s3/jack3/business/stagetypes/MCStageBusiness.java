@@ -6,6 +6,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -18,6 +19,7 @@ import javax.transaction.Transactional;
 import de.uni_due.s3.jack3.business.ExercisePlayerBusiness;
 import de.uni_due.s3.jack3.business.microservices.CalculatorBusiness;
 import de.uni_due.s3.jack3.business.microservices.EvaluatorMaps;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorBooleanResults;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorException;
 import de.uni_due.s3.jack3.business.microservices.calculatorutils.InternalErrorEvaluatorException;
 import de.uni_due.s3.jack3.business.microservices.placeholderutils.PlaceholderPatternProducer;
@@ -44,6 +46,11 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 
 	private static final long serialVersionUID = 2604045610877638847L;
 
+	private static final String CORRECT_ANSWER = "correctAnswer";
+	private static final String VARIABLE_ANSWER = "variableAnswer";
+	private static final String FEEDBACK_EXPRESSION = "feedbackExpression";
+	private static final String FEEDBACK_CONDITION = "feedbackCondition";
+
 	@Inject
 	private ResultService resultService;
 
@@ -68,11 +75,15 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 		// Evaluate feedback rules
 		final EvaluatorExpression correctAnswerExpression = getCorrectExpression(mcStage);
 
+		// All expressions are evaluated with one request, the order of evaluation is applied to the results afterwards
+		final CalculatorBooleanResults ruleResults = evaluatorBusiness
+				.calculateToBooleans(getRuleExpressions(mcStage, mcSubmission), evaluatorMaps);
+
 		// 3. Compare user input with the correct expression
 		boolean correct = false;
 		try {
-			correct = matchInputs(correctAnswerExpression, evaluatorMaps);
-			mcSubmission = computeMetaVariables(mcStage, mcSubmission, evaluatorMaps);
+			correct = isCorrectAnswer(mcStage, ruleResults);
+			mcSubmission = computeMetaVariables(mcStage, mcSubmission, ruleResults);
 		} catch (CalculatorException | InternalErrorEvaluatorException e) {
 			getLogger().warn(
 					"Error evaluating correct answer expression for stage id " + mcStageId + " and stagesubmission id "
@@ -96,7 +107,7 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 			// Check if there is matching extra feedback
 			List<MCFeedback> matchingExtraFeedback = Collections.emptyList();
 			try {
-				matchingExtraFeedback = getMatchingExtraFeedback(mcStage.getExtraFeedbacks(), evaluatorMaps);
+				matchingExtraFeedback = getMatchingExtraFeedback(mcStage.getExtraFeedbacks(), ruleResults);
 			} catch (CalculatorException | InternalErrorEvaluatorException e) {
 				getLogger().warn("Error evaluating extra feedback for stage id " + mcStage.getId()
 						+ " and stagesubmission id " + mcSubmission.getId(), e);
@@ -199,20 +210,47 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 	}
 
 	/**
-	 * Return all extra-feedback elements that match with the user's input.
+	 * @return All expressions that may be needed to grade the submission, by the names used to look up their results.
+	 *         Expressions of variable answer options are only included if the option is ticked.
+	 */
+	static Map<String, EvaluatorExpression> getRuleExpressions(MCStage stage, MCSubmission stagesubmission) {
+		final Map<String, EvaluatorExpression> expressions = new LinkedHashMap<>();
+		expressions.put(CORRECT_ANSWER, getCorrectExpression(stage));
+
+		final String tickedPattern = stagesubmission.getTickedPattern();
+		final List<MCAnswer> answerOptions = stage.getAnswerOptions();
+		for (int i = 0; tickedPattern != null && i < tickedPattern.length(); i++) {
+			if (tickedPattern.charAt(i) == '1' && answerOptions.get(i).getRule() == EMCRuleType.VARIABLE) {
+				expressions.put(VARIABLE_ANSWER + i, getVariableExpression(answerOptions.get(i)));
+			}
+		}
+
+		final List<MCFeedback> extraFeedbacks = stage.getExtraFeedbacks();
+		for (int i = 0; i < extraFeedbacks.size(); i++) {
+			expressions.put(FEEDBACK_EXPRESSION + i, extraFeedbacks.get(i).getExpression());
+			expressions.put(FEEDBACK_CONDITION + i, extraFeedbacks.get(i).getCondition());
+		}
+		return expressions;
+	}
+
+	/**
+	 * Return all extra-feedback elements that match with the user's input. Errors are only reported for expressions
+	 * that would have been evaluated one after another, e.g. not for the condition of a feedback whose answer pattern
+	 * does not match.
 	 *
 	 * @return All matching extra-feedback elements.
 	 * @throws InternalErrorEvaluatorException
 	 *             If the evaluator failed to evaluate one of the feedbacks' conditions.
 	 */
-	private List<MCFeedback> getMatchingExtraFeedback(final List<MCFeedback> extraFeedbacks,
-			final EvaluatorMaps evaluatorMaps) throws CalculatorException, InternalErrorEvaluatorException {
+	static List<MCFeedback> getMatchingExtraFeedback(final List<MCFeedback> extraFeedbacks,
+			final CalculatorBooleanResults ruleResults) throws CalculatorException, InternalErrorEvaluatorException {
 
 		List<MCFeedback> feedbackList = new ArrayList<>();
-		for (MCFeedback feedback : extraFeedbacks) {
+		for (int i = 0; i < extraFeedbacks.size(); i++) {
+			final MCFeedback feedback = extraFeedbacks.get(i);
 
 			// Check if the answer pattern matches with the user input
-			if (matchInputs(feedback.getExpression(), evaluatorMaps)) {
+			if (matchInputs(feedback.getExpression(), FEEDBACK_EXPRESSION + i, ruleResults)) {
 
 				// If so, check the additional condition (if specified)
 				final EvaluatorExpression condition = feedback.getCondition();
@@ -220,7 +258,7 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 						// There is no additional condition
 						(condition == null) || JackStringUtils.isBlank(condition.getCode()) ||
 						// There is a condition and it does match
-								evaluatorBusiness.calculateToBoolean(condition, evaluatorMaps);
+								ruleResults.get(FEEDBACK_CONDITION + i);
 
 				if (additionalConditionMatches) {
 					feedbackList.add(feedback);
@@ -230,13 +268,21 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 		return feedbackList;
 	}
 
+	/**
+	 * Check if the user input matches the correct answer of the stage
+	 */
+	static boolean isCorrectAnswer(MCStage stage, CalculatorBooleanResults ruleResults)
+			throws CalculatorException, InternalErrorEvaluatorException {
+		return matchInputs(getCorrectExpression(stage), CORRECT_ANSWER, ruleResults);
+	}
+
 	/**
 	 * Check if a user input matches the specified expression
 	 *
 	 * @throws CalculatorException
 	 * @throws InternalErrorEvaluatorException
 	 */
-	private boolean matchInputs(EvaluatorExpression master, EvaluatorMaps evaluatorMaps)
+	private static boolean matchInputs(EvaluatorExpression master, String name, CalculatorBooleanResults ruleResults)
 			throws CalculatorException, InternalErrorEvaluatorException {
 
 		// Empty expression means that the stage has no answer option or no expression was given
@@ -244,10 +290,10 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 			return true;
 		}
 
-		return evaluatorBusiness.calculateToBoolean(master, evaluatorMaps);
+		return ruleResults.get(name);
 	}
 
-	private EvaluatorExpression getCorrectExpression(MCStage stage) {
+	static EvaluatorExpression getCorrectExpression(MCStage stage) {
 		StringJoiner stringJoiner = new StringJoiner("&&");
 
 		int i = 0;
@@ -274,7 +320,22 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 		return expression;
 	}
 
-	private MCSubmission computeMetaVariables(MCStage stage, MCSubmission stagesubmission, EvaluatorMaps evaluatorMaps)
+	private static EvaluatorExpression getVariableExpression(MCAnswer answer) {
+		EvaluatorExpression expression = new EvaluatorExpression();
+		expression.setCode(PlaceholderPatternProducer.forExerciseVariable(answer.getVariableName()));
+		return expression;
+	}
+
+	private MCSubmission computeMetaVariables(MCStage stage, MCSubmission stagesubmission,
+			CalculatorBooleanResults ruleResults) throws CalculatorException, InternalErrorEvaluatorException {
+		countTicks(stage, stagesubmission, ruleResults);
+		return (MCSubmission) stageSubmissionService.mergeStageSubmission(stagesubmission);
+	}
+
+	/**
+	 * Sets the number of correctly and incorrectly ticked answer options of the submission.
+	 */
+	static void countTicks(MCStage stage, MCSubmission stagesubmission, CalculatorBooleanResults ruleResults)
 			throws CalculatorException, InternalErrorEvaluatorException {
 		int correctTicks = 0;
 		int incorrectTicks = 0;
@@ -292,9 +353,7 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 					if (rule == EMCRuleType.CORRECT) {
 						correctTicks++;
 					} else if (rule == EMCRuleType.VARIABLE) {
-						EvaluatorExpression expression = new EvaluatorExpression();
-						expression.setCode(PlaceholderPatternProducer.forExerciseVariable(answer.getVariableName()));
-						if (evaluatorBusiness.calculateToBoolean(expression, evaluatorMaps)) {
+						if (ruleResults.get(VARIABLE_ANSWER + i)) {
 							correctTicks++;
 						} else {
 							incorrectTicks++;
@@ -308,7 +367,6 @@ public class MCStageBusiness extends AbstractStageBusiness implements Serializab
 
 		stagesubmission.setCorrectTicks(correctTicks);
 		stagesubmission.setIncorrectTicks(incorrectTicks);
-		return (MCSubmission) stageSubmissionService.mergeStageSubmission(stagesubmission);
 	}
 
 	@Override
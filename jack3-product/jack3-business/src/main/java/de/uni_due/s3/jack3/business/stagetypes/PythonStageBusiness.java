@@ -178,7 +178,7 @@ public class PythonStageBusiness extends AbstractStageBusiness implements Serial
 
 		getLogger().info("Sending Job to Topic '" + job.getKafkaTopic() + "'");
 
-		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), TRACINGPYTHONCHECKER);
+		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), TRACINGPYTHONCHECKER, job.getId());
 
 		job.setStarted();
 		baseService.merge(job);
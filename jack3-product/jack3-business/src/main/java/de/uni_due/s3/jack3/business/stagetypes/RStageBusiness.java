@@ -234,7 +234,7 @@ public class RStageBusiness extends AbstractStageBusiness implements Serializabl
 			throw new UnsupportedOperationException("Type of testcase not (yet) supported: " + testCase);
 		}
 
-		messageBusiness.sendSerializedDtoToKafka(transportBytes, topic);
+		messageBusiness.sendSerializedDtoToKafka(transportBytes, topic, job.getId());
 
 		job.setStarted();
 		baseService.persist(job);
@@ -131,7 +131,7 @@ public class UmlStageBusiness extends AbstractStageBusiness implements Serializa
 
 		getLogger().info("Sending Job to Topic '" + job.getKafkaTopic() + "'");
 
-		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), GREQLUMLCHECKER);
+		messageBusiness.sendSerializedDtoToKafka(transport.toByteArray(), GREQLUMLCHECKER, job.getId());
 
 		job.setStarted();
 		baseService.merge(job);
@@ -0,0 +1,119 @@
+package de.uni_due.s3.jack3.entities.maintenance;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.NamedQuery;
+
+import de.uni_due.s3.jack3.annotations.ToString;
+import de.uni_due.s3.jack3.entities.AbstractEntity;
+
+/**
+ * A checker job message that has not been acknowledged by the broker yet. It is stored in the same transaction as the
+ * job, so it can be published again after a restart. Acknowledged messages are deleted. This entity is not audited,
+ * because messages are only kept until they are published.
+ *
+ * A message is claimed for publishing it again by setting its claim and postponing its next attempt, like an
+ * {@link OutboundMail}. So a message is not published again by several nodes at the same time, and a message that
+ * keeps failing is retried after the messages that are due meanwhile.
+ */
+@NamedQuery(
+		name = OutboundCheckerMessage.DUE_MESSAGE_IDS, //
+		query = "SELECT m.id FROM OutboundCheckerMessage m " + //
+				"WHERE m.nextAttemptAt <= :now " + //
+				"ORDER BY m.nextAttemptAt, m.id")
+@NamedQuery(
+		name = OutboundCheckerMessage.CLAIM_MESSAGES, //
+		query = "UPDATE OutboundCheckerMessage m SET m.claim = :claim, m.nextAttemptAt = :nextAttemptAt " + //
+				"WHERE m.id IN (:ids) AND m.nextAttemptAt <= :now")
+@NamedQuery(
+		name = OutboundCheckerMessage.MESSAGES_BY_CLAIM, //
+		query = "SELECT m FROM OutboundCheckerMessage m WHERE m.claim = :claim ORDER BY m.id")
+@NamedQuery(
+		name = OutboundCheckerMessage.DELETE_MESSAGES_OF_FINISHED_JOBS, //
+		query = "DELETE FROM OutboundCheckerMessage m " + //
+				"WHERE NOT EXISTS (SELECT j FROM Job j WHERE j.id = m.jobId AND j.finishedAt IS NULL)")
+@NamedQuery(
+		name = OutboundCheckerMessage.DELETE_MESSAGES_BY_JOB_ID, //
+		query = "DELETE FROM OutboundCheckerMessage m WHERE m.jobId = :jobId")
+@Entity
+public class OutboundCheckerMessage extends AbstractEntity {
+
+	private static final long serialVersionUID = 6804113947615120571L;
+
+	public static final String DUE_MESSAGE_IDS = "OutboundCheckerMessage.dueMessageIds";
+
+	public static final String CLAIM_MESSAGES = "OutboundCheckerMessage.claimMessages";
+
+	public static final String MESSAGES_BY_CLAIM = "OutboundCheckerMessage.messagesByClaim";
+
+	/** Name of the query that deletes the messages of jobs that have been finished or deleted. */
+	public static final String DELETE_MESSAGES_OF_FINISHED_JOBS = "OutboundCheckerMessage.deleteMessagesOfFinishedJobs";
+
+	public static final String DELETE_MESSAGES_BY_JOB_ID = "OutboundCheckerMessage.deleteMessagesByJobId";
+
+	/** The serialized DTO that is sent to the checker. */
+	@Column(nullable = false)
+	@Lob
+	private byte[] payload;
+
+	@ToString
+	@Column(nullable = false)
+	private String topic;
+
+	@ToString
+	@Column(nullable = false)
+	private long jobId;
+
+	@ToString
+	@Column(nullable = false)
+	private LocalDateTime queuedAt;
+
+	@ToString
+	@Column(nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	/** Identifies the node run that has claimed the message last. */
+	@Column
+	private String claim;
+
+	public OutboundCheckerMessage() {
+		// Only for Hibernate
+	}
+
+	/**
+	 * @param nextAttemptAt
+	 *            The message is not published again before this time, unless it has been acknowledged meanwhile
+	 */
+	public OutboundCheckerMessage(byte[] payload, String topic, long jobId, LocalDateTime queuedAt,
+			LocalDateTime nextAttemptAt) {
+		this.payload = Objects.requireNonNull(payload);
+		this.topic = Objects.requireNonNull(topic);
+		this.jobId = jobId;
+		this.queuedAt = Objects.requireNonNull(queuedAt);
+		this.nextAttemptAt = Objects.requireNonNull(nextAttemptAt);
+	}
+
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	public String getTopic() {
+		return topic;
+	}
+
+	public long getJobId() {
+		return jobId;
+	}
+
+	public LocalDateTime getQueuedAt() {
+		return queuedAt;
+	}
+
+	public LocalDateTime getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+}
@@ -0,0 +1,183 @@
+package de.uni_due.s3.jack3.entities.maintenance;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.NamedQuery;
+
+import org.hibernate.annotations.Type;
+
+import de.uni_due.s3.jack3.annotations.ToString;
+import de.uni_due.s3.jack3.entities.AbstractEntity;
+
+/**
+ * A mail in the outbox that has not been delivered yet. The mail is stored as a complete MIME message, so it is sent
+ * exactly as it was created. Delivered mails are deleted, given up mails are kept as failed. This entity is not
+ * audited, because mails are only kept until they are delivered.
+ *
+ * If the mail server rejects only some recipients of a mail, the recipients are reduced to those that have not
+ * received the mail yet, so a retry does not send it twice to the others.
+ *
+ * A mail is claimed for delivery by setting its claim and postponing its next attempt, so a mail is not sent by
+ * several nodes at the same time. If the claiming node does not record the outcome, the mail is due again when the
+ * claim has expired.
+ */
+@NamedQuery(
+		name = OutboundMail.DUE_MAIL_IDS, //
+		query = "SELECT m.id FROM OutboundMail m " + //
+				"WHERE m.failedAt IS NULL AND m.nextAttemptAt <= :now " + //
+				"ORDER BY m.nextAttemptAt, m.id")
+@NamedQuery(
+		name = OutboundMail.CLAIM_MAILS, //
+		query = "UPDATE OutboundMail m SET m.claim = :claim, m.nextAttemptAt = :claimedUntil " + //
+				"WHERE m.id IN (:ids) AND m.nextAttemptAt <= :now")
+@NamedQuery(
+		name = OutboundMail.MAILS_BY_CLAIM, //
+		query = "SELECT m FROM OutboundMail m WHERE m.claim = :claim ORDER BY m.id")
+@NamedQuery(
+		name = OutboundMail.COUNT_QUEUED_MAILS, //
+		query = "SELECT count(m) FROM OutboundMail m WHERE m.failedAt IS NULL")
+@NamedQuery(
+		name = OutboundMail.COUNT_FAILED_MAILS, //
+		query = "SELECT count(m) FROM OutboundMail m WHERE m.failedAt IS NOT NULL")
+@NamedQuery(
+		name = OutboundMail.DELETE_MAILS_BY_IDS, //
+		query = "DELETE FROM OutboundMail m WHERE m.id IN (:ids)")
+@Entity
+public class OutboundMail extends AbstractEntity {
+
+	private static final long serialVersionUID = -2390147312086538413L;
+
+	public static final String DUE_MAIL_IDS = "OutboundMail.dueMailIds";
+
+	public static final String CLAIM_MAILS = "OutboundMail.claimMails";
+
+	public static final String MAILS_BY_CLAIM = "OutboundMail.mailsByClaim";
+
+	public static final String COUNT_QUEUED_MAILS = "OutboundMail.countQueuedMails";
+
+	public static final String COUNT_FAILED_MAILS = "OutboundMail.countFailedMails";
+
+	public static final String DELETE_MAILS_BY_IDS = "OutboundMail.deleteMailsByIds";
+
+	/** The MIME message in RFC 822 format. */
+	@Column(nullable = false)
+	@Lob
+	private byte[] message;
+
+	/** The recipients that have not received the mail yet, as a comma separated list of addresses. */
+	@ToString
+	@Column
+	@Type(type = "text")
+	private String recipients;
+
+	@ToString
+	@Column(nullable = false)
+	private LocalDateTime queuedAt;
+
+	@ToString
+	@Column(nullable = false)
+	private LocalDateTime nextAttemptAt;
+
+	/** Number of failed attempts to deliver the mail. */
+	@ToString
+	@Column
+	private int attempts;
+
+	@Column
+	@Type(type = "text")
+	private String lastError;
+
+	/** The time the mail has been given up, or {@code null} if it is still waiting for delivery. */
+	@ToString
+	@Column
+	private LocalDateTime failedAt;
+
+	/** Identifies the delivery that has claimed the mail last. */
+	@Column
+	private String claim;
+
+	public OutboundMail() {
+		// Only for Hibernate
+	}
+
+	public OutboundMail(byte[] message, String recipients, LocalDateTime queuedAt) {
+		this.message = Objects.requireNonNull(message);
+		this.recipients = recipients;
+		this.queuedAt = Objects.requireNonNull(queuedAt);
+		this.nextAttemptAt = queuedAt;
+	}
+
+	public byte[] getMessage() {
+		return message;
+	}
+
+	public String getRecipients() {
+		return recipients;
+	}
+
+	public LocalDateTime getQueuedAt() {
+		return queuedAt;
+	}
+
+	public LocalDateTime getNextAttemptAt() {
+		return nextAttemptAt;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+	public String getLastError() {
+		return lastError;
+	}
+
+	public LocalDateTime getFailedAt() {
+		return failedAt;
+	}
+
+	public boolean isFailed() {
+		return failedAt != null;
+	}
+
+	/**
+	 * Records a failed attempt to deliver the mail.
+	 *
+	 * @param error
+	 *            Description of the error
+	 * @param nextAttemptAt
+	 *            The mail is not delivered again before this time
+	 */
+	public void failedAttempt(String error, LocalDateTime nextAttemptAt) {
+		this.attempts++;
+		this.lastError = error;
+		this.nextAttemptAt = Objects.requireNonNull(nextAttemptAt);
+	}
+
+	/**
+	 * Records that the mail has been sent to some recipients, but not to others.
+	 *
+	 * @param unsentRecipients
+	 *            The recipients that have not received the mail yet, as a comma separated list of addresses
+	 */
+	public void partiallySent(String unsentRecipients) {
+		this.recipients = unsentRecipients;
+	}
+
+	/**
+	 * Records the last failed attempt and gives up delivering the mail.
+	 *
+	 * @param error
+	 *            Description of the error
+	 * @param failedAt
+	 *            The time the last attempt has failed
+	 */
+	public void failed(String error, LocalDateTime failedAt) {
+		this.attempts++;
+		this.lastError = error;
+		this.failedAt = Objects.requireNonNull(failedAt);
+	}
+}
@@ -30,6 +30,13 @@ import de.uni_due.s3.jack3.entities.enums.ECommentThumb;
 		+ "LEFT JOIN s.comments as c " //
 		+ "WHERE s.courseRecord = :courseRecord " //
 		+ "AND c.isRead = false") //
+@NamedQuery(
+		name = Comment.COUNT_COMMENTS_AND_UNREAD_COMMENTS_PER_COURSERECORD,
+		query = "SELECT s.courseRecord.id, COUNT(c), SUM(CASE WHEN c.isRead = false THEN 1 ELSE 0 END) " //
+		+ "FROM Submission s " //
+		+ "JOIN s.comments as c " //
+		+ "WHERE s.courseRecord.id IN (:courseRecordIds) " //
+		+ "GROUP BY s.courseRecord.id") //
 @NamedQuery(
 	name = Comment.COUNT_UNREAD_COMMENTS_FOR_COURSEOFFER,
 	query = "SELECT COUNT(c) FROM Submission s " //
@@ -60,6 +67,8 @@ public class Comment extends AbstractEntity {
 
 	public static final String COUNT_UNREAD_COMMENTS_FOR_COURSERECORD = "Comment.countUnreadCommentsForCourseRecord";
 
+	public static final String COUNT_COMMENTS_AND_UNREAD_COMMENTS_PER_COURSERECORD = "Comment.countCommentsAndUnreadCommentsPerCourseRecord";
+
 	public static final String COUNT_UNREAD_COMMENTS_FOR_COURSEOFFER = "Comment.countUnreadCommentsForCourseOffer";
 
 	public static final String COUNT_NONTESTING_UNREAD_COMMENTS_FOR_COURSE_INCLUDING_FROZENREVISIONS = "Comment.countNonTestingUnreadCommentsForCourseIncludingFrozenRevisions";
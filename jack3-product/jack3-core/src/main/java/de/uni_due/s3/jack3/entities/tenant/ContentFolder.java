@@ -6,8 +6,10 @@ import java.util.Set;
 
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 
 import org.hibernate.envers.Audited;
 
@@ -61,6 +63,12 @@ import org.hibernate.envers.Audited;
 		+ "LEFT JOIN FETCH cf.managingUserGroups " //
 		+ "LEFT JOIN FETCH cf.inheritedManagingUserGroups " //
 		+ "WHERE cf.id = :id")
+@NamedQuery(
+		name = ContentFolder.CONTENT_FOLDERS_WITH_CONTENT_BY_IDS,
+		query = "SELECT DISTINCT cf FROM ContentFolder cf " //
+		+ "LEFT JOIN FETCH cf.childrenCourses " //
+		+ "LEFT JOIN FETCH cf.childrenExercises " //
+		+ "WHERE cf.id IN (:ids)")
 @NamedQuery(
 		name = ContentFolder.QUERY_COUNT, //
 		query = "SELECT COUNT (cf) " //
@@ -78,6 +86,8 @@ import org.hibernate.envers.Audited;
 
 @Audited
 @Entity
+// For the lookup of subtrees, see FolderService#getAllChildFolderIds(Folder)
+@Table(indexes = @Index(columnList = "parentFolder_id"))
 public class ContentFolder extends Folder {
 
 	/** Name of a personal folder */
@@ -101,6 +111,11 @@ public class ContentFolder extends Folder {
 	 */
 	public static final String CONTENT_FOLDER_WITH_LAZY_DATA = "ContentFolder.contentFolderWithLazyData";
 
+	/**
+	 * Name of the query that returns the content folders with the given IDs including their courses and exercises.
+	 */
+	public static final String CONTENT_FOLDERS_WITH_CONTENT_BY_IDS = "ContentFolder.contentFoldersWithContentByIds";
+
 	public static final String QUERY_COUNT = "ContentFolder.queryCount";
 
 	/** This is the name of the query that returns the root content folder. */
@@ -60,6 +60,12 @@ import de.uni_due.s3.jack3.services.RevisionService;
                 + "LEFT JOIN FETCH c.folder AS f " //
                 + "WHERE f IN (:folderList) ORDER BY c.name ASC")
 
+@NamedQuery(
+        name = Course.NUMBER_OF_COURSES_PER_CONTENT_FOLDER, //
+        query = "SELECT c.folder.id, COUNT(c) FROM Course c " //
+                + "WHERE c.folder.id IN (:idsFolderList) " //
+                + "GROUP BY c.folder.id")
+
 @NamedQuery(
         name = Course.COURSES_REFERENCING_EXERCISE_PROVIDER, //
         query = "SELECT course FROM Course course " //
@@ -91,6 +97,12 @@ public class Course extends AbstractCourse implements DeepCopyable<Course> {
      */
     public static final String ALL_COURSES_FOR_CONTENT_FOLDER_LIST = "Course.allCoursesForContentFolderList";
 
+    /**
+     * Name of the query that returns pairs of folder ID and number of courses for the folders in the folder list.
+     * Folders without courses are omitted.
+     */
+    public static final String NUMBER_OF_COURSES_PER_CONTENT_FOLDER = "Course.numberOfCoursesPerContentFolder";
+
     /**
      * Name of the query that returns all courses, where the given user has rights on the parent folder, ordered
      * alphabetically by name.
@@ -0,0 +1,72 @@
+package de.uni_due.s3.jack3.entities.tenant;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.NamedQuery;
+import javax.persistence.Version;
+
+import de.uni_due.s3.jack3.annotations.ToString;
+import de.uni_due.s3.jack3.entities.AbstractEntity;
+
+/**
+ * Counts the users enrolled in a course offer, so free places do not have to be counted for every enrollment. The row
+ * is locked by all transactions that change the enrollment status of users in the course offer, thus it also serializes
+ * concurrent enrollments and prevents overbooking.
+ *
+ * The counter is created when a course offer with a participant limit is enrolled in for the first time. Afterwards it
+ * is kept up to date for all enrollments in the course offer. This entity is not audited, the history of the
+ * enrollments is kept in {@link Enrollment}.
+ *
+ * @see de.uni_due.s3.jack3.services.EnrollmentService#lockSeats(CourseOffer)
+ */
+@NamedQuery(
+		name = CourseOfferSeats.SEATS_BY_COURSE_OFFER_ID,
+		query = "SELECT s FROM CourseOfferSeats s WHERE s.courseOfferId = :courseOfferId")
+@Entity
+public class CourseOfferSeats extends AbstractEntity {
+
+	private static final long serialVersionUID = 6181254718336405527L;
+
+	public static final String SEATS_BY_COURSE_OFFER_ID = "CourseOfferSeats.seatsByCourseOfferId";
+
+	@ToString
+	@Column(nullable = false, unique = true)
+	private long courseOfferId;
+
+	/** Number of users with status {@link de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus#ENROLLED}. */
+	@ToString
+	@Column(nullable = false)
+	private long enrolled;
+
+	@Version
+	private long version;
+
+	public CourseOfferSeats() {
+		// Only for Hibernate
+	}
+
+	public CourseOfferSeats(long courseOfferId, long enrolled) {
+		this.courseOfferId = courseOfferId;
+		this.enrolled = enrolled;
+	}
+
+	public long getCourseOfferId() {
+		return courseOfferId;
+	}
+
+	public long getEnrolled() {
+		return enrolled;
+	}
+
+	/**
+	 * @return Number of free places for the given participant limit, not negative even if lecturers have enrolled more
+	 *         users than allowed
+	 */
+	public long getFreePlaces(int maxAllowedParticipants) {
+		return Math.max(0, maxAllowedParticipants - enrolled);
+	}
+
+	public void addEnrolled(long delta) {
+		enrolled += delta;
+	}
+}
@@ -66,6 +66,27 @@ import de.uni_due.s3.jack3.services.RevisionService;
 	query = "SELECT cr FROM CourseRecord cr " //
 			+ "LEFT JOIN FETCH cr.exercises "
 			+ "WHERE cr.id = :id")
+@NamedQuery(
+	name = CourseRecord.COURSERECORDS_WITH_EXERCISES_BY_IDS,
+	query = "SELECT DISTINCT cr FROM CourseRecord cr " //
+			+ "JOIN FETCH cr.user " // Avoids loading the (eager) users one by one
+			+ "LEFT JOIN FETCH cr.closedByLecturer "
+			+ "LEFT JOIN FETCH cr.exercises "
+			+ "WHERE cr.id IN (:ids)")
+@NamedQuery(
+	name = CourseRecord.COURSERECORD_IDS_FOR_COURSEOFFER_AFTER_ID,
+	query = "SELECT cr.id FROM CourseRecord cr " //
+			+ "WHERE cr.courseOffer = :courseOffer " //
+			+ "AND cr.id > :lastId " //
+			+ "ORDER BY cr.id ASC")
+@NamedQuery(
+	name = CourseRecord.NONTESTING_COURSERECORDS_WITH_USER_FOR_COURSEOFFER_AFTER_ID,
+	query = "SELECT cr FROM CourseRecord cr " //
+			+ "JOIN FETCH cr.user " //
+			+ "WHERE cr.courseOffer = :courseOffer " //
+			+ "AND cr.isTestSubmission IS FALSE " //
+			+ "AND cr.id > :lastId " //
+			+ "ORDER BY cr.id ASC")
 @NamedQuery( //
 	name = CourseRecord.ALL_COURSERECORDS_FOR_COURSE_ORDERBY_STARTTIME, //
 	query = "SELECT cr FROM CourseRecord cr " //
@@ -144,6 +165,12 @@ import de.uni_due.s3.jack3.services.RevisionService;
 	name = CourseRecord.LOWEST_SCORE_FOR_COURSEOFFER,
 	query = "SELECT COALESCE(min(cr.resultPoints),0) FROM CourseRecord cr " //
 			+ "WHERE cr.courseOffer = :courseOffer")
+// Number of course records per score, all other score aggregates can be derived from it
+@NamedQuery(
+	name = CourseRecord.SCORE_DISTRIBUTION_FOR_COURSEOFFER,
+	query = "SELECT cr.resultPoints, COUNT(cr) FROM CourseRecord cr " //
+			+ "WHERE cr.courseOffer = :courseOffer " //
+			+ "GROUP BY cr.resultPoints")
 @NamedQuery(
 	name = CourseRecord.COUNT_NONTESTING_COURSERECORDS_FOR_COURSE_INCLUDING_FROZENREVISIONS,
 	query = "SELECT COUNT(cr) FROM CourseRecord cr " //
@@ -169,6 +196,12 @@ import de.uni_due.s3.jack3.services.RevisionService;
 	query = "SELECT COALESCE(min(cr.resultPoints),0) FROM CourseRecord cr " //
 			+ "WHERE cr.isTestSubmission IS FALSE "
 			+ "AND " + CourseRecord.QUERY_MATCH_COURSE_AND_FROZENREVISIONS)
+@NamedQuery(
+	name = CourseRecord.NONTESTING_SCORE_DISTRIBUTION_FOR_COURSE_INCLUDING_FROZENREVISIONS,
+	query = "SELECT cr.resultPoints, COUNT(cr) FROM CourseRecord cr " //
+			+ "WHERE cr.isTestSubmission IS FALSE "
+			+ "AND " + CourseRecord.QUERY_MATCH_COURSE_AND_FROZENREVISIONS
+			+ "GROUP BY cr.resultPoints")
 @Entity
 public class CourseRecord extends AbstractEntity implements TestableSubmission {
 
@@ -179,6 +212,9 @@ public class CourseRecord extends AbstractEntity implements TestableSubmission {
 	// #########################################################################
 
 	public static final String BY_ID_WITH_EXERCISES = "CourseRecord.byIdWithExercises";
+	public static final String COURSERECORDS_WITH_EXERCISES_BY_IDS = "CourseRecord.courseRecordsWithExercisesByIds";
+	public static final String COURSERECORD_IDS_FOR_COURSEOFFER_AFTER_ID = "CourseRecord.courseRecordIdsForCourseOfferAfterId";
+	public static final String NONTESTING_COURSERECORDS_WITH_USER_FOR_COURSEOFFER_AFTER_ID = "CourseRecord.nontestingCourseRecordsWithUserForCourseOfferAfterId";
 	public static final String ALL_COURSERECORDS_FOR_COURSE_ORDERBY_STARTTIME = "CourseRecord.allCourseRecordsForCourseOrderByStartTime";
 	public static final String ALL_COURSERECORDS_FOR_COURSE_INCLUDING_FROZENREVISIONS_ORDERBY_STARTTIME = "CourseRecord.allCourseRecordsForCourseIncludingFrozenRevisionsOrderByStartTime";
 	public static final String ALL_COURSERECORDS_FOR_COURSEOFFER_ORDERBY_STARTTIME = "CourseRecord.allCourseRecordsForCourseOfferOrderByStartTime";
@@ -195,6 +231,7 @@ public class CourseRecord extends AbstractEntity implements TestableSubmission {
 	public static final String AVG_SCORE_FOR_COURSEOFFER = "CourseRecord.averageScoreForCourseOffer";
 	public static final String HIGHEST_SCORE_FOR_COURSEOFFER = "CourseRecord.highestScoreForCourseOffer";
 	public static final String LOWEST_SCORE_FOR_COURSEOFFER = "CourseRecord.lowestScoreForCourseOffer";
+	public static final String SCORE_DISTRIBUTION_FOR_COURSEOFFER = "CourseRecord.scoreDistributionForCourseOffer";
 
 	// Aggregate queries for courses
 	// NOTE: In the queries we pass a list of course IDs that is retrieved from the query
@@ -204,6 +241,7 @@ public class CourseRecord extends AbstractEntity implements TestableSubmission {
 	public static final String AVG_NONTESTING_SCORE_FOR_COURSE_INCLUDING_FROZENREVISIONS = "CourseRecord.averageNonTestingScoreForCourseIncludingFrozenRevisions";
 	public static final String HIGHEST_NONTESTING_SCORE_FOR_COURSE_INCLUDING_FROZENREVISIONS = "CourseRecord.highestNonTestingScoreForCourseIncludingFrozenRevisions";
 	public static final String LOWEST_NONTESTING_SCORE_FOR_COURSE_INCLUDING_FROZENREVISIONS = "CourseRecord.lowestNonTestingScoreForCourseIncludingFrozenRevisions";
+	public static final String NONTESTING_SCORE_DISTRIBUTION_FOR_COURSE_INCLUDING_FROZENREVISIONS = "CourseRecord.nonTestingScoreDistributionForCourseIncludingFrozenRevisions";
 
 	// Course record has not been closed and has no deadline or deadline is not over
 	public static final String QUERY_OPEN_COURSERECORD =
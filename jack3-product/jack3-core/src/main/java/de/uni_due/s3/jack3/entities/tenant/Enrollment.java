@@ -63,6 +63,12 @@ import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
 			+ "WHERE e.courseOffer = :courseOffer "
 			+ "AND e.status = :status "
 			+ "ORDER BY e.user.loginName ASC")
+@NamedQuery(
+	name = Enrollment.WAITING_LIST_FOR_COURSEOFFER,
+	query = "SELECT e FROM Enrollment e "
+			+ "WHERE e.courseOffer = :courseOffer "
+			+ "AND e.status = :status "
+			+ "ORDER BY e.lastChange ASC, e.id ASC")
 @NamedQuery(
 	name = Enrollment.COUNT_ENROLLMENTS_FOR_COURSEOFFER_AND_STATUS,
 	query = "SELECT COUNT(e) FROM Enrollment e "
@@ -91,6 +97,7 @@ public class Enrollment extends AbstractEntity {
 	public static final String ALL_ENROLLMENTS_FOR_COURSEOFFERS = "Enrollment.allEnrollmentsForCourseOffers";
 	public static final String ALL_ENROLLMENTS_FOR_USER_AND_FOLDERS_UNORDERED = "Enrollment.allEnrollmentsForUserAndFoldersUnordered";
 	public static final String ALL_ENROLLMENTS_FOR_COURSEOFFER_AND_STATUS = "Enrollment.allEnrollmentsForCourseOfferAndStatus";
+	public static final String WAITING_LIST_FOR_COURSEOFFER = "Enrollment.waitingListForCourseOffer";
 	public static final String COUNT_ENROLLMENTS_FOR_COURSEOFFER_AND_STATUS = "Enrollment.countEnrollmentsForCourseOfferAndStatus";
 	public static final String COUNT_ENROLLMENTS_FOR_COURSEOFFER = "Enrollment.countEnrollmentsForCourseOffer";
 	public static final String ONE_ENROLLMENT_FOR_USER_AND_COURSEOFFER = "Enrollment.oneEnrollmentForUserAndCourseOffer";
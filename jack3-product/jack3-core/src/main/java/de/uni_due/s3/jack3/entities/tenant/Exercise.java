@@ -40,6 +40,21 @@ import de.uni_due.s3.jack3.services.TagService;
 		+ "LEFT JOIN FETCH e.tags " //
 		+ "WHERE c.id in (:idsFolderList) " //
 		+ "ORDER BY e.name ASC")
+@NamedQuery(
+		name = Exercise.ALL_EXERCISE_IDS_FOR_CONTENTFOLDER_LIST,
+		query = "SELECT e.id FROM Exercise e " //
+		+ "WHERE e.folder.id in (:idsFolderList)")
+@NamedQuery(
+		name = Exercise.NUMBER_OF_EXERCISES_PER_CONTENTFOLDER,
+		query = "SELECT e.folder.id, COUNT(e) FROM Exercise e " //
+		+ "WHERE e.folder.id in (:idsFolderList) " //
+		+ "GROUP BY e.folder.id")
+@NamedQuery(
+		name = Exercise.EXERCISES_BY_IDS,
+		query = "SELECT DISTINCT e FROM Exercise e " //
+		+ "LEFT JOIN FETCH e.folder " //
+		+ "LEFT JOIN FETCH e.tags " //
+		+ "WHERE e.id in (:ids)")
 @NamedQuery(
 		name = Exercise.ALL_EXERCISES_FOR_CONTENTFOLDER_LIST_BY_SUBJECT,
 		query = "SELECT DISTINCT e FROM Exercise e " //
@@ -137,6 +152,22 @@ public class Exercise extends AbstractExercise implements DeepCopyable<Exercise>
 	 */
 	public static final String ALL_EXERCISES_FOR_CONTENTFOLDER_LIST = "Exercise.allExercisesForContentFolderList";
 
+	/**
+	 * Name of the query that returns the IDs of all exercises that are children of a folder in the folder list.
+	 */
+	public static final String ALL_EXERCISE_IDS_FOR_CONTENTFOLDER_LIST = "Exercise.allExerciseIdsForContentFolderList";
+
+	/**
+	 * Name of the query that returns pairs of folder ID and number of exercises for the folders in the folder list.
+	 * Folders without exercises are omitted.
+	 */
+	public static final String NUMBER_OF_EXERCISES_PER_CONTENTFOLDER = "Exercise.numberOfExercisesPerContentFolder";
+
+	/**
+	 * Name of the query that returns the exercises with the given IDs.
+	 */
+	public static final String EXERCISES_BY_IDS = "Exercise.exercisesByIds";
+
 	/**
 	 * Name of the query that returns all exercises that are children of a folder in the folder list by given subject.
 	 */
@@ -45,6 +45,26 @@ import de.uni_due.s3.jack3.interfaces.Namable;
 		+ "LEFT JOIN FETCH f.managingUserGroups " //
 		+ "LEFT JOIN FETCH f.inheritedManagingUserGroups " //
 		+ "WHERE f.id=:id")
+@NamedQuery(
+		name = Folder.FOLDERS_WITH_MANAGING_RIGHTS_BY_IDS,
+		query = "SELECT DISTINCT f from Folder f " //
+		+ "LEFT JOIN FETCH f.managingUsers " //
+		+ "LEFT JOIN FETCH f.inheritedManagingUsers " //
+		+ "LEFT JOIN FETCH f.managingUserGroups " //
+		+ "LEFT JOIN FETCH f.inheritedManagingUserGroups " //
+		+ "WHERE f.id IN (:ids)")
+@NamedQuery(
+		name = Folder.FOLDERS_BY_IDS,
+		query = "SELECT f FROM Folder f WHERE f.id IN (:ids)")
+@NamedQuery(
+		name = Folder.FOLDER_PARENT_IDS,
+		query = "SELECT f.id, f.parentFolder.id FROM Folder f WHERE f.parentFolder IS NOT NULL")
+@NamedQuery(
+		name = Folder.CHILD_FOLDER_IDS_BY_PARENT_IDS,
+		query = "SELECT f.id FROM Folder f WHERE f.parentFolder.id IN (:parentIds)")
+@NamedQuery(
+		name = Folder.PARENT_FOLDER_ID_BY_ID,
+		query = "SELECT f.parentFolder.id FROM Folder f WHERE f.id = :id")
 @Entity
 @Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
 public abstract class Folder extends AbstractEntity implements Namable {
@@ -55,6 +75,19 @@ public abstract class Folder extends AbstractEntity implements Namable {
 
 	public static final String FOLDER_WITH_MANAGING_RIGHS_BY_ID = "Folder.folderWithManagingRights";
 
+	public static final String FOLDERS_WITH_MANAGING_RIGHTS_BY_IDS = "Folder.foldersWithManagingRightsByIds";
+
+	public static final String FOLDERS_BY_IDS = "Folder.foldersByIds";
+
+	/** Name of the query that returns the pairs of folder ID and parent folder ID of all folders except the roots. */
+	public static final String FOLDER_PARENT_IDS = "Folder.folderParentIds";
+
+	/** Name of the query that returns the IDs of the direct child folders of the given folders. */
+	public static final String CHILD_FOLDER_IDS_BY_PARENT_IDS = "Folder.childFolderIdsByParentIds";
+
+	/** Name of the query that returns the ID of the parent folder of a folder, or nothing for a root folder. */
+	public static final String PARENT_FOLDER_ID_BY_ID = "Folder.parentFolderIdById";
+
 	@ToString
 	@Column
 	@Type(type = "text")
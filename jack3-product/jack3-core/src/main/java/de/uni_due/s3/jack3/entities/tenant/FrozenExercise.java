@@ -191,7 +191,7 @@ public class FrozenExercise extends AbstractExercise implements Comparable<Froze
 
 	@Override
 	public Set<Stage> getStages() {
-		return stages;
+		return Collections.unmodifiableSet(stages);
 	}
 
 	@Override
@@ -28,6 +28,18 @@ query = "SELECT DISTINCT j FROM Job j " + //
 		name = Job.COUNT_PENDING_JOBS_FOR_STAGE_SUBMISSION, //
 		query = "SELECT count(j) FROM Job j " + //
 		"WHERE j.stageSubmission = :stageSubmission AND j.finishedAt = null")
+@NamedQuery(
+		name = Job.COURSE_RECORD_OR_SUBMISSION_ID_BY_JOB_ID, //
+		query = "SELECT COALESCE(c.id, s.id) FROM Job j " + //
+		"JOIN j.submission s " + //
+		"LEFT JOIN s.courseRecord c " + //
+		"WHERE j.id = :id")
+@NamedQuery(
+		name = Job.JOB_WITH_SUBMISSIONS_BY_ID, //
+		query = "SELECT j FROM Job j " + //
+		"JOIN FETCH j.submission " + //
+		"JOIN FETCH j.stageSubmission " + //
+		"WHERE j.id = :id")
 @Audited
 @Entity
 public class Job extends AbstractEntity {
@@ -38,6 +50,10 @@ public class Job extends AbstractEntity {
 
 	public static final String COUNT_PENDING_JOBS_FOR_STAGE_SUBMISSION = "Job.countPendingJobsForStageSubmission";
 
+	public static final String COURSE_RECORD_OR_SUBMISSION_ID_BY_JOB_ID = "Job.courseRecordOrSubmissionIdByJobId";
+
+	public static final String JOB_WITH_SUBMISSIONS_BY_ID = "Job.jobWithSubmissionsById";
+
 	@OneToOne(cascade = { CascadeType.MERGE }, fetch = FetchType.LAZY)
 	private Submission submission;
 
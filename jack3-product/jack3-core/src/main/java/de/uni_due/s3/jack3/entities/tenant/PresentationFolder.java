@@ -7,8 +7,10 @@ import java.util.Set;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.NamedQuery;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 
 import org.hibernate.envers.Audited;
 
@@ -76,6 +78,8 @@ import org.hibernate.envers.Audited;
 	query = "SELECT pf FROM PresentationFolder pf WHERE pf.parentFolder = :parent")
 @Audited
 @Entity
+// For the lookup of subtrees, see FolderService#getAllChildFolderIds(Folder)
+@Table(indexes = @Index(columnList = "parentFolder_id"))
 public class PresentationFolder extends Folder {
 
 	/** Generated serial version UID. */
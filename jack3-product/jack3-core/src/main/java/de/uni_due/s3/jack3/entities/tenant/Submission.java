@@ -87,17 +87,71 @@ import de.uni_due.s3.jack3.services.RevisionService;
 		+ "WHERE s.courseRecord=:courseRecord " //
 		+ "AND s.exercise=:exercise " //
 		+ "ORDER BY s.resultPoints DESC")
+@NamedQuery(
+		name = Submission.LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD,
+		query = "SELECT s.exercise.id, s.resultPoints FROM Submission s " //
+		+ "WHERE s.courseRecord=:courseRecord " //
+		+ "AND s.id = (SELECT MAX(latest.id) FROM Submission latest " //
+		+ "WHERE latest.courseRecord=s.courseRecord AND latest.exercise=s.exercise)")
+@NamedQuery(
+		name = Submission.BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD,
+		query = "SELECT s.exercise.id, MAX(s.resultPoints) FROM Submission s " //
+		+ "WHERE s.courseRecord=:courseRecord " //
+		+ "GROUP BY s.exercise.id")
+@NamedQuery(
+		name = Submission.LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS,
+		query = "SELECT s.courseRecord.id, s.exercise.id, s.resultPoints FROM Submission s " //
+		+ "WHERE s.courseRecord.id IN (:courseRecordIds) " //
+		+ "AND s.id = (SELECT MAX(latest.id) FROM Submission latest " //
+		+ "WHERE latest.courseRecord=s.courseRecord AND latest.exercise=s.exercise)")
+@NamedQuery(
+		name = Submission.BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS,
+		query = "SELECT s.courseRecord.id, s.exercise.id, MAX(s.resultPoints) FROM Submission s " //
+		+ "WHERE s.courseRecord.id IN (:courseRecordIds) " //
+		+ "GROUP BY s.courseRecord.id, s.exercise.id")
+@NamedQuery(
+		name = Submission.FIRST_RESULT_POINTS_PER_EXERCISE_NAME_FOR_COURSERECORDS,
+		query = "SELECT s.courseRecord.id, s.exercise.name, s.resultPoints FROM Submission s " //
+		+ "WHERE s.courseRecord.id IN (:courseRecordIds) " //
+		+ "AND s.id = (SELECT MIN(earliest.id) FROM Submission earliest " //
+		+ "WHERE earliest.courseRecord=s.courseRecord AND earliest.exercise=s.exercise) " //
+		+ "ORDER BY s.id ASC")
 @NamedQuery(
 		name = Submission.ALL_SUBMISSIONS_FOR_COURSERECORD,
 		query = "SELECT s FROM Submission s " //
 		+ "WHERE s.courseRecord=:courseRecord " //
 		+ "ORDER BY s.id DESC")
+@NamedQuery(
+		name = Submission.ALL_SUBMISSIONS_WITH_COMMENTS_FOR_COURSERECORD,
+		query = "SELECT DISTINCT s FROM Submission s " //
+		+ "LEFT JOIN FETCH s.comments " //
+		+ "WHERE s.courseRecord=:courseRecord " //
+		+ "ORDER BY s.id DESC")
 @NamedQuery(
 		name = Submission.ALL_SUBMISSIONS_FOR_EXERCISE_AND_FROZEN_EXERCISES,
 		query = "SELECT s FROM Submission s " //
 		+ "WHERE s.exercise = :exercise " //
 		+ "OR s.exercise IN (SELECT fe FROM FrozenExercise fe WHERE fe.proxiedExerciseId = :proxiedExerciseId)"
 		+ "ORDER BY s.id DESC")
+@NamedQuery(
+		name = Submission.SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES,
+		query = Submission.QUERY_SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES //
+		+ "ORDER BY s.creationTimestamp DESC, s.id DESC")
+@NamedQuery(
+		name = Submission.SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES_BY_REVISION,
+		query = Submission.QUERY_SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES //
+		// Frozen exercises are created after the exercise, so their submissions are sorted like by the group key
+		+ "ORDER BY s.shownExerciseRevisionId DESC, e.id DESC, s.creationTimestamp DESC, s.id DESC")
+@NamedQuery(
+		name = Submission.COUNT_SUBMISSIONS_PER_REVISION_FOR_EXERCISE_INCLUDING_FROZENREVISIONS,
+		query = "SELECT s.shownExerciseRevisionId, COUNT(s) FROM Submission s " //
+		+ "WHERE (s.exercise.id = :exerciseId OR s.exercise.id IN (SELECT fe.id FROM FrozenExercise fe WHERE fe.proxiedExerciseId = :exerciseId)) "
+		+ "GROUP BY s.shownExerciseRevisionId")
+@NamedQuery(
+		name = Submission.COUNT_SUBMISSIONS_WITHOUT_COURSERECORD_FOR_EXERCISE_INCLUDING_FROZENREVISIONS,
+		query = "SELECT COUNT(s) FROM Submission s " //
+		+ "WHERE s.courseRecord IS NULL "
+		+ "AND (s.exercise.id = :exerciseId OR s.exercise.id IN (SELECT fe.id FROM FrozenExercise fe WHERE fe.proxiedExerciseId = :exerciseId))")
 @NamedQuery(
 		name = Submission.COUNT_NONTESTING_SUBMISSIONS_FOR_EXERCISE_INCLUDING_FROZENREVISIONS,
 		query = "SELECT COUNT(s) FROM Submission s " //
@@ -137,10 +191,31 @@ public class Submission extends AbstractEntity implements TestableSubmission {
 
 	public static final String ALL_SUBMISSIONS_FOR_COURSERECORD = "Submission.allSubmissionsForCourseRecord";
 
+	/** Like {@link #ALL_SUBMISSIONS_FOR_COURSERECORD}, but with fetched comments. */
+	public static final String ALL_SUBMISSIONS_WITH_COMMENTS_FOR_COURSERECORD = "Submission.allSubmissionsWithCommentsForCourseRecord";
+
 	public static final String ALL_SUBMISSIONS_FOR_COURSERECORD_AND_EXERCISE_IN_DESCENDING_ORDER = "Submission.latestSubmissionForCourseRecordAndExercise";
 
 	public static final String ALL_SUBMISSIONS_FOR_COURSERECORD_AND_EXERCISE_ORDERD_BY_RESULT_IN_DESCENDING_ORDER = "Submission.bestSubmissionForCourseRecordAndExercise";
 
+	/** Name of the query that returns exercise IDs with the points of the latest submission of a course record. */
+	public static final String LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD = "Submission.latestResultPointsPerExerciseForCourseRecord";
+
+	/** Name of the query that returns exercise IDs with the best points of all submissions of a course record. */
+	public static final String BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD = "Submission.bestResultPointsPerExerciseForCourseRecord";
+
+	/** Like {@link #LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD}, but for several course records at once. */
+	public static final String LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS = "Submission.latestResultPointsPerExerciseForCourseRecords";
+
+	/** Like {@link #BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD}, but for several course records at once. */
+	public static final String BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS = "Submission.bestResultPointsPerExerciseForCourseRecords";
+
+	/**
+	 * Name of the query that returns the points of the first submission for each exercise of several course records,
+	 * with the exercise name instead of the ID.
+	 */
+	public static final String FIRST_RESULT_POINTS_PER_EXERCISE_NAME_FOR_COURSERECORDS = "Submission.firstResultPointsPerExerciseNameForCourseRecords";
+
 	/** Name of the query that counts all submissions for a given course offer. */
 	public static final String COUNT_SUBMISSIONS_FOR_COURSEOFFER = "Submission.countNontestingSubmissionsForCourseOffer";
 
@@ -148,6 +223,34 @@ public class Submission extends AbstractEntity implements TestableSubmission {
 	public static final String COUNT_NONTESTING_SUBMISSIONS_FOR_COURSE_INCLUDING_FROZENREVISIONS = "Submission.countNontestingSubmissionsForCourseIncludingFrozenRevisions";
 
 	public static final String ALL_SUBMISSIONS_FOR_EXERCISE_AND_FROZEN_EXERCISES = "Submission.allSubmissionsForExerciseAndFrozenExercise";
+
+	/**
+	 * Name of the query that returns the data of {@link de.uni_due.s3.jack3.services.utils.SubmissionOverview} for all
+	 * submissions of an exercise and its frozen revisions, the latest first.
+	 */
+	public static final String SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES = "Submission.submissionOverviewsForExerciseAndFrozenExercises";
+
+	/** Like {@link #SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES}, but ordered by the group key first. */
+	public static final String SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES_BY_REVISION = "Submission.submissionOverviewsForExerciseAndFrozenExercisesByRevision";
+
+	/** Name of the query that counts the submissions per shown revision for the given exercise ID. */
+	public static final String COUNT_SUBMISSIONS_PER_REVISION_FOR_EXERCISE_INCLUDING_FROZENREVISIONS = "Submission.countSubmissionsPerRevisionForExerciseIncludingFrozenRevisions";
+
+	/** Name of the query that counts the submissions without a course record for the given exercise ID. */
+	public static final String COUNT_SUBMISSIONS_WITHOUT_COURSERECORD_FOR_EXERCISE_INCLUDING_FROZENREVISIONS = "Submission.countSubmissionsWithoutCourseRecordForExerciseIncludingFrozenRevisions";
+
+	// The comments are counted in sub-queries, so the submissions are not multiplied by their comments
+	public static final String QUERY_SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES = "SELECT s.id, " //
+			+ "s.creationTimestamp, s.resultPoints, s.isCompleted, s.isTestSubmission, s.reviewed, "
+			+ "s.hasPendingStageChecks, s.hasInternalErrors, s.shownExerciseRevisionId, e.id, s.author.id, cr.id, "
+			+ "cr.isTestSubmission, co.id, "
+			+ "(SELECT COUNT(c) FROM Submission cs JOIN cs.comments c WHERE cs.id = s.id), "
+			+ "(SELECT COUNT(c) FROM Submission cs JOIN cs.comments c WHERE cs.id = s.id AND c.isRead = false) "
+			+ "FROM Submission s " //
+			+ "JOIN s.exercise e " //
+			+ "LEFT JOIN s.courseRecord cr " //
+			+ "LEFT JOIN cr.courseOffer co " //
+			+ "WHERE (e.id = :exerciseId OR e.id IN (SELECT fe.id FROM FrozenExercise fe WHERE fe.proxiedExerciseId = :exerciseId)) ";
 	public static final String COUNT_NONTESTING_SUBMISSIONS_FOR_EXERCISE_INCLUDING_FROZENREVISIONS = "Submission.countNontestingSubmissionsForExerciseIncludingFrozenRevisions";
 	public static final String COUNT_ALL_SUBMISSIONS_FOR_EXERCISE_INCLUDING_FROZENREVISIONS = "Submission.countAllSubmissionsForExerciseIncludingFrozenRevisions";
 
@@ -53,6 +53,12 @@ import de.uni_due.s3.jack3.entities.AbstractEntity;
 		name = User.USER_OWNING_THIS_FOLDER,
 		query = "SELECT u FROM User u " //
 		+ "WHERE u.personalFolder = :folder")
+@NamedQuery(
+		name = User.USERS_BY_IDS,
+		query = "SELECT DISTINCT u FROM User u " //
+		+ "LEFT JOIN FETCH u.personalFolder " //
+		+ "LEFT JOIN FETCH u.profileData " //
+		+ "WHERE u.id IN (:ids)")
 @NamedQuery(
 		name = User.QUERY_COUNT, //
 		query = "SELECT COUNT (u) FROM User u")
@@ -100,6 +106,9 @@ public class User extends AbstractEntity implements Comparable<User> {
 
 	public static final String USER_OWNING_THIS_FOLDER = "User.userOwningThisFolder";
 
+	/** Name of the query that returns the users with the given IDs, including their eager data. */
+	public static final String USERS_BY_IDS = "User.usersByIds";
+
 	public static final String QUERY_COUNT = "User.count";
 
 	public static final String EXISTS_PSEUDONYM = "User.existsPseudonym";
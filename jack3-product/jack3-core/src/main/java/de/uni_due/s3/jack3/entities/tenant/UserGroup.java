@@ -40,6 +40,19 @@ import de.uni_due.s3.jack3.entities.AbstractEntity;
 		query = "SELECT ug FROM UserGroup ug " //
 		+ "LEFT JOIN FETCH ug.memberGroups " //
 		+ "WHERE ug.id = :id")
+@NamedQuery(
+		name = UserGroup.USERGROUPS_WITH_LAZY_DATA_BY_IDS,
+		query = "SELECT DISTINCT ug FROM UserGroup ug " //
+		+ "LEFT JOIN FETCH ug.memberUsers " //
+		+ "LEFT JOIN FETCH ug.memberGroups " //
+		+ "WHERE ug.id IN (:ids) " //
+		+ "ORDER BY ug.name ASC")
+@NamedQuery(
+		name = UserGroup.USERGROUP_MEMBER_USER_IDS,
+		query = "SELECT ug.id, u.id FROM UserGroup ug JOIN ug.memberUsers u")
+@NamedQuery(
+		name = UserGroup.USERGROUP_MEMBER_GROUP_IDS,
+		query = "SELECT ug.id, g.id FROM UserGroup ug JOIN ug.memberGroups g")
 @Entity
 public class UserGroup extends AbstractEntity implements Comparable<UserGroup> {
 
@@ -56,6 +69,15 @@ public class UserGroup extends AbstractEntity implements Comparable<UserGroup> {
 	/** Name of the query that returns the user group with the member groups. */
 	public static final String USERGROUP_WITH_MEMBER_GROUPS = "UserGroup.userGroupWithMemberGroups";
 
+	/** Name of the query that returns the user groups with the given IDs and their members, ordered by name. */
+	public static final String USERGROUPS_WITH_LAZY_DATA_BY_IDS = "UserGroup.userGroupsWithLazyDataByIds";
+
+	/** Name of the query that returns all pairs of user group ID and ID of a direct member user. */
+	public static final String USERGROUP_MEMBER_USER_IDS = "UserGroup.userGroupMemberUserIds";
+
+	/** Name of the query that returns all pairs of user group ID and ID of a direct member group. */
+	public static final String USERGROUP_MEMBER_GROUP_IDS = "UserGroup.userGroupMemberGroupIds";
+
 	@Column
 	@Type(type = "text")
 	String name;
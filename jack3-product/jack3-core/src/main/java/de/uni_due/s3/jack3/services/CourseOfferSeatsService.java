@@ -0,0 +1,58 @@
+package de.uni_due.s3.jack3.services;
+
+import java.util.Optional;
+
+import javax.ejb.Stateless;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.inject.Inject;
+import javax.persistence.LockModeType;
+
+import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
+import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
+import de.uni_due.s3.jack3.entities.tenant.CourseOfferSeats;
+import de.uni_due.s3.jack3.entities.tenant.Enrollment;
+import de.uni_due.s3.jack3.services.utils.DBHelper;
+
+/**
+ * Service for managing {@link CourseOfferSeats} entities. The counters are changed by the {@link EnrollmentService}.
+ */
+@Stateless
+public class CourseOfferSeatsService extends AbstractServiceBean {
+
+	@Inject
+	private BaseService baseService;
+
+	/**
+	 * Returns the counter of a course offer.
+	 *
+	 * @param lockMode
+	 *            {@link LockModeType#PESSIMISTIC_WRITE} to lock the counter until the end of the transaction
+	 */
+	public Optional<CourseOfferSeats> getSeats(CourseOffer offer, LockModeType lockMode) {
+		return DBHelper.getOneOrZero(getEntityManager()
+				.createNamedQuery(CourseOfferSeats.SEATS_BY_COURSE_OFFER_ID, CourseOfferSeats.class)
+				.setParameter("courseOfferId", offer.getId())
+				.setLockMode(lockMode));
+	}
+
+	/**
+	 * Creates the counter of a course offer from the committed enrollments in a new transaction, so it is visible for
+	 * concurrent transactions immediately. If another transaction has created the counter in the meantime, this
+	 * transaction fails due to the unique constraint and the counter of the other transaction must be used.
+	 */
+	@TransactionAttribute(TransactionAttributeType.REQUIRES_NEW)
+	public void createSeats(CourseOffer offer) {
+		final long enrolled = getEntityManager()
+				.createNamedQuery(Enrollment.COUNT_ENROLLMENTS_FOR_COURSEOFFER_AND_STATUS, Long.class)
+				.setParameter("courseOffer", offer)
+				.setParameter("status", EEnrollmentStatus.ENROLLED)
+				.getSingleResult();
+		baseService.persist(new CourseOfferSeats(offer.getId(), enrolled));
+		getEntityManager().flush();
+	}
+
+	public void deleteSeats(CourseOffer offer) {
+		getSeats(offer, LockModeType.PESSIMISTIC_WRITE).ifPresent(getEntityManager()::remove);
+	}
+}
@@ -24,6 +24,9 @@ public class CourseOfferService extends AbstractServiceBean {
 	@Inject
 	private CourseRecordService courseRecordService;
 
+	@Inject
+	private CourseOfferSeatsService courseOfferSeatsService;
+
 	public List<CourseOffer> getAllCourseOffers() {
 		final EntityManager em = getEntityManager();
 		final TypedQuery<CourseOffer> q = em.createNamedQuery(CourseOffer.ALL_COURSEOFFERS, CourseOffer.class);
@@ -69,6 +72,7 @@ public class CourseOfferService extends AbstractServiceBean {
 		for(CourseRecord courseRecord : courseRecordList) {
 			courseRecordService.removeCourseRecordAndAttachedSubmissions(courseRecord);
 		}
+		courseOfferSeatsService.deleteSeats(courseOffer);
 		baseService.deleteEntity(courseOffer);
 	}
 
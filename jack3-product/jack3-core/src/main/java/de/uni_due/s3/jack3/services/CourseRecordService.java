@@ -3,16 +3,23 @@ package de.uni_due.s3.jack3.services;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZero;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroRemovingDuplicates;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.NonUniqueResultException;
 import javax.persistence.TypedQuery;
 
+import com.google.common.collect.Iterables;
+
 import de.uni_due.s3.jack3.entities.tenant.AbstractCourse;
 import de.uni_due.s3.jack3.entities.tenant.Comment;
 import de.uni_due.s3.jack3.entities.tenant.Course;
@@ -21,6 +28,7 @@ import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
 import de.uni_due.s3.jack3.entities.tenant.Submission;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.services.utils.DBHelper;
+import de.uni_due.s3.jack3.services.utils.StatisticsChange;
 
 /**
  * Service for managing {@link CourseRecord} entities.
@@ -28,12 +36,18 @@ import de.uni_due.s3.jack3.services.utils.DBHelper;
 @Stateless
 public class CourseRecordService extends AbstractServiceBean {
 
+	/** Maximum number of course record IDs passed to a single query. */
+	private static final int MAX_COURSERECORDS_PER_QUERY = 500;
+
 	@Inject
 	private BaseService baseService;
 	
 	@Inject
 	private SubmissionService submissionService;
 
+	@Inject
+	private Event<StatisticsChange> statisticsChangeEvent;
+
 	/**
 	 * Get all course records, that point to the course. The result is ordered by start time in descending order.
 	 * <strong>NOTE: This query does not include course records for frozen versions of the course!</strong>
@@ -107,6 +121,7 @@ public class CourseRecordService extends AbstractServiceBean {
 			// Calling baseService.deleteEntity would be overhead here as the list above already contain "fresh"
 			// entities and only includes existing entities
 			em.remove(currentCourseRecord);
+			statisticsChangeEvent.fire(StatisticsChange.of(currentCourseRecord));
 		}
 	}
 	
@@ -124,6 +139,7 @@ public class CourseRecordService extends AbstractServiceBean {
 		}
 		
 		baseService.deleteEntity(courseRecord);
+		statisticsChangeEvent.fire(StatisticsChange.of(courseRecord));
 	}
 
 	public long countAllCourseRecordsForCourseOfferAndUser(CourseOffer courseOffer, User user) {
@@ -149,6 +165,58 @@ public class CourseRecordService extends AbstractServiceBean {
 		return getOneOrZeroRemovingDuplicates(query);
 	}
 
+	/**
+	 * Returns the course records with the given IDs with fetched exercises. The order of the result is unspecified.
+	 */
+	public List<CourseRecord> getCourseRecordsWithExercisesByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return getEntityManager()
+				.createNamedQuery(CourseRecord.COURSERECORDS_WITH_EXERCISES_BY_IDS, CourseRecord.class)
+				.setParameter("ids", ids)
+				.getResultList();
+	}
+
+	/**
+	 * Returns the IDs of the next course records of a course offer in ascending order, starting after the given ID.
+	 * Calling this repeatedly with the last returned ID pages through all course records without offsets.
+	 *
+	 * @param lastId
+	 *            ID of the last course record of the previous page, {@code 0} for the first page
+	 * @param maxResults
+	 *            Maximum number of IDs to return
+	 */
+	public List<Long> getCourseRecordIdsForCourseOffer(CourseOffer courseOffer, long lastId, int maxResults) {
+		return getEntityManager()
+				.createNamedQuery(CourseRecord.COURSERECORD_IDS_FOR_COURSEOFFER_AFTER_ID, Long.class)
+				.setParameter("courseOffer", courseOffer)
+				.setParameter("lastId", lastId)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+
+	/**
+	 * Returns the next course records of a course offer with fetched users in ascending order of their IDs, starting
+	 * after the given ID. Test submissions are excluded.
+	 *
+	 * @param lastId
+	 *            ID of the last course record of the previous page, {@code 0} for the first page
+	 * @param maxResults
+	 *            Maximum number of course records to return
+	 * @see #getCourseRecordIdsForCourseOffer(CourseOffer, long, int)
+	 */
+	public List<CourseRecord> getNonTestingCourseRecordsWithUser(CourseOffer courseOffer, long lastId,
+			int maxResults) {
+		return getEntityManager()
+				.createNamedQuery(CourseRecord.NONTESTING_COURSERECORDS_WITH_USER_FOR_COURSEOFFER_AFTER_ID,
+						CourseRecord.class)
+				.setParameter("courseOffer", courseOffer)
+				.setParameter("lastId", lastId)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+
 	/**
 	 * Gets all open course records for a student, excluding test records. The result list is ordered by the name of the
 	 * course offer.
@@ -211,12 +279,43 @@ public class CourseRecordService extends AbstractServiceBean {
 		return query.getSingleResult();
 	}
 
+	/**
+	 * Counts the comments and unread comments of the given course records with one query per
+	 * {@value #MAX_COURSERECORDS_PER_QUERY} course records and sets them to the course records.
+	 *
+	 * @see CourseRecord#setCommentsOnSubmissions(long)
+	 * @see CourseRecord#setUnreadCommentsOnSubmissions(long)
+	 */
+	public void countCommentsForCourseRecords(Collection<CourseRecord> courseRecords) {
+		final Map<Long, CourseRecord> courseRecordsById = new HashMap<>();
+		for (final CourseRecord courseRecord : courseRecords) {
+			courseRecord.setCommentsOnSubmissions(0);
+			courseRecord.setUnreadCommentsOnSubmissions(0);
+			courseRecordsById.put(courseRecord.getId(), courseRecord);
+		}
+
+		for (final List<Long> ids : Iterables.partition(courseRecordsById.keySet(), MAX_COURSERECORDS_PER_QUERY)) {
+			final List<Object[]> rows = getEntityManager()
+					.createNamedQuery(Comment.COUNT_COMMENTS_AND_UNREAD_COMMENTS_PER_COURSERECORD, Object[].class)
+					.setParameter("courseRecordIds", ids)
+					.getResultList();
+			for (final Object[] row : rows) {
+				final CourseRecord courseRecord = courseRecordsById.get(row[0]);
+				courseRecord.setCommentsOnSubmissions((Long) row[1]);
+				courseRecord.setUnreadCommentsOnSubmissions((Long) row[2]);
+			}
+		}
+	}
+
 	public void persistCourseRecord(CourseRecord courseRecord) {
 		baseService.persist(courseRecord);
+		statisticsChangeEvent.fire(StatisticsChange.of(courseRecord));
 	}
 
 	public CourseRecord mergeCourseRecord(CourseRecord courseRecord) {
-		return baseService.merge(courseRecord);
+		final CourseRecord mergedCourseRecord = baseService.merge(courseRecord);
+		statisticsChangeEvent.fire(StatisticsChange.of(mergedCourseRecord));
+		return mergedCourseRecord;
 	}
 
 	public List<CourseRecord> getAllEmptyCourseRecordsForUser(User user) {
@@ -269,6 +368,39 @@ public class CourseRecordService extends AbstractServiceBean {
 				.getSingleResult();
 	}
 
+	/**
+	 * Counts the course records belonging to a course offer per score.
+	 *
+	 * @return Number of course records by result points, scores without course records are missing
+	 */
+	public Map<Integer, Long> getScoreDistributionForCourseOffer(CourseOffer courseOffer) {
+		return toScoreDistribution(getEntityManager()
+				.createNamedQuery(CourseRecord.SCORE_DISTRIBUTION_FOR_COURSEOFFER, Object[].class)
+				.setParameter("courseOffer", courseOffer)
+				.getResultList());
+	}
+
+	/**
+	 * Counts all non-testing course records belonging to a course per score, including records for frozen courses.
+	 *
+	 * @return Number of course records by result points, scores without course records are missing
+	 */
+	public Map<Integer, Long> getScoreDistributionForCourse(Course course) {
+		return toScoreDistribution(getEntityManager()
+				.createNamedQuery(CourseRecord.NONTESTING_SCORE_DISTRIBUTION_FOR_COURSE_INCLUDING_FROZENREVISIONS,
+						Object[].class)
+				.setParameter("courseId", course.getId())
+				.getResultList());
+	}
+
+	private static Map<Integer, Long> toScoreDistribution(List<Object[]> rows) {
+		final Map<Integer, Long> distribution = new HashMap<>();
+		for (final Object[] row : rows) {
+			distribution.put((Integer) row[0], (Long) row[1]);
+		}
+		return distribution;
+	}
+
 	/**
 	 * Counts all non-testing course records belonging to a course, including records for frozen courses.
 	 */
@@ -1,14 +1,20 @@
 package de.uni_due.s3.jack3.services;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.Serializable;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
 import javax.ejb.Stateless;
+import javax.inject.Inject;
 import javax.mail.Message.RecipientType;
 import javax.mail.MessagingException;
 import javax.mail.NoSuchProviderException;
@@ -20,7 +26,9 @@ import javax.naming.InitialContext;
 import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 
+import de.uni_due.s3.jack3.entities.maintenance.OutboundMail;
 import de.uni_due.s3.jack3.multitenancy.TenantIdentifier;
+import de.uni_due.s3.jack3.services.utils.MailBatchSender;
 
 /**
  * <p>
@@ -40,6 +48,10 @@ import de.uni_due.s3.jack3.multitenancy.TenantIdentifier;
  *   .send();
  * }
  * </pre>
+ * <p>
+ * Mails that are sent as part of a user action should be {@linkplain Mail#queue() queued} instead, so the action does
+ * not wait for the mail server. This does not apply to mails containing secrets, which must not be stored.
+ * </p>
  *
  * @see #createMail()
  * @see Mail
@@ -61,6 +73,9 @@ public class EmailService extends AbstractServiceBean implements Serializable {
 		/** The charset we use to encode the mail's content. */
 		private final String charset;
 
+		/** The outbox this mail is queued in. */
+		private final OutboundMailService outbox;
+
 		/**
 		 * Creates a new Mail instance wrapping the given {@link MimeMessage} instance. This
 		 * constructor is private to hide it from client code. Clients should call {@link
@@ -68,13 +83,17 @@ public class EmailService extends AbstractServiceBean implements Serializable {
 		 *
 		 * @param message
 		 *            The MimeMessage instance to be wrapped.
+		 * @param outbox
+		 *            The service used to queue the mail.
 		 * @throws MessagingException
 		 *             If initializing the new mail failed. See the exception's error message for details.
 		 * @see EmailService#createMail()
 		 */
-		private Mail(MimeMessage message, final Charset charset) throws MessagingException {
+		private Mail(MimeMessage message, final Charset charset, final OutboundMailService outbox)
+				throws MessagingException {
 			this.message = message;
 			this.charset = charset.name();
+			this.outbox = outbox;
 			message.setFrom();
 		}
 
@@ -209,12 +228,39 @@ public class EmailService extends AbstractServiceBean implements Serializable {
 			message.setSentDate(new Date());
 			Transport.send(message);
 		}
+
+		/**
+		 * Stores this mail in the outbox as part of the current transaction instead of sending it immediately. The
+		 * mail is delivered in the background after the transaction has been committed. If delivering fails, it is
+		 * retried later.
+		 * <p>
+		 * The mail is stored in the database until it is delivered, so mails containing secrets such as passwords must
+		 * be {@linkplain #send() sent} instead.
+		 * </p>
+		 *
+		 * @throws MessagingException
+		 *             If the mail could not be written. Please see the exception's message for details.
+		 */
+		public void queue() throws MessagingException {
+			message.saveChanges();
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try {
+				message.writeTo(bytes);
+			} catch (final IOException e) {
+				throw new MessagingException("Failed to write the mail.", e);
+			}
+			outbox.queueMail(new OutboundMail(bytes.toByteArray(), InternetAddress.toString(message.getAllRecipients()),
+					LocalDateTime.now()));
+		}
 	}
 
 	/** The mail session used to send mails. */
 	@Resource(name = "java:jboss/mail/jack")
 	private Session session;
 
+	@Inject
+	private OutboundMailService outboundMailService;
+
 	@PostConstruct
 	private void checkForTenantSpecificMailSession() {
 		try {
@@ -252,7 +298,29 @@ public class EmailService extends AbstractServiceBean implements Serializable {
 		if (session == null)
 			throw new MessagingException("No mail session is available.");
 
-		return new Mail(new MimeMessage(session), StandardCharsets.UTF_8);
+		return new Mail(new MimeMessage(session), StandardCharsets.UTF_8, outboundMailService);
+	}
+
+	/**
+	 * Sends the given messages over one connection to the mail server.
+	 *
+	 * @param messages
+	 *            The messages in RFC 822 format, e.g. {@linkplain OutboundMail#getMessage() queued mails}.
+	 * @param recipients
+	 *            The recipients of each message as a comma separated list of addresses, e.g.
+	 *            {@linkplain OutboundMail#getRecipients() the recipients of queued mails}, or {@code null} for all
+	 *            recipients in the header of a message.
+	 * @return The exception for each message that was not sent, by the index of the message.
+	 * @throws MessagingException
+	 *             If the mail session is currently unavailable.
+	 * @see MailBatchSender
+	 */
+	public Map<Integer, MessagingException> sendAll(List<byte[]> messages, List<String> recipients)
+			throws MessagingException {
+		if (session == null)
+			throw new MessagingException("No mail session is available.");
+
+		return new MailBatchSender(session).send(messages, recipients);
 	}
 
 	/**
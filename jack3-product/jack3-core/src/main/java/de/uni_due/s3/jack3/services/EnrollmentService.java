@@ -4,16 +4,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+import javax.ejb.EJBException;
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
+import javax.persistence.LockModeType;
 import javax.persistence.NonUniqueResultException;
 
 import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
+import de.uni_due.s3.jack3.entities.tenant.CourseOfferSeats;
 import de.uni_due.s3.jack3.entities.tenant.Enrollment;
 import de.uni_due.s3.jack3.entities.tenant.PresentationFolder;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.services.utils.DBHelper;
+import de.uni_due.s3.jack3.services.utils.StatisticsChange;
 
 /**
  * Service for managing {@link Enrollment} entities.
@@ -26,20 +31,101 @@ public class EnrollmentService extends AbstractServiceBean {
 	@Inject
 	private BaseService baseService;
 
+	@Inject
+	private Event<StatisticsChange> statisticsChangeEvent;
+
+	@Inject
+	private CourseOfferSeatsService courseOfferSeatsService;
+
+	/**
+	 * Persists a new enrollment and counts it in the {@link CourseOfferSeats seats} of the course offer.
+	 */
 	public void persistEnrollment(Enrollment enrollment) {
+		countStatusChange(enrollment.getCourseOffer(), null, enrollment.getStatus());
 		baseService.persist(enrollment);
+		statisticsChangeEvent.fire(StatisticsChange.of(enrollment));
 	}
 
+	/**
+	 * Merges an enrollment without changing its status. Use
+	 * {@link #changeStatus(Enrollment, EEnrollmentStatus, User, String)} to change the status.
+	 */
 	public Enrollment mergeEnrollment(Enrollment enrollment) {
-		return baseService.merge(enrollment);
+		final Enrollment mergedEnrollment = baseService.merge(enrollment);
+		statisticsChangeEvent.fire(StatisticsChange.of(mergedEnrollment));
+		return mergedEnrollment;
+	}
+
+	/**
+	 * Changes the status of an enrollment and counts the change in the {@link CourseOfferSeats seats} of the course
+	 * offer.
+	 */
+	public Enrollment changeStatus(Enrollment enrollment, EEnrollmentStatus status, User changedBy,
+			String explanation) {
+		countStatusChange(enrollment.getCourseOffer(), enrollment.getStatus(), status);
+		enrollment.updateStatus(status, changedBy, explanation);
+		return mergeEnrollment(enrollment);
 	}
 
 	public void deleteEnrollment(Enrollment enrollment) {
+		countStatusChange(enrollment.getCourseOffer(), enrollment.getStatus(), null);
 		baseService.deleteEntity(enrollment);
+		statisticsChangeEvent.fire(StatisticsChange.of(enrollment));
+	}
+
+	/**
+	 * Locks the seats of a course offer until the end of the transaction. Concurrent transactions changing enrollments
+	 * in the course offer wait until this transaction is finished. To avoid deadlocks, the seats must be locked before
+	 * any enrollment of the course offer is changed. The seats are created if they do not exist yet.
+	 */
+	public CourseOfferSeats lockSeats(CourseOffer offer) {
+		final Optional<CourseOfferSeats> seats = courseOfferSeatsService.getSeats(offer,
+				LockModeType.PESSIMISTIC_WRITE);
+		if (seats.isPresent()) {
+			return seats.get();
+		}
+
+		try {
+			courseOfferSeatsService.createSeats(offer);
+		} catch (EJBException e) {
+			// The seats have been created by a concurrent transaction
+			getLogger().debugf("Seats of %s have been created concurrently: %s", offer, e.getMessage());
+		}
+		return courseOfferSeatsService.getSeats(offer, LockModeType.PESSIMISTIC_WRITE)
+				.orElseThrow(() -> new IllegalStateException("Seats of " + offer + " could not be created."));
+	}
+
+	/**
+	 * Returns the number of enrolled users from the seats of the course offer, without counting the enrollments if
+	 * the seats exist.
+	 */
+	public long countEnrolledUsers(CourseOffer offer) {
+		return courseOfferSeatsService.getSeats(offer, LockModeType.NONE)
+				.map(CourseOfferSeats::getEnrolled)
+				.orElseGet(() -> countEnrollments(offer, EEnrollmentStatus.ENROLLED));
+	}
+
+	/**
+	 * Course offers with a participant limit always have seats. For other course offers, seats are only updated if
+	 * they exist, because the participant limit may have been removed.
+	 */
+	private void countStatusChange(CourseOffer offer, EEnrollmentStatus oldStatus, EEnrollmentStatus newStatus) {
+		final long delta = (newStatus == EEnrollmentStatus.ENROLLED ? 1 : 0)
+				- (oldStatus == EEnrollmentStatus.ENROLLED ? 1 : 0);
+		if (delta == 0) {
+			return;
+		}
+
+		if (offer.isExplicitEnrollment() && offer.getMaxAllowedParticipants() > 0) {
+			lockSeats(offer).addEnrolled(delta);
+		} else {
+			courseOfferSeatsService.getSeats(offer, LockModeType.PESSIMISTIC_WRITE)
+					.ifPresent(seats -> seats.addEnrolled(delta));
+		}
 	}
 
 	public void deleteAllEnrollmentsForUser(User user) {
-		getEnrollments(user).forEach(baseService::deleteEntity);
+		getEnrollments(user).forEach(this::deleteEnrollment);
 	}
 
 	/**
@@ -109,6 +195,18 @@ public class EnrollmentService extends AbstractServiceBean {
 				.getResultList();
 	}
 
+	/**
+	 * Returns the first users on the waiting list of a course offer, in the order they have joined the waiting list.
+	 */
+	public List<Enrollment> getWaitingList(CourseOffer offer, int maxResults) {
+		return getEntityManager()
+				.createNamedQuery(Enrollment.WAITING_LIST_FOR_COURSEOFFER, Enrollment.class)
+				.setParameter("courseOffer", offer)
+				.setParameter("status", EEnrollmentStatus.ON_WAITINGLIST)
+				.setMaxResults(maxResults)
+				.getResultList();
+	}
+
 	/**
 	 * Counts all enrollments for a course offer that have a certain status.
 	 */
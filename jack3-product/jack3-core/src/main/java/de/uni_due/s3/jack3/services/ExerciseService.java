@@ -3,6 +3,7 @@ package de.uni_due.s3.jack3.services;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroRemovingDuplicates;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -47,6 +48,36 @@ public class ExerciseService extends AbstractServiceBean {
                 .getResultList();
     }
 
+    /**
+     * Returns the IDs of all exercises that are direct children of the given folders.
+     *
+     * @return Unordered list of exercise IDs
+     */
+    public List<Long> getAllExerciseIdsForContentFolderIds(Collection<Long> folderIds) {
+        if (folderIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getEntityManager()
+                .createNamedQuery(Exercise.ALL_EXERCISE_IDS_FOR_CONTENTFOLDER_LIST, Long.class)
+                .setParameter("idsFolderList", folderIds)
+                .getResultList();
+    }
+
+    /**
+     * Returns the exercises with the given IDs with one query. IDs of exercises that do not exist are ignored.
+     *
+     * @return Exercise list without lazy data, unordered
+     */
+    public List<Exercise> getExercisesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return getEntityManager()
+                .createNamedQuery(Exercise.EXERCISES_BY_IDS, Exercise.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * Returns all exercises that are direct children of a folder in the folderList
      *
@@ -269,6 +300,20 @@ public class ExerciseService extends AbstractServiceBean {
         return getOneOrZeroRemovingDuplicates(query);
     }
 
+    /**
+     * Loads a frozen revision for an exercise with its whole object graph (stages, transitions, resources, ...), so
+     * it can still be read after the entity manager is closed.
+     *
+     * @param frozenExerciseId ID of the frozen exercise entity
+     * @return Frozen exercise with all data except the folder
+     * @see EntityReflectionHelper#hibernateInitializeObjectGraph(Object)
+     */
+    public Optional<FrozenExercise> getFrozenExerciseWithObjectGraphById(long frozenExerciseId) {
+        Optional<FrozenExercise> result = getFrozenExerciseWithLazyDataById(frozenExerciseId);
+        result.ifPresent(EntityReflectionHelper::hibernateInitializeObjectGraph);
+        return result;
+    }
+
     /**
      * Get all frozen exercise revisions for a given exercise by its ID.
      *
@@ -4,7 +4,14 @@ import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZero;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroConvertToTypeRemovingDuplicates;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroRemovingDuplicates;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -17,7 +24,10 @@ import javax.persistence.TypedQuery;
 import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 
+import com.google.common.collect.Iterables;
+
 import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
+import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.Exercise;
 import de.uni_due.s3.jack3.entities.tenant.Folder;
 import de.uni_due.s3.jack3.entities.tenant.PresentationFolder;
@@ -30,6 +40,10 @@ import de.uni_due.s3.jack3.utils.EntityReflectionHelper;
  */
 @Stateless
 public class FolderService extends AbstractServiceBean {
+
+	/** Maximum number of IDs passed to a single query. */
+	private static final int MAX_IDS_PER_QUERY = 500;
+
 	@Inject
 	private BaseService baseService;
 
@@ -135,6 +149,153 @@ public class FolderService extends AbstractServiceBean {
 		return getFolderWithManagingRights(folder, Folder.class);
 	}
 
+	/**
+	 * Loads the folders with the given IDs including their lazy rights data. The folders are loaded with one query per
+	 * {@value #MAX_IDS_PER_QUERY} IDs, in the order of the given IDs. IDs of folders that do not exist are ignored.
+	 */
+	public List<Folder> getFoldersWithManagingRights(final Collection<Long> folderIds) {
+		return getFoldersByIds(Folder.FOLDERS_WITH_MANAGING_RIGHTS_BY_IDS, folderIds, Folder.class);
+	}
+
+	/**
+	 * Loads the folders with the given IDs without lazy data, in the order of the given IDs. IDs of folders that do not
+	 * exist are ignored.
+	 */
+	public <T extends Folder> List<T> getFoldersByIds(final Collection<Long> folderIds, final Class<T> clazz) {
+		return getFoldersByIds(Folder.FOLDERS_BY_IDS, folderIds, clazz);
+	}
+
+	/**
+	 * Loads the content folders with the given IDs including their courses and exercises, in the order of the given
+	 * IDs. IDs of folders that do not exist are ignored.
+	 */
+	public List<ContentFolder> getContentFoldersWithContent(final Collection<Long> folderIds) {
+		return getFoldersByIds(ContentFolder.CONTENT_FOLDERS_WITH_CONTENT_BY_IDS, folderIds, ContentFolder.class);
+	}
+
+	private <T extends Folder> List<T> getFoldersByIds(final String queryName, final Collection<Long> folderIds,
+			final Class<T> clazz) {
+		Objects.requireNonNull(folderIds);
+
+		final Map<Long, T> foldersById = new HashMap<>();
+		for (final List<Long> partition : Iterables.partition(new LinkedHashSet<>(folderIds), MAX_IDS_PER_QUERY)) {
+			final TypedQuery<Folder> query = getEntityManager().createNamedQuery(queryName, Folder.class);
+			query.setParameter("ids", partition);
+			for (final Folder folder : query.getResultList()) {
+				foldersById.put(folder.getId(), clazz.cast(folder));
+			}
+		}
+
+		final List<T> result = new ArrayList<>(foldersById.size());
+		for (final Long folderId : folderIds) {
+			final T folder = foldersById.remove(folderId);
+			if (folder != null) {
+				result.add(folder);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the IDs of all direct and indirect child folders of the given folder, level by level. Only the subtree is
+	 * queried, with one query per level and {@value #MAX_IDS_PER_QUERY} parent folders, so the cost depends on the
+	 * size of the subtree and not on the number of all folders.
+	 */
+	public List<Long> getAllChildFolderIds(final Folder root) {
+		Objects.requireNonNull(root);
+		final List<Long> childIds = new ArrayList<>();
+		List<Long> parentIds = List.of(root.getId());
+		while (!parentIds.isEmpty()) {
+			final List<Long> levelIds = new ArrayList<>();
+			for (final List<Long> partition : Iterables.partition(parentIds, MAX_IDS_PER_QUERY)) {
+				levelIds.addAll(getEntityManager()
+						.createNamedQuery(Folder.CHILD_FOLDER_IDS_BY_PARENT_IDS, Long.class)
+						.setParameter("parentIds", partition)
+						.getResultList());
+			}
+			childIds.addAll(levelIds);
+			parentIds = levelIds;
+		}
+		return childIds;
+	}
+
+	/**
+	 * Loads the parent relation of all folders with one query. Use this with
+	 * {@link #getAllChildFolderIds(Map, long)} to compute the subtrees of many folders, for a single subtree
+	 * {@link #getAllChildFolderIds(Folder)} is cheaper.
+	 *
+	 * @return IDs of the direct child folders, by ID of the parent folder
+	 */
+	public Map<Long, List<Long>> getChildFolderIdsByParentId() {
+		final TypedQuery<Object[]> query = getEntityManager().createNamedQuery(Folder.FOLDER_PARENT_IDS,
+				Object[].class);
+		final Map<Long, List<Long>> childIdsByParentId = new HashMap<>();
+		for (final Object[] row : query.getResultList()) {
+			childIdsByParentId.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add((Long) row[0]);
+		}
+		return childIdsByParentId;
+	}
+
+	/**
+	 * Returns the IDs of all direct and indirect child folders of the given folder, level by level.
+	 *
+	 * @param childIdsByParentId
+	 *            Parent relation as returned by {@link #getChildFolderIdsByParentId()}
+	 */
+	public static List<Long> getAllChildFolderIds(final Map<Long, List<Long>> childIdsByParentId, final long rootId) {
+		final List<Long> childIds = new ArrayList<>();
+		final Deque<Long> parentIds = new ArrayDeque<>();
+		parentIds.add(rootId);
+		while (!parentIds.isEmpty()) {
+			for (final Long childId : childIdsByParentId.getOrDefault(parentIds.poll(), List.of())) {
+				childIds.add(childId);
+				parentIds.add(childId);
+			}
+		}
+		return childIds;
+	}
+
+	/**
+	 * Returns the IDs of the given folder and all its direct and indirect parent folders, the folder first. The parent
+	 * folders are not loaded, only their IDs with one query per level.
+	 */
+	public List<Long> getFolderAndAncestorIds(final Folder folder) {
+		Objects.requireNonNull(folder);
+		final List<Long> folderIds = new ArrayList<>();
+		Optional<Long> folderId = Optional.of(folder.getId());
+		while (folderId.isPresent()) {
+			folderIds.add(folderId.get());
+			folderId = getOneOrZero(getEntityManager()
+					.createNamedQuery(Folder.PARENT_FOLDER_ID_BY_ID, Long.class)
+					.setParameter("id", folderId.get()));
+		}
+		return folderIds;
+	}
+
+	/**
+	 * Counts the courses and exercises that are direct children of the given content folders. The counts are computed
+	 * by the database with one grouped query for courses and one for exercises per {@value #MAX_IDS_PER_QUERY} IDs,
+	 * the courses and exercises themselves are not loaded.
+	 *
+	 * @return Number of courses and exercises, by ID of the folder. Folders without content are omitted.
+	 */
+	public Map<Long, Long> getNumberOfContentsByFolderId(final Collection<Long> folderIds) {
+		Objects.requireNonNull(folderIds);
+
+		final Map<Long, Long> numberOfContents = new HashMap<>();
+		for (final List<Long> partition : Iterables.partition(new LinkedHashSet<>(folderIds), MAX_IDS_PER_QUERY)) {
+			for (final String queryName : List.of(Course.NUMBER_OF_COURSES_PER_CONTENT_FOLDER,
+					Exercise.NUMBER_OF_EXERCISES_PER_CONTENTFOLDER)) {
+				final TypedQuery<Object[]> query = getEntityManager().createNamedQuery(queryName, Object[].class);
+				query.setParameter("idsFolderList", partition);
+				for (final Object[] row : query.getResultList()) {
+					numberOfContents.merge((Long) row[0], (Long) row[1], Long::sum);
+				}
+			}
+		}
+		return numberOfContents;
+	}
+
 	/**
 	 * @return Presentation folder without lazy data
 	 */
@@ -1,12 +1,18 @@
 package de.uni_due.s3.jack3.services;
 
 import java.util.List;
+import java.util.Optional;
 
 import javax.ejb.Stateless;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
 
 import de.uni_due.s3.jack3.entities.tenant.Job;
+import de.uni_due.s3.jack3.entities.tenant.RStageJob;
 import de.uni_due.s3.jack3.entities.tenant.StageSubmission;
 import de.uni_due.s3.jack3.entities.tenant.Submission;
+import de.uni_due.s3.jack3.services.utils.DBHelper;
+import de.uni_due.s3.jack3.utils.EntityReflectionHelper;
 
 @Stateless
 public class JobService extends AbstractServiceBean {
@@ -22,4 +28,40 @@ public class JobService extends AbstractServiceBean {
 		return getEntityManager().createNamedQuery(Job.COUNT_PENDING_JOBS_FOR_STAGE_SUBMISSION, Long.class)
 				.setParameter("stageSubmission", stageSubmission).getSingleResult();
 	}
+
+	/**
+	 * Returns the ID of the course record the submission of the job belongs to, or the ID of the submission if it does
+	 * not belong to a course record.
+	 */
+	public Optional<Long> getCourseRecordOrSubmissionIdForJob(final long jobId) {
+		final TypedQuery<Long> query = getEntityManager()
+				.createNamedQuery(Job.COURSE_RECORD_OR_SUBMISSION_ID_BY_JOB_ID, Long.class)
+				.setParameter("id", jobId);
+		return DBHelper.getOneOrZero(query);
+	}
+
+	/**
+	 * Loads a job with the data that is needed to process its checker result: The submission with its lazy data and
+	 * the complete stage submission. Unlike {@link BaseService#findById(Class, long, boolean)} with eager loading,
+	 * this does not initialize the exercise and course data reachable from the submission.
+	 */
+	public Optional<Job> getJobWithSubmissionsById(final long jobId) {
+		final EntityManager em = getEntityManager();
+		final Optional<Job> job = DBHelper.getOneOrZero(em.createNamedQuery(Job.JOB_WITH_SUBMISSIONS_BY_ID, Job.class)
+				.setParameter("id", jobId));
+		if (job.isEmpty()) {
+			return job;
+		}
+
+		// The submission is already managed by this entity manager, so the query only initializes its collections
+		em.createNamedQuery(Submission.SUBMISSIONS_WITH_LAZY_DATA_BY_SUBMISSIONS_ID, Submission.class)
+				.setParameter("id", job.get().getSubmission().getId())
+				.getResultList();
+		EntityReflectionHelper.hibernateInitializeObjectGraph(job.get().getStageSubmission());
+		EntityReflectionHelper.hibernateInitializeObjectGraph(job.get().getCheckerConfiguration());
+		if (job.get() instanceof RStageJob) {
+			EntityReflectionHelper.hibernateInitializeObjectGraph(((RStageJob) job.get()).getTestCase());
+		}
+		return job;
+	}
 }
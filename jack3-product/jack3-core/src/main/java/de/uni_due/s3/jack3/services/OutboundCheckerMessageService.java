@@ -0,0 +1,76 @@
+package de.uni_due.s3.jack3.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import javax.ejb.Stateless;
+import javax.inject.Inject;
+
+import de.uni_due.s3.jack3.entities.maintenance.OutboundCheckerMessage;
+
+/**
+ * Service for managing the {@link OutboundCheckerMessage checker job messages} that have not been published yet.
+ */
+@Stateless
+public class OutboundCheckerMessageService extends AbstractServiceBean {
+
+	@Inject
+	private BaseService baseService;
+
+	public void persistMessage(OutboundCheckerMessage message) {
+		baseService.persist(message);
+	}
+
+	/**
+	 * Claims the unpublished messages that are due for publishing them again, the longest waiting first. The messages
+	 * are not due again before the given time. The claim is a conditional update, so messages that are claimed
+	 * concurrently by another node are skipped.
+	 *
+	 * @return The claimed messages
+	 */
+	public List<OutboundCheckerMessage> claimDueMessages(LocalDateTime now, LocalDateTime nextAttemptAt, int limit) {
+		final List<Long> ids = getEntityManager()
+				.createNamedQuery(OutboundCheckerMessage.DUE_MESSAGE_IDS, Long.class)
+				.setParameter("now", now)
+				.setMaxResults(limit)
+				.getResultList();
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+
+		final String claim = UUID.randomUUID().toString();
+		getEntityManager()
+				.createNamedQuery(OutboundCheckerMessage.CLAIM_MESSAGES)
+				.setParameter("claim", claim)
+				.setParameter("nextAttemptAt", nextAttemptAt)
+				.setParameter("ids", ids)
+				.setParameter("now", now)
+				.executeUpdate();
+		return getEntityManager()
+				.createNamedQuery(OutboundCheckerMessage.MESSAGES_BY_CLAIM, OutboundCheckerMessage.class)
+				.setParameter("claim", claim)
+				.getResultList();
+	}
+
+	/**
+	 * Deletes the messages of jobs that have been finished or deleted, they must not be published again.
+	 *
+	 * @return Number of deleted messages
+	 */
+	public int deleteMessagesOfFinishedJobs() {
+		return getEntityManager()
+				.createNamedQuery(OutboundCheckerMessage.DELETE_MESSAGES_OF_FINISHED_JOBS)
+				.executeUpdate();
+	}
+
+	/**
+	 * Deletes the messages of the given job after they have been published.
+	 */
+	public void deleteMessagesOfJob(long jobId) {
+		getEntityManager()
+				.createNamedQuery(OutboundCheckerMessage.DELETE_MESSAGES_BY_JOB_ID)
+				.setParameter("jobId", jobId)
+				.executeUpdate();
+	}
+}
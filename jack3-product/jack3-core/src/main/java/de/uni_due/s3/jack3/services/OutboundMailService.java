@@ -0,0 +1,111 @@
+package de.uni_due.s3.jack3.services;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+
+import de.uni_due.s3.jack3.entities.maintenance.OutboundMail;
+
+/**
+ * Service for managing the {@link OutboundMail outbox}. Mails are queued by {@link EmailService.Mail#queue()}.
+ */
+@Stateless
+public class OutboundMailService extends AbstractServiceBean {
+
+	/**
+	 * CDI event that is fired when a mail has been queued. The mail can be delivered after the transaction has been
+	 * committed.
+	 */
+	public static final class MailQueued {
+
+		private MailQueued() {
+		}
+	}
+
+	@Inject
+	private BaseService baseService;
+
+	@Inject
+	private Event<MailQueued> mailQueuedEvent;
+
+	public void queueMail(OutboundMail mail) {
+		baseService.persist(mail);
+		mailQueuedEvent.fire(new MailQueued());
+	}
+
+	/**
+	 * Claims the mails that are due for delivery, the longest waiting first. The mails are not due again until the
+	 * claim has expired or a failed attempt is recorded. The claim is a conditional update, so mails that are claimed
+	 * concurrently by another node are skipped.
+	 *
+	 * @param claimedUntil
+	 *            The mails are due again after this time if the outcome of the delivery is not recorded
+	 * @return The claimed mails
+	 */
+	public List<OutboundMail> claimDueMails(LocalDateTime now, LocalDateTime claimedUntil, int limit) {
+		final List<Long> ids = getEntityManager()
+				.createNamedQuery(OutboundMail.DUE_MAIL_IDS, Long.class)
+				.setParameter("now", now)
+				.setMaxResults(limit)
+				.getResultList();
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+
+		final String claim = UUID.randomUUID().toString();
+		getEntityManager()
+				.createNamedQuery(OutboundMail.CLAIM_MAILS)
+				.setParameter("claim", claim)
+				.setParameter("claimedUntil", claimedUntil)
+				.setParameter("ids", ids)
+				.setParameter("now", now)
+				.executeUpdate();
+		return getEntityManager()
+				.createNamedQuery(OutboundMail.MAILS_BY_CLAIM, OutboundMail.class)
+				.setParameter("claim", claim)
+				.getResultList();
+	}
+
+	/**
+	 * Deletes the mails with the given IDs from the outbox, after they have been delivered.
+	 */
+	public void deleteMails(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		getEntityManager()
+				.createNamedQuery(OutboundMail.DELETE_MAILS_BY_IDS)
+				.setParameter("ids", ids)
+				.executeUpdate();
+	}
+
+	/**
+	 * Saves the failed attempts and given up mails recorded in the given mails.
+	 */
+	public void mergeMails(Collection<OutboundMail> mails) {
+		mails.forEach(baseService::merge);
+	}
+
+	/**
+	 * @return Number of mails that are waiting for delivery
+	 */
+	public long countQueuedMails() {
+		return getEntityManager()
+				.createNamedQuery(OutboundMail.COUNT_QUEUED_MAILS, Long.class)
+				.getSingleResult();
+	}
+
+	/**
+	 * @return Number of mails that have been given up, because all attempts have failed
+	 */
+	public long countFailedMails() {
+		return getEntityManager()
+				.createNamedQuery(OutboundMail.COUNT_FAILED_MAILS, Long.class)
+				.getSingleResult();
+	}
+}
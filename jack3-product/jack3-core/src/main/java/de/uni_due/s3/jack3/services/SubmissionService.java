@@ -2,14 +2,18 @@ package de.uni_due.s3.jack3.services;
 
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroRemovingDuplicates;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 import javax.ejb.Stateless;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -19,6 +23,7 @@ import org.hibernate.envers.AuditReader;
 import org.hibernate.envers.AuditReaderFactory;
 
 import de.uni_due.s3.jack3.entities.tenant.AbstractExercise;
+import de.uni_due.s3.jack3.entities.tenant.Comment;
 import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
@@ -31,6 +36,8 @@ import de.uni_due.s3.jack3.entities.tenant.SubmissionLogEntry;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.entities.tenant.VariableValue;
 import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
+import de.uni_due.s3.jack3.services.utils.StatisticsChange;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
 
 /**
  * Service for managing {@link Submission} entities.
@@ -44,8 +51,15 @@ public class SubmissionService extends AbstractServiceBean {
 	@Inject
 	private BaseService baseService;
 
+	@Inject
+	private UserService userService;
+
+	@Inject
+	private Event<StatisticsChange> statisticsChangeEvent;
+
 	public void persistSubmission(Submission submission) {
 		baseService.persist(submission);
+		statisticsChangeEvent.fire(StatisticsChange.ofNewSubmission(submission));
 	}
 
 	public List<Submission> getAllSubmissionsForExerciseAndFrozenVersions(AbstractExercise exercise) {
@@ -58,6 +72,76 @@ public class SubmissionService extends AbstractServiceBean {
 		return q.getResultList();
 	}
 
+	/**
+	 * Returns one page of the overviews of all submissions for an exercise and its frozen revisions. The overviews are
+	 * loaded with one projection query, their authors with a second one.
+	 *
+	 * @param exercise
+	 *            The exercise, must not be frozen
+	 * @param orderByRevision
+	 *            If {@code true}, the submissions are ordered by their {@link Submission#getGroupKey()} first.
+	 *            Otherwise and within a revision, the latest submissions come first.
+	 * @param first
+	 *            Index of the first submission
+	 * @param pageSize
+	 *            Maximum number of submissions
+	 */
+	public List<SubmissionOverview> getSubmissionOverviewsForExerciseAndFrozenVersions(Exercise exercise,
+			boolean orderByRevision, int first, int pageSize) {
+		final String queryName = orderByRevision
+				? Submission.SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES_BY_REVISION
+				: Submission.SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES;
+		final List<Object[]> rows = getEntityManager().createNamedQuery(queryName, Object[].class)
+				.setParameter("exerciseId", exercise.getId())
+				.setFirstResult(first)
+				.setMaxResults(pageSize)
+				.getResultList();
+
+		final Set<Long> authorIds = new HashSet<>();
+		for (final Object[] row : rows) {
+			authorIds.add(SubmissionOverview.getAuthorId(row));
+		}
+		final Map<Long, User> authorsById = new HashMap<>();
+		for (final User author : userService.getUsersByIds(authorIds)) {
+			authorsById.put(author.getId(), author);
+		}
+
+		final List<SubmissionOverview> overviews = new ArrayList<>(rows.size());
+		for (final Object[] row : rows) {
+			overviews.add(SubmissionOverview.of(row, exercise.getId(),
+					authorsById.get(SubmissionOverview.getAuthorId(row))));
+		}
+		return overviews;
+	}
+
+	/**
+	 * Counts the submissions for an exercise and its frozen revisions per shown revision.
+	 *
+	 * @return Number of submissions by {@link Submission#getShownExerciseRevisionId()}
+	 */
+	public Map<Integer, Long> countSubmissionsPerRevisionForExercise(Exercise exercise) {
+		final Map<Integer, Long> countsByRevisionId = new HashMap<>();
+		for (final Object[] row : getEntityManager()
+				.createNamedQuery(Submission.COUNT_SUBMISSIONS_PER_REVISION_FOR_EXERCISE_INCLUDING_FROZENREVISIONS,
+						Object[].class)
+				.setParameter("exerciseId", exercise.getId())
+				.getResultList()) {
+			countsByRevisionId.put((Integer) row[0], (Long) row[1]);
+		}
+		return countsByRevisionId;
+	}
+
+	/**
+	 * Counts the submissions for an exercise and its frozen revisions that do not belong to a course record.
+	 */
+	public long countSubmissionsWithoutCourseRecordForExercise(Exercise exercise) {
+		final TypedQuery<Long> query = getEntityManager().createNamedQuery(
+				Submission.COUNT_SUBMISSIONS_WITHOUT_COURSERECORD_FOR_EXERCISE_INCLUDING_FROZENREVISIONS, Long.class);
+		return query
+				.setParameter("exerciseId", exercise.getId())
+				.getSingleResult(); // No Optional, count() returns at least 0.
+	}
+
 	/**
 	 * Loads the submission with lazy data by submission id from database.
 	 */
@@ -143,6 +227,18 @@ public class SubmissionService extends AbstractServiceBean {
 		return q.getResultList();
 	}
 
+	/**
+	 * Lists all submissions that belong to a given course record with one query, the latest first.
+	 *
+	 * @return Submission list with comments, but without other lazy data
+	 */
+	public List<Submission> getAllSubmissionsWithCommentsForCourseRecord(CourseRecord courseRecord) {
+		return getEntityManager()
+				.createNamedQuery(Submission.ALL_SUBMISSIONS_WITH_COMMENTS_FOR_COURSERECORD, Submission.class)
+				.setParameter("courseRecord", courseRecord)
+				.getResultList();
+	}
+
 	/**
 	 * Counts all submissions that belong to a given exercise AND a given course record.
 	 */
@@ -199,6 +295,96 @@ public class SubmissionService extends AbstractServiceBean {
 		return submission;
 	}
 
+	/**
+	 * Returns the points of the latest submission for each exercise of a course record with one query.
+	 *
+	 * @return Points by exercise ID. Exercises without submissions are missing.
+	 * @see #getLatestSubmissionForCourseRecordAndExercise(CourseRecord, AbstractExercise)
+	 */
+	public Map<Long, Integer> getLatestResultPointsByExerciseId(CourseRecord courseRecord) {
+		return getResultPointsByExerciseId(Submission.LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD,
+				courseRecord);
+	}
+
+	/**
+	 * Returns the best points of all submissions for each exercise of a course record with one query.
+	 *
+	 * @return Points by exercise ID. Exercises without submissions are missing.
+	 * @see #getBestSubmissionForCourseRecordAndExercise(CourseRecord, AbstractExercise)
+	 */
+	public Map<Long, Integer> getBestResultPointsByExerciseId(CourseRecord courseRecord) {
+		return getResultPointsByExerciseId(Submission.BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORD,
+				courseRecord);
+	}
+
+	private Map<Long, Integer> getResultPointsByExerciseId(String queryName, CourseRecord courseRecord) {
+		final TypedQuery<Object[]> query = getEntityManager().createNamedQuery(queryName, Object[].class);
+		query.setParameter("courseRecord", courseRecord);
+		final Map<Long, Integer> pointsByExerciseId = new HashMap<>();
+		for (final Object[] row : query.getResultList()) {
+			pointsByExerciseId.put((Long) row[0], (Integer) row[1]);
+		}
+		return pointsByExerciseId;
+	}
+
+	/**
+	 * Returns the points of the latest submission for each exercise of several course records with one query.
+	 *
+	 * @return Points by exercise ID by course record ID. Course records without submissions are missing.
+	 * @see #getLatestResultPointsByExerciseId(CourseRecord)
+	 */
+	public Map<Long, Map<Long, Integer>> getLatestResultPointsByCourseRecordId(Collection<Long> courseRecordIds) {
+		return getResultPointsByCourseRecordId(Submission.LATEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS,
+				courseRecordIds);
+	}
+
+	/**
+	 * Returns the best points of all submissions for each exercise of several course records with one query.
+	 *
+	 * @return Points by exercise ID by course record ID. Course records without submissions are missing.
+	 * @see #getBestResultPointsByExerciseId(CourseRecord)
+	 */
+	public Map<Long, Map<Long, Integer>> getBestResultPointsByCourseRecordId(Collection<Long> courseRecordIds) {
+		return getResultPointsByCourseRecordId(Submission.BEST_RESULT_POINTS_PER_EXERCISE_FOR_COURSERECORDS,
+				courseRecordIds);
+	}
+
+	/**
+	 * Returns the points of the first submission for each exercise of several course records with one query. If
+	 * exercises of a course record share a name, the points of the first submission to one of them are returned.
+	 *
+	 * @return Points by exercise name by course record ID. Course records without submissions are missing.
+	 */
+	public Map<Long, Map<String, Integer>> getFirstResultPointsByExerciseName(Collection<Long> courseRecordIds) {
+		final Map<Long, Map<String, Integer>> pointsByCourseRecordId = new HashMap<>();
+		if (courseRecordIds.isEmpty()) {
+			return pointsByCourseRecordId;
+		}
+		final TypedQuery<Object[]> query = getEntityManager()
+				.createNamedQuery(Submission.FIRST_RESULT_POINTS_PER_EXERCISE_NAME_FOR_COURSERECORDS, Object[].class);
+		query.setParameter("courseRecordIds", courseRecordIds);
+		for (final Object[] row : query.getResultList()) {
+			pointsByCourseRecordId.computeIfAbsent((Long) row[0], id -> new HashMap<>()).putIfAbsent((String) row[1],
+					(Integer) row[2]);
+		}
+		return pointsByCourseRecordId;
+	}
+
+	private Map<Long, Map<Long, Integer>> getResultPointsByCourseRecordId(String queryName,
+			Collection<Long> courseRecordIds) {
+		final Map<Long, Map<Long, Integer>> pointsByCourseRecordId = new HashMap<>();
+		if (courseRecordIds.isEmpty()) {
+			return pointsByCourseRecordId;
+		}
+		final TypedQuery<Object[]> query = getEntityManager().createNamedQuery(queryName, Object[].class);
+		query.setParameter("courseRecordIds", courseRecordIds);
+		for (final Object[] row : query.getResultList()) {
+			pointsByCourseRecordId.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((Long) row[1],
+					(Integer) row[2]);
+		}
+		return pointsByCourseRecordId;
+	}
+
 	/**
 	 * Counts all submissions belonging to a given course offer. Since only non-testing submissions are linked to course
 	 * offers, this query ignores all testing submissions.
@@ -254,10 +440,33 @@ public class SubmissionService extends AbstractServiceBean {
 				.getResultList();
 	}
 
+	/**
+	 * Saves the progress of a submission. Does not change the statistics, use {@link #addComment(Submission, Comment)}
+	 * to add a comment.
+	 */
 	public Submission mergeSubmission(Submission submission) {
 		return baseService.merge(submission);
 	}
 
+	/**
+	 * Adds a persisted comment to the submission and saves the submission.
+	 */
+	public Submission addComment(Submission submission, Comment comment) {
+		submission.addComment(comment);
+		final Submission mergedSubmission = baseService.merge(submission);
+		statisticsChangeEvent.fire(StatisticsChange.of(mergedSubmission));
+		return mergedSubmission;
+	}
+
+	/**
+	 * Saves a changed comment of the given submission, e.g. after it has been marked as read.
+	 */
+	public Comment mergeComment(Submission submission, Comment comment) {
+		final Comment mergedComment = baseService.merge(comment);
+		statisticsChangeEvent.fire(StatisticsChange.of(submission));
+		return mergedComment;
+	}
+
 	/**
 	 * Deletes given Submission and dependent Entities
 	 * Deletion order: submissions, results, stage-submissions, variable values, submission log entries
@@ -279,6 +488,7 @@ public class SubmissionService extends AbstractServiceBean {
 		final List<Job> jobs = jobService.getAllJobsForSubmission(submission);
 
 		baseService.deleteEntity(updatedSubmission);
+		statisticsChangeEvent.fire(StatisticsChange.of(updatedSubmission));
 
 
 		final Set<Result> results = new HashSet<>();
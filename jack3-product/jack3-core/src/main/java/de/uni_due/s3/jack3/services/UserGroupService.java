@@ -3,8 +3,12 @@ package de.uni_due.s3.jack3.services;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZero;
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZeroRemovingDuplicates;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javax.ejb.Stateless;
@@ -61,6 +65,48 @@ public class UserGroupService extends AbstractServiceBean {
 		return q.getResultList();
 	}
 
+	/**
+	 * Lists the user groups with the given IDs. User groups that do not exist are missing in the result.
+	 *
+	 * @return User group list with lazy data (member lists), ordered by user group name
+	 */
+	public List<UserGroup> getUserGroupsByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		final TypedQuery<UserGroup> query = getEntityManager()
+				.createNamedQuery(UserGroup.USERGROUPS_WITH_LAZY_DATA_BY_IDS, UserGroup.class);
+		query.setParameter("ids", ids);
+		return query.getResultList();
+	}
+
+	/**
+	 * Loads the direct member users of all user groups with one query.
+	 *
+	 * @return IDs of the direct member users, by ID of the user group
+	 */
+	public Map<Long, List<Long>> getMemberUserIdsByUserGroupId() {
+		return getIdsByUserGroupId(UserGroup.USERGROUP_MEMBER_USER_IDS);
+	}
+
+	/**
+	 * Loads the direct member groups of all user groups with one query.
+	 *
+	 * @return IDs of the direct member groups, by ID of the user group
+	 */
+	public Map<Long, List<Long>> getMemberGroupIdsByUserGroupId() {
+		return getIdsByUserGroupId(UserGroup.USERGROUP_MEMBER_GROUP_IDS);
+	}
+
+	private Map<Long, List<Long>> getIdsByUserGroupId(String queryName) {
+		final TypedQuery<Object[]> query = getEntityManager().createNamedQuery(queryName, Object[].class);
+		final Map<Long, List<Long>> idsByUserGroupId = new HashMap<>();
+		for (final Object[] row : query.getResultList()) {
+			idsByUserGroupId.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+		}
+		return idsByUserGroupId;
+	}
+
 	public void persistUserGroup(UserGroup userGroup) {
 		baseService.persist(userGroup);
 	}
@@ -2,6 +2,8 @@ package de.uni_due.s3.jack3.services;
 
 import static de.uni_due.s3.jack3.services.utils.DBHelper.getOneOrZero;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -64,6 +66,19 @@ public class UserService extends AbstractServiceBean {
 		return q.getResultList();
 	}
 
+	/**
+	 * Returns the users with the given IDs with one query. IDs of users that do not exist are ignored, the order of the
+	 * result is unspecified.
+	 */
+	public List<User> getUsersByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return getEntityManager().createNamedQuery(User.USERS_BY_IDS, User.class)
+				.setParameter("ids", ids)
+				.getResultList();
+	}
+
 	/**
 	 * Lists all users with edit rights, ordered by login name.
 	 */
@@ -0,0 +1,103 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.mail.Address;
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+/**
+ * Sends several MIME messages over one connection of a mail session, instead of connecting to the mail server for
+ * every message like {@link Transport#send(javax.mail.Message)}. If the server closes the connection in between, e.g.
+ * after a number of messages, the connection is opened again.
+ *
+ * A message that is rejected by the server does not affect the other messages. If the connection cannot be opened,
+ * the remaining messages are not sent and fail with the same exception.
+ *
+ * A message can be sent to only some of its recipients, e.g. to resend it to the recipients that have not received it
+ * because the server has rejected it for other recipients.
+ */
+public class MailBatchSender {
+
+	private final Session session;
+
+	public MailBatchSender(Session session) {
+		this.session = session;
+	}
+
+	/**
+	 * Sends each message to all recipients in its header.
+	 *
+	 * @see #send(List, List)
+	 */
+	public Map<Integer, MessagingException> send(List<byte[]> messages) throws MessagingException {
+		return send(messages, Collections.nCopies(messages.size(), null));
+	}
+
+	/**
+	 * @param messages
+	 *            The messages in RFC 822 format
+	 * @param recipients
+	 *            The recipients to send each message to as a comma separated list of addresses, or {@code null} for
+	 *            all recipients in the header of the message
+	 * @return The exception for each message that was not sent, by the index of the message. If the server has
+	 *         rejected some recipients of a message, it is a {@link javax.mail.SendFailedException} that reports the
+	 *         recipients that have received the message.
+	 * @throws MessagingException
+	 *             If the mail session has no transport
+	 */
+	public Map<Integer, MessagingException> send(List<byte[]> messages, List<String> recipients)
+			throws MessagingException {
+		final Map<Integer, MessagingException> failures = new HashMap<>();
+		if (messages.isEmpty()) {
+			return failures;
+		}
+
+		final Transport transport = session.getTransport();
+		try {
+			for (int i = 0; i < messages.size(); i++) {
+				if (!transport.isConnected()) {
+					try {
+						transport.connect();
+					} catch (MessagingException e) {
+						for (int j = i; j < messages.size(); j++) {
+							failures.put(j, e);
+						}
+						break;
+					}
+				}
+				try {
+					final MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(messages.get(i)));
+					message.setSentDate(new Date());
+					final String envelope = recipients.get(i);
+					final Address[] addresses = envelope == null ? message.getAllRecipients()
+							: InternetAddress.parse(envelope);
+					transport.sendMessage(message, addresses);
+				} catch (MessagingException e) {
+					failures.put(i, e);
+				}
+			}
+		} finally {
+			close(transport);
+		}
+		return failures;
+	}
+
+	private static void close(Transport transport) {
+		try {
+			if (transport.isConnected()) {
+				transport.close();
+			}
+		} catch (MessagingException e) {
+			// The messages have been sent already, so they must not be reported as failed
+		}
+	}
+}
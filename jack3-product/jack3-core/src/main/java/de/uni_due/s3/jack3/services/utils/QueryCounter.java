@@ -0,0 +1,86 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import java.util.regex.Pattern;
+
+/**
+ * Counts the database work done by the current thread between {@link #start()} and {@link #stop()}, e.g. while a
+ * request is processed. Local EJB calls run in the calling thread, so all statements issued on behalf of a request
+ * are counted. The counts are collected by {@link QueryCountingStatementInspector} and
+ * {@link QueryCountingInterceptor}, which are registered in the persistence.xml.
+ */
+public class QueryCounter {
+
+	/** Envers stores the audit data in tables with the suffix "_AUD" and the revisions in "REVINFO". */
+	private static final Pattern AUDIT_TABLE = Pattern.compile("\\w_aud\\b|\\brevinfo\\b", Pattern.CASE_INSENSITIVE);
+
+	private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The database work done while counting.
+	 */
+	public static final class Counts {
+
+		private int statements;
+
+		private int auditStatements;
+
+		private int entitiesLoaded;
+
+		/** Number of JDBC statements, including {@link #getAuditStatements()}. */
+		public int getStatements() {
+			return statements;
+		}
+
+		/** Number of JDBC statements reading or writing Envers audit tables. */
+		public int getAuditStatements() {
+			return auditStatements;
+		}
+
+		/** Number of entities loaded from the database (not from the persistence context). */
+		public int getEntitiesLoaded() {
+			return entitiesLoaded;
+		}
+
+		@Override
+		public String toString() {
+			return statements + " statements (" + auditStatements + " audit), " + entitiesLoaded + " entities";
+		}
+	}
+
+	private QueryCounter() {
+		throw new IllegalStateException("Class must only be used statically!");
+	}
+
+	/**
+	 * Starts counting for the current thread. Counts of a previous, not stopped counting are discarded.
+	 */
+	public static void start() {
+		CURRENT.set(new Counts());
+	}
+
+	/**
+	 * Stops counting for the current thread and returns the counts, which are all zero if counting was not started.
+	 */
+	public static Counts stop() {
+		final Counts counts = CURRENT.get();
+		CURRENT.remove();
+		return counts != null ? counts : new Counts();
+	}
+
+	static void countStatement(String sql) {
+		final Counts counts = CURRENT.get();
+		if (counts != null) {
+			counts.statements++;
+			if (AUDIT_TABLE.matcher(sql).find()) {
+				counts.auditStatements++;
+			}
+		}
+	}
+
+	static void countEntityLoad() {
+		final Counts counts = CURRENT.get();
+		if (counts != null) {
+			counts.entitiesLoaded++;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import java.io.Serializable;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts every entity Hibernate loads from the database, see {@link QueryCounter}.
+ */
+public class QueryCountingInterceptor extends EmptyInterceptor {
+
+	private static final long serialVersionUID = -2604985186925183432L;
+
+	@Override
+	public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+		QueryCounter.countEntityLoad();
+		return false;
+	}
+}
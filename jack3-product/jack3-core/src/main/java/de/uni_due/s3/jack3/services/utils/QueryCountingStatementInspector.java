@@ -0,0 +1,17 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares, see {@link QueryCounter}. The statement is not changed.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+	private static final long serialVersionUID = 3514372093283216403L;
+
+	@Override
+	public String inspect(String sql) {
+		QueryCounter.countStatement(sql);
+		return sql;
+	}
+}
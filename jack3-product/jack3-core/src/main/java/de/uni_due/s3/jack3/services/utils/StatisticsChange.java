@@ -0,0 +1,111 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import java.util.Set;
+
+import javax.annotation.concurrent.Immutable;
+
+import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
+import de.uni_due.s3.jack3.entities.tenant.Enrollment;
+import de.uni_due.s3.jack3.entities.tenant.Submission;
+
+/**
+ * CDI event that is fired when data has been changed that is counted in the statistics of courses, course offers or
+ * exercises, e.g. when a submission is saved or a comment is marked as read. Frozen courses and exercises are counted
+ * for the course or exercise they were frozen from, so the event contains the IDs of these.
+ *
+ * A new submission only increments the submission counts, so it is reported as such with
+ * {@link #ofNewSubmission(Submission)} and the statistics can be updated instead of being recomputed.
+ */
+@Immutable
+public final class StatisticsChange {
+
+	private final Set<Long> courseIds;
+	private final Set<Long> courseOfferIds;
+	private final Set<Long> exerciseIds;
+	private final boolean newSubmission;
+	private final boolean testSubmission;
+
+	private StatisticsChange(Set<Long> courseIds, Set<Long> courseOfferIds, Set<Long> exerciseIds) {
+		this(courseIds, courseOfferIds, exerciseIds, false, false);
+	}
+
+	private StatisticsChange(Set<Long> courseIds, Set<Long> courseOfferIds, Set<Long> exerciseIds,
+			boolean newSubmission, boolean testSubmission) {
+		this.courseIds = courseIds;
+		this.courseOfferIds = courseOfferIds;
+		this.exerciseIds = exerciseIds;
+		this.newSubmission = newSubmission;
+		this.testSubmission = testSubmission;
+	}
+
+	public static StatisticsChange of(Submission submission) {
+		return of(submission, false);
+	}
+
+	/**
+	 * Reports a submission that has been created, its creation does not change other statistics than the number of
+	 * submissions.
+	 */
+	public static StatisticsChange ofNewSubmission(Submission submission) {
+		return of(submission, true);
+	}
+
+	private static StatisticsChange of(Submission submission, boolean newSubmission) {
+		final Set<Long> exerciseIds = Set.of(submission.getExercise().getProxiedOrRegularExerciseId());
+		final CourseRecord courseRecord = submission.getCourseRecord();
+		if (courseRecord == null) {
+			return new StatisticsChange(Set.of(), Set.of(), exerciseIds, newSubmission,
+					submission.isTestSubmission());
+		}
+		return new StatisticsChange(Set.of(courseRecord.getCourse().getRealCourseId()),
+				getCourseOfferIds(courseRecord), exerciseIds, newSubmission, submission.isTestSubmission());
+	}
+
+	/**
+	 * Does not contain the exercises, submissions of the course record must be reported separately.
+	 */
+	public static StatisticsChange of(CourseRecord courseRecord) {
+		return new StatisticsChange(Set.of(courseRecord.getCourse().getRealCourseId()),
+				getCourseOfferIds(courseRecord), Set.of());
+	}
+
+	public static StatisticsChange of(Enrollment enrollment) {
+		return new StatisticsChange(Set.of(), Set.of(enrollment.getCourseOffer().getId()), Set.of());
+	}
+
+	private static Set<Long> getCourseOfferIds(CourseRecord courseRecord) {
+		return courseRecord.getCourseOffer().map(offer -> Set.of(offer.getId())).orElse(Set.of());
+	}
+
+	public Set<Long> getCourseIds() {
+		return courseIds;
+	}
+
+	public Set<Long> getCourseOfferIds() {
+		return courseOfferIds;
+	}
+
+	public Set<Long> getExerciseIds() {
+		return exerciseIds;
+	}
+
+	/**
+	 * @return {@code true} if a submission has been created and nothing else has been changed
+	 */
+	public boolean isNewSubmission() {
+		return newSubmission;
+	}
+
+	/**
+	 * @return {@code true} if the {@link #isNewSubmission() new submission} is a testing submission
+	 */
+	public boolean isTestSubmission() {
+		return testSubmission;
+	}
+
+	@Override
+	public String toString() {
+		return "StatisticsChange[courses=" + courseIds + ", courseOffers=" + courseOfferIds + ", exercises="
+				+ exerciseIds + ", newSubmission=" + newSubmission + ", testSubmission=" + testSubmission + "]";
+	}
+}
@@ -0,0 +1,186 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.concurrent.Immutable;
+
+import de.uni_due.s3.jack3.entities.tenant.Submission;
+import de.uni_due.s3.jack3.entities.tenant.User;
+
+/**
+ * The data of a {@link Submission} that is shown in submission lists. Overviews are loaded page by page with a
+ * projection query, so neither the submissions nor their lazy data have to be loaded. The accessors are named like
+ * those of {@link Submission}.
+ */
+@Immutable
+public final class SubmissionOverview implements Serializable {
+
+	private static final long serialVersionUID = -4309263128405710628L;
+
+	private final long id;
+	private final LocalDateTime creationTimestamp;
+	private final int resultPoints;
+	private final boolean completed;
+	private final boolean testSubmission;
+	private final boolean reviewed;
+	private final boolean pendingStageChecks;
+	private final boolean internalErrors;
+	private final int shownExerciseRevisionId;
+	private final long exerciseId;
+	private final boolean frozenExercise;
+	private final User author;
+	private final Long courseRecordId;
+	private final boolean courseRecordTestSubmission;
+	private final Long courseOfferId;
+	private final long numberOfComments;
+	private final long numberOfUnreadComments;
+
+	private SubmissionOverview(Object[] row, boolean frozenExercise, User author) {
+		id = (Long) row[0];
+		creationTimestamp = (LocalDateTime) row[1];
+		resultPoints = (Integer) row[2];
+		completed = (Boolean) row[3];
+		testSubmission = (Boolean) row[4];
+		reviewed = (Boolean) row[5];
+		pendingStageChecks = (Boolean) row[6];
+		internalErrors = (Boolean) row[7];
+		shownExerciseRevisionId = (Integer) row[8];
+		exerciseId = (Long) row[9];
+		// row[10] is the author ID
+		courseRecordId = (Long) row[11];
+		courseRecordTestSubmission = row[12] != null && (Boolean) row[12];
+		courseOfferId = (Long) row[13];
+		numberOfComments = (Long) row[14];
+		numberOfUnreadComments = (Long) row[15];
+		this.frozenExercise = frozenExercise;
+		this.author = author;
+	}
+
+	/**
+	 * Creates the overview from a row of
+	 * {@link Submission#QUERY_SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES}.
+	 *
+	 * @param exerciseId
+	 *            ID of the (non-frozen) exercise the submissions were queried for
+	 * @param author
+	 *            The author whose ID is in the row
+	 */
+	public static SubmissionOverview of(Object[] row, long exerciseId, User author) {
+		return new SubmissionOverview(row, (Long) row[9] != exerciseId, author);
+	}
+
+	/**
+	 * @return ID of the author in a row of
+	 *         {@link Submission#QUERY_SUBMISSION_OVERVIEWS_FOR_EXERCISE_AND_FROZEN_EXERCISES}
+	 */
+	public static long getAuthorId(Object[] row) {
+		return (Long) row[10];
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public LocalDateTime getCreationTimestamp() {
+		return creationTimestamp;
+	}
+
+	public int getResultPoints() {
+		return resultPoints;
+	}
+
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	public boolean isTestSubmission() {
+		return testSubmission;
+	}
+
+	public boolean isReviewed() {
+		return reviewed;
+	}
+
+	public boolean hasPendingStageChecks() {
+		return pendingStageChecks;
+	}
+
+	public boolean hasInternalErrors() {
+		return internalErrors;
+	}
+
+	public int getShownExerciseRevisionId() {
+		return shownExerciseRevisionId;
+	}
+
+	/**
+	 * @return ID of the exercise or frozen exercise the submission belongs to
+	 */
+	public long getExerciseId() {
+		return exerciseId;
+	}
+
+	public boolean isFrozenExercise() {
+		return frozenExercise;
+	}
+
+	public User getAuthor() {
+		return author;
+	}
+
+	@CheckForNull
+	public Long getCourseRecordId() {
+		return courseRecordId;
+	}
+
+	public boolean hasCourseRecord() {
+		return courseRecordId != null;
+	}
+
+	/**
+	 * @return {@code true} if the submission belongs to a course record that is a test submission
+	 */
+	public boolean isCourseRecordTestSubmission() {
+		return courseRecordTestSubmission;
+	}
+
+	@CheckForNull
+	public Long getCourseOfferId() {
+		return courseOfferId;
+	}
+
+	public boolean hasComments() {
+		return numberOfComments > 0;
+	}
+
+	public boolean hasUnreadComments() {
+		return numberOfUnreadComments > 0;
+	}
+
+	/**
+	 * @see Submission#getGroupKey()
+	 */
+	public int getGroupKey() {
+		if (frozenExercise) {
+			return (shownExerciseRevisionId * 10) + 5;
+		}
+		return shownExerciseRevisionId * 10;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof SubmissionOverview && ((SubmissionOverview) obj).id == id;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(id);
+	}
+
+	@Override
+	public String toString() {
+		return "SubmissionOverview[id=" + id + "]";
+	}
+}
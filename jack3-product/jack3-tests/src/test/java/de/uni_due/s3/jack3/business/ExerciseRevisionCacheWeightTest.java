@@ -0,0 +1,31 @@
+package de.uni_due.s3.jack3.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.entities.tenant.Exercise;
+import de.uni_due.s3.jack3.entities.tenant.ExerciseResource;
+
+/**
+ * Tests the weight of the exercises in the {@link ExerciseRevisionCacheBusiness}.
+ */
+class ExerciseRevisionCacheWeightTest {
+
+	@Test
+	void exerciseWithoutResourcesHasBaseWeight() {
+		final Exercise exercise = new Exercise("Exercise", "de");
+
+		assertEquals(ExerciseRevisionCacheBusiness.EXERCISE_BASE_BYTES,
+				ExerciseRevisionCacheBusiness.getWeight(exercise));
+	}
+
+	@Test
+	void contentOfResourcesIsWeighed() {
+		final Exercise exercise = new Exercise("Exercise", "de");
+		exercise.addExerciseResource(new ExerciseResource("image.png", new byte[3_000_000], null, "", false));
+
+		assertEquals(ExerciseRevisionCacheBusiness.EXERCISE_BASE_BYTES + 3_000_000,
+				ExerciseRevisionCacheBusiness.getWeight(exercise));
+	}
+}
@@ -0,0 +1,54 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CourseStatisticsTest {
+
+	@Test
+	void withoutCourseRecords() {
+		final CourseStatistics statistics = new CourseStatistics(3, Map.of(), 2, 5, 1);
+
+		assertEquals(3, statistics.getParticipants());
+		assertEquals(0, statistics.getCourseRecords());
+		assertEquals(2, statistics.getTestCourseRecords());
+		assertEquals(5, statistics.getSubmissions());
+		assertEquals(1, statistics.getUnreadComments());
+		assertEquals(0, statistics.getAverageScore());
+		assertEquals(0, statistics.getHighestScore());
+		assertEquals(0, statistics.getLowestScore());
+		assertArrayEquals(new long[10], statistics.getScoreHistogram());
+	}
+
+	@Test
+	void scoresAreDerivedFromDistribution() {
+		// 2 x 0, 1 x 25, 3 x 50, 1 x 100
+		final CourseStatistics statistics = new CourseStatistics(7,
+				Map.of(0, 2L, 25, 1L, 50, 3L, 100, 1L), 0, 12, 0);
+
+		assertEquals(7, statistics.getCourseRecords());
+		assertEquals(275.0 / 7, statistics.getAverageScore(), 1e-9);
+		assertEquals(100, statistics.getHighestScore());
+		assertEquals(0, statistics.getLowestScore());
+	}
+
+	@Test
+	void histogramCountsFullScoreInLastBucket() {
+		final CourseStatistics statistics = new CourseStatistics(4, Map.of(9, 1L, 10, 2L, 99, 1L, 100, 4L), 0, 0, 0);
+
+		assertArrayEquals(new long[] { 1, 2, 0, 0, 0, 0, 0, 0, 0, 5 }, statistics.getScoreHistogram());
+	}
+
+	@Test
+	void histogramCannotBeModified() {
+		final CourseStatistics statistics = new CourseStatistics(1, Map.of(42, 1L), 0, 0, 0);
+
+		statistics.getScoreHistogram()[4] = 10;
+
+		assertEquals(1, statistics.getScoreHistogram()[4]);
+	}
+}
@@ -0,0 +1,53 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static de.uni_due.s3.jack3.entities.AccessRight.EXTENDED_READ;
+import static de.uni_due.s3.jack3.entities.AccessRight.GRADE;
+import static de.uni_due.s3.jack3.entities.AccessRight.READ;
+import static de.uni_due.s3.jack3.entities.AccessRight.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.entities.AccessRight;
+
+class EffectiveFolderRightsTest {
+
+	private static final long USER = 1;
+	private static final long OTHER_USER = 2;
+	private static final long GROUP = 10;
+	private static final long OTHER_GROUP = 11;
+
+	private final EffectiveFolderRights rights = new EffectiveFolderRights(
+			Map.of(USER, AccessRight.getFromFlags(READ), OTHER_USER, AccessRight.getFull()),
+			Map.of(GROUP, AccessRight.getFromFlags(READ, WRITE), OTHER_GROUP, AccessRight.getFromFlags(GRADE)));
+
+	@Test
+	void userWithoutRights() {
+		assertEquals(AccessRight.getNone(), rights.getRightFor(3, List.of()));
+	}
+
+	@Test
+	void userRights() {
+		assertEquals(AccessRight.getFromFlags(READ), rights.getRightFor(USER, List.of()));
+		assertEquals(AccessRight.getFull(), rights.getRightFor(OTHER_USER, List.of()));
+	}
+
+	@Test
+	void userGroupRightsAreAdded() {
+		assertEquals(AccessRight.getFromFlags(READ, WRITE), rights.getRightFor(USER, List.of(GROUP)));
+		assertEquals(AccessRight.getFromFlags(READ, WRITE, GRADE),
+				rights.getRightFor(USER, List.of(GROUP, OTHER_GROUP)));
+		assertEquals(AccessRight.getFromFlags(GRADE), rights.getRightFor(3, List.of(OTHER_GROUP)));
+	}
+
+	@Test
+	void userGroupsWithoutRightsAreIgnored() {
+		assertEquals(AccessRight.getFromFlags(READ), rights.getRightFor(USER, List.of(12L, 13L)));
+		assertEquals(AccessRight.getFromFlags(READ, EXTENDED_READ),
+				new EffectiveFolderRights(Map.of(USER, AccessRight.getFromFlags(READ, EXTENDED_READ)), Map.of())
+						.getRightFor(USER, List.of(GROUP)));
+	}
+}
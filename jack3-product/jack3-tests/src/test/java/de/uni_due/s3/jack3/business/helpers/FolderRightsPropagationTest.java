@@ -0,0 +1,104 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.entities.AccessRight;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.entities.tenant.UserGroup;
+import de.uni_due.s3.jack3.services.FolderService;
+
+class FolderRightsPropagationTest {
+
+	private static final int FOLDERS = 10_000;
+	private static final int CHILDREN_PER_FOLDER = 10;
+	private static final long ROOT = 1;
+
+	private final FolderRightsPropagation propagation = new FolderRightsPropagation();
+
+	@Test
+	void emptyPropagation() {
+		assertTrue(propagation.isEmpty());
+		assertEquals(0, propagation.getNumberOfChanges());
+		assertTrue(propagation.getFolderIds().isEmpty());
+	}
+
+	@Test
+	void changesAreGroupedByFolder() {
+		final User user = new User();
+		final UserGroup userGroup = new UserGroup();
+
+		propagation.setUserRight(3, user, AccessRight.getFull());
+		propagation.setInheritedUserRight(List.of(4L, 5L), user, AccessRight.getFull());
+		propagation.setInheritedUserGroupRight(List.of(5L, 3L), userGroup, AccessRight.getNone());
+		propagation.setUserGroupRight(6, userGroup, AccessRight.getFromFlags(AccessRight.READ));
+
+		assertEquals(List.of(3L, 4L, 5L, 6L), new ArrayList<>(propagation.getFolderIds()));
+		assertEquals(6, propagation.getNumberOfChanges());
+	}
+
+	/**
+	 * Plans the propagation for users owning the folders on the second level and a user group on the root of a
+	 * generated tree with 10,000 folders. The whole plan must be computed from the parent relation in memory.
+	 */
+	@Test
+	void planForGeneratedTreeWith10000Folders() {
+		final Map<Long, List<Long>> childIdsByParentId = generateTree();
+
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			final List<Long> allChildIds = FolderService.getAllChildFolderIds(childIdsByParentId, ROOT);
+			propagation.setInheritedUserGroupRight(allChildIds, new UserGroup(), AccessRight.getFull());
+
+			for (final Long personalFolderId : childIdsByParentId.get(ROOT)) {
+				final User user = new User();
+				propagation.setUserRight(personalFolderId, user, AccessRight.getFull());
+				propagation.setInheritedUserRight(
+						FolderService.getAllChildFolderIds(childIdsByParentId, personalFolderId), user,
+						AccessRight.getFull());
+			}
+		});
+
+		// Every folder below the root is changed, but listed only once
+		assertEquals(FOLDERS - 1, propagation.getFolderIds().size());
+		// The user group on all folders, each user on its own subtree
+		assertEquals(2 * (FOLDERS - 1), propagation.getNumberOfChanges());
+	}
+
+	@Test
+	void childFoldersAreListedAfterTheirParents() {
+		final Map<Long, List<Long>> childIdsByParentId = generateTree();
+
+		final List<Long> childIds = FolderService.getAllChildFolderIds(childIdsByParentId, ROOT);
+
+		assertEquals(FOLDERS - 1, childIds.size());
+		final Set<Long> visited = new HashSet<>();
+		visited.add(ROOT);
+		for (final Long childId : childIds) {
+			assertTrue(visited.contains(parentOf(childId)), "Folder " + childId + " listed before its parent");
+			visited.add(childId);
+		}
+	}
+
+	private static Map<Long, List<Long>> generateTree() {
+		final Map<Long, List<Long>> childIdsByParentId = new HashMap<>();
+		for (long id = ROOT + 1; id <= FOLDERS; id++) {
+			childIdsByParentId.computeIfAbsent(parentOf(id), parentId -> new ArrayList<>()).add(id);
+		}
+		return childIdsByParentId;
+	}
+
+	private static long parentOf(long id) {
+		return (id - 2) / CHILDREN_PER_FOLDER + 1;
+	}
+}
@@ -0,0 +1,129 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.helpers.LatencyHistogram.Snapshot;
+
+class LatencyHistogramTest {
+
+	private static final Duration WINDOW = Duration.ofMinutes(5);
+
+	private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+	private final LatencyHistogram histogram = new LatencyHistogram(WINDOW, now::get);
+
+	@Test
+	void bucketsCoverAllValuesWithoutGaps() {
+		for (long value = 0; value < 100_000; value++) {
+			final int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(value <= LatencyHistogram.upperBoundOf(bucket), "Value " + value + " above its bucket");
+			if (bucket > 0) {
+				assertTrue(value > LatencyHistogram.upperBoundOf(bucket - 1), "Value " + value + " below its bucket");
+			}
+		}
+		assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	void emptyHistogram() {
+		final Snapshot snapshot = histogram.getSnapshot();
+
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getP99());
+		assertTrue(Double.isNaN(snapshot.getMean()));
+	}
+
+	@Test
+	void percentilesAreWithinBucketPrecision() {
+		final List<Long> values = new ArrayList<>();
+		for (long i = 1; i <= 1000; i++) {
+			values.add(i);
+			histogram.record(i);
+		}
+
+		final Snapshot snapshot = histogram.getSnapshot();
+
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(500.5, snapshot.getMean(), 0.001);
+		assertEquals(1000, snapshot.getMax());
+		assertWithinPrecision(500, snapshot.getP50());
+		assertWithinPrecision(950, snapshot.getP95());
+		assertWithinPrecision(990, snapshot.getP99());
+	}
+
+	private static void assertWithinPrecision(long expected, long actual) {
+		assertTrue(actual >= expected && actual <= expected * 1.25,
+				"Expected about " + expected + " but was " + actual);
+	}
+
+	@Test
+	void singleOutlierOnlyAffectsHighPercentiles() {
+		for (int i = 0; i < 99; i++) {
+			histogram.record(10);
+		}
+		histogram.record(60_000);
+
+		final Snapshot snapshot = histogram.getSnapshot();
+
+		assertWithinPrecision(10, snapshot.getP50());
+		assertWithinPrecision(10, snapshot.getP95());
+		assertWithinPrecision(10, snapshot.getP99());
+		assertEquals(60_000, snapshot.getMax());
+	}
+
+	@Test
+	void valuesExpireAfterWindow() {
+		histogram.record(100);
+		now.addAndGet(WINDOW.toMillis() / 2);
+		histogram.record(200);
+
+		assertEquals(2, histogram.getSnapshot().getCount());
+
+		now.addAndGet(WINDOW.toMillis() / 2 + WINDOW.toMillis() / LatencyHistogram.SLICES);
+
+		final Snapshot snapshot = histogram.getSnapshot();
+		assertEquals(1, snapshot.getCount());
+		assertEquals(200, snapshot.getMax());
+
+		now.addAndGet(WINDOW.toMillis());
+		assertEquals(0, histogram.getSnapshot().getCount());
+	}
+
+	@Test
+	void reusedSliceIsReset() {
+		histogram.record(100);
+		now.addAndGet(WINDOW.toMillis());
+		histogram.record(5);
+
+		final Snapshot snapshot = histogram.getSnapshot();
+		assertEquals(1, snapshot.getCount());
+		assertEquals(5, snapshot.getMax());
+	}
+
+	@Test
+	void concurrentRecording() throws InterruptedException {
+		final List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final Thread thread = new Thread(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					histogram.record(i % 100);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(80_000, histogram.getSnapshot().getCount());
+	}
+}
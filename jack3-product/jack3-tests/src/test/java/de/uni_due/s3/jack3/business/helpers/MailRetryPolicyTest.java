@@ -0,0 +1,52 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class MailRetryPolicyTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	@Test
+	void retryDelayIsDoubledUpToMaximum() {
+		assertEquals(Duration.ofMinutes(1), MailRetryPolicy.getRetryDelay(1));
+		assertEquals(Duration.ofMinutes(2), MailRetryPolicy.getRetryDelay(2));
+		assertEquals(Duration.ofMinutes(4), MailRetryPolicy.getRetryDelay(3));
+		assertEquals(Duration.ofMinutes(256), MailRetryPolicy.getRetryDelay(9));
+		assertEquals(MailRetryPolicy.MAX_RETRY_DELAY, MailRetryPolicy.getRetryDelay(10));
+		assertEquals(MailRetryPolicy.MAX_RETRY_DELAY, MailRetryPolicy.getRetryDelay(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void mailIsRetriedUntilMaximumNumberOfAttempts() {
+		final MailRetryPolicy policy = new MailRetryPolicy(4);
+
+		// A mail that fails on every attempt
+		LocalDateTime attemptAt = NOW;
+		for (int attempts = 1; attempts < 4; attempts++) {
+			final Optional<LocalDateTime> nextAttemptAt = policy.getNextAttemptAt(attempts, attemptAt);
+			assertEquals(Optional.of(attemptAt.plus(MailRetryPolicy.getRetryDelay(attempts))), nextAttemptAt);
+			attemptAt = nextAttemptAt.get();
+		}
+		assertEquals(NOW.plusMinutes(1 + 2 + 4), attemptAt);
+
+		assertTrue(policy.getNextAttemptAt(4, attemptAt).isEmpty());
+	}
+
+	@Test
+	void singleAttemptIsNotRetried() {
+		assertTrue(new MailRetryPolicy(1).getNextAttemptAt(1, NOW).isEmpty());
+	}
+
+	@Test
+	void atLeastOneAttemptIsRequired() {
+		assertThrows(IllegalArgumentException.class, () -> new MailRetryPolicy(0));
+	}
+}
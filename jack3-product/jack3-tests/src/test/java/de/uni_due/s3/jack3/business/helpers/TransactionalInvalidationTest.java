@@ -0,0 +1,153 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link TransactionalInvalidation} with a map as cache. Completing a change stands in for the completion of
+ * its transaction.
+ */
+class TransactionalInvalidationTest {
+
+	private static final long KEY = 1;
+	private static final long OTHER_KEY = 2;
+
+	private final Map<Long, String> cache = new ConcurrentHashMap<>();
+
+	private final TransactionalInvalidation invalidation = new TransactionalInvalidation(
+			keys -> cache.keySet().removeAll(keys), cache::clear);
+
+	private boolean load(long key, String value) {
+		final long stamp = invalidation.getStamp(key);
+		return invalidation.keepIfUnchanged(key, stamp, () -> cache.put(key, value));
+	}
+
+	@Test
+	void unchangedEntryIsKept() {
+		assertTrue(load(KEY, "value"));
+		assertEquals("value", cache.get(KEY));
+	}
+
+	@Test
+	void changeRemovesEntry() {
+		load(KEY, "value");
+		load(OTHER_KEY, "other");
+
+		invalidation.changed(List.of(KEY));
+
+		assertFalse(cache.containsKey(KEY));
+		assertEquals("other", cache.get(OTHER_KEY));
+	}
+
+	@Test
+	void entryIsNotKeptUntilChangeIsCompleted() {
+		final TransactionalInvalidation.Change change = invalidation.changed(List.of(KEY));
+
+		assertFalse(load(KEY, "uncommitted"));
+		assertTrue(load(OTHER_KEY, "other"));
+
+		change.complete();
+		assertTrue(load(KEY, "committed"));
+		assertEquals("committed", cache.get(KEY));
+	}
+
+	@Test
+	void entryIsKeptOnlyAfterAllChangesAreCompleted() {
+		final TransactionalInvalidation.Change first = invalidation.changed(List.of(KEY));
+		final TransactionalInvalidation.Change second = invalidation.changed(List.of(KEY, OTHER_KEY));
+
+		first.complete();
+		assertFalse(load(KEY, "value"));
+
+		second.complete();
+		assertTrue(load(KEY, "value"));
+	}
+
+	@Test
+	void entryLoadedDuringChangeIsNotKept() {
+		final long stamp = invalidation.getStamp(KEY);
+		// Another request changes the key and completes its transaction while the entry is loaded
+		invalidation.changed(List.of(KEY)).complete();
+
+		assertFalse(invalidation.keepIfUnchanged(KEY, stamp, () -> cache.put(KEY, "stale")));
+		assertFalse(cache.containsKey(KEY));
+	}
+
+	@Test
+	void entryPutWhileChangeStartsIsRemoved() {
+		final long stamp = invalidation.getStamp(KEY);
+
+		assertFalse(invalidation.keepIfUnchanged(KEY, stamp, () -> {
+			cache.put(KEY, "stale");
+			// A change starts after the entry has been checked, but before it has been put
+			invalidation.changed(List.of(KEY));
+		}));
+		assertFalse(cache.containsKey(KEY));
+	}
+
+	@Test
+	void updateKeepsEntryUntilCommit() {
+		load(KEY, "value");
+		final TransactionalInvalidation.Change change = invalidation.updated(List.of(KEY, OTHER_KEY),
+				keys -> keys.forEach(key -> cache.computeIfPresent(key, (k, value) -> value + "+1")));
+
+		assertEquals("value", cache.get(KEY));
+		// An entry loaded meanwhile may already contain the update
+		assertFalse(load(OTHER_KEY, "other"));
+
+		change.complete(true);
+		assertEquals("value+1", cache.get(KEY));
+		assertFalse(cache.containsKey(OTHER_KEY));
+		assertTrue(load(OTHER_KEY, "other"));
+	}
+
+	@Test
+	void entryLoadedDuringUpdateIsNotKept() {
+		final long stamp = invalidation.getStamp(KEY);
+		invalidation.updated(List.of(KEY), keys -> cache.clear()).complete(true);
+
+		assertFalse(invalidation.keepIfUnchanged(KEY, stamp, () -> cache.put(KEY, "stale")));
+		assertFalse(cache.containsKey(KEY));
+	}
+
+	@Test
+	void rolledBackUpdateRemovesEntry() {
+		load(KEY, "value");
+		final TransactionalInvalidation.Change change = invalidation.updated(List.of(KEY),
+				keys -> keys.forEach(key -> cache.put(key, "updated")));
+
+		change.complete(false);
+		assertFalse(cache.containsKey(KEY));
+		assertTrue(load(KEY, "value"));
+	}
+
+	@Test
+	void changeOfAllKeys() {
+		load(KEY, "value");
+		final TransactionalInvalidation.Change change = invalidation.changedAll();
+
+		assertTrue(cache.isEmpty());
+		assertFalse(load(OTHER_KEY, "other"));
+
+		change.complete();
+		assertTrue(load(OTHER_KEY, "other"));
+	}
+
+	@Test
+	void clearRemovesAllEntries() {
+		load(KEY, "value");
+		final long stamp = invalidation.getStamp(OTHER_KEY);
+
+		invalidation.clear();
+
+		assertTrue(cache.isEmpty());
+		assertFalse(invalidation.keepIfUnchanged(OTHER_KEY, stamp, () -> cache.put(OTHER_KEY, "stale")));
+	}
+}
@@ -0,0 +1,102 @@
+package de.uni_due.s3.jack3.business.helpers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class UserGroupMembershipIndexTest {
+
+	private static final long USER = 1;
+	private static final long OTHER_USER = 2;
+
+	@Test
+	void userWithoutGroups() {
+		final UserGroupMembershipIndex index = UserGroupMembershipIndex.of(Map.of(), Map.of());
+
+		assertTrue(index.getUserGroupIds(USER).isEmpty());
+		assertEquals(0, index.getNumberOfUsers());
+	}
+
+	@Test
+	void directAndIndirectMemberships() {
+		// Group 10 contains 11, 11 contains 12; the user is a member of 12, the other user of 11
+		final UserGroupMembershipIndex index = UserGroupMembershipIndex.of(
+				Map.of(12L, List.of(USER), 11L, List.of(OTHER_USER), 20L, List.of()),
+				Map.of(10L, List.of(11L), 11L, List.of(12L)));
+
+		assertEquals(Set.of(10L, 11L, 12L), index.getUserGroupIds(USER));
+		assertEquals(Set.of(10L, 11L), index.getUserGroupIds(OTHER_USER));
+		assertEquals(2, index.getNumberOfUsers());
+	}
+
+	@Test
+	void groupContainedInSeveralGroups() {
+		final UserGroupMembershipIndex index = UserGroupMembershipIndex.of(Map.of(12L, List.of(USER)),
+				Map.of(10L, List.of(12L), 11L, List.of(12L), 9L, List.of(10L, 11L)));
+
+		assertEquals(Set.of(9L, 10L, 11L, 12L), index.getUserGroupIds(USER));
+	}
+
+	@Test
+	void cyclicMemberships() {
+		final UserGroupMembershipIndex index = UserGroupMembershipIndex.of(Map.of(10L, List.of(USER)),
+				Map.of(10L, List.of(11L), 11L, List.of(10L)));
+
+		assertEquals(Set.of(10L, 11L), index.getUserGroupIds(USER));
+	}
+
+	/**
+	 * Builds the index for a synthetic hierarchy of 5,000 groups nested 5 levels deep with 20,000 users, each member
+	 * of 3 groups, and compares it with the memberships computed by walking down from every group.
+	 */
+	@Test
+	void nestedHierarchyWith5000Groups() {
+		final int groups = 5_000;
+		final int users = 20_000;
+		final Map<Long, List<Long>> memberGroupIds = new HashMap<>();
+		for (long group = 2; group <= groups; group++) {
+			// Group 1 is the top level, every group has 7 member groups, so there are 5 levels
+			memberGroupIds.computeIfAbsent((group - 2) / 7 + 1, id -> new ArrayList<>()).add(group);
+		}
+		final Map<Long, List<Long>> memberUserIds = new HashMap<>();
+		for (long user = 1; user <= users; user++) {
+			for (long i = 0; i < 3; i++) {
+				final long group = (user * 31 + i * 1_693) % groups + 1;
+				memberUserIds.computeIfAbsent(group, id -> new ArrayList<>()).add(user);
+			}
+		}
+
+		final UserGroupMembershipIndex index = assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> UserGroupMembershipIndex.of(memberUserIds, memberGroupIds));
+
+		final Map<Long, Set<Long>> expected = new HashMap<>();
+		for (long group = 1; group <= groups; group++) {
+			for (final Long user : allMemberUsers(group, memberUserIds, memberGroupIds)) {
+				expected.computeIfAbsent(user, id -> new HashSet<>()).add(group);
+			}
+		}
+		assertEquals(users, index.getNumberOfUsers());
+		for (long user = 1; user <= users; user++) {
+			assertEquals(expected.get(user), index.getUserGroupIds(user), "Groups of user " + user);
+		}
+	}
+
+	private static Set<Long> allMemberUsers(long group, Map<Long, List<Long>> memberUserIds,
+			Map<Long, List<Long>> memberGroupIds) {
+		final Set<Long> result = new HashSet<>(memberUserIds.getOrDefault(group, List.of()));
+		for (final Long memberGroup : memberGroupIds.getOrDefault(group, List.of())) {
+			result.addAll(allMemberUsers(memberGroup, memberUserIds, memberGroupIds));
+		}
+		return result;
+	}
+}
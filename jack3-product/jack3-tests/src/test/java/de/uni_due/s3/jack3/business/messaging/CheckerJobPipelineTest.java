@@ -0,0 +1,310 @@
+package de.uni_due.s3.jack3.business.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.messaging.CheckerJobPipeline.OutboundMessage;
+import de.uni_due.s3.jack3.business.messaging.CheckerJobPipeline.TopicStatistics;
+
+/**
+ * Tests the {@link CheckerJobPipeline} with an emitter that only records the messages. Messages are acknowledged
+ * manually, the worker runs synchronously in the calling thread and delayed tasks run when the test advances the
+ * clock.
+ */
+class CheckerJobPipelineTest {
+
+	private static final String TOPIC = "checker";
+	private static final String OTHER_TOPIC = "other-checker";
+	private static final int MAX_QUEUED = 10;
+
+	private static class ScheduledTask {
+		private final long due;
+		private final Runnable task;
+
+		ScheduledTask(long due, Runnable task) {
+			this.due = due;
+			this.task = task;
+		}
+	}
+
+	private final List<Message<byte[]>> emitted = new ArrayList<>();
+	private final List<String> emittedTopics = new ArrayList<>();
+	private final List<OutboundMessage> published = new ArrayList<>();
+	private final Map<String, Integer> maxInFlight = Map.of(TOPIC, 3, OTHER_TOPIC, 1);
+	private final PriorityQueue<ScheduledTask> scheduled = new PriorityQueue<>(
+			Comparator.comparingLong(task -> task.due));
+	private long now;
+	private long nextJobId;
+
+	private CheckerJobPipeline pipeline;
+
+	@BeforeEach
+	void createPipeline() {
+		pipeline = createPipeline((topic, message) -> {
+			emittedTopics.add(topic);
+			emitted.add(message);
+		});
+	}
+
+	private CheckerJobPipeline createPipeline(BiConsumer<String, Message<byte[]>> emitter) {
+		return new CheckerJobPipeline(emitter, Runnable::run,
+				(task, delay) -> scheduled.add(new ScheduledTask(now + delay.toNanos(), task)), maxInFlight::get,
+				MAX_QUEUED, published::add, Logger.getLogger(CheckerJobPipelineTest.class), () -> now);
+	}
+
+	/**
+	 * Advances the clock and runs all tasks that are due until then.
+	 */
+	private void advance(Duration duration) {
+		final long until = now + duration.toNanos();
+		while (!scheduled.isEmpty() && scheduled.peek().due <= until) {
+			final ScheduledTask task = scheduled.poll();
+			now = Math.max(now, task.due);
+			task.task.run();
+		}
+		now = until;
+	}
+
+	private void enqueue(String topic, int count) {
+		for (int i = 0; i < count; i++) {
+			pipeline.enqueue(new OutboundMessage(new byte[] { (byte) i }, topic, nextJobId++));
+		}
+	}
+
+	private TopicStatistics statisticsOf(String topic) {
+		return pipeline.getStatistics().stream() //
+				.filter(statistics -> statistics.getTopic().equals(topic)) //
+				.findAny().orElseThrow();
+	}
+
+	@Test
+	void publishesOnlyUpToMaxInFlight() {
+		enqueue(TOPIC, 10);
+
+		assertEquals(3, emitted.size());
+		assertEquals(List.of(TOPIC, TOPIC, TOPIC), emittedTopics);
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(7, statistics.getQueueDepth());
+		assertEquals(3, statistics.getInFlight());
+		assertEquals(3, statistics.getMaxInFlight());
+		assertEquals(0, statistics.getPublished());
+	}
+
+	@Test
+	void acknowledgementReleasesSlot() {
+		enqueue(TOPIC, 10);
+
+		emitted.get(0).ack();
+		emitted.get(1).ack();
+
+		assertEquals(5, emitted.size());
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(5, statistics.getQueueDepth());
+		assertEquals(3, statistics.getInFlight());
+		assertEquals(2, statistics.getPublished());
+		assertTrue(statistics.getAveragePublishMillis() >= 0);
+		assertEquals(List.of(0L, 1L), published.stream().map(OutboundMessage::getJobId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void publishesInOrder() {
+		enqueue(TOPIC, 10);
+		for (int i = 0; i < 10; i++) {
+			emitted.get(i).ack();
+		}
+
+		assertEquals(10, emitted.size());
+		for (int i = 0; i < 10; i++) {
+			assertArrayEquals(new byte[] { (byte) i }, emitted.get(i).getPayload());
+		}
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(0, statistics.getQueueDepth());
+		assertEquals(0, statistics.getInFlight());
+		assertEquals(10, statistics.getPublished());
+	}
+
+	@Test
+	void duplicateAcknowledgementIsIgnored() {
+		enqueue(TOPIC, 1);
+
+		emitted.get(0).ack();
+		emitted.get(0).ack();
+		emitted.get(0).nack(new IllegalStateException());
+
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(1, emitted.size());
+		assertEquals(0, statistics.getInFlight());
+		assertEquals(1, statistics.getPublished());
+		assertEquals(0, statistics.getFailed());
+	}
+
+	@Test
+	void rejectedMessageIsRetriedAfterLaterMessages() {
+		enqueue(OTHER_TOPIC, 2);
+		emitted.get(0).nack(new IllegalStateException("Broker not available"));
+
+		// The failing message must not hold up the second message
+		assertEquals(2, emitted.size());
+		assertArrayEquals(new byte[] { 1 }, emitted.get(1).getPayload());
+		emitted.get(1).ack();
+
+		advance(CheckerJobPipeline.getRetryDelay(1));
+		assertEquals(3, emitted.size());
+		assertArrayEquals(new byte[] { 0 }, emitted.get(2).getPayload());
+		emitted.get(2).ack();
+
+		assertEquals(2, statisticsOf(OTHER_TOPIC).getPublished());
+		assertEquals(0, statisticsOf(OTHER_TOPIC).getFailed());
+	}
+
+	@Test
+	void messageIsDroppedAfterMaxAttempts() {
+		enqueue(OTHER_TOPIC, 1);
+
+		for (int attempt = 1; attempt <= CheckerJobPipeline.MAX_ATTEMPTS; attempt++) {
+			emitted.get(emitted.size() - 1).nack(new IllegalStateException("Broker not available"));
+			advance(CheckerJobPipeline.getRetryDelay(attempt));
+		}
+
+		TopicStatistics statistics = statisticsOf(OTHER_TOPIC);
+		assertEquals(CheckerJobPipeline.MAX_ATTEMPTS, emitted.size());
+		emitted.forEach(message -> assertArrayEquals(new byte[] { 0 }, message.getPayload()));
+		assertEquals(1, statistics.getFailed());
+		assertEquals(0, statistics.getQueueDepth());
+		assertEquals(0, statistics.getInFlight());
+	}
+
+	@Test
+	void failingEmitterCountsAsRejection() {
+		pipeline = createPipeline((topic, message) -> {
+			throw new IllegalStateException("Buffer full");
+		});
+
+		enqueue(TOPIC, 2);
+		for (int attempt = 1; attempt < 2 * CheckerJobPipeline.MAX_ATTEMPTS; attempt++) {
+			advance(CheckerJobPipeline.MAX_RETRY_DELAY);
+		}
+
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(2, statistics.getFailed());
+		assertEquals(0, statistics.getInFlight());
+		assertEquals(0, statistics.getQueueDepth());
+	}
+
+	@Test
+	void retryWaitsForDelay() {
+		enqueue(OTHER_TOPIC, 1);
+		emitted.get(0).nack(new IllegalStateException("Broker not available"));
+
+		advance(CheckerJobPipeline.FIRST_RETRY_DELAY.minusMillis(1));
+		assertEquals(1, emitted.size());
+		// The message waiting for its retry still counts as queued
+		assertEquals(1, statisticsOf(OTHER_TOPIC).getQueueDepth());
+
+		advance(Duration.ofMillis(1));
+		assertEquals(2, emitted.size());
+		assertArrayEquals(new byte[] { 0 }, emitted.get(1).getPayload());
+		assertEquals(0, statisticsOf(OTHER_TOPIC).getQueueDepth());
+	}
+
+	@Test
+	void retryDelayGrowsUpToMaximum() {
+		assertEquals(Duration.ofSeconds(1), CheckerJobPipeline.getRetryDelay(1));
+		assertEquals(Duration.ofSeconds(2), CheckerJobPipeline.getRetryDelay(2));
+		assertEquals(Duration.ofSeconds(4), CheckerJobPipeline.getRetryDelay(3));
+		assertEquals(CheckerJobPipeline.MAX_RETRY_DELAY, CheckerJobPipeline.getRetryDelay(10));
+		assertEquals(CheckerJobPipeline.MAX_RETRY_DELAY, CheckerJobPipeline.getRetryDelay(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void missingAcknowledgementReleasesSlot() {
+		enqueue(OTHER_TOPIC, 2);
+
+		advance(CheckerJobPipeline.ACK_TIMEOUT);
+
+		// The slot of the timed out message is used by the second message
+		TopicStatistics statistics = statisticsOf(OTHER_TOPIC);
+		assertEquals(1, statistics.getTimedOut());
+		assertEquals(1, statistics.getInFlight());
+		assertEquals(1, statistics.getQueueDepth());
+		assertEquals(2, emitted.size());
+		assertArrayEquals(new byte[] { 1 }, emitted.get(1).getPayload());
+
+		// A late acknowledgement of the timed out attempt does not release another slot
+		emitted.get(0).ack();
+		assertEquals(1, statisticsOf(OTHER_TOPIC).getInFlight());
+		assertEquals(0, statisticsOf(OTHER_TOPIC).getPublished());
+
+		emitted.get(1).ack();
+		advance(CheckerJobPipeline.FIRST_RETRY_DELAY);
+		assertEquals(3, emitted.size());
+		assertArrayEquals(new byte[] { 0 }, emitted.get(2).getPayload());
+	}
+
+	@Test
+	void fullQueueRejectsMessages() {
+		enqueue(OTHER_TOPIC, MAX_QUEUED + 1);
+
+		assertFalse(pipeline.enqueue(new OutboundMessage(new byte[0], OTHER_TOPIC, 100L)));
+
+		TopicStatistics statistics = statisticsOf(OTHER_TOPIC);
+		assertEquals(1, statistics.getInFlight());
+		assertEquals(MAX_QUEUED, statistics.getQueueDepth());
+		assertEquals(1, statistics.getOverflowed());
+
+		// The rejected job can be queued again as soon as there is space
+		emitted.get(0).ack();
+		assertTrue(pipeline.enqueue(new OutboundMessage(new byte[0], OTHER_TOPIC, 100L)));
+	}
+
+	@Test
+	void messageOfQueuedJobIsNotQueuedTwice() {
+		enqueue(OTHER_TOPIC, 2);
+
+		assertFalse(pipeline.enqueue(new OutboundMessage(new byte[] { 0 }, OTHER_TOPIC, 0L)));
+		assertFalse(pipeline.enqueue(new OutboundMessage(new byte[] { 1 }, OTHER_TOPIC, 1L)));
+		assertEquals(1, statisticsOf(OTHER_TOPIC).getQueueDepth());
+
+		emitted.get(0).ack();
+		assertTrue(pipeline.enqueue(new OutboundMessage(new byte[] { 0 }, OTHER_TOPIC, 0L)));
+		assertEquals(1, statisticsOf(OTHER_TOPIC).getQueueDepth());
+	}
+
+	@Test
+	void topicsAreLimitedIndependently() {
+		enqueue(OTHER_TOPIC, 5);
+		enqueue(TOPIC, 5);
+
+		assertEquals(1, statisticsOf(OTHER_TOPIC).getInFlight());
+		assertEquals(4, statisticsOf(OTHER_TOPIC).getQueueDepth());
+		assertEquals(3, statisticsOf(TOPIC).getInFlight());
+		assertEquals(2, statisticsOf(TOPIC).getQueueDepth());
+	}
+
+	@Test
+	void recordsTurnaround() {
+		pipeline.recordTurnaround(TOPIC, Duration.ofMillis(100));
+		pipeline.recordTurnaround(TOPIC, Duration.ofMillis(300));
+
+		TopicStatistics statistics = statisticsOf(TOPIC);
+		assertEquals(2, statistics.getFinishedJobs());
+		assertEquals(200, statistics.getAverageTurnaroundMillis(), 0.001);
+		assertEquals(300, statistics.getMaxTurnaroundMillis());
+	}
+}
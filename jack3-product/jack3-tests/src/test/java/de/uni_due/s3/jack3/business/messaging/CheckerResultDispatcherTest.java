@@ -0,0 +1,275 @@
+package de.uni_due.s3.jack3.business.messaging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link CheckerResultDispatcher}. Results are dispatched from a single consumer thread as in the messaging
+ * system. Processing a result is simulated by a short sleep, like waiting for the database, so results of different
+ * lanes interleave. The load test asserts that the lanes process in parallel rather than measuring the time.
+ */
+class CheckerResultDispatcherTest {
+
+	private static final int LANES = 8;
+	private static final int MAX_PENDING = 2 * LANES;
+	private static final int PARTITIONS = 40;
+	private static final int RESULTS_PER_PARTITION = 10;
+	private static final long TIMEOUT_SECONDS = 30;
+
+	private static final Logger LOGGER = Logger.getLogger(CheckerResultDispatcherTest.class);
+
+	/** A received result: the partition key and the sequence number within its partition. */
+	private static final class ReceivedResult {
+
+		private final long partition;
+		private final int sequence;
+
+		ReceivedResult(long partition, int sequence) {
+			this.partition = partition;
+			this.sequence = sequence;
+		}
+	}
+
+	private ExecutorService executor;
+
+	@BeforeEach
+	void createExecutor() {
+		executor = Executors.newFixedThreadPool(16);
+	}
+
+	@AfterEach
+	void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void await(CountDownLatch latch) throws InterruptedException {
+		assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), latch.getCount() + " tasks have not been run");
+	}
+
+	private static void assertProcessedInOrder(Map<Long, List<Integer>> processedSequences) {
+		assertEquals(PARTITIONS, processedSequences.size());
+		for (List<Integer> sequences : processedSequences.values()) {
+			assertEquals(RESULTS_PER_PARTITION, sequences.size());
+			for (int i = 0; i < RESULTS_PER_PARTITION; i++) {
+				assertEquals(i, sequences.get(i));
+			}
+		}
+	}
+
+	@Test
+	void parallelProcessingKeepsOrderPerPartition() throws InterruptedException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, LANES, 100, LOGGER);
+		final Map<Long, List<Integer>> processedSequences = new ConcurrentHashMap<>();
+		final CountDownLatch processed = new CountDownLatch(PARTITIONS * RESULTS_PER_PARTITION);
+
+		for (int sequence = 0; sequence < RESULTS_PER_PARTITION; sequence++) {
+			for (long partition = 0; partition < PARTITIONS; partition++) {
+				final long partitionKey = partition;
+				final int received = sequence;
+				dispatcher.dispatch(partitionKey, () -> {
+					sleep(1);
+					processedSequences.computeIfAbsent(partitionKey, id -> new ArrayList<>()).add(received);
+					processed.countDown();
+				});
+			}
+		}
+		await(processed);
+
+		assertProcessedInOrder(processedSequences);
+	}
+
+	@Test
+	void resultsForSamePartitionAreNotProcessedConcurrently() throws InterruptedException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, 8, 100, LOGGER);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final CountDownLatch processed = new CountDownLatch(50);
+
+		for (int i = 0; i < 50; i++) {
+			dispatcher.dispatch(42, () -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(1);
+				running.decrementAndGet();
+				processed.countDown();
+			});
+		}
+		await(processed);
+
+		assertEquals(1, maxRunning.get());
+	}
+
+	@Test
+	void exceptionDoesNotStopLane() throws InterruptedException, ExecutionException, TimeoutException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, 1, 100, LOGGER);
+		final AtomicInteger processed = new AtomicInteger();
+
+		final CompletableFuture<Void> failed = dispatcher.dispatch(1, () -> {
+			throw new IllegalStateException("Job not found");
+		}).toCompletableFuture();
+		dispatcher.dispatch(1, processed::incrementAndGet).toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+		// The exception has been logged, the result is completed anyway
+		assertTrue(failed.isDone());
+		assertEquals(1, processed.get());
+		assertEquals(2, dispatcher.getProcessedResults());
+	}
+
+	@Test
+	void dispatchCompletesAfterProcessing() throws InterruptedException, ExecutionException, TimeoutException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, 4, 100, LOGGER);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger processed = new AtomicInteger();
+
+		final CompletableFuture<Void> completion = dispatcher.dispatch(1, () -> {
+			started.countDown();
+			try {
+				release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			processed.incrementAndGet();
+		}).toCompletableFuture();
+
+		await(started);
+		assertFalse(completion.isDone());
+
+		release.countDown();
+		completion.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		assertEquals(1, processed.get());
+	}
+
+	@Test
+	void capacityIsAvailableAgainAfterProcessing()
+			throws InterruptedException, ExecutionException, TimeoutException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, 4, 2, LOGGER);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		for (int i = 0; i < 2; i++) {
+			dispatcher.dispatch(i, () -> {
+				try {
+					release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		// The consumer must not take a third result until one of the first two has been processed
+		final CompletableFuture<Void> capacity = dispatcher.whenCapacityAvailable().toCompletableFuture();
+		assertFalse(capacity.isDone());
+		assertEquals(2, dispatcher.getPendingResults());
+
+		release.countDown();
+		capacity.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void backlogIsProcessedWithoutRecursionWhenExecutorRejects() {
+		// Accepts the first task of the lane, but rejects all later ones like an executor that is shutting down
+		final AtomicReference<Runnable> accepted = new AtomicReference<>();
+		final Executor shuttingDownExecutor = command -> {
+			if (!accepted.compareAndSet(null, command)) {
+				throw new RejectedExecutionException("Executor has been shut down");
+			}
+		};
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(shuttingDownExecutor, 1, 100_000,
+				LOGGER);
+		final AtomicInteger processed = new AtomicInteger();
+
+		for (int i = 0; i < 100_000; i++) {
+			dispatcher.dispatch(1, processed::incrementAndGet);
+		}
+		assertEquals(0, processed.get());
+
+		// The backlog is processed in a loop, a recursion would overflow the stack
+		accepted.get().run();
+		assertEquals(100_000, processed.get());
+		assertEquals(0, dispatcher.getPendingResults());
+	}
+
+	/**
+	 * Consumes results from an in-memory queue that stands in for the Kafka channel. Like the connector, the consumer
+	 * takes the next result only when the dispatcher has capacity for it. The first result of each lane waits until
+	 * the first results of all lanes have started, which can only happen if the lanes process in parallel.
+	 */
+	@Test
+	void lanesProcessInParallelUnderLoad() throws InterruptedException, ExecutionException, TimeoutException {
+		final CheckerResultDispatcher dispatcher = new CheckerResultDispatcher(executor, LANES, MAX_PENDING, LOGGER);
+		final BlockingQueue<ReceivedResult> channel = new LinkedBlockingQueue<>();
+		for (int sequence = 0; sequence < RESULTS_PER_PARTITION; sequence++) {
+			for (long partition = 0; partition < PARTITIONS; partition++) {
+				channel.add(new ReceivedResult(partition, sequence));
+			}
+		}
+
+		final CountDownLatch allLanesStarted = new CountDownLatch(LANES);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		final Map<Long, List<Integer>> processedSequences = new ConcurrentHashMap<>();
+		final CountDownLatch processed = new CountDownLatch(channel.size());
+		int maxPending = 0;
+
+		ReceivedResult result;
+		while ((result = channel.poll()) != null) {
+			final ReceivedResult received = result;
+			dispatcher.dispatch(received.partition, () -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				// Partition keys 0 to LANES - 1 are assigned to different lanes
+				if (received.sequence == 0 && received.partition < LANES) {
+					allLanesStarted.countDown();
+					try {
+						allLanesStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				sleep(1);
+				processedSequences.computeIfAbsent(received.partition, id -> new ArrayList<>())
+						.add(received.sequence);
+				running.decrementAndGet();
+				processed.countDown();
+			});
+			maxPending = Math.max(maxPending, dispatcher.getPendingResults());
+			dispatcher.whenCapacityAvailable().toCompletableFuture().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		}
+		await(processed);
+
+		assertEquals(0L, allLanesStarted.getCount(), "Lanes did not process in parallel");
+		assertEquals(LANES, maxRunning.get());
+		assertTrue(maxPending <= MAX_PENDING, maxPending + " results were pending");
+		assertProcessedInOrder(processedSequences);
+	}
+}
@@ -0,0 +1,102 @@
+package de.uni_due.s3.jack3.business.microservices;
+
+import static de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness.FALSE;
+import static de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness.TRUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.InternalErrorEvaluatorException;
+import de.uni_due.s3.jack3.entities.tenant.EvaluatorExpression;
+import de.uni_due.s3.jack3.entities.tenant.StageTransition;
+import de.uni_due.s3.jack3.tests.utils.AbstractTest;
+
+/**
+ * Tests the batched evaluation of stage transitions against a local stub evaluator.
+ */
+class CalculatorBusinessTransitionTest extends AbstractTest {
+
+	private StubEvaluatorBusiness stub;
+	private CalculatorBusiness calculatorBusiness;
+	private final EvaluatorMaps maps = new EvaluatorMaps();
+
+	@BeforeEach
+	void setUp() {
+		stub = new StubEvaluatorBusiness();
+		calculatorBusiness = stub.injectInto(new CalculatorBusiness(), "eurekaBusiness");
+	}
+
+	private static StageTransition createTransition(String stageExpression, String conditionExpression) {
+		StageTransition transition = new StageTransition();
+		transition.setStageExpression(new EvaluatorExpression(stageExpression));
+		transition.setConditionExpression(new EvaluatorExpression(conditionExpression));
+		return transition;
+	}
+
+	@Test
+	void manyTransitionsAreEvaluatedInOneRoundTrip() throws Exception {
+		List<StageTransition> transitions = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			transitions.add(createTransition(i == 12 ? TRUE : FALSE, TRUE));
+		}
+
+		assertSame(transitions.get(12), calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+		assertEquals(1, stub.getRoundTrips());
+		assertEquals(40, stub.getCalculatorRequests().get(0).getTasks().size());
+	}
+
+	@Test
+	void firstActiveTransitionWins() throws Exception {
+		List<StageTransition> transitions = List.of(createTransition(TRUE, FALSE), createTransition(TRUE, TRUE),
+				createTransition(TRUE, TRUE));
+
+		assertSame(transitions.get(1), calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+	}
+
+	@Test
+	void noActiveTransition() throws Exception {
+		List<StageTransition> transitions = List.of(createTransition(FALSE, TRUE), createTransition(TRUE, FALSE));
+
+		assertNull(calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+		assertEquals(1, stub.getRoundTrips());
+	}
+
+	@Test
+	void emptyExpressionsAreTrueWithoutRoundTrip() throws Exception {
+		List<StageTransition> transitions = List.of(createTransition("", ""), createTransition(TRUE, TRUE));
+
+		assertSame(transitions.get(0), calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+		assertEquals(0, stub.getRoundTrips());
+	}
+
+	@Test
+	void stageExpressionIsIgnoredForSkipTransitions() throws Exception {
+		List<StageTransition> transitions = List.of(createTransition(FALSE, FALSE), createTransition(FALSE, TRUE));
+
+		assertSame(transitions.get(1), calculatorBusiness.findFirstActiveTransition(transitions, maps, false));
+		assertEquals(2, stub.getCalculatorRequests().get(0).getTasks().size());
+	}
+
+	@Test
+	void errorBeforeActiveTransitionIsReported() {
+		List<StageTransition> transitions = List.of(createTransition(FALSE, "invalid"), createTransition(TRUE, TRUE));
+
+		assertThrows(InternalErrorEvaluatorException.class,
+				() -> calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+	}
+
+	@Test
+	void errorAfterActiveTransitionIsIgnored() throws Exception {
+		List<StageTransition> transitions = List.of(createTransition(TRUE, TRUE), createTransition("invalid", TRUE));
+
+		assertSame(transitions.get(0), calculatorBusiness.findFirstActiveTransition(transitions, maps, true));
+	}
+
+}
@@ -0,0 +1,96 @@
+package de.uni_due.s3.jack3.business.microservices;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.evaluator_api.converter.request.ConverterRequest;
+import de.uni_due.s3.evaluator_api.converter.request.ConverterTask;
+import de.uni_due.s3.evaluator_api.converter.request.ConverterTaskType;
+import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterException;
+import de.uni_due.s3.jack3.business.microservices.variableutils.VariableValueFactory;
+import de.uni_due.s3.jack3.entities.tenant.VariableValue;
+import de.uni_due.s3.jack3.tests.utils.AbstractTest;
+
+/**
+ * Tests that the batched conversions of {@link ConverterBusiness} need only one round trip to a local stub evaluator.
+ * The stub does not convert anything, so only the requests are checked.
+ */
+class ConverterBusinessRoundTripTest extends AbstractTest {
+
+	private static final int OPTIONS = 12;
+	private static final int LIST_ITEMS = 30;
+
+	private StubEvaluatorBusiness stub;
+	private ConverterBusiness converterBusiness;
+	private final EvaluatorMaps maps = new EvaluatorMaps();
+
+	@BeforeEach
+	void setUp() {
+		stub = new StubEvaluatorBusiness();
+		converterBusiness = stub.injectInto(new ConverterBusiness(), "eurekaBusiness");
+		for (int i = 0; i < OPTIONS; i++) {
+			maps.getExerciseVariableMap().put("option" + i,
+					VariableValueFactory.createVariableValueForOpenMathInteger(i));
+		}
+	}
+
+	@Test
+	void placeholdersOfSeveralTextsAreConvertedInOneRoundTrip() {
+		// Like a multiple choice stage: the task description and one text per answer option
+		List<String> texts = new ArrayList<>();
+		texts.add("Which of the options is [var=option0]?");
+		for (int i = 0; i < OPTIONS; i++) {
+			texts.add("Option [var=option" + i + "]");
+		}
+
+		assertEquals(texts, converterBusiness.replaceVariablesByVariableName(texts, maps));
+		assertEquals(1, stub.getRoundTrips());
+		// The placeholder that occurs twice is converted once
+		assertEquals(OPTIONS, stub.getConverterRequests().get(0).getTasks().size());
+	}
+
+	@Test
+	void textsWithoutDefinedPlaceholdersNeedNoRoundTrip() {
+		List<String> texts = Arrays.asList("No placeholder", null, "[var=undefined]");
+
+		assertEquals(texts, converterBusiness.replaceVariablesByVariableName(texts, maps));
+		assertEquals(0, stub.getRoundTrips());
+	}
+
+	@Test
+	void listItemsAreConvertedToStringsInOneRoundTrip() {
+		// The stub returns no results, so the conversion fails only after the request has been sent
+		assertThrows(ConverterException.class, () -> converterBusiness.convertToStrings(listItems()));
+		assertListItemsRequestedOnce(ConverterTaskType.STRING);
+	}
+
+	@Test
+	void listItemsAreConvertedToLaTeXInOneRoundTrip() {
+		assertThrows(ConverterException.class, () -> converterBusiness.convertToLaTeX(listItems()));
+		assertListItemsRequestedOnce(ConverterTaskType.LATEX);
+	}
+
+	private static List<VariableValue> listItems() {
+		List<VariableValue> items = new ArrayList<>(LIST_ITEMS);
+		for (int i = 0; i < LIST_ITEMS; i++) {
+			items.add(VariableValueFactory.createVariableValueForOpenMathInteger(i));
+		}
+		return items;
+	}
+
+	private void assertListItemsRequestedOnce(ConverterTaskType type) {
+		assertEquals(1, stub.getRoundTrips());
+		ConverterRequest request = stub.getConverterRequests().get(0);
+		assertEquals(LIST_ITEMS, request.getTasks().size());
+		for (ConverterTask task : request.getTasks()) {
+			assertEquals(type, task.type);
+		}
+	}
+}
@@ -2,12 +2,16 @@ package de.uni_due.s3.jack3.business.microservices;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Arrays;
+import java.util.List;
+
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import de.uni_due.s3.jack3.business.microservices.variableutils.VariableValueFactory;
+import de.uni_due.s3.jack3.entities.tenant.VariableValue;
 import de.uni_due.s3.jack3.tests.annotations.NeedsEureka;
 import de.uni_due.s3.jack3.tests.utils.AbstractTest;
 
@@ -60,4 +64,21 @@ class ConverterBusinessTest extends AbstractTest {
 				"Hello World! This [var=isVar] an [input=example1] text for string replacement."
 						+ " This $[var=$isVar]$ an $[input=example1,latex]$ text for latex replacement.");
 	}
+
+	@Test
+	void replaceVariablesByVariableName_ForSeveralTexts() throws Exception {
+		List<String> texts = Arrays.asList("This [var=isVar] an [input=example1].", null, "No variables",
+				"This [var=isVar] but [var=undefinedVar].", "[var=isVar,latex]");
+		assertEquals(Arrays.asList("This is an example.", null, "No variables",
+				"This [var=isVar] but [var=undefinedVar].", "\\text{is}"),
+				converter.replaceVariablesByVariableName(texts, maps));
+	}
+
+	@Test
+	void convertListItems() throws Exception {
+		List<VariableValue> items = Arrays.asList(VariableValueFactory.createVariableValueForOpenMathString("is"),
+				VariableValueFactory.createVariableValueForOpenMathString("example"));
+		assertEquals(Arrays.asList("is", "example"), converter.convertToStrings(items));
+		assertEquals(Arrays.asList("\\text{is}", "\\text{example}"), converter.convertToLaTeX(items));
+	}
 }
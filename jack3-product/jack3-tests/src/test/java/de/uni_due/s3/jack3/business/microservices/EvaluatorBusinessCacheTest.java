@@ -0,0 +1,143 @@
+package de.uni_due.s3.jack3.business.microservices;
+
+import static de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness.TRUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.microservices.converterutils.ConverterRequestProducer;
+import de.uni_due.s3.jack3.business.microservices.placeholderutils.Placeholder;
+import de.uni_due.s3.jack3.business.microservices.variableutils.VariableValueFactory;
+import de.uni_due.s3.jack3.entities.tenant.EvaluatorExpression;
+import de.uni_due.s3.jack3.entities.tenant.VariableDeclaration;
+import de.uni_due.s3.jack3.tests.utils.AbstractTest;
+
+/**
+ * Tests the result cache of {@link EvaluatorBusiness} against a local stub evaluator.
+ */
+class EvaluatorBusinessCacheTest extends AbstractTest {
+
+	private StubEvaluatorBusiness stub;
+	private CalculatorBusiness calculatorBusiness;
+	private EvaluatorMaps maps;
+
+	@BeforeEach
+	void setUp() {
+		stub = new StubEvaluatorBusiness();
+		calculatorBusiness = stub.injectInto(new CalculatorBusiness(), "eurekaBusiness");
+		maps = new EvaluatorMaps();
+		maps.getExerciseVariableMap().put("a", VariableValueFactory.createVariableValueForOpenMathInteger(1));
+	}
+
+	@Test
+	void identicalRequestIsAnsweredFromCache() throws Exception {
+		assertTrue(calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps));
+		assertTrue(calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps));
+
+		assertEquals(1, stub.getRoundTrips());
+		assertEquals(1, stub.getCacheStatistics().hitCount());
+		assertEquals(1, stub.getCacheStatistics().missCount());
+		assertEquals(1, stub.getCacheSize());
+	}
+
+	@Test
+	void differentVariableValuesAreNotMixedUp() throws Exception {
+		calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps);
+		maps.getExerciseVariableMap().put("a", VariableValueFactory.createVariableValueForOpenMathInteger(2));
+		calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps);
+
+		assertEquals(2, stub.getRoundTrips());
+		assertEquals(0, stub.getCacheStatistics().hitCount());
+	}
+
+	@Test
+	void nonDeterministicExpressionsAreNotCached() {
+		EvaluatorExpression expression = new EvaluatorExpression("randomIntegerBetween(1,4)");
+		for (int i = 0; i < 2; i++) {
+			try {
+				calculatorBusiness.calculateToBoolean(expression, maps);
+			} catch (Exception e) {
+				// The stub cannot evaluate this expression, but the request has been sent anyway
+			}
+		}
+
+		assertEquals(2, stub.getRoundTrips());
+		assertEquals(0, stub.getCacheSize());
+	}
+
+	@Test
+	void expressionsOnlyMentioningRandomAreCached() {
+		EvaluatorExpression expression = new EvaluatorExpression("[var=random] + isRandomized([var=randomness])");
+		for (int i = 0; i < 2; i++) {
+			try {
+				calculatorBusiness.calculateToBoolean(expression, maps);
+			} catch (Exception e) {
+				// The stub cannot evaluate this expression, but the request has been sent anyway
+			}
+		}
+
+		assertEquals(1, stub.getRoundTrips());
+		assertEquals(1, stub.getCacheSize());
+	}
+
+	@Test
+	void variableDeclarationsAreNeverCached() throws Exception {
+		VariableDeclaration declaration = new VariableDeclaration();
+		declaration.setName("x");
+		declaration.setInitializationCode(new EvaluatorExpression("1"));
+
+		for (int i = 0; i < 2; i++) {
+			try {
+				calculatorBusiness.initVariables(List.of(declaration));
+			} catch (Exception e) {
+				// The stub cannot evaluate this expression, but the request has been sent anyway
+			}
+		}
+
+		assertEquals(2, stub.getRoundTrips());
+		assertEquals(0, stub.getCacheSize());
+	}
+
+	@Test
+	void identicalConversionIsAnsweredFromCache() throws Exception {
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(false, null)), maps));
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(false, null)), maps));
+
+		assertEquals(1, stub.getRoundTrips());
+		assertEquals(1, stub.getCacheStatistics().hitCount());
+	}
+
+	@Test
+	void conversionsAreNotMixedUp() throws Exception {
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(false, null)), maps));
+		// Different conversion type
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(true, null)), maps));
+		// Different format
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(false, "2")), maps));
+		// Different variable value
+		maps.getExerciseVariableMap().put("a", VariableValueFactory.createVariableValueForOpenMathInteger(2));
+		stub.convert(ConverterRequestProducer.ofPlaceholdersAndMaps(List.of(placeholder(false, null)), maps));
+
+		assertEquals(4, stub.getRoundTrips());
+		assertEquals(0, stub.getCacheStatistics().hitCount());
+	}
+
+	private static Placeholder placeholder(boolean latex, String decimals) {
+		return new Placeholder("[var=a]", "var", "a", latex, decimals, null);
+	}
+
+	@Test
+	void clearCache() throws Exception {
+		calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps);
+		stub.clearCache();
+		calculatorBusiness.calculateToBoolean(new EvaluatorExpression(TRUE), maps);
+
+		assertEquals(2, stub.getRoundTrips());
+		assertFalse(stub.getCacheStatistics().hitCount() > 0);
+	}
+}
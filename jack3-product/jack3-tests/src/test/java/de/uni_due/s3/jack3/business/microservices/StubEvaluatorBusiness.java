@@ -0,0 +1,100 @@
+package de.uni_due.s3.jack3.business.microservices;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.inject.Vetoed;
+
+import de.uni_due.s3.evaluator_api.calculator.request.CalculatorRequest;
+import de.uni_due.s3.evaluator_api.calculator.request.CalculatorTask;
+import de.uni_due.s3.evaluator_api.calculator.request.CalculatorTaskType;
+import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResponse;
+import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResult;
+import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResultContent;
+import de.uni_due.s3.evaluator_api.calculator.response.CalculatorResultType;
+import de.uni_due.s3.evaluator_api.converter.request.ConverterRequest;
+import de.uni_due.s3.evaluator_api.converter.response.ConverterResponse;
+
+/**
+ * Local stand-in for the evaluator microservice. It answers requests without any network access and records every
+ * request it receives, so tests can count the round trips a business method causes. Only the remote calls are
+ * replaced, so the result cache of {@link EvaluatorBusiness} is still in place.
+ *
+ * Boolean tasks with the expression "true()" are evaluated to true, tasks with "false()" to false. Further boolean
+ * results can be defined with {@link #defineBooleanResult(String, boolean)}. All other expressions produce an
+ * exception result.
+ */
+@Vetoed // Must not be discovered as a second EvaluatorBusiness bean
+public class StubEvaluatorBusiness extends EvaluatorBusiness {
+
+	public static final String TRUE = "true()";
+	public static final String FALSE = "false()";
+
+	private final Map<String, Boolean> booleanResults = new HashMap<>(Map.of(TRUE, true, FALSE, false));
+	private final List<CalculatorRequest> calculatorRequests = new ArrayList<>();
+	private final List<ConverterRequest> converterRequests = new ArrayList<>();
+
+	/**
+	 * Replaces the evaluator used by the given business object with this stub. The business object should be created
+	 * with "new" by the test, so the injected instance of the container is not modified.
+	 */
+	public <T> T injectInto(T business, String fieldName) {
+		try {
+			Field field = business.getClass().getDeclaredField(fieldName);
+			field.setAccessible(true);
+			field.set(business, this);
+			return business;
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Cannot inject stub evaluator into " + business.getClass(), e);
+		}
+	}
+
+	/**
+	 * Lets boolean tasks with the given expression evaluate to the given result.
+	 */
+	public void defineBooleanResult(String expression, boolean result) {
+		booleanResults.put(expression, result);
+	}
+
+	@Override
+	public CalculatorResponse calculateUncached(CalculatorRequest request) {
+		calculatorRequests.add(request);
+		CalculatorResponse response = new CalculatorResponse();
+		for (CalculatorTask task : request.getTasks()) {
+			response.addResult(resultFor(task));
+		}
+		return response;
+	}
+
+	private CalculatorResult resultFor(CalculatorTask task) {
+		if (CalculatorTaskType.BOOLEAN.equals(task.type) && booleanResults.containsKey(task.expression)) {
+			return new CalculatorResult(new CalculatorResultContent(booleanResults.get(task.expression)),
+					CalculatorResultType.BOOLEAN, task.properties);
+		}
+		CalculatorResultContent content = new CalculatorResultContent(false);
+		content.exceptionMessage = "Stub cannot evaluate " + task.expression;
+		return new CalculatorResult(content, CalculatorResultType.EXCEPTION, task.properties);
+	}
+
+	@Override
+	public ConverterResponse convertUncached(ConverterRequest request) {
+		converterRequests.add(request);
+		return new ConverterResponse();
+	}
+
+	public List<CalculatorRequest> getCalculatorRequests() {
+		return Collections.unmodifiableList(calculatorRequests);
+	}
+
+	public List<ConverterRequest> getConverterRequests() {
+		return Collections.unmodifiableList(converterRequests);
+	}
+
+	public int getRoundTrips() {
+		return calculatorRequests.size() + converterRequests.size();
+	}
+}
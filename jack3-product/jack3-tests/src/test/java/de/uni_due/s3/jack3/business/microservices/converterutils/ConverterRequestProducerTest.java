@@ -2,7 +2,9 @@ package de.uni_due.s3.jack3.business.microservices.converterutils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -26,6 +28,25 @@ public class ConverterRequestProducerTest {
 		assertEquals(0, request.getTasks().size());
 	}
 
+	@Test
+	public void testUndefinedPlaceholderIsLeftOut() throws Exception {
+		EvaluatorMaps maps = new EvaluatorMaps();
+		maps.addMetaVariable("meta1", 0.123);
+		Placeholder defined = new Placeholder("[meta=meta1]", "meta", "meta1", false, null, null);
+		Placeholder undefined = new Placeholder("[meta=meta2]", "meta", "meta2", false, null, null);
+		Map<Placeholder, ConverterExceptionMessage> failures = new HashMap<>();
+
+		ConverterRequest request = ConverterRequestProducer.ofDefinedPlaceholdersAndMaps(List.of(defined, undefined),
+				maps, failures);
+		assertEquals(1, request.getTasks().size());
+		assertEquals(new ConverterTask(
+				new EvaluatorProperties("meta1", EvaluatorVariableType.META, EvaluatorDomainType.MATHEMATICS),
+				ConverterTaskType.STRING,
+				new ConverterFormatProperties(ConverterFormatSiPrefixType.NONE, ConverterFormatDecimalsType.NONE)),
+				request.getTasks().get(0));
+		assertEquals(List.of(undefined), List.copyOf(failures.keySet()));
+	}
+
 	@Test
 	public void test2Placeholders() throws Exception {
 		EvaluatorMaps maps = new EvaluatorMaps();
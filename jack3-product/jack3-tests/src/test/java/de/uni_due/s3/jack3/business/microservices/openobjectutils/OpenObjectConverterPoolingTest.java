@@ -0,0 +1,183 @@
+package de.uni_due.s3.jack3.business.microservices.openobjectutils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.openmath.OMOBJ;
+
+import de.uni_due.s3.jack3.entities.tenant.VariableValue;
+import de.uni_due.s3.openchem.OCOBJ;
+import de.uni_due.s3.openobject.OpenObject;
+
+/**
+ * Checks that the pooled (un)marshallers and the cached OpenObjects of {@link OpenObjectConverter} produce the same
+ * results as a new (un)marshaller per call without caching, on realistic OpenMath payloads. The speed of both ways is
+ * compared by {@code OpenObjectConverterBenchmark} in the jack3-benchmarks module.
+ */
+class OpenObjectConverterPoolingTest {
+
+	private static final int REPETITIONS = 3;
+	private static final int THREADS = 8;
+
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+	private static final String XML_OO_START = "<oo:OpenObject xmlns:oo=\"http://s3.uni-due.de/OpenObject\" "
+			+ "xmlns:oc=\"http://s3.uni-due.de/OpenChem\" xmlns:om=\"http://www.openmath.org/OpenMath\"><om:OMOBJ>";
+	private static final String XML_OO_END = "</om:OMOBJ></oo:OpenObject>";
+
+	private static JAXBContext context;
+	private static List<String> payloads;
+
+	@BeforeAll
+	static void setUp() throws JAXBException {
+		context = JAXBContext.newInstance(OpenObject.class, OMOBJ.class, OCOBJ.class);
+		payloads = List.of(integer(42), polynomial(), matrix(5), stringList(30));
+	}
+
+	private static String wrap(String content) {
+		return XML_HEADER + XML_OO_START + content + XML_OO_END;
+	}
+
+	private static String integer(int value) {
+		return wrap("<om:OMI>" + value + "</om:OMI>");
+	}
+
+	// 3*x^2 + 2.5*x - 7
+	private static String polynomial() {
+		return wrap("<om:OMA><om:OMS cd=\"arith1\" name=\"plus\"/>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"times\"/><om:OMI>3</om:OMI>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"power\"/><om:OMV name=\"x\"/><om:OMI>2</om:OMI></om:OMA>"
+				+ "</om:OMA>"
+				+ "<om:OMA><om:OMS cd=\"arith1\" name=\"times\"/><om:OMF dec=\"2.5\"/><om:OMV name=\"x\"/></om:OMA>"
+				+ "<om:OMI>-7</om:OMI></om:OMA>");
+	}
+
+	private static String matrix(int size) {
+		StringBuilder xml = new StringBuilder("<om:OMA><om:OMS cd=\"linalg2\" name=\"matrix\"/>");
+		for (int row = 0; row < size; row++) {
+			xml.append("<om:OMA><om:OMS cd=\"linalg2\" name=\"matrixrow\"/>");
+			for (int column = 0; column < size; column++) {
+				xml.append("<om:OMI>").append(row * size + column).append("</om:OMI>");
+			}
+			xml.append("</om:OMA>");
+		}
+		return wrap(xml.append("</om:OMA>").toString());
+	}
+
+	private static String stringList(int size) {
+		StringBuilder xml = new StringBuilder("<om:OMA><om:OMS cd=\"list1\" name=\"list\"/>");
+		for (int i = 0; i < size; i++) {
+			xml.append("<om:OMSTR>Option ").append(i).append("</om:OMSTR>");
+		}
+		return wrap(xml.append("</om:OMA>").toString());
+	}
+
+	private static OpenObject uncachedFromXmlString(String xml) throws JAXBException {
+		return (OpenObject) context.createUnmarshaller().unmarshal(new StringReader(xml));
+	}
+
+	private static String uncachedToXmlString(OpenObject openObject) throws JAXBException {
+		StringWriter sw = new StringWriter();
+		context.createMarshaller().marshal(openObject, sw);
+		return sw.toString();
+	}
+
+	/**
+	 * Repeated conversions reuse the pooled unmarshallers.
+	 */
+	@Test
+	void fromXmlStringWithPooledUnmarshaller() throws Exception {
+		for (int i = 0; i < REPETITIONS; i++) {
+			for (String payload : payloads) {
+				assertEquals(uncachedFromXmlString(payload), OpenObjectConverter.fromXmlString(payload));
+			}
+		}
+	}
+
+	/**
+	 * Repeated conversions reuse the pooled marshallers.
+	 */
+	@Test
+	void toXmlStringWithPooledMarshaller() throws Exception {
+		for (int i = 0; i < REPETITIONS; i++) {
+			for (String payload : payloads) {
+				OpenObject openObject = uncachedFromXmlString(payload);
+				assertEquals(uncachedToXmlString(openObject), OpenObjectConverter.toXmlString(openObject));
+			}
+		}
+	}
+
+	@Test
+	void fromVariableValueIsCached() throws Exception {
+		for (String payload : payloads) {
+			VariableValue value = new VariableValue();
+			value.setContent(payload);
+
+			OpenObject parsed = OpenObjectConverter.fromVariableValue(value);
+			assertEquals(uncachedFromXmlString(payload), parsed);
+			assertSame(parsed, OpenObjectConverter.fromVariableValue(value));
+		}
+	}
+
+	@Test
+	void fromVariableValueAfterContentChanged() throws Exception {
+		VariableValue value = new VariableValue();
+		value.setContent(integer(1));
+		OpenObject first = OpenObjectConverter.fromVariableValue(value);
+
+		value.setContent(integer(2));
+		OpenObject second = OpenObjectConverter.fromVariableValue(value);
+
+		assertNotSame(first, second);
+		assertEquals(uncachedFromXmlString(integer(2)), second);
+	}
+
+	/**
+	 * The pooled (un)marshallers are not thread-safe, so each one must only be used by one thread at a time.
+	 */
+	@Test
+	void concurrentConversions() throws Exception {
+		List<OpenObject> expected = new ArrayList<>();
+		for (String payload : payloads) {
+			expected.add(uncachedFromXmlString(payload));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 50; i++) {
+						int index = i % payloads.size();
+						OpenObject parsed = OpenObjectConverter.fromXmlString(payloads.get(index));
+						assertEquals(expected.get(index), parsed);
+						assertEquals(expected.get(index), OpenObjectConverter.fromXmlString(
+								OpenObjectConverter.toXmlString(parsed)));
+					}
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+			assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		}
+	}
+}
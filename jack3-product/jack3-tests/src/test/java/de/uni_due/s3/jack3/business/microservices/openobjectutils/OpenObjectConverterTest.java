@@ -2,11 +2,16 @@ package de.uni_due.s3.jack3.business.microservices.openobjectutils;
 
 import static de.uni_due.s3.jack3.business.microservices.openobjectutils.TestOpenObjectData.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import javax.xml.bind.JAXBException;
 
 import org.junit.jupiter.api.Test;
 
+import de.uni_due.s3.jack3.entities.tenant.VariableValue;
+import de.uni_due.s3.openobject.OpenObject;
+
 class OpenObjectConverterTest {
 
 	@Test
@@ -35,4 +40,37 @@ class OpenObjectConverterTest {
 		assertEquals(OO_TRUE, OpenObjectConverter.fromXmlString(XML_OM_TRUE_XMLNS));
 		assertEquals(OO_TRUE, OpenObjectConverter.fromXmlString(XML_OO_TRUE));
 	}
+
+	@Test
+	void parsedVariableValueIsCached() {
+		VariableValue value = new VariableValue();
+		value.setContent(XML_OO_ONE);
+
+		OpenObject first = OpenObjectConverter.fromVariableValue(value);
+		assertEquals(OO_ONE, first);
+		assertSame(first, OpenObjectConverter.fromVariableValue(value));
+	}
+
+	@Test
+	void changedVariableValueIsParsedAgain() {
+		VariableValue value = new VariableValue();
+		value.setContent(XML_OO_ONE);
+		OpenObject first = OpenObjectConverter.fromVariableValue(value);
+
+		value.setContent(XML_OO_TEXT);
+		OpenObject second = OpenObjectConverter.fromVariableValue(value);
+		assertNotSame(first, second);
+		assertEquals(OO_TEXT, second);
+	}
+
+	@Test
+	void equalVariableValuesAreCachedSeparately() {
+		VariableValue value1 = new VariableValue();
+		value1.setContent(XML_OO_TEXT);
+		VariableValue value2 = new VariableValue();
+		value2.setContent(XML_OO_TEXT);
+
+		assertEquals(OpenObjectConverter.fromVariableValue(value1), OpenObjectConverter.fromVariableValue(value2));
+		assertNotSame(OpenObjectConverter.fromVariableValue(value1), OpenObjectConverter.fromVariableValue(value2));
+	}
 }
@@ -0,0 +1,369 @@
+package de.uni_due.s3.jack3.business.stagetypes;
+
+import static de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness.FALSE;
+import static de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness.TRUE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.StringJoiner;
+
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.microservices.CalculatorBusiness;
+import de.uni_due.s3.jack3.business.microservices.EvaluatorMaps;
+import de.uni_due.s3.jack3.business.microservices.StubEvaluatorBusiness;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorBooleanResults;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.CalculatorException;
+import de.uni_due.s3.jack3.business.microservices.calculatorutils.InternalErrorEvaluatorException;
+import de.uni_due.s3.jack3.business.microservices.placeholderutils.PlaceholderPatternProducer;
+import de.uni_due.s3.jack3.entities.enums.EMCRuleType;
+import de.uni_due.s3.jack3.entities.stagetypes.fillin.FillInStage;
+import de.uni_due.s3.jack3.entities.stagetypes.fillin.Rule;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCAnswer;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCFeedback;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCStage;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCSubmission;
+import de.uni_due.s3.jack3.entities.tenant.EvaluatorExpression;
+import de.uni_due.s3.jack3.tests.utils.AbstractTest;
+import de.uni_due.s3.jack3.utils.JackStringUtils;
+
+/**
+ * Compares the grading of fill-in and multiple choice stages, which evaluates all rules with one request, with the
+ * evaluation of one rule after another. Both are run on random stages against a local stub evaluator and must lead to
+ * the same points, feedback and errors.
+ */
+class RuleGradingDifferentialTest extends AbstractTest {
+
+	private static final int TRIALS = 500;
+
+	private final EvaluatorMaps maps = new EvaluatorMaps();
+	private final Random random = new Random(4711);
+
+	/** Results the stub should return in addition to "true()" and "false()" */
+	private final Map<String, Boolean> definedResults = new HashMap<>();
+
+	private StubEvaluatorBusiness stub;
+	private CalculatorBusiness calculatorBusiness;
+	private int invalidExpressions;
+
+	/**
+	 * A new stub is used for each evaluation, so no results are served from the cache of a previous evaluation.
+	 */
+	private void resetEvaluator() {
+		stub = new StubEvaluatorBusiness();
+		definedResults.forEach(stub::defineBooleanResult);
+		calculatorBusiness = stub.injectInto(new CalculatorBusiness(), "eurekaBusiness");
+	}
+
+	/**
+	 * @return An expression that is true, false, empty or cannot be evaluated
+	 */
+	private String randomExpression() {
+		switch (random.nextInt(4)) {
+		case 0:
+			return TRUE;
+		case 1:
+			return FALSE;
+		case 2:
+			return "";
+		default:
+			return "invalid" + invalidExpressions++;
+		}
+	}
+
+	/**
+	 * Lets the stub evaluate the given expression randomly to true, to false or to an error.
+	 */
+	private void defineRandomResult(String expression) {
+		int outcome = random.nextInt(5);
+		if (outcome < 4) {
+			definedResults.put(expression, outcome % 2 == 0);
+		}
+	}
+
+	// ---------- Fill-in ----------
+
+	private FillInStage createFillInStage() {
+		FillInStage stage = new FillInStage();
+		stage.setCorrectAnswerFeedback("correct");
+		stage.setDefaultFeedback("default");
+		stage.setDefaultResult(random.nextInt(50));
+
+		int correctAnswerRules = random.nextInt(4);
+		for (int i = 0; i < correctAnswerRules; i++) {
+			stage.addCorrectAnswerRule(createRule(i));
+		}
+		int feedbackRules = random.nextInt(16);
+		for (int i = 0; i < feedbackRules; i++) {
+			stage.addFeedbackRule(createRule(i));
+		}
+		return stage;
+	}
+
+	private Rule createRule(int orderIndex) {
+		Rule rule = new Rule("rule" + orderIndex, orderIndex);
+		rule.setValidationExpression(new EvaluatorExpression(randomExpression()));
+		rule.setFeedbackText("feedback" + orderIndex);
+		rule.setPoints(random.nextInt(101) - 50);
+		rule.setTerminal(random.nextInt(4) == 0);
+		return rule;
+	}
+
+	private static String describeFillInGrading(int points, String feedback) {
+		return points + " points, feedback " + feedback;
+	}
+
+	private static String describeFillInError(EvaluatorExpression expression) {
+		return "error in " + expression.getCode();
+	}
+
+	/**
+	 * The grading as it was done before all rules were evaluated in one request.
+	 */
+	private String gradeFillInSequentially(FillInStage stage) {
+		int points = 0;
+		StringJoiner feedback = new StringJoiner("</li><li>", "<ul><li>", "</li></ul>");
+		feedback.setEmptyValue("");
+
+		boolean correctAnswerMatched = false;
+		for (Rule correctAnswerRule : stage.getCorrectAnswerRulesAsList()) {
+			if (correctAnswerRule.getValidationExpression().isEmpty()) {
+				continue;
+			}
+			try {
+				if (calculatorBusiness.calculateToBoolean(correctAnswerRule.getValidationExpression(), maps)) {
+					points = FillInStageBusiness.CORRECT_ANSWER_POINTS;
+					feedback.add(stage.getCorrectAnswerFeedback());
+					correctAnswerMatched = true;
+					break;
+				}
+			} catch (InternalErrorEvaluatorException e) {
+				return describeFillInError(correctAnswerRule.getValidationExpression());
+			}
+		}
+
+		if (!correctAnswerMatched) {
+			boolean userGetsDefaultFeedback = true;
+			for (Rule rule : stage.getFeedbackRulesAsList()) {
+				EvaluatorExpression expression = rule.getValidationExpression();
+				try {
+					if (!expression.isEmpty() && calculatorBusiness.calculateToBoolean(expression, maps)) {
+						userGetsDefaultFeedback = false;
+						points += rule.getPoints();
+						feedback.add(rule.getFeedbackText());
+						if (rule.isTerminal()) {
+							break;
+						}
+					}
+				} catch (InternalErrorEvaluatorException e) {
+					return describeFillInError(expression);
+				}
+			}
+			if (userGetsDefaultFeedback) {
+				feedback.add(stage.getDefaultFeedback());
+				points = stage.getDefaultResult();
+			}
+		}
+		return describeFillInGrading(points, feedback.toString());
+	}
+
+	private String gradeFillInWithOneRequest(FillInStage stage) {
+		FillInStageBusiness.RuleGrading grading = FillInStageBusiness.gradeByRules(stage,
+				calculatorBusiness.calculateToBooleans(FillInStageBusiness.getRuleExpressions(stage), maps));
+		if (grading.getError() != null) {
+			return describeFillInError(grading.getFailedExpression());
+		}
+		return describeFillInGrading(grading.getPoints(), grading.getFeedback());
+	}
+
+	@Test
+	void fillInGradingEqualsSequentialEvaluation() {
+		for (int trial = 0; trial < TRIALS; trial++) {
+			FillInStage stage = createFillInStage();
+
+			resetEvaluator();
+			String expected = gradeFillInSequentially(stage);
+			resetEvaluator();
+			String actual = gradeFillInWithOneRequest(stage);
+
+			assertEquals(expected, actual, "Trial " + trial);
+			assertTrue(stub.getRoundTrips() <= 1, "Trial " + trial);
+		}
+	}
+
+	@Test
+	void fillInGradingNeedsOneRoundTripForManyRules() {
+		FillInStage stage = new FillInStage();
+		for (int i = 0; i < 15; i++) {
+			Rule rule = new Rule("rule" + i, i);
+			rule.setValidationExpression(new EvaluatorExpression(TRUE));
+			rule.setPoints(5);
+			stage.addFeedbackRule(rule);
+		}
+
+		resetEvaluator();
+		assertEquals(describeFillInGrading(75, ""), gradeFillInWithOneRequest(stage));
+		assertEquals(1, stub.getRoundTrips());
+		assertEquals(15, stub.getCalculatorRequests().get(0).getTasks().size());
+	}
+
+	// ---------- Multiple choice ----------
+
+	private MCStage createMCStage() {
+		MCStage stage = new MCStage();
+		stage.setCorrectAnswerFeedback("correct");
+		stage.setDefaultFeedback("default");
+		stage.setDefaultResult(random.nextInt(50));
+
+		int answerOptions = random.nextInt(6);
+		for (int i = 0; i < answerOptions; i++) {
+			stage.addAnswerOption("option" + i);
+			MCAnswer answer = stage.getAnswerOptions().get(i);
+			answer.setRule(EMCRuleType.values()[random.nextInt(EMCRuleType.values().length)]);
+			answer.setVariableName("variable" + i);
+		}
+
+		int extraFeedbacks = random.nextInt(8);
+		for (int i = 0; i < extraFeedbacks; i++) {
+			stage.addFeedbackOption(new EvaluatorExpression(randomExpression()));
+			MCFeedback feedback = stage.getExtraFeedbacks().get(i);
+			feedback.getCondition().setCode(randomExpression());
+			feedback.setFeedbackText("feedback" + i);
+			feedback.setResult(random.nextInt(101) - 50);
+		}
+		return stage;
+	}
+
+	private MCSubmission createMCSubmission(MCStage stage) {
+		StringBuilder tickedPattern = new StringBuilder();
+		for (int i = 0; i < stage.getAnswerOptions().size(); i++) {
+			tickedPattern.append(random.nextBoolean() ? '1' : '0');
+		}
+		MCSubmission submission = new MCSubmission();
+		submission.setTickedPattern(tickedPattern.toString());
+		return submission;
+	}
+
+	/**
+	 * Lets the stub evaluate the correct answer expression and the variables of the stage randomly.
+	 */
+	private void defineRandomResults(MCStage stage) {
+		defineRandomResult(MCStageBusiness.getCorrectExpression(stage).getCode());
+		for (MCAnswer answer : stage.getAnswerOptions()) {
+			defineRandomResult(PlaceholderPatternProducer.forExerciseVariable(answer.getVariableName()));
+		}
+	}
+
+	private static String describeMCGrading(boolean correct, MCSubmission submission, List<Integer> feedbacks) {
+		return "correct " + correct + ", ticks " + submission.getCorrectTicks() + "/" + submission.getIncorrectTicks()
+				+ ", feedback " + feedbacks;
+	}
+
+	/**
+	 * The grading as it was done before all expressions were evaluated in one request.
+	 */
+	private String gradeMCSequentially(MCStage stage, MCSubmission submission) {
+		boolean correct;
+		try {
+			EvaluatorExpression correctExpression = MCStageBusiness.getCorrectExpression(stage);
+			correct = JackStringUtils.isBlank(correctExpression.getCode())
+					|| calculatorBusiness.calculateToBoolean(correctExpression, maps);
+
+			int correctTicks = 0;
+			int incorrectTicks = 0;
+			char[] tickedOptions = submission.getTickedPattern().toCharArray();
+			for (int i = 0; i < tickedOptions.length; i++) {
+				if (tickedOptions[i] == '1') {
+					MCAnswer answer = stage.getAnswerOptions().get(i);
+					if (answer.getRule() == EMCRuleType.CORRECT) {
+						correctTicks++;
+					} else if (answer.getRule() == EMCRuleType.VARIABLE) {
+						EvaluatorExpression expression = new EvaluatorExpression(
+								PlaceholderPatternProducer.forExerciseVariable(answer.getVariableName()));
+						if (calculatorBusiness.calculateToBoolean(expression, maps)) {
+							correctTicks++;
+						} else {
+							incorrectTicks++;
+						}
+					} else if (answer.getRule() == EMCRuleType.WRONG) {
+						incorrectTicks++;
+					}
+				}
+			}
+			submission.setCorrectTicks(correctTicks);
+			submission.setIncorrectTicks(incorrectTicks);
+		} catch (InternalErrorEvaluatorException e) {
+			return "error in correct answer";
+		}
+		if (correct) {
+			return describeMCGrading(true, submission, List.of());
+		}
+
+		List<Integer> matchingFeedbacks = new ArrayList<>();
+		try {
+			for (int i = 0; i < stage.getExtraFeedbacks().size(); i++) {
+				MCFeedback feedback = stage.getExtraFeedbacks().get(i);
+				if (JackStringUtils.isBlank(feedback.getExpression().getCode())
+						|| calculatorBusiness.calculateToBoolean(feedback.getExpression(), maps)) {
+					EvaluatorExpression condition = feedback.getCondition();
+					if (condition == null || JackStringUtils.isBlank(condition.getCode())
+							|| calculatorBusiness.calculateToBoolean(condition, maps)) {
+						matchingFeedbacks.add(i);
+					}
+				}
+			}
+		} catch (InternalErrorEvaluatorException e) {
+			return "error in extra feedback";
+		}
+		return describeMCGrading(false, submission, matchingFeedbacks);
+	}
+
+	private String gradeMCWithOneRequest(MCStage stage, MCSubmission submission) {
+		CalculatorBooleanResults results = calculatorBusiness
+				.calculateToBooleans(MCStageBusiness.getRuleExpressions(stage, submission), maps);
+		boolean correct;
+		try {
+			correct = MCStageBusiness.isCorrectAnswer(stage, results);
+			MCStageBusiness.countTicks(stage, submission, results);
+		} catch (CalculatorException | InternalErrorEvaluatorException e) {
+			return "error in correct answer";
+		}
+		if (correct) {
+			return describeMCGrading(true, submission, List.of());
+		}
+
+		List<Integer> matchingFeedbacks = new ArrayList<>();
+		try {
+			for (MCFeedback feedback : MCStageBusiness.getMatchingExtraFeedback(stage.getExtraFeedbacks(), results)) {
+				matchingFeedbacks.add(stage.getExtraFeedbacks().indexOf(feedback));
+			}
+		} catch (CalculatorException | InternalErrorEvaluatorException e) {
+			return "error in extra feedback";
+		}
+		return describeMCGrading(false, submission, matchingFeedbacks);
+	}
+
+	@Test
+	void mcGradingEqualsSequentialEvaluation() {
+		for (int trial = 0; trial < TRIALS; trial++) {
+			MCStage stage = createMCStage();
+			MCSubmission submission = createMCSubmission(stage);
+
+			definedResults.clear();
+			defineRandomResults(stage);
+
+			resetEvaluator();
+			String expected = gradeMCSequentially(stage, submission);
+			resetEvaluator();
+			String actual = gradeMCWithOneRequest(stage, submission);
+
+			assertEquals(expected, actual, "Trial " + trial);
+			assertTrue(stub.getRoundTrips() <= 1, "Trial " + trial);
+		}
+	}
+}
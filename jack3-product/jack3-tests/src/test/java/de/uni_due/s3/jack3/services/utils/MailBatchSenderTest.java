@@ -0,0 +1,192 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Provider;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.URLName;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MailBatchSenderTest {
+
+	/**
+	 * In-process stand-in for an SMTP server, registered as the "smtp" transport of the test session. It records the
+	 * recipients of all accepted messages and rejects recipients starting with "rejected". Like the SMTP transport, it
+	 * sends a message to the other recipients and reports them in the exception if only some recipients are rejected.
+	 */
+	public static class SmtpStandIn extends Transport {
+
+		static final List<String> delivered = new ArrayList<>();
+		static int connections;
+		static boolean refuseConnections;
+		/** The connection is closed by the server after this number of messages. */
+		static int messagesPerConnection;
+
+		private int messages;
+
+		public SmtpStandIn(Session session, URLName urlName) {
+			super(session, urlName);
+		}
+
+		static void reset() {
+			delivered.clear();
+			connections = 0;
+			refuseConnections = false;
+			messagesPerConnection = Integer.MAX_VALUE;
+		}
+
+		@Override
+		protected boolean protocolConnect(String host, int port, String user, String password)
+				throws MessagingException {
+			if (refuseConnections) {
+				throw new MessagingException("Connection refused");
+			}
+			connections++;
+			messages = 0;
+			return true;
+		}
+
+		@Override
+		public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+			final List<Address> valid = new ArrayList<>();
+			final List<Address> invalid = new ArrayList<>();
+			for (final Address address : addresses) {
+				(address.toString().startsWith("rejected") ? invalid : valid).add(address);
+			}
+			if (valid.isEmpty()) {
+				throw new SendFailedException("550 Mailbox unavailable");
+			}
+			valid.forEach(address -> delivered.add(address.toString()));
+			if (++messages >= messagesPerConnection) {
+				setConnected(false);
+			}
+			if (!invalid.isEmpty()) {
+				throw new SendFailedException("550 Mailbox unavailable", null, valid.toArray(new Address[0]),
+						new Address[0], invalid.toArray(new Address[0]));
+			}
+		}
+	}
+
+	private Session session;
+
+	@BeforeEach
+	void createSession() {
+		SmtpStandIn.reset();
+		final Properties properties = new Properties();
+		properties.put("mail.transport.protocol", "smtp");
+		session = Session.getInstance(properties);
+		session.addProvider(
+				new Provider(Provider.Type.TRANSPORT, "smtp", SmtpStandIn.class.getName(), "JACK", "1.0"));
+	}
+
+	private byte[] createMessage(String recipient) throws Exception {
+		final MimeMessage message = new MimeMessage(session);
+		message.setFrom(new InternetAddress("jack@example.org"));
+		message.setRecipients(Message.RecipientType.TO, recipient);
+		message.setSubject("Test");
+		message.setText("Hello " + recipient);
+		message.saveChanges();
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		message.writeTo(bytes);
+		return bytes.toByteArray();
+	}
+
+	private List<byte[]> createMessages(String... recipients) throws Exception {
+		final List<byte[]> messages = new ArrayList<>();
+		for (final String recipient : recipients) {
+			messages.add(createMessage(recipient));
+		}
+		return messages;
+	}
+
+	@Test
+	void sendsAllMessagesOverOneConnection() throws Exception {
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session)
+				.send(createMessages("a@example.org", "b@example.org", "c@example.org"));
+
+		assertTrue(failures.isEmpty());
+		assertEquals(1, SmtpStandIn.connections);
+		assertEquals(List.of("a@example.org", "b@example.org", "c@example.org"), SmtpStandIn.delivered);
+	}
+
+	@Test
+	void rejectedMessageDoesNotAffectOtherMessages() throws Exception {
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session)
+				.send(createMessages("a@example.org", "rejected@example.org", "c@example.org"));
+
+		assertEquals(1, failures.size());
+		assertTrue(failures.get(1) instanceof SendFailedException);
+		assertEquals(List.of("a@example.org", "c@example.org"), SmtpStandIn.delivered);
+		assertEquals(1, SmtpStandIn.connections);
+	}
+
+	@Test
+	void sendsMessageOnlyToGivenRecipients() throws Exception {
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session).send(
+				createMessages("a@example.org, b@example.org, c@example.org", "d@example.org"),
+				Arrays.asList("b@example.org, c@example.org", null));
+
+		assertTrue(failures.isEmpty());
+		assertEquals(List.of("b@example.org", "c@example.org", "d@example.org"), SmtpStandIn.delivered);
+	}
+
+	@Test
+	void partiallyRejectedMessageReportsRecipientsThatHaveReceivedIt() throws Exception {
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session)
+				.send(createMessages("a@example.org, rejected@example.org"));
+
+		assertEquals(List.of("a@example.org"), SmtpStandIn.delivered);
+		final SendFailedException failure = (SendFailedException) failures.get(0);
+		assertArrayEquals(InternetAddress.parse("a@example.org"), failure.getValidSentAddresses());
+		assertArrayEquals(InternetAddress.parse("rejected@example.org"), failure.getInvalidAddresses());
+	}
+
+	@Test
+	void reconnectsAfterServerClosedConnection() throws Exception {
+		SmtpStandIn.messagesPerConnection = 2;
+
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session)
+				.send(createMessages("a@example.org", "b@example.org", "c@example.org", "d@example.org",
+						"e@example.org"));
+
+		assertTrue(failures.isEmpty());
+		assertEquals(5, SmtpStandIn.delivered.size());
+		assertEquals(3, SmtpStandIn.connections);
+	}
+
+	@Test
+	void failsAllMessagesIfConnectionIsRefused() throws Exception {
+		SmtpStandIn.refuseConnections = true;
+
+		final Map<Integer, MessagingException> failures = new MailBatchSender(session)
+				.send(createMessages("a@example.org", "b@example.org"));
+
+		assertEquals(2, failures.size());
+		assertEquals("Connection refused", failures.get(0).getMessage());
+		assertTrue(SmtpStandIn.delivered.isEmpty());
+	}
+
+	@Test
+	void doesNotConnectWithoutMessages() throws Exception {
+		assertTrue(new MailBatchSender(session).send(List.of()).isEmpty());
+		assertEquals(0, SmtpStandIn.connections);
+	}
+}
@@ -0,0 +1,60 @@
+package de.uni_due.s3.jack3.services.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class QueryCounterTest {
+
+	@AfterEach
+	void stopCounting() {
+		QueryCounter.stop();
+	}
+
+	@Test
+	void countsStatementsAndEntities() {
+		QueryCounter.start();
+		QueryCounter.countStatement("select s1_0.id from Submission s1_0 where s1_0.id=?");
+		QueryCounter.countStatement("select s1_0.id, s1_0.REV from Submission_AUD s1_0 where s1_0.id=?");
+		QueryCounter.countStatement("insert into REVINFO (REVTSTMP, REV) values (?, ?)");
+		QueryCounter.countEntityLoad();
+		QueryCounter.countEntityLoad();
+
+		final QueryCounter.Counts counts = QueryCounter.stop();
+
+		assertEquals(3, counts.getStatements());
+		assertEquals(2, counts.getAuditStatements());
+		assertEquals(2, counts.getEntitiesLoaded());
+	}
+
+	@Test
+	void doesNotCountWithoutStart() {
+		QueryCounter.countStatement("select 1");
+		QueryCounter.countEntityLoad();
+
+		final QueryCounter.Counts counts = QueryCounter.stop();
+
+		assertEquals(0, counts.getStatements());
+		assertEquals(0, counts.getEntitiesLoaded());
+	}
+
+	@Test
+	void startDiscardsPreviousCounts() {
+		QueryCounter.start();
+		QueryCounter.countStatement("select 1");
+		QueryCounter.start();
+
+		assertEquals(0, QueryCounter.stop().getStatements());
+	}
+
+	@Test
+	void countsAreThreadLocal() throws InterruptedException {
+		QueryCounter.start();
+		final Thread other = new Thread(() -> QueryCounter.countStatement("select 1"));
+		other.start();
+		other.join();
+
+		assertEquals(0, QueryCounter.stop().getStatements());
+	}
+}
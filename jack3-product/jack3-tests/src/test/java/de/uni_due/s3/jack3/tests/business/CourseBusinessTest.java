@@ -212,6 +212,29 @@ class CourseBusinessTest extends AbstractBusinessTest {
 		assertEquals(1, record2.getExercises().size());
 	}
 
+	/**
+	 * Tests drawing exercises from subfolders of a folder exercise provider. Exercises that are moved into the folder
+	 * must be drawn afterwards.
+	 */
+	@Test
+	void testCourseRecordWithExercisesFromSubfolders() throws ActionNotAllowedException {
+		ContentFolder parent = folderBusiness.createContentFolder(user, "Parent", folder);
+		ContentFolder subfolder = folderBusiness.createContentFolder(user, "Subfolder", parent);
+		Exercise exercise1 = exerciseBusiness.createExercise("exercise1", user, folder, "de");
+		Exercise exercise2 = exerciseBusiness.createExercise("exercise2", user, subfolder, "de");
+		AbstractCourse course2 = courseBusiness.updateCourse(
+				new CourseBuilder("Course2")
+				.withFolderExerciseProvider(Collections.singletonList(parent)).build());
+
+		CourseRecord record = courseBusiness.createTestCourseRecord(user, course2);
+		assertEquals(Set.of(exercise2), new HashSet<>(record.getExercises()));
+
+		exerciseBusiness.moveExercise(exercise1, subfolder, user);
+
+		CourseRecord record2 = courseBusiness.createTestCourseRecord(user, course2);
+		assertEquals(Set.of(exercise1, exercise2), new HashSet<>(record2.getExercises()));
+	}
+
 	/**
 	 * Tests creating course offers.
 	 *
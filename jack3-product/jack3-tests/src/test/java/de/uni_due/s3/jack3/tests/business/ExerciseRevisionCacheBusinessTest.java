@@ -0,0 +1,121 @@
+package de.uni_due.s3.jack3.tests.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.cache.CacheStats;
+
+import de.uni_due.s3.jack3.business.ExerciseBusiness;
+import de.uni_due.s3.jack3.business.ExerciseRevisionCacheBusiness;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCStage;
+import de.uni_due.s3.jack3.entities.tenant.AbstractExercise;
+import de.uni_due.s3.jack3.entities.tenant.FrozenExercise;
+import de.uni_due.s3.jack3.entities.tenant.Stage;
+import de.uni_due.s3.jack3.entities.tenant.StageTransition;
+import de.uni_due.s3.jack3.entities.tenant.VariableDeclaration;
+import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
+import de.uni_due.s3.jack3.tests.annotations.NeedsExercise;
+import de.uni_due.s3.jack3.tests.utils.AbstractContentTest;
+
+@NeedsExercise
+class ExerciseRevisionCacheBusinessTest extends AbstractContentTest {
+
+	@Inject
+	private ExerciseBusiness exerciseBusiness;
+
+	@Inject
+	private ExerciseRevisionCacheBusiness exerciseRevisionCacheBusiness;
+
+	@BeforeEach
+	void prepareExercise() {
+		exerciseRevisionCacheBusiness.clearCache();
+
+		MCStage first = new MCStage();
+		first.setInternalName("first");
+		MCStage second = new MCStage();
+		second.setInternalName("second");
+		first.addStageTransition(new StageTransition(second));
+
+		exercise.setName("Original");
+		exercise.addStage(first);
+		exercise.addStage(second);
+		exercise.setStartStage(first);
+		exercise.addVariable(new VariableDeclaration("x"));
+		exercise = baseService.merge(exercise);
+	}
+
+	private int getLatestRevision() {
+		final List<Integer> revisions = exerciseBusiness.getRevisionNumbersFor(exercise);
+		return revisions.get(revisions.size() - 1);
+	}
+
+	@Test
+	void frozenExerciseIsLoadedOnce() {
+		exerciseBusiness.createFrozenExercise(exercise, getLatestRevision());
+		final long frozenId = exerciseBusiness.getFrozenRevisionsForExercise(exercise).get(0).getId();
+		final CacheStats before = exerciseRevisionCacheBusiness.getCacheStatistics();
+
+		final FrozenExercise loaded = exerciseRevisionCacheBusiness.getFrozenExercise(frozenId);
+		final FrozenExercise cached = exerciseRevisionCacheBusiness.getFrozenExercise(frozenId);
+
+		assertSame(loaded, cached);
+		final CacheStats stats = exerciseRevisionCacheBusiness.getCacheStatistics().minus(before);
+		assertEquals(1, stats.missCount());
+		assertEquals(1, stats.hitCount());
+		assertEquals(1, exerciseRevisionCacheBusiness.getCacheSize());
+		assertObjectGraphIsInitialized(cached);
+	}
+
+	@Test
+	void revisionIsNotAffectedByLaterChanges() {
+		final int revision = getLatestRevision();
+		final AbstractExercise loaded = exerciseRevisionCacheBusiness.getExerciseRevision(exercise.getId(), revision);
+
+		exercise.setName("Changed");
+		exercise = baseService.merge(exercise);
+
+		final AbstractExercise cached = exerciseRevisionCacheBusiness.getExerciseRevision(exercise.getId(), revision);
+		assertSame(loaded, cached);
+		assertEquals("Original", cached.getName());
+		assertObjectGraphIsInitialized(cached);
+
+		final AbstractExercise latest = exerciseRevisionCacheBusiness.getExerciseRevision(exercise.getId(),
+				getLatestRevision());
+		assertEquals("Changed", latest.getName());
+		assertEquals(2, exerciseRevisionCacheBusiness.getCacheSize());
+	}
+
+	@Test
+	void missingExerciseIsNotCached() {
+		final long exerciseId = exercise.getId();
+		final int revision = getLatestRevision();
+		assertThrows(NoSuchJackEntityException.class,
+				() -> exerciseRevisionCacheBusiness.getExerciseRevision(-1, revision));
+		// A regular exercise is not a frozen exercise
+		assertThrows(NoSuchJackEntityException.class,
+				() -> exerciseRevisionCacheBusiness.getFrozenExercise(exerciseId));
+		assertEquals(0, exerciseRevisionCacheBusiness.getCacheSize());
+	}
+
+	/**
+	 * The cached exercise is detached, so accessing an uninitialized collection would throw a
+	 * LazyInitializationException.
+	 */
+	private static void assertObjectGraphIsInitialized(AbstractExercise exercise) {
+		assertEquals(2, exercise.getStages().size());
+		assertEquals(1, exercise.getVariableDeclarations().size());
+		final Stage first = exercise.getStagesAsList().stream()
+				.filter(stage -> "first".equals(stage.getInternalName()))
+				.findAny()
+				.orElseThrow();
+		assertEquals("second", first.getStageTransitions().get(0).getTarget().getInternalName());
+	}
+}
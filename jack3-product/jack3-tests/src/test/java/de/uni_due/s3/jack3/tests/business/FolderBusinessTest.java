@@ -20,6 +20,8 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import de.uni_due.s3.jack3.business.AuthorizationBusiness;
+import de.uni_due.s3.jack3.business.CourseBusiness;
+import de.uni_due.s3.jack3.business.ExerciseBusiness;
 import de.uni_due.s3.jack3.business.FolderBusiness;
 import de.uni_due.s3.jack3.business.UserBusiness;
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
@@ -49,6 +51,12 @@ class FolderBusinessTest extends AbstractBusinessTest {
 	@Inject
 	private AuthorizationBusiness authorizationBusiness;
 
+	@Inject
+	private CourseBusiness courseBusiness;
+
+	@Inject
+	private ExerciseBusiness exerciseBusiness;
+
 	private User admin;
 
 	private final AccessRight READ = AccessRight.getFromFlags(AccessRight.READ);
@@ -166,6 +174,22 @@ class FolderBusinessTest extends AbstractBusinessTest {
 		assertFalse(getFolderLazyData(admin.getPersonalFolder()).getChildrenFolder().contains(folder));
 	}
 
+	@Test
+	void deleteFolderWithSubfolders() throws ActionNotAllowedException {
+		ContentFolder folder = folderBusiness.createContentFolder(admin, "Content Folder", admin.getPersonalFolder());
+		ContentFolder child = folderBusiness.createContentFolder(admin, "Child", folder);
+		ContentFolder grandChild1 = folderBusiness.createContentFolder(admin, "Grand Child 1", child);
+		ContentFolder grandChild2 = folderBusiness.createContentFolder(admin, "Grand Child 2", child);
+
+		assertTrue(folderBusiness.isContentFolderDeletable(folder, admin));
+		folderBusiness.deleteFolder(admin, folder);
+
+		assertFalse(getFolderLazyData(admin.getPersonalFolder()).getChildrenFolder().contains(folder));
+		for (ContentFolder deleted : Arrays.asList(folder, child, grandChild1, grandChild2)) {
+			assertTrue(folderBusiness.getContentFolderById(deleted.getId()).isEmpty());
+		}
+	}
+
 	@Test
 	void getFolderWithManagingRights1() throws ActionNotAllowedException {
 		ContentFolder contentFolder = folderBusiness.createContentFolder(admin, "Content Folder", admin.getPersonalFolder());
@@ -639,6 +663,19 @@ class FolderBusinessTest extends AbstractBusinessTest {
 		map.replaceAll((c, f) -> baseService.findById(PresentationFolder.class, f.getId(), false).orElseThrow());
 	}
 
+	@Test
+	void getAllChildPresentationFolders() {
+		final var folders = mapNameToFolder(createHierarchyForLinkedCourseTest());
+
+		assertEqualsEntityListUnordered(Arrays.asList(folders.get('C'), folders.get('D')),
+				folderBusiness.getAllChildPresentationFolders(folders.get('A'), false));
+		assertEqualsEntityListUnordered(Arrays.asList(folders.get('B'), folders.get('E'), folders.get('F')),
+				folderBusiness.getAllChildPresentationFolders(folders.get('B'), true));
+		assertEqualsEntityListUnordered(List.copyOf(folders.values()),
+				folderBusiness.getAllChildPresentationFolders(folders.get(null), true));
+		assertTrue(folderBusiness.getAllChildFolders(folders.get('E'), false).isEmpty());
+	}
+
 	@Test
 	void switchLinkedCourse() throws Exception {
 		final var root = createHierarchyForLinkedCourseTest();
@@ -734,4 +771,23 @@ class FolderBusinessTest extends AbstractBusinessTest {
 		assertFalse(folderBusiness.hasInheritedLinkedCourses(folders.get('F')));
 	}
 
+	@Test
+	void getNumberOfContentsByFolderId() throws Exception {
+		ContentFolder folder1 = folderBusiness.createContentFolder(admin, "Content Folder 1", admin.getPersonalFolder());
+		ContentFolder folder2 = folderBusiness.createContentFolder(admin, "Content Folder 2", admin.getPersonalFolder());
+		ContentFolder emptyFolder = folderBusiness.createContentFolder(admin, "Empty Folder", admin.getPersonalFolder());
+
+		courseBusiness.createCourse("Course 1", admin, folder1);
+		exerciseBusiness.createExercise("Exercise 1", admin, folder1, "de");
+		exerciseBusiness.createExercise("Exercise 2", admin, folder1, "de");
+		exerciseBusiness.createExercise("Exercise 3", admin, folder2, "de");
+
+		Map<Long, Long> numberOfContents = folderBusiness
+				.getNumberOfContentsByFolderId(Arrays.asList(folder1, folder2, emptyFolder));
+		assertEquals(2, numberOfContents.size());
+		assertEquals(3L, numberOfContents.get(folder1.getId()));
+		assertEquals(1L, numberOfContents.get(folder2.getId()));
+		assertNull(numberOfContents.get(emptyFolder.getId()));
+	}
+
 }
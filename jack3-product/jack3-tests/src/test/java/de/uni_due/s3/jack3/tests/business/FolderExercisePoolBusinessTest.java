@@ -0,0 +1,117 @@
+package de.uni_due.s3.jack3.tests.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.ExerciseBusiness;
+import de.uni_due.s3.jack3.business.FolderBusiness;
+import de.uni_due.s3.jack3.business.FolderExercisePoolBusiness;
+import de.uni_due.s3.jack3.business.UserBusiness;
+import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
+import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
+import de.uni_due.s3.jack3.entities.tenant.Exercise;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.tests.utils.AbstractBusinessTest;
+import de.uni_due.s3.jack3.tests.utils.TestDataFactory;
+
+/**
+ * Tests that the exercise pools of a folder and its ancestors are updated when the content tree is changed, while the
+ * pools are kept between the changes.
+ */
+class FolderExercisePoolBusinessTest extends AbstractBusinessTest {
+
+	@Inject
+	private UserBusiness userBusiness;
+
+	@Inject
+	private FolderBusiness folderBusiness;
+
+	@Inject
+	private ExerciseBusiness exerciseBusiness;
+
+	@Inject
+	private FolderExercisePoolBusiness folderExercisePoolBusiness;
+
+	private User lecturer;
+
+	private ContentFolder personalFolder;
+	private ContentFolder parent;
+	private ContentFolder child;
+	private ContentFolder other;
+
+	@BeforeEach
+	void prepareFolders() throws ActionNotAllowedException {
+		folderExercisePoolBusiness.clearPools();
+		lecturer = userBusiness.createUser("lecturer", "secret", "lecturer@foo.bar", false, true);
+		personalFolder = lecturer.getPersonalFolder();
+		parent = folderBusiness.createContentFolder(lecturer, "Parent", personalFolder);
+		child = folderBusiness.createContentFolder(lecturer, "Child", parent);
+		other = folderBusiness.createContentFolder(lecturer, "Other", personalFolder);
+	}
+
+	private Exercise createExercise(ContentFolder folder) throws ActionNotAllowedException {
+		return exerciseBusiness.createExercise("Exercise", lecturer, folder, TestDataFactory.getDefaultLanguage());
+	}
+
+	private List<Long> getExerciseIds(ContentFolder folder) {
+		return folderExercisePoolBusiness.getExerciseIds(folder);
+	}
+
+	@Test
+	void exerciseIsAddedToPoolsOfAncestors() throws ActionNotAllowedException {
+		assertTrue(getExerciseIds(personalFolder).isEmpty());
+		assertTrue(getExerciseIds(parent).isEmpty());
+		assertTrue(getExerciseIds(other).isEmpty());
+
+		final Exercise exercise = createExercise(child);
+
+		assertEquals(List.of(exercise.getId()), getExerciseIds(child));
+		assertEquals(List.of(exercise.getId()), getExerciseIds(parent));
+		assertEquals(List.of(exercise.getId()), getExerciseIds(personalFolder));
+		assertTrue(getExerciseIds(other).isEmpty());
+	}
+
+	@Test
+	void movedExerciseIsRemovedFromOldPools() throws ActionNotAllowedException {
+		final Exercise exercise = createExercise(child);
+		assertEquals(List.of(exercise.getId()), getExerciseIds(parent));
+		assertTrue(getExerciseIds(other).isEmpty());
+
+		exerciseBusiness.moveExercise(exercise, other, lecturer);
+
+		assertTrue(getExerciseIds(child).isEmpty());
+		assertTrue(getExerciseIds(parent).isEmpty());
+		assertEquals(List.of(exercise.getId()), getExerciseIds(other));
+		assertEquals(List.of(exercise.getId()), getExerciseIds(personalFolder));
+	}
+
+	@Test
+	void deletedExerciseIsRemovedFromPools() throws ActionNotAllowedException {
+		final Exercise exercise = createExercise(child);
+		assertEquals(List.of(exercise.getId()), getExerciseIds(personalFolder));
+
+		exerciseBusiness.deleteExercise(exercise, lecturer);
+
+		assertTrue(getExerciseIds(child).isEmpty());
+		assertTrue(getExerciseIds(personalFolder).isEmpty());
+	}
+
+	@Test
+	void movedFolderIsRemovedFromOldPools() throws ActionNotAllowedException {
+		final Exercise exercise = createExercise(child);
+		assertEquals(List.of(exercise.getId()), getExerciseIds(parent));
+		assertTrue(getExerciseIds(other).isEmpty());
+
+		folderBusiness.moveContentFolder(lecturer, child, other);
+
+		assertTrue(getExerciseIds(parent).isEmpty());
+		assertEquals(List.of(exercise.getId()), getExerciseIds(other));
+	}
+}
@@ -0,0 +1,86 @@
+package de.uni_due.s3.jack3.tests.business;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack.dto.generated.BackendResultData.BackendResult;
+import de.uni_due.s3.jack.dto.generated.JobMetaInformation.JobMetaInfo;
+import de.uni_due.s3.jack3.business.ExerciseBusiness;
+import de.uni_due.s3.jack3.business.messaging.MessageBusiness;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCStage;
+import de.uni_due.s3.jack3.entities.stagetypes.mc.MCSubmission;
+import de.uni_due.s3.jack3.entities.tenant.Job;
+import de.uni_due.s3.jack3.entities.tenant.StageSubmission;
+import de.uni_due.s3.jack3.entities.tenant.Submission;
+import de.uni_due.s3.jack3.services.JobService;
+import de.uni_due.s3.jack3.services.StageSubmissionService;
+import de.uni_due.s3.jack3.tests.annotations.NeedsExercise;
+import de.uni_due.s3.jack3.tests.utils.AbstractContentTest;
+
+@NeedsExercise
+class MessageBusinessTest extends AbstractContentTest {
+
+	@Inject
+	private MessageBusiness messageBusiness;
+
+	@Inject
+	private ExerciseBusiness exerciseBusiness;
+
+	@Inject
+	private StageSubmissionService stageSubmissionService;
+
+	@Inject
+	private JobService jobService;
+
+	private Submission submission;
+
+	private Job job;
+
+	@BeforeEach
+	void createJob() {
+		exercise.addStage(new MCStage());
+		exercise = baseService.merge(exercise);
+
+		submission = exerciseBusiness.createSubmission(exercise, user, true);
+		StageSubmission stageSubmission = new MCSubmission();
+		stageSubmission.setStageId(exercise.getStagesAsList().get(0).getId());
+		stageSubmissionService.persistStageSubmission(stageSubmission);
+
+		// The stage business of this job does not exist, so processing its result would fail
+		job = new Job(submission, stageSubmission, "NotExisting", "checker");
+		job.setStarted();
+		baseService.persist(job);
+	}
+
+	private static BackendResult resultFor(Job job) {
+		return BackendResult.newBuilder() //
+				.setJobMetaInfo(JobMetaInfo.newBuilder().setJobId(job.getId())) //
+				.build();
+	}
+
+	@Test
+	void resultOfFinishedJobIsIgnored() {
+		job.setFinished();
+		baseService.merge(job);
+		final LocalDateTime finishedAt = jobService.getJobWithSubmissionsById(job.getId()).orElseThrow()
+				.getFinishedAt();
+
+		// Kafka may deliver the same result again, e.g. after the consumer has been restarted
+		messageBusiness.handleIncomingCheckerResult(resultFor(job));
+
+		final Job reloaded = jobService.getJobWithSubmissionsById(job.getId()).orElseThrow();
+		assertEquals(finishedAt, reloaded.getFinishedAt());
+	}
+
+	@Test
+	void resultsAreDispatchedBySubmissionWithoutCourseRecord() {
+		assertEquals(Optional.of(submission.getId()), jobService.getCourseRecordOrSubmissionIdForJob(job.getId()));
+	}
+}
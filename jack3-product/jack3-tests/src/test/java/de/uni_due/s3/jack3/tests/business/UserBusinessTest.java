@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 import javax.security.auth.login.CredentialException;
@@ -16,15 +17,19 @@ import javax.security.auth.login.CredentialException;
 import org.junit.jupiter.api.Test;
 
 import de.uni_due.s3.jack3.business.BcryptBusiness;
+import de.uni_due.s3.jack3.business.ConfigurationBusiness;
 import de.uni_due.s3.jack3.business.FolderBusiness;
 import de.uni_due.s3.jack3.business.UserBusiness;
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
+import de.uni_due.s3.jack3.business.helpers.PublicUserName;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
 import de.uni_due.s3.jack3.entities.tenant.Folder;
 import de.uni_due.s3.jack3.entities.tenant.Password;
+import de.uni_due.s3.jack3.entities.tenant.TextProfileField;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.entities.tenant.UserGroup;
+import de.uni_due.s3.jack3.services.ProfileFieldService;
 import de.uni_due.s3.jack3.tests.utils.AbstractBusinessTest;
 
 class UserBusinessTest extends AbstractBusinessTest {
@@ -38,6 +43,12 @@ class UserBusinessTest extends AbstractBusinessTest {
 	@Inject
 	private FolderBusiness folderBusiness;
 
+	@Inject
+	private ConfigurationBusiness configurationBusiness;
+
+	@Inject
+	private ProfileFieldService profileFieldService;
+
 	/**
 	 * Creates and persists a user
 	 */
@@ -411,4 +422,44 @@ class UserBusinessTest extends AbstractBusinessTest {
 		assertFalse(userBusiness.getUserGroupsForUser(user).contains(group));
 		assertFalse(userBusiness.getAllUsersForUserGroup(group).contains(user));
 	}
+
+	/**
+	 * Tests that public user names are constructed from the configured patterns and that
+	 * {@link UserBusiness#getPublicUserNames(java.util.Collection, User, Folder)} returns the same names as
+	 * {@link UserBusiness#getPublicUserName(User, User, Folder)}
+	 */
+	@Test
+	void getPublicUserNames() {
+		TextProfileField firstName = new TextProfileField();
+		firstName.setName("firstname");
+		firstName = profileFieldService.persistProfileField(firstName);
+		configurationBusiness.addNewConfig("publicUserName",
+				ConfigurationBusiness.serializeStringListToJson(List.of("[firstname]", "[loginname] <[email]>")));
+		configurationBusiness.clearCache();
+
+		User lecturer = createUser("Lecturer", false, true);
+		User student = createUser("Student", false, false);
+		User alice = createUser("Alice", false, false);
+		alice.putProfileField(firstName, "Alice");
+		alice = userBusiness.updateUser(alice);
+		User bob = createUser("Bob", false, false);
+		Folder folder = lecturer.getPersonalFolder();
+		List<User> users = List.of(lecturer, alice, bob);
+
+		Map<Long, PublicUserName> names = userBusiness.getPublicUserNames(users, lecturer, folder);
+		assertEquals(3, names.size());
+		assertEquals(PublicUserName.of("lecturer"), names.get(lecturer.getId()));
+		assertEquals(PublicUserName.of("Alice"), names.get(alice.getId()));
+		assertEquals(PublicUserName.of("bob <bob@foobar.com>"), names.get(bob.getId()));
+
+		// Users without rights on the folder only see pseudonyms
+		Map<Long, PublicUserName> pseudonyms = userBusiness.getPublicUserNames(users, student, folder);
+		assertEquals(PublicUserName.ofPseudonym(alice.getPseudonym()), pseudonyms.get(alice.getId()));
+		assertEquals(PublicUserName.ofPseudonym(lecturer.getPseudonym()), pseudonyms.get(lecturer.getId()));
+
+		for (User user : users) {
+			assertEquals(names.get(user.getId()), userBusiness.getPublicUserName(user, lecturer, folder));
+			assertEquals(pseudonyms.get(user.getId()), userBusiness.getPublicUserName(user, student, folder));
+		}
+	}
 }
@@ -0,0 +1,196 @@
+package de.uni_due.s3.jack3.tests.business.enrollment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.control.RequestContextController;
+import javax.enterprise.inject.spi.CDI;
+import javax.mail.MessagingException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.uni_due.s3.jack3.business.exceptions.EnrollmentException;
+import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
+import de.uni_due.s3.jack3.entities.tenant.Enrollment;
+import de.uni_due.s3.jack3.entities.tenant.User;
+import de.uni_due.s3.jack3.tests.utils.TestDataFactory;
+
+/**
+ * Lets many students enroll in a course offer with a participant limit at the same time, e.g. when the enrollment of
+ * a popular course starts.
+ */
+class ConcurrentEnrollmentTest extends AbstractEnrollmentBusinessTest {
+
+	private static final int PLACES = 50;
+	private static final int STUDENTS = 1000;
+	private static final int THREADS = 32;
+
+	private ExecutorService executor;
+
+	private List<User> students;
+
+	@Override
+	@BeforeEach
+	protected void beforeTest() {
+		super.beforeTest();
+		offer.setExplicitEnrollment(true);
+		offer.setMaxAllowedParticipants(PLACES);
+		offer = baseService.merge(offer);
+
+		students = new ArrayList<>(STUDENTS);
+		for (int i = 0; i < STUDENTS; i++) {
+			final User student = TestDataFactory.getUser("student" + i, false, false);
+			// Users who move up would get a mail, which needs a faces context
+			student.setEmail(null);
+			baseService.persist(student);
+			students.add(student);
+		}
+		executor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@AfterEach
+	void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@FunctionalInterface
+	private interface EnrollmentAction {
+		void perform(User student) throws Exception;
+	}
+
+	/**
+	 * Performs the action for all students in parallel. Each action runs in its own request like a request of a
+	 * student.
+	 *
+	 * @return The exceptions thrown by the actions, by login name
+	 */
+	private Map<String, Exception> performConcurrently(EnrollmentAction action) throws Exception {
+		final Map<String, Exception> failures = new ConcurrentHashMap<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Future<?>> futures = new ArrayList<>(STUDENTS);
+		for (final User student : students) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				final RequestContextController requestContext = CDI.current()
+						.select(RequestContextController.class)
+						.get();
+				requestContext.activate();
+				try {
+					action.perform(student);
+				} catch (Exception e) {
+					failures.put(student.getLoginName(), e);
+				} finally {
+					requestContext.deactivate();
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (final Future<?> future : futures) {
+			future.get();
+		}
+		return failures;
+	}
+
+	private long countEnrollmentRows(EEnrollmentStatus status) {
+		return queryResultList("SELECT e FROM Enrollment e WHERE e.status = de.uni_due.s3.jack3.entities.enums."
+				+ "EEnrollmentStatus." + status.name(), Enrollment.class).size();
+	}
+
+	private static boolean isCourseFull(Exception e) {
+		return e instanceof EnrollmentException
+				&& ((EnrollmentException) e).getType() == EnrollmentException.EType.COURSE_IS_FULL;
+	}
+
+	@Test
+	void enrollConcurrentlyWithoutOverbooking() throws Exception {
+		final Map<String, Exception> failures = performConcurrently(
+				student -> enrollmentBusiness.enrollUser(student, offer));
+
+		assertEquals(STUDENTS - PLACES, failures.size());
+		assertTrue(failures.values().stream().allMatch(ConcurrentEnrollmentTest::isCourseFull),
+				() -> "Unexpected failures: " + failures.values());
+		assertEquals(PLACES, countEnrollmentRows(EEnrollmentStatus.ENROLLED));
+		assertEquals(PLACES, enrollmentBusiness.countCurrentEnrollments(offer));
+		assertEquals(0, enrollmentBusiness.getFreePlaces(offer).orElseThrow().longValue());
+	}
+
+	@Test
+	void disenrollConcurrently() throws Exception {
+		performConcurrently(student -> enrollmentBusiness.enrollUser(student, offer));
+		final List<User> enrolled = enrollmentBusiness.getCurrentEnrollments(offer)
+				.stream()
+				.map(Enrollment::getUser)
+				.collect(Collectors.toList());
+		students = enrolled.subList(0, PLACES / 2);
+
+		final Map<String, Exception> failures = performConcurrently(
+				student -> enrollmentBusiness.disenrollUser(student, offer));
+
+		assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures.values());
+		assertEquals(PLACES - PLACES / 2, countEnrollmentRows(EEnrollmentStatus.ENROLLED));
+		assertEquals(PLACES - PLACES / 2, enrollmentBusiness.countCurrentEnrollments(offer));
+		assertEquals(PLACES / 2, enrollmentBusiness.getFreePlaces(offer).orElseThrow().longValue());
+	}
+
+	@Test
+	void waitingListKeepsOrderOfConcurrentJoins() throws Exception {
+		offer.setEnableWaitingList(true);
+		offer = baseService.merge(offer);
+
+		// The students enroll concurrently, but join the waiting list one after another, so the order of the waiting
+		// list is known independently of the order the business uses
+		final List<User> joinOrder = new ArrayList<>(STUDENTS - PLACES);
+		final Map<String, Exception> failures = performConcurrently(student -> {
+			try {
+				enrollmentBusiness.enrollUser(student, offer);
+			} catch (EnrollmentException e) {
+				if (!isCourseFull(e)) {
+					throw e;
+				}
+				synchronized (joinOrder) {
+					enrollmentBusiness.joinWaitingList(student, offer);
+					joinOrder.add(student);
+				}
+			}
+		});
+
+		assertTrue(failures.isEmpty(), () -> "Unexpected failures: " + failures.values());
+		assertEquals(PLACES, enrollmentBusiness.countCurrentEnrollments(offer));
+		assertEquals(STUDENTS - PLACES, joinOrder.size());
+		assertEquals(joinOrder, enrollmentBusiness.getWaitingList(offer)
+				.stream()
+				.map(Enrollment::getUser)
+				.collect(Collectors.toList()));
+
+		// The users who have joined the waiting list first move up when the limit is raised
+		final int additionalPlaces = 20;
+		offer.setMaxAllowedParticipants(PLACES + additionalPlaces);
+		offer = baseService.merge(offer);
+		try {
+			enrollmentBusiness.moveUpUsersAfterSaving(offer, lecturer);
+		} catch (MessagingException e) {
+			// The students have no mail address
+		}
+
+		for (int i = 0; i < joinOrder.size(); i++) {
+			final User student = joinOrder.get(i);
+			assertEquals(i < additionalPlaces, enrollmentBusiness.isEnrolled(student, offer), student.getLoginName());
+		}
+		assertEquals(PLACES + additionalPlaces, countEnrollmentRows(EEnrollmentStatus.ENROLLED));
+		assertEquals(PLACES + additionalPlaces, enrollmentBusiness.countCurrentEnrollments(offer));
+		assertEquals(STUDENTS - PLACES - additionalPlaces, enrollmentBusiness.countCurrentWaitinglist(offer));
+	}
+}
@@ -3,6 +3,7 @@ package de.uni_due.s3.jack3.tests.business.stagetypes.fillin;
 import static de.uni_due.s3.jack3.builders.FillInStageBuilder.FILLIN_FIELD_PREFIX;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -471,4 +472,14 @@ class FillInStageBusinessTest extends AbstractBusinessTest {
 					Integer.parseInt(openObject.getOMOBJ().getOMI().getValue()));
 		}
 	}
+
+	@Test
+	void getAttributeValueTest() {
+		String html = "<input name=\"fillInField1\" size=\"5\"/>";
+		assertEquals("fillInField1", stageBusiness.getAttributeValue("name", html));
+		assertEquals("5", stageBusiness.getAttributeValue("size", html));
+		// The cached pattern is used for further elements
+		assertEquals("dropDownField2", stageBusiness.getAttributeValue("name", "<select name=\"dropDownField2\">"));
+		assertNull(stageBusiness.getAttributeValue("name", "<input size=\"5\"/>"));
+	}
 }
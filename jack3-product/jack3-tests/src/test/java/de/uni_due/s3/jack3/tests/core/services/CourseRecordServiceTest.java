@@ -9,11 +9,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.Test;
 
+import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
 import de.uni_due.s3.jack3.entities.tenant.User;
@@ -187,6 +190,56 @@ class CourseRecordServiceTest extends AbstractContentTest {
 													.orElseThrow(AssertionError::new));
 	}
 
+	/**
+	 * Tests paging through the course record IDs of a course offer and loading them in chunks
+	 */
+	@Test
+	void getCourseRecordIdsForCourseOfferInChunks() {
+
+		assertTrue(recordService.getCourseRecordIdsForCourseOffer(offer, 0, 2).isEmpty());
+		List<CourseRecord> records = createRecords(5);
+		List<Long> expectedIds = records.stream().map(CourseRecord::getId).sorted().collect(Collectors.toList());
+
+		List<Long> ids = new ArrayList<>();
+		List<Long> page = recordService.getCourseRecordIdsForCourseOffer(offer, 0, 2);
+		while (!page.isEmpty()) {
+			assertTrue(page.size() <= 2);
+			ids.addAll(page);
+			page = recordService.getCourseRecordIdsForCourseOffer(offer, page.get(page.size() - 1), 2);
+		}
+		assertEquals(expectedIds, ids);
+
+		List<CourseRecord> chunk = recordService.getCourseRecordsWithExercisesByIds(ids.subList(1, 4));
+		assertEquals(3, chunk.size());
+		assertTrue(chunk.containsAll(records.stream().filter(record -> ids.subList(1, 4).contains(record.getId()))
+				.collect(Collectors.toList())));
+		assertTrue(recordService.getCourseRecordsWithExercisesByIds(List.of()).isEmpty());
+	}
+
+	/**
+	 * Tests paging through the course records of a course offer with their users
+	 */
+	@Test
+	void getNonTestingCourseRecordsWithUserInPages() {
+
+		assertTrue(recordService.getNonTestingCourseRecordsWithUser(offer, 0, 2).isEmpty());
+		List<CourseRecord> records = createRecords(3);
+		baseService.persist(new CourseRecord(user, course));
+
+		List<CourseRecord> firstPage = recordService.getNonTestingCourseRecordsWithUser(offer, 0, 2);
+		List<CourseRecord> secondPage = recordService.getNonTestingCourseRecordsWithUser(offer,
+				firstPage.get(1).getId(), 2);
+		assertEquals(2, firstPage.size());
+		assertEquals(1, secondPage.size());
+		assertTrue(firstPage.get(0).getId() < firstPage.get(1).getId());
+		assertTrue(firstPage.get(1).getId() < secondPage.get(0).getId());
+
+		List<CourseRecord> all = new ArrayList<>(firstPage);
+		all.addAll(secondPage);
+		assertTrue(all.containsAll(records));
+		assertEquals(user.getLoginName(), secondPage.get(0).getUser().getLoginName());
+	}
+
 	/**
 	 * Tests {@linkplain CourseRecordService#getOpenCourseRecordFor(User, CourseOffer)}
 	 */
@@ -227,4 +280,44 @@ class CourseRecordServiceTest extends AbstractContentTest {
 		assertFalse(recordService.getOpenCourseRecordFor(user, offer).isPresent());
 	}
 
+	/**
+	 * Tests {@linkplain CourseRecordService#getScoreDistributionForCourseOffer(CourseOffer)} and
+	 * {@linkplain CourseRecordService#getScoreDistributionForCourse(Course)}
+	 */
+	@Test
+	void getScoreDistribution() {
+		assertTrue(recordService.getScoreDistributionForCourse((Course) course).isEmpty());
+
+		List<CourseRecord> records = createRecords(3);
+		records.get(0).setResultPoints(50);
+		records.get(1).setResultPoints(50);
+		records.forEach(recordService::mergeCourseRecord);
+		CourseRecord testRecord = new CourseRecord(user, course);
+		testRecord.setResultPoints(100);
+		recordService.persistCourseRecord(testRecord);
+
+		assertEquals(Map.of(0, 1L, 50, 2L), recordService.getScoreDistributionForCourseOffer(offer));
+		// Testing course records are not counted for the course
+		assertEquals(Map.of(0, 1L, 50, 2L), recordService.getScoreDistributionForCourse((Course) course));
+	}
+
+	/**
+	 * Tests {@linkplain CourseRecordService#countCommentsForCourseRecords(Collection)} for course records without
+	 * submissions
+	 */
+	@Test
+	void countCommentsForCourseRecordsWithoutSubmissions() {
+		List<CourseRecord> records = createRecords(2);
+		records.get(0).setCommentsOnSubmissions(5);
+		records.get(0).setUnreadCommentsOnSubmissions(3);
+
+		recordService.countCommentsForCourseRecords(records);
+
+		for (CourseRecord record : records) {
+			assertEquals(0, record.getCommentsOnSubmissions());
+			assertEquals(0, record.getUnreadCommentsOnSubmissions());
+			assertEquals(recordService.countCommentsForCourseRecord(record), record.getCommentsOnSubmissions());
+		}
+	}
+
 }
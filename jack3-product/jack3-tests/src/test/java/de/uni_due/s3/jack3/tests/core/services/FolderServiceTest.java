@@ -369,4 +369,24 @@ class FolderServiceTest extends AbstractBasicTest {
 		assertTrue(folderWithLazyData.getInheritedManagingUserGroups().isEmpty());
 	}
 
+	/**
+	 * Get the IDs of a subtree, other folders must not be included
+	 */
+	@Test
+	void getAllChildFolderIds() {
+		ContentFolder root = TestDataFactory.getContentFolder("Root", null);
+		folderService.persistFolder(root);
+		ContentFolder child = TestDataFactory.getContentFolder("Child", root);
+		folderService.persistFolder(child);
+		ContentFolder grandChild = TestDataFactory.getContentFolder("Grandchild", child);
+		folderService.persistFolder(grandChild);
+		ContentFolder other = TestDataFactory.getContentFolder("Other", null);
+		folderService.persistFolder(other);
+		folderService.persistFolder(TestDataFactory.getContentFolder("Child of other", other));
+
+		assertEquals(Arrays.asList(child.getId(), grandChild.getId()), folderService.getAllChildFolderIds(root));
+		assertEquals(Arrays.asList(grandChild.getId()), folderService.getAllChildFolderIds(child));
+		assertTrue(folderService.getAllChildFolderIds(grandChild).isEmpty());
+	}
+
 }
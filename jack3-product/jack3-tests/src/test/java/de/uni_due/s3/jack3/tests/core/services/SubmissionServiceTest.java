@@ -9,16 +9,19 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.Test;
 
+import de.uni_due.s3.jack3.entities.tenant.Comment;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
 import de.uni_due.s3.jack3.entities.tenant.Exercise;
 import de.uni_due.s3.jack3.entities.tenant.Submission;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.services.SubmissionService;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
 import de.uni_due.s3.jack3.tests.annotations.NeedsCourse;
 import de.uni_due.s3.jack3.tests.annotations.NeedsExercise;
 import de.uni_due.s3.jack3.tests.utils.AbstractContentTest;
@@ -133,6 +136,56 @@ class SubmissionServiceTest extends AbstractContentTest {
 		assertEquals(submissions[0], getSubmissionsFromDB.get(2));
 	}
 
+	/**
+	 * Get submission overviews for exercise page by page, the latest first
+	 */
+	@Test
+	void getSubmissionOverviewsForExerciseAndFrozenVersions() throws Exception {
+
+		Submission[] submissions = createTestSubmissions(false, 100);
+		submissions[1].addComment(new Comment(user, "Comment", false));
+		submissions[1] = submissionService.mergeSubmission(submissions[1]);
+
+		List<SubmissionOverview> firstPage = submissionService
+				.getSubmissionOverviewsForExerciseAndFrozenVersions((Exercise) exercise, false, 0, 2);
+		assertEquals(2, firstPage.size());
+		assertEquals(submissions[2].getId(), firstPage.get(0).getId());
+		assertEquals(submissions[1].getId(), firstPage.get(1).getId());
+		List<SubmissionOverview> secondPage = submissionService
+				.getSubmissionOverviewsForExerciseAndFrozenVersions((Exercise) exercise, false, 2, 2);
+		assertEquals(1, secondPage.size());
+		assertEquals(submissions[0].getId(), secondPage.get(0).getId());
+
+		// The overview contains the data of the submission without loading it
+		SubmissionOverview overview = firstPage.get(1);
+		assertEquals(submissions[1].getAuthor(), overview.getAuthor());
+		assertEquals(exercise.getId(), overview.getExerciseId());
+		assertFalse(overview.isFrozenExercise());
+		assertFalse(overview.hasCourseRecord());
+		assertTrue(overview.hasComments());
+		assertTrue(overview.hasUnreadComments());
+		assertFalse(firstPage.get(0).hasComments());
+		assertEquals(submissions[1].getGroupKey(), overview.getGroupKey());
+	}
+
+	/**
+	 * Count submissions for exercise per revision and without course record
+	 */
+	@Test
+	void countSubmissionsPerRevisionForExercise() throws Exception {
+
+		assertTrue(submissionService.countSubmissionsPerRevisionForExercise((Exercise) exercise).isEmpty());
+
+		Submission[] submissions = createTestSubmissions(false);
+		CourseRecord record = new CourseRecord(user, course);
+		baseService.persist(record);
+		submissionService.persistSubmission(new Submission(user, exercise, record, false));
+
+		assertEquals(Map.of(submissions[0].getShownExerciseRevisionId(), 4L),
+				submissionService.countSubmissionsPerRevisionForExercise((Exercise) exercise));
+		assertEquals(3, submissionService.countSubmissionsWithoutCourseRecordForExercise((Exercise) exercise));
+	}
+
 	/**
 	 * Load submission with lazy data
 	 */
@@ -172,6 +225,91 @@ class SubmissionServiceTest extends AbstractContentTest {
 		assertFalse(submissionService.getLatestSubmissionForCourseRecordAndExercise(record, exercise).isPresent());
 	}
 
+	/**
+	 * Get latest and best points per exercise for course record with one query each
+	 */
+	@Test
+	void getResultPointsByExerciseIdForCourseRecord() {
+
+		CourseRecord record = new CourseRecord(user, course);
+		baseService.persist(record);
+		assertTrue(submissionService.getLatestResultPointsByExerciseId(record).isEmpty());
+		assertTrue(submissionService.getBestResultPointsByExerciseId(record).isEmpty());
+
+		for (int points : new int[] { 40, 90, 60 }) {
+			Submission submission = new Submission(user, exercise, record, false);
+			submission.setResultPoints(points);
+			submissionService.persistSubmission(submission);
+		}
+
+		assertEquals(Map.of(exercise.getId(), 60), submissionService.getLatestResultPointsByExerciseId(record));
+		assertEquals(Map.of(exercise.getId(), 90), submissionService.getBestResultPointsByExerciseId(record));
+
+		// Submissions of other course records are not counted
+		CourseRecord otherRecord = new CourseRecord(user, course);
+		baseService.persist(otherRecord);
+		Submission otherSubmission = new Submission(user, exercise, otherRecord, false);
+		otherSubmission.setResultPoints(100);
+		submissionService.persistSubmission(otherSubmission);
+		assertEquals(Map.of(exercise.getId(), 60), submissionService.getLatestResultPointsByExerciseId(record));
+		assertEquals(Map.of(exercise.getId(), 90), submissionService.getBestResultPointsByExerciseId(record));
+	}
+
+	/**
+	 * Get the points per exercise for several course records at once
+	 */
+	@Test
+	void getResultPointsByCourseRecordId() {
+
+		CourseRecord record = new CourseRecord(user, course);
+		baseService.persist(record);
+		CourseRecord otherRecord = new CourseRecord(user, course);
+		baseService.persist(otherRecord);
+		CourseRecord emptyRecord = new CourseRecord(user, course);
+		baseService.persist(emptyRecord);
+		List<Long> ids = List.of(record.getId(), otherRecord.getId(), emptyRecord.getId());
+		assertTrue(submissionService.getLatestResultPointsByCourseRecordId(List.of()).isEmpty());
+
+		for (int points : new int[] { 40, 90, 60 }) {
+			Submission submission = new Submission(user, exercise, record, false);
+			submission.setResultPoints(points);
+			submissionService.persistSubmission(submission);
+		}
+		Submission otherSubmission = new Submission(user, exercise, otherRecord, false);
+		otherSubmission.setResultPoints(100);
+		submissionService.persistSubmission(otherSubmission);
+
+		assertEquals(Map.of(record.getId(), Map.of(exercise.getId(), 60), otherRecord.getId(),
+				Map.of(exercise.getId(), 100)), submissionService.getLatestResultPointsByCourseRecordId(ids));
+		assertEquals(Map.of(record.getId(), Map.of(exercise.getId(), 90), otherRecord.getId(),
+				Map.of(exercise.getId(), 100)), submissionService.getBestResultPointsByCourseRecordId(ids));
+		// The results match the queries for single course records
+		assertEquals(submissionService.getLatestResultPointsByExerciseId(record),
+				submissionService.getLatestResultPointsByCourseRecordId(List.of(record.getId())).get(record.getId()));
+	}
+
+	/**
+	 * Get the points of the first submission per exercise name for several course records at once
+	 */
+	@Test
+	void getFirstResultPointsByExerciseName() {
+
+		CourseRecord record = new CourseRecord(user, course);
+		baseService.persist(record);
+		CourseRecord otherRecord = new CourseRecord(user, course);
+		baseService.persist(otherRecord);
+		assertTrue(submissionService.getFirstResultPointsByExerciseName(List.of()).isEmpty());
+
+		for (int points : new int[] { 40, 90, 60 }) {
+			Submission submission = new Submission(user, exercise, record, false);
+			submission.setResultPoints(points);
+			submissionService.persistSubmission(submission);
+		}
+
+		assertEquals(Map.of(record.getId(), Map.of(exercise.getName(), 40)),
+				submissionService.getFirstResultPointsByExerciseName(List.of(record.getId(), otherRecord.getId())));
+	}
+
 	/**
 	 * Get all submissions for course record
 	 */
@@ -195,6 +333,27 @@ class SubmissionServiceTest extends AbstractContentTest {
 		assertTrue(getAllSubmissionsFromDB.containsAll(Arrays.asList(submissions)));
 	}
 
+	/**
+	 * Get all submissions for course record with their comments
+	 */
+	@Test
+	void getAllSubmissionsWithCommentsForCourseRecord() {
+
+		CourseRecord record = new CourseRecord(user, course);
+		baseService.persist(record);
+		Submission first = new Submission(user, exercise, record, false);
+		first.addComment(new Comment(user, "Comment", false));
+		submissionService.persistSubmission(first);
+		Submission second = new Submission(user, exercise, record, false);
+		submissionService.persistSubmission(second);
+
+		// The latest submission first, comments are initialized
+		List<Submission> submissions = submissionService.getAllSubmissionsWithCommentsForCourseRecord(record);
+		assertEquals(List.of(second, first), submissions);
+		assertTrue(submissions.get(1).hasComments());
+		assertFalse(submissions.get(0).hasComments());
+	}
+
 	/**
 	 * Tests if 1 user can submit 2 submissions
 	 */
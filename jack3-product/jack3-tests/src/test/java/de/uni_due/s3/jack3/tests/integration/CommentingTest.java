@@ -52,7 +52,7 @@ class CommentingTest extends AbstractContentTest {
 
 		// Mark the comment as read
 		comment.setRead(true);
-		comment = exerciseBusiness.updateComment(comment);
+		comment = exerciseBusiness.updateComment(submission, comment);
 
 		assertEquals("Comment", comment.getText());
 		assertTrue(comment.isRead());
@@ -75,7 +75,7 @@ class CommentingTest extends AbstractContentTest {
 
 		// Mark the comment as read
 		comment.setRead(true);
-		comment = exerciseBusiness.updateComment(comment);
+		comment = exerciseBusiness.updateComment(submission, comment);
 
 		assertEquals(1, courseBusiness.countCommentsForCourseRecord(record));
 		assertEquals(0, courseBusiness.countUnreadCommentsForCourseRecord(record));
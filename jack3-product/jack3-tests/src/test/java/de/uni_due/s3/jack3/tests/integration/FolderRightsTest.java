@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import de.uni_due.s3.jack3.business.AuthorizationBusiness;
+import de.uni_due.s3.jack3.business.UserGroupMembershipBusiness;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
 import de.uni_due.s3.jack3.entities.tenant.User;
@@ -36,6 +37,9 @@ class FolderRightsTest extends AbstractBasicTest {
 	@Inject
 	private AuthorizationBusiness authorizationBusiness;
 
+	@Inject
+	private UserGroupMembershipBusiness userGroupMembershipBusiness;
+
 	/**
 	 * Persist users, groups and folders
 	 */
@@ -49,6 +53,8 @@ class FolderRightsTest extends AbstractBasicTest {
 
 		adminGroup = getUserGroup("Admin Group", admin);
 		editorGroup = getUserGroup("Editors", adminGroup);
+		// The groups are persisted bypassing UserBusiness, so the membership index must be updated here
+		userGroupMembershipBusiness.membershipsChanged();
 
 		persistFolder();
 		folder = folderService	.getFolderWithManagingRights(folder, ContentFolder.class)
@@ -6,6 +6,9 @@ import static de.uni_due.s3.jack3.entities.AccessRight.WRITE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.List;
+import java.util.Map;
+
 import javax.inject.Inject;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -289,6 +292,63 @@ class UserBusinessFolderRightsTest extends AbstractBusinessTest {
 		assertEquals(AccessRight.getFull(), authorizationBusiness.getMaximumRightForUser(user, folder));
 	}
 
+	/**
+	 * Test 12: Rights for a list of folders are looked up at once and reflect later changes of the parent folder
+	 * @throws ActionNotAllowedException
+	 */
+	@Test
+	void getMaximumRightForFolderList() throws ActionNotAllowedException {
+		UserGroup group = getUserGroup("User Group");
+		userBusiness.addUserToUserGroup(user, group);
+		Folder parentFolder = folderBusiness.createContentFolder(owner, "Parent Folder", owner.getPersonalFolder());
+		Folder subFolder1 = folderBusiness.createContentFolder(owner, "Sub Folder 1", parentFolder);
+		Folder subFolder2 = folderBusiness.createContentFolder(owner, "Sub Folder 2", parentFolder);
+		List<Folder> folders = List.of(parentFolder, subFolder1, subFolder2);
+
+		folderBusiness.updateFolderRightsForUser(subFolder1, user, AccessRight.getFromFlags(READ));
+		Map<Folder, AccessRight> rights = authorizationBusiness.getMaximumRightForUser(user, folders);
+		assertEquals(AccessRight.getNone(), rights.get(parentFolder));
+		assertEquals(AccessRight.getFromFlags(READ), rights.get(subFolder1));
+		assertEquals(AccessRight.getNone(), rights.get(subFolder2));
+
+		// The changed rights of the parent folder must be visible in its (already looked up) sub folders
+		folderBusiness.updateFolderRightsForUserGroup(parentFolder, group, AccessRight.getFromFlags(READ, WRITE));
+		rights = authorizationBusiness.getMaximumRightForUser(user, folders);
+		assertEquals(AccessRight.getFromFlags(READ, WRITE), rights.get(parentFolder));
+		assertEquals(AccessRight.getFromFlags(READ, WRITE), rights.get(subFolder1));
+		assertEquals(AccessRight.getFromFlags(READ, WRITE), rights.get(subFolder2));
+		for (Folder folder : folders) {
+			assertEquals(rights.get(folder), authorizationBusiness.getMaximumRightForUser(user, folder));
+		}
+
+		folderBusiness.updateFolderRightsForUserGroup(parentFolder, group, AccessRight.getNone());
+		rights = authorizationBusiness.getMaximumRightForUser(user, folders);
+		assertEquals(AccessRight.getNone(), rights.get(parentFolder));
+		assertEquals(AccessRight.getFromFlags(READ), rights.get(subFolder1));
+		assertEquals(AccessRight.getNone(), rights.get(subFolder2));
+	}
+
+	/**
+	 * Test 13: Missing rights on personal folders are granted again, including the inherited rights of sub folders
+	 * @throws ActionNotAllowedException
+	 */
+	@Test
+	void propagateFullRightsForAllPersonalFolders() throws ActionNotAllowedException {
+		Folder personalFolder = user.getPersonalFolder();
+		Folder subFolder = folderBusiness.createContentFolder(user, "Sub Folder", personalFolder);
+		Folder subSubFolder = folderBusiness.createContentFolder(user, "Sub Sub Folder", subFolder);
+		folderBusiness.updateFolderRightsForUser(personalFolder, user, AccessRight.getFromFlags(READ));
+		assertEquals(AccessRight.getFromFlags(READ), authorizationBusiness.getMaximumRightForUser(user, subSubFolder));
+
+		assertEquals(1, folderBusiness.propagateFullRightsForAllPersonalFolders());
+		for (Folder folder : List.of(personalFolder, subFolder, subSubFolder)) {
+			assertEquals(AccessRight.getFull(), authorizationBusiness.getMaximumRightForUser(user, folder));
+		}
+		assertEquals(AccessRight.getFull(), authorizationBusiness.getMaximumRightForUser(owner, owner.getPersonalFolder()));
+
+		assertEquals(0, folderBusiness.propagateFullRightsForAllPersonalFolders());
+	}
+
 	@Test
 	void getMaximumRightFail1() {
 		assertThrows(IllegalArgumentException.class, () -> {
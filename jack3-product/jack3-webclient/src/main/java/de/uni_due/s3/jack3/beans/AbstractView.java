@@ -3,7 +3,9 @@ package de.uni_due.s3.jack3.beans;
 import java.io.IOException;
 import java.security.Principal;
 import java.text.MessageFormat;
+import java.util.Collection;
 import java.util.Locale;
+import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -388,6 +390,15 @@ public abstract class AbstractView {
 	public PublicUserName getPublicUserName(User forUser) {
 		return userBusiness.getPublicUserName(forUser, getCurrentUser(), userSession.getCurrentFolder());
 	}
+
+	/**
+	 * Like {@link #getPublicUserName(User)} for all users of a table at once.
+	 *
+	 * @return Map of user IDs to the public names of the users
+	 */
+	protected Map<Long, PublicUserName> getPublicUserNames(Collection<User> forUsers) {
+		return userBusiness.getPublicUserNames(forUsers, getCurrentUser(), userSession.getCurrentFolder());
+	}
 	
 	protected MenuModel getPathAsModel(Exercise exercise, boolean isPartOfTheYouAreHereModel, boolean suppressRoot) {
 		return pathComponent.getPathAsModel(exercise, isPartOfTheYouAreHereModel, suppressRoot);
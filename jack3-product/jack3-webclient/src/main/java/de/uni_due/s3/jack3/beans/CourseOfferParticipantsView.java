@@ -9,15 +9,18 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
 import javax.faces.application.FacesMessage;
+import javax.faces.context.FacesContext;
 import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.mail.MessagingException;
+import javax.servlet.http.HttpServletResponse;
 
 import org.primefaces.PrimeFaces;
 import org.primefaces.model.menu.DefaultMenuItem;
@@ -26,24 +29,30 @@ import de.uni_due.s3.jack3.beans.ViewId.Builder;
 import de.uni_due.s3.jack3.beans.dialogs.DeletionDialogView;
 import de.uni_due.s3.jack3.business.AuthorizationBusiness;
 import de.uni_due.s3.jack3.business.CourseBusiness;
+import de.uni_due.s3.jack3.business.CourseResultRecalculationBusiness;
 import de.uni_due.s3.jack3.business.EnrollmentBusiness;
 import de.uni_due.s3.jack3.business.FolderBusiness;
+import de.uni_due.s3.jack3.business.ResourceBusiness;
 import de.uni_due.s3.jack3.business.StatisticsBusiness;
 import de.uni_due.s3.jack3.business.UserBusiness;
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
 import de.uni_due.s3.jack3.business.exceptions.EnrollmentException;
 import de.uni_due.s3.jack3.business.exceptions.LinkedCourseException;
+import de.uni_due.s3.jack3.business.helpers.CourseStatistics;
 import de.uni_due.s3.jack3.business.helpers.EnrollmentLogEntry;
+import de.uni_due.s3.jack3.business.helpers.PublicUserName;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.enums.EEnrollmentStatus;
 import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
+import de.uni_due.s3.jack3.entities.tenant.CourseResource;
 import de.uni_due.s3.jack3.entities.tenant.Enrollment;
 import de.uni_due.s3.jack3.entities.tenant.PresentationFolder;
 import de.uni_due.s3.jack3.entities.tenant.ProfileField;
 import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
 import de.uni_due.s3.jack3.interfaces.Namable;
+import de.uni_due.s3.jack3.util.FeedbackWorkbook;
 import de.uni_due.s3.jack3.utils.JackFileUtils;
 import de.uni_due.s3.jack3.utils.StopWatch;
 
@@ -56,6 +65,9 @@ import de.uni_due.s3.jack3.utils.StopWatch;
 public class CourseOfferParticipantsView extends AbstractView implements Serializable {
 
 	private static final long serialVersionUID = -1821943389000266089L;
+
+	/** Number of course records that are loaded at once for the feedback export */
+	private static final int FEEDBACK_EXPORT_PAGE_SIZE = 200;
 	
 	// View parameters
 	private long courseOfferId;
@@ -110,11 +122,15 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 	private List<EnrollmentLogEntry> enrollmentLog;
 	private String selectedStudentForEnrollmentLog;
 
+	/** Wether the course of the course offer has a feedback template */
+	private boolean feedbackTemplateAvailable;
+
 	// Data for Profile Field selector
 	private List<ProfileField> availableProfileFields;
 
 	// Caches for better performance
 	private Map<User, String> cachedPublicUsernames = new HashMap<>();
+	private Map<Long, PublicUserName> publicUserNames = new HashMap<>();
 
 	@Inject
 	private CourseBusiness courseBusiness;
@@ -137,6 +153,12 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 	@Inject
 	private StatisticsBusiness statisticsBusiness;
 
+	@Inject
+	private CourseResultRecalculationBusiness courseResultRecalculationBusiness;
+
+	@Inject
+	private ResourceBusiness resourceBusiness;
+
 	// ----------------------------------
 	// ---------- Entry Points ----------
 	// ----------------------------------
@@ -215,6 +237,9 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		} else {
 			calculateFullStatisticsForCourseOffer();
 		}
+		if (!showOnlyKeyFigures) {
+			loadPublicUserNames();
+		}
 
 		watch.stop();
 		getLogger().debugf("Update %s statistics for %s took %s",
@@ -225,16 +250,17 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 	}
 
 	private void calculateOnlyKeyFigures() {
-		numberOfParticipants = statisticsBusiness.countParticipants(courseOffer);
+		final CourseStatistics statistics = statisticsBusiness.getStatistics(courseOffer);
+		numberOfParticipants = statistics.getParticipants();
 		numberOfEnrolledParticipants = enrollmentBusiness.countCurrentEnrollments(courseOffer);
-		numberOfCourseRecords = statisticsBusiness.countCourseRecords(courseOffer);
-		numberOfSubmissions = statisticsBusiness.countSubmissions(courseOffer);
+		numberOfCourseRecords = statistics.getCourseRecords();
+		numberOfSubmissions = statistics.getSubmissions();
 		numberOfWaitinglistParticipants = enrollmentBusiness.countCurrentWaitinglist(courseOffer);
 
-		averagePoints = ((int) (statisticsBusiness.getAverageScore(courseOffer) * 100)) / 100.0;
-		highestScore = statisticsBusiness.getHighestScore(courseOffer);
-		lowestScore = statisticsBusiness.getLowestScore(courseOffer);
-		numberOfUnreadComments = statisticsBusiness.countUnreadComments(courseOffer);
+		averagePoints = ((int) (statistics.getAverageScore() * 100)) / 100.0;
+		highestScore = statistics.getHighestScore();
+		lowestScore = statistics.getLowestScore();
+		numberOfUnreadComments = statistics.getUnreadComments();
 	}
 
 	private void calculateFullStatisticsForCourseOffer() {
@@ -259,14 +285,11 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		double sum = 0;
 		highestScore = 0;
 		lowestScore = 100;
+		courseBusiness.countCommentsForCourseRecords(courseRecordList);
+		cachedRevisionNumberForCourseRecordId.putAll(
+				courseBusiness.getCourseRevisionNumbersForCourseRecords(courseRecordList));
 		for (CourseRecord cr : courseRecordList) {
-			cr.setCommentsOnSubmissions(courseBusiness.countCommentsForCourseRecord(cr));
-			long unreadComments = courseBusiness.countUnreadCommentsForCourseRecord(cr);
-			cr.setUnreadCommentsOnSubmissions(unreadComments);
-			numberOfUnreadComments += unreadComments;
-
-			cachedRevisionNumberForCourseRecordId.put(cr.getId(),
-					courseBusiness.getCourseRevisionNumberForCourseRecord(cr));
+			numberOfUnreadComments += cr.getUnreadCommentsOnSubmissions();
 
 			sum += cr.getResultPoints();
 			if (cr.getResultPoints() > highestScore) {
@@ -278,6 +301,9 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		}
 		lowestScore = Math.min(lowestScore, highestScore);
 		averagePoints = Math.round((100.0 * sum) / courseRecordList.size()) / 100.0;
+
+		feedbackTemplateAvailable = courseOffer.getCourse() != null && courseBusiness
+				.isCourseResourceFilenameAlreadyExisting(FeedbackWorkbook.TEMPLATE_FILENAME, courseOffer.getCourse());
 	}
 
 	private void calculateFullStatisticsForFolder() {
@@ -302,17 +328,22 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 
 		courseRecordList = courseBusiness.getAllCourseRecords(courseOffers);
 
-		for (CourseRecord cr : courseRecordList) {
-			cr.setCommentsOnSubmissions(courseBusiness.countCommentsForCourseRecord(cr));
-			cr.setUnreadCommentsOnSubmissions(courseBusiness.countUnreadCommentsForCourseRecord(cr));
-
-			cachedRevisionNumberForCourseRecordId.put(cr.getId(),
-					courseBusiness.getCourseRevisionNumberForCourseRecord(cr));
-		}
+		courseBusiness.countCommentsForCourseRecords(courseRecordList);
+		cachedRevisionNumberForCourseRecordId.putAll(
+				courseBusiness.getCourseRevisionNumbersForCourseRecords(courseRecordList));
 
 		// Other statistic data is not available in folder mode
 	}
 
+	private void loadPublicUserNames() {
+		final List<User> users = new ArrayList<>();
+		for (final List<Enrollment> enrollmentList : List.of(enrollments, waitlist, disenrollments)) {
+			enrollmentList.forEach(enrollment -> users.add(enrollment.getUser()));
+		}
+		courseRecordList.forEach(courseRecord -> users.add(courseRecord.getUser()));
+		publicUserNames = getPublicUserNames(users);
+	}
+
 	// -----------------------------
 	// ---------- Actions ----------
 	// -----------------------------
@@ -431,6 +462,85 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		PrimeFaces.current().ajax().update(":courseOfferParticipantsMainForm");
 	}
 
+	/**
+	 * Starts recalculating the results of all course records of the course offer in the background. The progress is
+	 * shown in the jobs administration.
+	 */
+	public void recalculateCourseResults() {
+		if (!isGradeRight()) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_ERROR, "global.error", "exception.actionNotAllowed");
+			return;
+		}
+
+		try {
+			courseResultRecalculationBusiness.startRecalculation(courseOffer);
+			getLogger().info("User " + getCurrentUser().getLoginName()
+					+ " started recalculating the course results of CourseOffer " + courseOffer.getId() + ".");
+			addGlobalFacesMessage(FacesMessage.SEVERITY_INFO, "global.success",
+					"courseOfferParticipants.recalculationStarted");
+		} catch (ActionNotAllowedException e) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_WARN, "global.warn",
+					"courseOfferParticipants.recalculationRunning");
+		}
+	}
+
+	/**
+	 * Exports the results of all participants into the feedback template of the course. The course records are loaded
+	 * page by page and the rows are streamed into the response, so the memory needed does not grow with the number of
+	 * participants.
+	 */
+	public void exportFeedback() {
+		if (!isFeedbackExportAvailable()) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_ERROR, "global.error", "exception.actionNotAllowed");
+			return;
+		}
+		final Optional<CourseResource> template = resourceBusiness
+				.getCourseResourceByFileName(FeedbackWorkbook.TEMPLATE_FILENAME, courseOffer.getCourse());
+		if (template.isEmpty()) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_ERROR, "global.error", "global.errorMessage");
+			return;
+		}
+
+		final FacesContext faces = FacesContext.getCurrentInstance();
+		try (FeedbackWorkbook workbook = new FeedbackWorkbook(template.get().getContent())) {
+			long lastId = 0;
+			List<CourseRecord> page;
+			do {
+				page = courseBusiness.getCourseRecordsWithUser(courseOffer, lastId, FEEDBACK_EXPORT_PAGE_SIZE);
+				if (!page.isEmpty()) {
+					addFeedbackResults(workbook, page);
+					lastId = page.get(page.size() - 1).getId();
+				}
+			} while (page.size() == FEEDBACK_EXPORT_PAGE_SIZE);
+
+			final HttpServletResponse response = (HttpServletResponse) faces.getExternalContext().getResponse();
+			response.setHeader("Pragma", "no-cache");
+			response.setDateHeader("Expires", 0);
+			response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+			response.setHeader("Content-disposition",
+					"attachment; filename=" + generateDownloadFilename("feedback") + ".xlsx");
+			workbook.write(response.getOutputStream());
+			faces.responseComplete();
+		} catch (IOException | RuntimeException e) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_ERROR, "global.error", "global.errorMessage");
+			getLogger().errorf(e, "Error while exporting feedback for %s and %s.", courseOffer,
+					getCurrentUser().getLoginName());
+		}
+	}
+
+	private void addFeedbackResults(FeedbackWorkbook workbook, List<CourseRecord> courseRecords) {
+		final Map<Long, Map<String, Integer>> points = courseBusiness.getFirstResultPointsByExerciseName(
+				courseRecords.stream().map(CourseRecord::getId).collect(Collectors.toList()));
+		final Map<Long, PublicUserName> names = getPublicUserNames(
+				courseRecords.stream().map(CourseRecord::getUser).collect(Collectors.toList()));
+		for (final CourseRecord courseRecord : courseRecords) {
+			final User user = courseRecord.getUser();
+			final PublicUserName name = names.get(user.getId());
+			workbook.addResults(name != null ? name.getName() : user.getLoginName(), courseRecord.getStartTime(),
+					points.getOrDefault(courseRecord.getId(), Collections.emptyMap()));
+		}
+	}
+
 	// -------------------------------------
 	// ---------- Computed values ----------
 	// -------------------------------------
@@ -439,6 +549,13 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		return cachedRevisionNumberForCourseRecordId.get(courseRecord.getId());
 	}
 
+	@Override
+	public PublicUserName getPublicUserName(User forUser) {
+		// The names of all users in the tables have been loaded at once
+		final PublicUserName name = forUser == null ? null : publicUserNames.get(forUser.getId());
+		return name != null ? name : super.getPublicUserName(forUser);
+	}
+
 	public PresentationFolder getActualFolder() {
 		return isFolderMode() ? folder : courseOffer.getFolder();
 	}
@@ -464,6 +581,10 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 		return userRights.isGrade();
 	}
 
+	public boolean isFeedbackExportAvailable() {
+		return !isFolderMode() && !showOnlyKeyFigures && feedbackTemplateAvailable && isExtendedRead();
+	}
+
 	public String getCourseOffersAsString() {
 		final var resultBuilder = new StringJoiner(", ");
 		courseOffers.stream().map(Namable::getName).forEachOrdered(resultBuilder::add);
@@ -514,6 +635,8 @@ public class CourseOfferParticipantsView extends AbstractView implements Seriali
 			return JackFileUtils.filterNonAlphNumChars(name + "_" + getLocalizedMessage("statistics.enrollments"));
 		case "waitlist":
 			return JackFileUtils.filterNonAlphNumChars(name + "_" + getLocalizedMessage("statistics.waitlist"));
+		case "feedback":
+			return JackFileUtils.filterNonAlphNumChars(name + "_Feedback");
 		case "disenrollments":
 			return JackFileUtils
 					.filterNonAlphNumChars(name + "_" + getLocalizedMessage("statistics.formerParticipants"));
@@ -447,9 +447,8 @@ public class CourseRecordSubmissionsView extends AbstractView implements Seriali
 		latestSubmissionPerExercise = new HashMap<>();
 		bestSubmissionPerExercise = new HashMap<>();
 		bestPointsPerExercise = new HashMap<>();
-		for (Submission submission : courseBusiness.getAllSubmissionsForCourseRecord(courseRecord)) {
-			submissionList.add(exerciseBusiness.getSubmissionWithLazyDataBySubmissionId(submission.getId())
-					.orElseThrow(NoSuchJackEntityException::new));
+		for (Submission submission : courseBusiness.getAllSubmissionsWithCommentsForCourseRecord(courseRecord)) {
+			submissionList.add(submission);
 			long exerciseId = submission.getExercise().getId();
 			if (!latestSubmissionPerExercise.containsKey(exerciseId)
 					|| latestSubmissionPerExercise.get(exerciseId) < submission.getId()) {
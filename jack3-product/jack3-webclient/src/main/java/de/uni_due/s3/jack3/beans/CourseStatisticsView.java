@@ -2,6 +2,7 @@ package de.uni_due.s3.jack3.beans;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +20,8 @@ import de.uni_due.s3.jack3.business.CourseBusiness;
 import de.uni_due.s3.jack3.business.StatisticsBusiness;
 import de.uni_due.s3.jack3.business.UserBusiness;
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
+import de.uni_due.s3.jack3.business.helpers.CourseStatistics;
+import de.uni_due.s3.jack3.business.helpers.PublicUserName;
 import de.uni_due.s3.jack3.entities.AccessRight;
 import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.CourseRecord;
@@ -42,6 +45,7 @@ public class CourseStatisticsView extends AbstractView implements Serializable {
 	private Map<Long, Integer> cachedRevisionNumberForCourseRecordId = new HashMap<>();
 
 	private List<User> allParticipants;
+	private Map<Long, PublicUserName> publicUserNames = new HashMap<>();
 	private AccessRight userRights;
 	private List<ProfileField> availableProfileFields;
 
@@ -139,14 +143,15 @@ public class CourseStatisticsView extends AbstractView implements Serializable {
 	}
 
 	private void calculateOnlyKeyFigures() {
-		numberOfParticipants = statisticsBusiness.countParticipants(course);
-		numberOfStudentCourseRecords = statisticsBusiness.countCourseRecords(course);
-		numberOfTestCourseRecords = statisticsBusiness.countTestCourseRecords(course);
-
-		averagePoints = ((int) (statisticsBusiness.getAverageScore(course) * 100)) / 100.0;
-		highestScore = statisticsBusiness.getHighestScore(course);
-		lowestScore = statisticsBusiness.getLowestScore(course);
-		numberOfUnreadComments = statisticsBusiness.countUnreadComments(course);
+		final CourseStatistics statistics = statisticsBusiness.getStatistics(course);
+		numberOfParticipants = statistics.getParticipants();
+		numberOfStudentCourseRecords = statistics.getCourseRecords();
+		numberOfTestCourseRecords = statistics.getTestCourseRecords();
+
+		averagePoints = ((int) (statistics.getAverageScore() * 100)) / 100.0;
+		highestScore = statistics.getHighestScore();
+		lowestScore = statistics.getLowestScore();
+		numberOfUnreadComments = statistics.getUnreadComments();
 	}
 
 	private void calculateFullStatistics() {
@@ -160,13 +165,11 @@ public class CourseStatisticsView extends AbstractView implements Serializable {
 		double sum = 0;
 		highestScore = 0;
 		lowestScore = 100;
+		courseBusiness.countCommentsForCourseRecords(courseRecordList);
+		cachedRevisionNumberForCourseRecordId.putAll(
+				courseBusiness.getCourseRevisionNumbersForCourseRecords(courseRecordList));
 		for (CourseRecord cr : courseRecordList) {
-			cr.setCommentsOnSubmissions(courseBusiness.countCommentsForCourseRecord(cr));
-			long unreadComments = courseBusiness.countUnreadCommentsForCourseRecord(cr);
-			cr.setUnreadCommentsOnSubmissions(unreadComments);
-			numberOfUnreadComments += unreadComments;
-			cachedRevisionNumberForCourseRecordId.put(cr.getId(),
-					courseBusiness.getCourseRevisionNumberForCourseRecord(cr));
+			numberOfUnreadComments += cr.getUnreadCommentsOnSubmissions();
 
 			// Only count nontesting course records
 			if (!cr.isTestSubmission()) {
@@ -184,6 +187,10 @@ public class CourseStatisticsView extends AbstractView implements Serializable {
 		averagePoints = numberOfStudentCourseRecords == 0 ? 0
 				: Math.round((100.0 * sum) / numberOfStudentCourseRecords) / 100.0;
 		numberOfTestCourseRecords = courseRecordList.size() - numberOfStudentCourseRecords;
+
+		final List<User> users = new ArrayList<>(allParticipants);
+		courseRecordList.forEach(courseRecord -> users.add(courseRecord.getUser()));
+		publicUserNames = getPublicUserNames(users);
 	}
 
 	// -----------------------------
@@ -215,6 +222,13 @@ public class CourseStatisticsView extends AbstractView implements Serializable {
 	// ---------- Computed values ----------
 	// -------------------------------------
 
+	@Override
+	public PublicUserName getPublicUserName(User forUser) {
+		// The names of all users in the tables have been loaded at once
+		final PublicUserName name = forUser == null ? null : publicUserNames.get(forUser.getId());
+		return name != null ? name : super.getPublicUserName(forUser);
+	}
+
 	public int getRevisionNumber(CourseRecord courseRecord) {
 		return cachedRevisionNumberForCourseRecordId.get(courseRecord.getId());
 	}
@@ -90,6 +90,8 @@ public class DevelopmentView extends AbstractView implements Serializable {
 
 	private int loadTestSubmissionsProgress;
 
+	private int personalFolderRightsProgress;
+
 	public int getLoadTestExercisesProgress() {
 		return loadTestExercisesProgress;
 	}
@@ -437,8 +439,11 @@ public class DevelopmentView extends AbstractView implements Serializable {
 	 * Ensures that each user with edit rights has full access on the owned personal folder.
 	 */
 	public void fixPersonalFolderRights() {
+		personalFolderRightsProgress = 0;
 		StopWatch sw = new StopWatch().start();
-		int numberOfChanges = folderBusiness.propagateFullRightsForAllPersonalFolders();
+		int numberOfChanges = folderBusiness
+				.propagateFullRightsForAllPersonalFolders(percent -> personalFolderRightsProgress = percent);
+		personalFolderRightsProgress = 100;
 		sw.stop();
 		if (numberOfChanges > 0) {
 			getLogger().infof("It took %s to grant %s users full access to their personal folders.",
@@ -448,6 +453,10 @@ public class DevelopmentView extends AbstractView implements Serializable {
 		}
 	}
 
+	public int getPersonalFolderRightsProgress() {
+		return personalFolderRightsProgress;
+	}
+
 	public int getLoadTestSubmissionsProgress() {
 		return loadTestSubmissionsProgress;
 	}
@@ -31,6 +31,7 @@ import de.uni_due.s3.jack3.beans.stagetypes.AbstractSubmissionView;
 import de.uni_due.s3.jack3.business.BaseBusiness;
 import de.uni_due.s3.jack3.business.ExerciseBusiness;
 import de.uni_due.s3.jack3.business.ExercisePlayerBusiness;
+import de.uni_due.s3.jack3.business.ExerciseRevisionCacheBusiness;
 import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
 import de.uni_due.s3.jack3.business.microservices.ConverterBusiness;
 import de.uni_due.s3.jack3.business.microservices.EvaluatorMaps;
@@ -63,6 +64,9 @@ public class ExercisePlayerView extends AbstractView implements Serializable {
 	@Inject
 	private ExercisePlayerBusiness exercisePlayerBusiness;
 
+	@Inject
+	private ExerciseRevisionCacheBusiness exerciseRevisionCacheBusiness;
+
 	@Inject
 	private ConverterBusiness converterBusiness;
 
@@ -150,19 +154,17 @@ public class ExercisePlayerView extends AbstractView implements Serializable {
 
 	private void loadExerciseCourseMode(Submission submission) {
 		if (submission.getExercise().isFrozen()) {
-			exercise = exerciseBusiness.getFrozenExerciseWithLazyDataById(submission.getExercise().getId());
+			// Shared with other sessions, so the exercise must not be modified here
+			exercise = exerciseRevisionCacheBusiness.getFrozenExercise(submission.getExercise().getId());
 		} else {
+			// The current exercise may still be edited, so it is not cached
 			exercise = exerciseBusiness.getExerciseWithLazyDataByExerciseId(submission.getExercise().getId());
 		}
 	}
 
 	private void loadExerciseReviewMode(Submission submission) {
-		if (submission.getExercise().isFrozen()) {
-			exercise = exerciseBusiness.getFrozenExerciseWithLazyDataById(submission.getExercise().getId());
-		} else {
-			exercise = exerciseBusiness.getRevisionOfExerciseWithLazyData( //
-					submission.getExercise(), submission.getShownExerciseRevisionId());
-		}
+		// Shared with other sessions, so the exercise must not be modified here
+		exercise = exerciseRevisionCacheBusiness.getShownExercise(submission);
 	}
 
 	/**
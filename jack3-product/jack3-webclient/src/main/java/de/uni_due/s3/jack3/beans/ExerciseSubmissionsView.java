@@ -2,11 +2,9 @@ package de.uni_due.s3.jack3.beans;
 
 import java.io.IOException;
 import java.io.Serializable;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 import javax.faces.view.ViewScoped;
 import javax.inject.Inject;
@@ -14,6 +12,7 @@ import javax.inject.Named;
 
 import org.primefaces.model.menu.DefaultMenuItem;
 
+import de.uni_due.s3.jack3.beans.lazymodels.LazySubmissionOverviewDataModel;
 import de.uni_due.s3.jack3.business.AuthorizationBusiness;
 import de.uni_due.s3.jack3.business.ExerciseBusiness;
 import de.uni_due.s3.jack3.business.FolderBusiness;
@@ -26,6 +25,7 @@ import de.uni_due.s3.jack3.entities.tenant.Submission;
 import de.uni_due.s3.jack3.exceptions.JackSecurityException;
 import de.uni_due.s3.jack3.exceptions.NoSuchJackEntityException;
 import de.uni_due.s3.jack3.services.SubmissionService;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
 import de.uni_due.s3.jack3.utils.StopWatch;
 
 @Named
@@ -37,14 +37,21 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 	@Inject
 	private ExerciseBusiness exerciseBusiness;
 
-	private AbstractExercise exercise;
-	private List<Integer> frozenRevisionIds = new LinkedList<>();
+	private Exercise exercise;
 	private long exerciseId;
 
-	private List<Submission> plainSubmissionData = new LinkedList<>();
-	private Map<Integer, Integer> exerciseSubmissionCount = new TreeMap<>();
+	private LazySubmissionOverviewDataModel submissions;
+	private Map<Integer, Long> exerciseSubmissionCount = new HashMap<>();
+	private long submissionCount;
 	private long testingSubmissionCount;
 	private long nonTestingsubmissionCount;
+	private long submissionWithoutCourseRecordCount;
+
+	/** Revision numbers by revision ID, see {@link #getRevisionNumber(SubmissionOverview)} */
+	private final Map<Integer, Integer> revisionNumbers = new HashMap<>();
+
+	/** Whether the user has grade rights on the submissions of the course offer, by course offer ID */
+	private final Map<Long, Boolean> gradeRights = new HashMap<>();
 
 	private AccessRight userRights;
 
@@ -57,6 +64,9 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 	@Inject
 	private FolderBusiness folderBusiness;
 
+	@Inject
+	private UserSession userSession;
+
 	private static final String fileRegex = "[\\\\/:*?\"<>|]";
 
 	/**
@@ -67,16 +77,10 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 
 		setExerciseIfAllowed();
 
-		loadSubmissionData();
-
 		ContentFolder folder = folderBusiness.getFolderForAbstractExercise(exercise);
 		userRights = authorizationBusiness.getMaximumRightForUser(getCurrentUser(), folder);
 
-		plainSubmissionData.sort(Comparator.comparing(Submission::getCreationTimestamp).reversed());
-		testingSubmissionCount = plainSubmissionData.stream().filter(Submission::isTestSubmission).count();
-		nonTestingsubmissionCount = plainSubmissionData.size() - testingSubmissionCount;
-
-		populateSubmissionCountMap();
+		loadSubmissionData();
 
 		getLogger().debug("Loading Submissions for " + exercise + " took " + stopWatch.stop().getElapsedSeconds());
 	}
@@ -91,25 +95,17 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 		addYouAreHereModelMenuEntry(submissions);
 	}
 
-	private void populateSubmissionCountMap() {
-		for (Submission submission : plainSubmissionData) {
-			if (!exerciseSubmissionCount.containsKey(submission.getShownExerciseRevisionId())) {
-				exerciseSubmissionCount.put(submission.getShownExerciseRevisionId(), 1);
-			} else {
-				int countPlusOne = exerciseSubmissionCount.get(submission.getShownExerciseRevisionId()) + 1;
-				exerciseSubmissionCount.put(submission.getShownExerciseRevisionId(), countPlusOne);
-			}
-		}
-	}
-
+	/**
+	 * Counts the submissions and creates the data model that loads the submissions page by page.
+	 */
 	private void loadSubmissionData() {
-		plainSubmissionData = new LinkedList<>();
-		// The result from "getAllSubmissions..." is already ordered by the creation timestamp (DESC)
-		for (Submission submission : exerciseBusiness.getAllSubmissionsForExerciseAndFrozenVersions(exercise)) {
-			// Loading only the comments eager here provides a significant performance boost!
-			plainSubmissionData.add(exerciseBusiness.getSubmissionWithCommentsEagerBySubmissionId(submission.getId())
-					.orElseThrow(NoSuchJackEntityException::new));
-		}
+		exerciseSubmissionCount = exerciseBusiness.countSubmissionsPerRevisionForExercise(exercise);
+		submissionCount = exerciseSubmissionCount.values().stream().mapToLong(Long::longValue).sum();
+		nonTestingsubmissionCount = exerciseBusiness.countNonTestingSubmissionsForExercise(exercise);
+		testingSubmissionCount = submissionCount - nonTestingsubmissionCount;
+		submissionWithoutCourseRecordCount = exerciseBusiness.countSubmissionsWithoutCourseRecordForExercise(exercise);
+		submissions = new LazySubmissionOverviewDataModel(exercise, exerciseBusiness,
+				userSession.getStatisticsStateHolder());
 	}
 
 	private void setExerciseIfAllowed() throws IOException {
@@ -151,28 +147,31 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 		return nonTestingsubmissionCount;
 	}
 
-	public List<Submission> getPlainSubmissionData() {
-		return plainSubmissionData;
+	public LazySubmissionOverviewDataModel getSubmissions() {
+		return submissions;
 	}
 
-	public int getSubmissionCount(int revisionId) {
-		return exerciseSubmissionCount.get(revisionId);
+	public long getSubmissionCount() {
+		return submissionCount;
 	}
 
-	public void deleteSubmission(Submission submission) {
-		if (userIsAllowedToDeleteSubmission(submission)) {
+	public long getSubmissionCount(int revisionId) {
+		return exerciseSubmissionCount.getOrDefault(revisionId, 0L);
+	}
+
+	public void deleteSubmission(SubmissionOverview submissionOverview) {
+		if (userIsAllowedToDeleteSubmission(submissionOverview)) {
+			final Submission submission = exerciseBusiness.getSubmissionBySubmissionId(submissionOverview.getId())
+					.orElseThrow(NoSuchJackEntityException::new);
+			if (!authorizationBusiness.isAllowedToDeleteSubmission(getCurrentUser(), submission, null, null,
+					exercise)) {
+				throw new JackSecurityException(getCurrentUser() + " tried to delete " + submission);
+			}
 
 			ensureUserHasWritePermission();
 
-			plainSubmissionData.remove(submission);
-			exerciseSubmissionCount.put(submission.getShownExerciseRevisionId(),
-					exerciseSubmissionCount.get(submission.getShownExerciseRevisionId()) - 1);
 			submissionService.deleteSubmissionAndDependentEntities(submission);
-			if (submission.isTestSubmission()) {
-				testingSubmissionCount--;
-			} else {
-				nonTestingsubmissionCount--;
-			}
+			loadSubmissionData();
 		}
 	}
 
@@ -186,20 +185,12 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 
 	public void deleteAllTestSubmissions() {
 		ensureUserHasWritePermission();
-		plainSubmissionData.clear();
-		exerciseSubmissionCount.clear();
 		exerciseBusiness.deleteAllTestSubmissionsForExercise(exercise);
 		List<FrozenExercise> frozenRevisions = exerciseBusiness.getFrozenRevisionsForExercise(exercise);
 		for (FrozenExercise frozenRevision : frozenRevisions) {
 			exerciseBusiness.deleteAllTestSubmissionsForExercise(frozenRevision);
 		}
 		loadSubmissionData();
-		plainSubmissionData.sort(Comparator.comparing(Submission::getCreationTimestamp).reversed());
-		testingSubmissionCount = plainSubmissionData.stream().filter(Submission::isTestSubmission).count();
-		nonTestingsubmissionCount = plainSubmissionData.size() - testingSubmissionCount;
-
-		populateSubmissionCountMap();
-
 	}
 
 	public String generateDownloadFileName() {
@@ -209,35 +200,37 @@ public class ExerciseSubmissionsView extends AbstractView implements Serializabl
 	}
 
 	public String getDeletionMessage() {
-		int submissionForDeletionCount = 0;
-		for (Submission sol : plainSubmissionData) {
-			if (sol.getCourseRecord() == null) {
-				submissionForDeletionCount++;
-			}
-		}
 		return formatLocalizedMessage("exerciseSubmissions.deleteAllSubmissions.message",
-				new Object[] { submissionForDeletionCount });
+				new Object[] { submissionWithoutCourseRecordCount });
 	}
 
-	public int getRevisionNumber(Submission currentSubmission) {
-		return exerciseBusiness.getRevisionIndexForRevisionId(exercise,
-				currentSubmission.getShownExerciseRevisionId());
+	public int getRevisionNumber(SubmissionOverview currentSubmission) {
+		return revisionNumbers.computeIfAbsent(currentSubmission.getShownExerciseRevisionId(),
+				revisionId -> exerciseBusiness.getRevisionIndexForRevisionId(exercise, revisionId));
 	}
 
-	public boolean isFrozenRevision(Submission submission) {
-		return submission.getExercise().isFrozen();
+	public boolean isFrozenRevision(SubmissionOverview submission) {
+		return submission.isFrozenExercise();
 	}
 
 	public boolean userNotAllowedToEdit() {
 		return !userRights.isWrite();
 	}
 
-	public boolean userHasRightsForDeletion(Submission submission) {
-		return authorizationBusiness.hasGradeRightOnSubmission(getCurrentUser(), submission);
+	/**
+	 * The right is checked once per course offer, test submissions are checked by the cached folder rights.
+	 */
+	public boolean userHasRightsForDeletion(SubmissionOverview submission) {
+		final Long courseOfferId = submission.getCourseOfferId();
+		if (courseOfferId == null) {
+			return authorizationBusiness.hasGradeRightOnSubmission(getCurrentUser(), submission, exercise);
+		}
+		return gradeRights.computeIfAbsent(courseOfferId,
+				id -> authorizationBusiness.hasGradeRightOnSubmission(getCurrentUser(), submission, exercise));
 	}
 
-	public boolean userIsAllowedToDeleteSubmission(Submission submission) {
-		return authorizationBusiness.isAllowedToDeleteSubmission(getCurrentUser(), submission, null, null, exercise);
+	public boolean userIsAllowedToDeleteSubmission(SubmissionOverview submission) {
+		return authorizationBusiness.isAllowedToDeleteSubmission(getCurrentUser(), submission, exercise);
 	}
 
 	public boolean isExtendedRead() {
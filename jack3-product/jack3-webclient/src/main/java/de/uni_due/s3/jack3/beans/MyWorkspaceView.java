@@ -84,6 +84,12 @@ public class MyWorkspaceView extends AbstractContentTreeView<ContentFolder> {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * If the user can read more folders than this, courses and exercises of a folder are only loaded when the folder is
+	 * expanded.
+	 */
+	private static final int MAX_FOLDERS_FOR_EAGER_LOADING = 100;
+
 	private TreeNode inputNode;
 
 	private String newExerciseName;
@@ -175,10 +181,20 @@ public class MyWorkspaceView extends AbstractContentTreeView<ContentFolder> {
 				.getContentFoldersWithAtLeastReadRightForUser(getCurrentUser());
 		contentTree.setContentFolderRightsMap(contentFolderRightMap);
 		contentTree.setCurrentUser(getCurrentUser());
-		contentTree.setCourseList(
-				courseBusiness.getAllCoursesForContentFolderList(new ArrayList<ContentFolder>(contentFolderRightMap.keySet())));
-		contentTree.setExerciseList(
-				exerciseBusiness.getAllExercisesForContentFolderList(new ArrayList<ContentFolder>(contentFolderRightMap.keySet())));
+		if (contentFolderRightMap.size() > MAX_FOLDERS_FOR_EAGER_LOADING) {
+			// Large workspaces: Only the folders are shown initially, the content is loaded when a folder is expanded
+			contentTree.setCourseList(new ArrayList<>());
+			contentTree.setExerciseList(new ArrayList<>());
+			contentTree.enableLazyLoading(folderBusiness.getNumberOfContentsByFolderId(contentFolderRightMap.keySet()),
+					courseBusiness::getAllCoursesForContentFolderList,
+					exerciseBusiness::getAllExercisesForContentFolderList);
+			contentTree.setOnContentLoaded(this::updateSingleSearchString);
+		} else {
+			contentTree.setCourseList(courseBusiness
+					.getAllCoursesForContentFolderList(new ArrayList<ContentFolder>(contentFolderRightMap.keySet())));
+			contentTree.setExerciseList(exerciseBusiness
+					.getAllExercisesForContentFolderList(new ArrayList<ContentFolder>(contentFolderRightMap.keySet())));
+		}
 		contentTree.setContentRoot(folderBusiness.getContentRoot());
 		contentTree.setExpandedFolderList(userSession.getExpandedFolders());
 		contentTree.setStoreExpandedNode(userSession::addExpandedFolder);
@@ -273,6 +289,14 @@ public class MyWorkspaceView extends AbstractContentTreeView<ContentFolder> {
 		return getContentTree().getTreeRootNode();
 	}
 
+	/**
+	 * @return If the content of folders is loaded when they are expanded. In this case, the search only finds courses
+	 *         and exercises in folders that were already expanded.
+	 */
+	public boolean isLazyTree() {
+		return getContentTree().isLazy();
+	}
+
 	public void setNewContentFolderName(final String newFolderName) {
 		newContentFolderName = newFolderName;
 	}
@@ -796,6 +820,7 @@ public class MyWorkspaceView extends AbstractContentTreeView<ContentFolder> {
 	 */
 	private boolean hasFolderExercises(TreeNode folderNode) {
 		// Data is already stored in the tree, no need to call business methods such as get...withLazyData
+		contentTree.loadContentBelow(folderNode);
 		return TreeNodeUtils.getAllNodes(folderNode).stream().anyMatch(node -> node.getData() instanceof Exercise);
 	}
 
@@ -1,9 +1,11 @@
 package de.uni_due.s3.jack3.beans;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import javax.faces.context.FacesContext;
 import javax.faces.event.PhaseEvent;
 import javax.faces.event.PhaseId;
 import javax.faces.event.PhaseListener;
@@ -12,18 +14,33 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import de.uni_due.s3.jack3.business.PerformanceBusiness;
+import de.uni_due.s3.jack3.services.utils.QueryCounter;
 
+/**
+ * Measures the time of each JSF phase and counts the database work of a request. The data is passed to
+ * {@link PerformanceBusiness} when the response is complete, either after RENDER_RESPONSE or after the phase in which
+ * the response has been completed (e.g. by a redirect or a download) or an exception has been thrown.
+ */
 public class PerformanceDataCollector implements PhaseListener {
 
 	private static final long serialVersionUID = 1529126364573605064L;
 
-	private final Map<HttpServletRequest,Long> startTime;
+	private static final class Measurement {
+
+		private final long start = System.nanoTime();
+
+		private long phaseStart;
+
+		private final Map<String, Long> phaseMillis = new LinkedHashMap<>();
+	}
+
+	private final Map<HttpServletRequest,Measurement> measurements;
 
 	@Inject
 	PerformanceBusiness performanceBusiness;
 
 	public PerformanceDataCollector() {
-		this.startTime = new ConcurrentHashMap<HttpServletRequest, Long>();
+		this.measurements = new ConcurrentHashMap<>();
 	}
 
 	@Override
@@ -33,22 +50,51 @@ public class PerformanceDataCollector implements PhaseListener {
 
 	@Override
 	public void beforePhase(final PhaseEvent event) {
-		if (event.getPhaseId() != PhaseId.RESTORE_VIEW) {
-			return;
+		final HttpServletRequest request = requestOf(event);
+		if (event.getPhaseId() == PhaseId.RESTORE_VIEW) {
+			measurements.put(request,new Measurement());
+			// The phase listener is called in the request thread, as are all services used by the request
+			QueryCounter.start();
+		}
+
+		final Measurement measurement = measurements.get(request);
+		if (measurement != null) {
+			measurement.phaseStart = System.nanoTime();
 		}
-		startTime.put(requestOf(event),System.nanoTime());
 	}
 
 	@Override
 	public void afterPhase(final PhaseEvent event) {
-		if (event.getPhaseId() != PhaseId.RENDER_RESPONSE) {
+		final HttpServletRequest request = requestOf(event);
+		final Measurement measurement = measurements.get(request);
+		if (measurement == null) {
 			return;
 		}
 
-		final HttpServletRequest request = requestOf(event);
-		final HttpServletResponse response = responseOf(event);
-		final long ms = durationOf(request);
-		performanceBusiness.addEntry(request,response,ms);
+		final FacesContext context = event.getFacesContext();
+		final boolean lastPhase = event.getPhaseId() == PhaseId.RENDER_RESPONSE || context.getResponseComplete()
+				|| hasUnhandledException(context);
+		try {
+			measurement.phaseMillis.put(event.getPhaseId().getName(),millisSince(measurement.phaseStart));
+			if (lastPhase) {
+				final String viewId = context.getViewRoot() != null ? context.getViewRoot().getViewId() : null;
+				performanceBusiness.addEntry(request,responseOf(event),millisSince(measurement.start),viewId,
+						measurement.phaseMillis,QueryCounter.stop());
+			}
+		} finally {
+			if (lastPhase) {
+				// Request threads are pooled, so nothing must be left behind even if the entry could not be added
+				measurements.remove(request);
+				QueryCounter.stop();
+			}
+		}
+	}
+
+	/*
+	 * An exception of a phase is queued before the phase listeners are called, the remaining phases are skipped then.
+	 */
+	private static boolean hasUnhandledException(final FacesContext context) {
+		return context.getExceptionHandler().getUnhandledExceptionQueuedEvents().iterator().hasNext();
 	}
 
 	private HttpServletRequest requestOf(final PhaseEvent event) {
@@ -59,8 +105,7 @@ public class PerformanceDataCollector implements PhaseListener {
 		return (HttpServletResponse) event.getFacesContext().getExternalContext().getResponse();
 	}
 
-	private long durationOf(HttpServletRequest request) {
-		final long nanos = System.nanoTime() - startTime.remove(request);
-		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	private static long millisSince(final long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - nanos);
 	}
 }
@@ -10,8 +10,16 @@ import javax.enterprise.context.RequestScoped;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import com.google.common.cache.CacheStats;
+
+import de.uni_due.s3.jack3.business.ExerciseRevisionCacheBusiness;
 import de.uni_due.s3.jack3.business.PerformanceBusiness;
 import de.uni_due.s3.jack3.business.PerformanceBusiness.Entry;
+import de.uni_due.s3.jack3.business.PerformanceBusiness.PathStatistics;
+import de.uni_due.s3.jack3.business.PerformanceBusiness.ViewStatistics;
+import de.uni_due.s3.jack3.business.messaging.CheckerJobPipeline.TopicStatistics;
+import de.uni_due.s3.jack3.business.messaging.MessageBusiness;
+import de.uni_due.s3.jack3.business.microservices.EvaluatorBusiness;
 
 @Named
 @RequestScoped
@@ -20,14 +28,38 @@ public class PerformanceView {
 	@Inject
 	private PerformanceBusiness performanceBusiness;
 
+	@Inject
+	private EvaluatorBusiness evaluatorBusiness;
+
+	@Inject
+	private ExerciseRevisionCacheBusiness exerciseRevisionCacheBusiness;
+
+	@Inject
+	private MessageBusiness messageBusiness;
+
 	private List<Entry> entries;
 
+	private List<PathStatistics> pathStatistics;
+
+	private List<ViewStatistics> viewStatistics;
+
+	private CacheStats evaluatorCacheStatistics;
+
+	private CacheStats exerciseCacheStatistics;
+
+	private List<TopicStatistics> checkerTopics;
+
 	private OperatingSystemMXBean operatingSystemMXBean;
 
 	@PostConstruct
 	void init() {
 		this.entries = performanceBusiness.getEntries();
+		this.pathStatistics = performanceBusiness.getPathStatistics();
+		this.viewStatistics = performanceBusiness.getViewStatistics();
 		this.operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
+		this.evaluatorCacheStatistics = evaluatorBusiness.getCacheStatistics();
+		this.exerciseCacheStatistics = exerciseRevisionCacheBusiness.getCacheStatistics();
+		this.checkerTopics = messageBusiness.getCheckerPipelineStatistics();
 	}
 
 	public Duration getMaximumAge() {
@@ -38,6 +70,14 @@ public class PerformanceView {
 		return entries;
 	}
 
+	public List<PathStatistics> getPathStatistics() {
+		return pathStatistics;
+	}
+
+	public List<ViewStatistics> getViewStatistics() {
+		return viewStatistics;
+	}
+
 	public double getRequestsPerMinute() {
 		return entries.size() * 60.0 / PerformanceBusiness.MAX_AGE.toSeconds();
 	}
@@ -58,4 +98,58 @@ public class PerformanceView {
 	public int getProcessors() {
 		return operatingSystemMXBean.getAvailableProcessors();
 	}
+
+	public long getEvaluatorCacheSize() {
+		return evaluatorBusiness.getCacheSize();
+	}
+
+	public long getEvaluatorCacheHits() {
+		return evaluatorCacheStatistics.hitCount();
+	}
+
+	public long getEvaluatorCacheMisses() {
+		return evaluatorCacheStatistics.missCount();
+	}
+
+	public long getEvaluatorCacheEvictions() {
+		return evaluatorCacheStatistics.evictionCount();
+	}
+
+	public double getEvaluatorCacheHitRate() {
+		return evaluatorCacheStatistics.hitRate() * 100;
+	}
+
+	public void clearEvaluatorCache() {
+		evaluatorBusiness.clearCache();
+		evaluatorCacheStatistics = evaluatorBusiness.getCacheStatistics();
+	}
+
+	public long getExerciseCacheSize() {
+		return exerciseRevisionCacheBusiness.getCacheSize();
+	}
+
+	public long getExerciseCacheHits() {
+		return exerciseCacheStatistics.hitCount();
+	}
+
+	public long getExerciseCacheMisses() {
+		return exerciseCacheStatistics.missCount();
+	}
+
+	public long getExerciseCacheEvictions() {
+		return exerciseCacheStatistics.evictionCount();
+	}
+
+	public double getExerciseCacheHitRate() {
+		return exerciseCacheStatistics.hitRate() * 100;
+	}
+
+	public void clearExerciseCache() {
+		exerciseRevisionCacheBusiness.clearCache();
+		exerciseCacheStatistics = exerciseRevisionCacheBusiness.getCacheStatistics();
+	}
+
+	public List<TopicStatistics> getCheckerTopics() {
+		return checkerTopics;
+	}
 }
@@ -238,7 +238,7 @@ public class SubmissionDetailsView extends AbstractView implements Serializable
 	}
 
 	public void updateComment(Comment comment) {
-		exerciseBusiness.updateComment(comment);
+		exerciseBusiness.updateComment(submission, comment);
 		if (comment.isRead()) {
 			addGlobalFacesMessage(FacesMessage.SEVERITY_INFO, "submissionDetails.commentMarkedRead", null);
 		} else {
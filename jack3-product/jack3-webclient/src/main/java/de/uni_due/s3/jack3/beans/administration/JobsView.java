@@ -1,13 +1,24 @@
 package de.uni_due.s3.jack3.beans.administration;
 
 import java.io.Serializable;
+import java.util.List;
 
 import javax.annotation.PostConstruct;
+import javax.faces.application.FacesMessage;
 import javax.faces.view.ViewScoped;
+import javax.inject.Inject;
 import javax.inject.Named;
 
 import de.uni_due.s3.jack3.beans.AbstractView;
 import de.uni_due.s3.jack3.beans.lazymodels.LazyJobDataModel;
+import de.uni_due.s3.jack3.business.CourseBusiness;
+import de.uni_due.s3.jack3.business.CourseResultRecalculationBusiness;
+import de.uni_due.s3.jack3.business.MailOutboxBusiness;
+import de.uni_due.s3.jack3.business.StatisticsBusiness;
+import de.uni_due.s3.jack3.business.exceptions.ActionNotAllowedException;
+import de.uni_due.s3.jack3.business.helpers.CourseResultRecalculation;
+import de.uni_due.s3.jack3.business.helpers.MailOutboxStatistics;
+import de.uni_due.s3.jack3.entities.tenant.CourseOffer;
 
 @ViewScoped
 @Named
@@ -17,13 +28,68 @@ public class JobsView extends AbstractView implements Serializable {
 
 	private LazyJobDataModel jobs;
 
+	private MailOutboxStatistics mailOutboxStatistics;
+
+	@Inject
+	private CourseResultRecalculationBusiness courseResultRecalculationBusiness;
+
+	@Inject
+	private CourseBusiness courseBusiness;
+
+	@Inject
+	private StatisticsBusiness statisticsBusiness;
+
+	@Inject
+	private MailOutboxBusiness mailOutboxBusiness;
+
 	@PostConstruct
 	private void init() {
 		jobs = new LazyJobDataModel();
+		mailOutboxStatistics = mailOutboxBusiness.getStatistics();
 	}
 
 	public LazyJobDataModel getJobs() {
 		return jobs;
 	}
 
+	public MailOutboxStatistics getMailOutboxStatistics() {
+		return mailOutboxStatistics;
+	}
+
+	public void refreshMailOutboxStatistics() {
+		mailOutboxStatistics = mailOutboxBusiness.getStatistics();
+	}
+
+	public List<CourseResultRecalculation> getCourseResultRecalculations() {
+		return courseResultRecalculationBusiness.getRecalculations();
+	}
+
+	/**
+	 * Resumes a failed recalculation of course results after the last processed course record.
+	 */
+	public void resumeCourseResultRecalculation(CourseResultRecalculation recalculation) {
+		final CourseOffer courseOffer = courseBusiness.getCourseOfferById(recalculation.getCourseOfferId())
+				.orElse(null);
+		if (courseOffer == null) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_ERROR, "global.error", "exception.actionNotAllowed");
+			return;
+		}
+
+		try {
+			courseResultRecalculationBusiness.resumeRecalculation(courseOffer);
+		} catch (ActionNotAllowedException e) {
+			addGlobalFacesMessage(FacesMessage.SEVERITY_WARN, "global.warn",
+					"courseOfferParticipants.recalculationRunning");
+		}
+	}
+
+	/**
+	 * Discards all precomputed statistics, e.g. after course records have been changed directly in the database.
+	 */
+	public void rebuildStatistics() {
+		statisticsBusiness.rebuildStatistics();
+		addGlobalFacesMessage(FacesMessage.SEVERITY_INFO, "tenantadmin.jobs.statistics",
+				"tenantadmin.jobs.statisticsRebuilt");
+	}
+
 }
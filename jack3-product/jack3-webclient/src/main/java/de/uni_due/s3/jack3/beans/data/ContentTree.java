@@ -6,11 +6,14 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Queue;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.math.NumberUtils;
@@ -82,6 +85,17 @@ public class ContentTree {
 	private Consumer<TreeNode> storeExpandedNode;
 	private Consumer<TreeNode> removeExpandedNode;
 
+	// Data for loading courses and exercises of a folder when it is expanded, only set in lazy mode
+	private Map<Long, Long> numberOfContentsByFolderId;
+	private Function<List<ContentFolder>, List<Course>> courseLoader;
+	private Function<List<ContentFolder>, List<Exercise>> exerciseLoader;
+	private Consumer<AbstractEntity> onContentLoaded;
+	private final Set<ContentFolder> foldersWithUnloadedContent = new HashSet<>();
+
+	// Whether a folder is a personal folder and who owns it never changes, so we look it up only once per folder
+	private final Map<Folder, Boolean> personalFolders = new HashMap<>();
+	private final Map<ContentFolder, User> ownersOfPersonalFolders = new HashMap<>();
+
 	///Common Methods --- Non-Entity-Specific Node Methods///
 
 	public ContentTree(final UserSession userSession, final FolderBusiness folderBusiness) {
@@ -104,8 +118,9 @@ public class ContentTree {
 		addFoldersToTree();
 		addCoursesToTree();
 		addExercisesToTree();
-		updateFolderNodeTypes();
-		sortContentTree();
+		if (isLazy()) {
+			addPlaceholdersForUnloadedContent();
+		}
 		expandTreeForFolders();
 
 		// If we know in which folder the user was at his/her latest interaction, we expand the tree up to this point
@@ -118,6 +133,11 @@ public class ContentTree {
 				}
 			}
 		}
+
+		// In lazy mode, only the content of the folders that are shown expanded is loaded, all at once
+		loadContent(getExpandedFoldersWithUnloadedContent());
+		updateFolderNodeTypes();
+		sortContentTree();
 	}
 
 	/**
@@ -170,6 +190,7 @@ public class ContentTree {
 		final ContentFolder rootContentFolder = folderBusiness.getContentRoot();
 		setTreeRootNode(new DefaultTreeNode(rootContentFolder));
 		contentFolderNodeMap.put(rootContentFolder, getTreeRootNode());
+		foldersWithUnloadedContent.clear();
 	}
 
 	public boolean isDataSetForBuild() {
@@ -190,7 +211,7 @@ public class ContentTree {
 	 * </ul>
 	 */
 	private void sortContentTree() {
-		final Comparator<TreeNode> compi = new ContentTreeOrder(folderBusiness);
+		final Comparator<TreeNode> compi = getContentTreeOrder();
 		for (final TreeNode node : contentFolderNodeMap.values()) {
 			TreeUtils.sortNode(node, compi);
 		}
@@ -221,7 +242,7 @@ public class ContentTree {
 		if ((folder != null) && (contentFolderNodeMap.containsKey(folder))) {
 			TreeNode currentNode = contentFolderNodeMap.get(folder);
 			do {
-				expandNode(currentNode);
+				markNodeAsExpanded(currentNode);
 				currentNode = currentNode.getParent();
 			} while ((currentNode != null) && (currentNode != treeRootNode));
 
@@ -238,13 +259,20 @@ public class ContentTree {
 		}
 	}
 
+	/**
+	 * Expands the node. In lazy mode, the content of the folder is loaded if this has not happened yet.
+	 */
 	public void expandNode(final TreeNode nodeToExpand) {
+		markNodeAsExpanded(nodeToExpand);
+		notifyContentLoaded(loadContent(getExpandedFoldersWithUnloadedContent()));
+	}
+
+	private void markNodeAsExpanded(final TreeNode nodeToExpand) {
 		nodeToExpand.setExpanded(true);
 		if (!expandedFolderList.contains(nodeToExpand.getData())) {
 			// The consumer adds the passed folder (in form of a TreeNode) to the current list of expanded elements 
 			storeExpandedNode.accept(nodeToExpand);
 		}
-
 	}
 
 	public void collapseNode(final TreeNode nodeToCollapse) {
@@ -308,7 +336,7 @@ public class ContentTree {
 	 * @param currentFolder
 	 */
 	private void setNodeType(final TreeNode currentNode, final ContentFolder currentFolder) {
-		if (folderBusiness.isPersonalFolder(currentFolder)) {
+		if (isPersonalFolder(currentFolder)) {
 			if (currentNode.equals(userNodesMap.getOrDefault(getCurrentUser(), null))) {
 				// currentFolder is the root folder of the current user (= personal folder)
 				currentNode.setType(ETreeNodeType.PERSONAL_FOLDER_TYPE.getName());
@@ -577,7 +605,7 @@ public class ContentTree {
 	public void moveChildNodeToParentNode(final TreeNode parentNode, final TreeNode childNode) {
 		childNode.getParent().getChildren().remove(childNode);
 		parentNode.getChildren().add(childNode);
-		TreeUtils.sortNode(childNode, new ContentTreeOrder(folderBusiness));
+		TreeUtils.sortNode(childNode, getContentTreeOrder());
 	}
 
 	/**
@@ -607,6 +635,22 @@ public class ContentTree {
 		} else {
 			throw new IllegalArgumentException("Unsuported Entity in Node");
 		}
+		notifyContentLoaded(loadContent(getExpandedFoldersWithUnloadedContent()));
+	}
+
+	/**
+	 * Returns a comparator for the children of a node. The owners of personal folders are looked up only once.
+	 */
+	private Comparator<TreeNode> getContentTreeOrder() {
+		return new ContentTreeOrder(this::getOwnerOfPersonalFolder);
+	}
+
+	private boolean isPersonalFolder(final Folder folder) {
+		return personalFolders.computeIfAbsent(folder, folderBusiness::isPersonalFolder);
+	}
+
+	private User getOwnerOfPersonalFolder(final ContentFolder personalFolder) {
+		return ownersOfPersonalFolders.computeIfAbsent(personalFolder, folderBusiness::getOwnerOfContentFolder);
 	}
 
 	///FolderMethods
@@ -632,7 +676,7 @@ public class ContentTree {
 			if (getContentFolderRightsMap().get(contentFolder).isNone()) {
 				break;
 			}
-			if (!contentFolderNodeMap.containsKey(contentFolder) && !folderBusiness.isPersonalFolder(contentFolder)) {
+			if (!contentFolderNodeMap.containsKey(contentFolder) && !isPersonalFolder(contentFolder)) {
 				final TreeNode tempFolderNode = new DefaultTreeNode(contentFolder);
 				contentFolderNodeMap.put(contentFolder, tempFolderNode);
 				//We now walk up the tree until we have reached the root node, which is the folder that has no parent folder.
@@ -674,7 +718,7 @@ public class ContentTree {
 				return;
 			}
 
-			if (folderBusiness.isPersonalFolder(parent)) {
+			if (isPersonalFolder(parent)) {
 				final TreeNode tmpNode = getOrCreateUserRootNode((ContentFolder) parent);
 				addFolderToTreeNodeUnsorted(tmpNode, currentFolder);
 				return;
@@ -693,7 +737,7 @@ public class ContentTree {
 	 * @return The personal folder of the owner of the given folder
 	 */
 	private Folder getPersonalFolderFor(Folder contentFolder) {
-		if (folderBusiness.isPersonalFolder(contentFolder)) {
+		if (isPersonalFolder(contentFolder)) {
 			return contentFolder;
 		}
 		Folder parentFolder = contentFolder.getParentFolder();
@@ -741,7 +785,7 @@ public class ContentTree {
 		getContentFolderRightsMap().put(currentFolder, rightOnFolder);
 		setNodeType(tmpFolderNode, currentFolder);
 		setNodeType(parentNode, parentFolder);
-		parentNode.getChildren().sort(new ContentTreeOrder(folderBusiness));
+		parentNode.getChildren().sort(getContentTreeOrder());
 	}
 
 	/**
@@ -760,7 +804,7 @@ public class ContentTree {
 	 * @return
 	 */
 	private TreeNode getOrCreateParentFolderNodeForTree(final ContentFolder currentFolder) {
-		if (folderBusiness.isPersonalFolder(currentFolder)) {
+		if (isPersonalFolder(currentFolder)) {
 			return getOrCreateUserRootNode(currentFolder);
 		}
 		return getOrCreateOrdinaryNodeForTree(currentFolder);
@@ -816,7 +860,7 @@ public class ContentTree {
 	 * @return
 	 */
 	private TreeNode getOrCreateUserRootNode(final ContentFolder currentFolder) {
-		final User tmpUser = folderBusiness.getOwnerOfContentFolder(currentFolder);
+		final User tmpUser = getOwnerOfPersonalFolder(currentFolder);
 		return userNodesMap.computeIfAbsent(tmpUser, u -> createNewUserRootNodeForTree(currentFolder));
 	}
 
@@ -857,7 +901,7 @@ public class ContentTree {
 		setNodeType(oldParentEntityNode, oldParentEntity);
 		addChildNodeToParentNode(targetFolderNode, folderToMoveNode);
 		setNodeType(targetFolderNode, targetFolder);
-		TreeUtils.sortNode(targetFolderNode, new ContentTreeOrder(folderBusiness));
+		TreeUtils.sortNode(targetFolderNode, getContentTreeOrder());
 		//For simplicity-sake, the cached data won't be updated. Instead the site will be reloaded.
 	}
 
@@ -933,6 +977,7 @@ public class ContentTree {
 
 		contentFolderNodeMap.remove(currentFolder);
 		getContentFolderRightsMap().remove(currentFolder);
+		foldersWithUnloadedContent.remove(currentFolder);
 
 		selectTreeNode(parentFolderNode);
 
@@ -966,6 +1011,96 @@ public class ContentTree {
 		return contentFolderNodeMap.getOrDefault(folder, null);
 	}
 
+	///Lazy Loading Methods///
+
+	/**
+	 * Adds a placeholder node to every folder whose courses and exercises are not loaded yet, so the folder can be
+	 * expanded and is not considered empty.
+	 * <br>Requires the following Variables to be set and/or alters them:
+	 * <ul>
+	 * <li>{@link #numberOfContentsByFolderId} should contain the number of courses and exercises for every folder
+	 * <li>To {@link #foldersWithUnloadedContent} every folder with a placeholder is added
+	 * </ul>
+	 */
+	private void addPlaceholdersForUnloadedContent() {
+		for (final Entry<ContentFolder, TreeNode> entry : contentFolderNodeMap.entrySet()) {
+			if (numberOfContentsByFolderId.getOrDefault(entry.getKey().getId(), 0L) > 0) {
+				final TreeNode placeholder = new DefaultTreeNode("");
+				placeholder.setType(ETreeNodeType.UNLOADED_CONTENT_TYPE.getName());
+				addChildNodeToParentNode(entry.getValue(), placeholder);
+				foldersWithUnloadedContent.add(entry.getKey());
+			}
+		}
+	}
+
+	private List<ContentFolder> getExpandedFoldersWithUnloadedContent() {
+		return foldersWithUnloadedContent.stream()
+				.filter(folder -> contentFolderNodeMap.containsKey(folder))
+				.filter(folder -> contentFolderNodeMap.get(folder).isExpanded())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Loads the courses and exercises of all folders below the given node that were not loaded yet, e.g. before
+	 * the content of the subtree is evaluated.
+	 */
+	public void loadContentBelow(final TreeNode node) {
+		final List<ContentFolder> folders = TreeNodeUtils.getAllNodes(node).stream()
+				.map(TreeNode::getData)
+				.filter(foldersWithUnloadedContent::contains)
+				.map(ContentFolder.class::cast)
+				.collect(Collectors.toList());
+		notifyContentLoaded(loadContent(folders));
+	}
+
+	/**
+	 * Loads the courses and exercises of the given folders with one query each and replaces the placeholders of the
+	 * folders. Content that is already part of the tree, e.g. because it was moved into the folder, is skipped.
+	 *
+	 * @return The newly added courses and exercises
+	 */
+	private List<AbstractEntity> loadContent(final List<ContentFolder> folders) {
+		final List<AbstractEntity> loadedContent = new ArrayList<>();
+		if (folders.isEmpty()) {
+			return loadedContent;
+		}
+
+		for (final Course course : courseLoader.apply(folders)) {
+			if (!courseNodeMap.containsKey(course)) {
+				addCourseNodeToTreeUnsorted(course.getFolder(), course);
+				getCourseList().add(course);
+				loadedContent.add(course);
+			}
+		}
+		for (final Exercise exercise : exerciseLoader.apply(folders)) {
+			if (!exerciseNodeMap.containsKey(exercise)) {
+				addExerciseNodeToTreeUnsorted(exercise.getFolder(), exercise);
+				getExerciseList().add(exercise);
+				loadedContent.add(exercise);
+			}
+		}
+
+		final Comparator<TreeNode> order = getContentTreeOrder();
+		for (final ContentFolder folder : folders) {
+			final TreeNode folderNode = contentFolderNodeMap.get(folder);
+			for (final TreeNode child : new ArrayList<>(folderNode.getChildren())) {
+				if (ETreeNodeType.UNLOADED_CONTENT_TYPE.getName().equals(child.getType())) {
+					removeChildNodeFromParentNode(folderNode, child);
+				}
+			}
+			setNodeType(folderNode, folder);
+			folderNode.getChildren().sort(order);
+			foldersWithUnloadedContent.remove(folder);
+		}
+		return loadedContent;
+	}
+
+	private void notifyContentLoaded(final List<AbstractEntity> loadedContent) {
+		if (onContentLoaded != null) {
+			loadedContent.forEach(onContentLoaded);
+		}
+	}
+
 	//CourseMethods///
 
 	/**
@@ -1029,7 +1164,7 @@ public class ContentTree {
 		addCourseNodeToTreeUnsorted(parentFolder, course);
 		setNodeType(contentFolderNodeMap.get(parentFolder), parentFolder);
 		getCourseList().add(course);
-		contentFolderNodeMap.get(parentFolder).getChildren().sort(new ContentTreeOrder(folderBusiness));
+		contentFolderNodeMap.get(parentFolder).getChildren().sort(getContentTreeOrder());
 	}
 
 	/**
@@ -1055,7 +1190,7 @@ public class ContentTree {
 		setNodeType(sourceEntityNode, sourceEntity);
 		addChildNodeToParentNode(targetFolderNode, courseNode);
 		setNodeType(targetFolderNode, targetFolder);
-		TreeUtils.sortNode(targetFolderNode, new ContentTreeOrder(folderBusiness));
+		TreeUtils.sortNode(targetFolderNode, getContentTreeOrder());
 	}
 
 	/**
@@ -1172,7 +1307,7 @@ public class ContentTree {
 		addExerciseNodeToTreeUnsorted(parentFolder, exercise);
 		setNodeType(contentFolderNodeMap.get(parentFolder), parentFolder);
 		getExerciseList().add(exercise);
-		contentFolderNodeMap.get(parentFolder).getChildren().sort(new ContentTreeOrder(folderBusiness));
+		contentFolderNodeMap.get(parentFolder).getChildren().sort(getContentTreeOrder());
 	}
 
 	/**
@@ -1198,7 +1333,7 @@ public class ContentTree {
 		setNodeType(sourceEntityNode, sourceEntity);
 		addChildNodeToParentNode(targetFolderNode, exerciseNode);
 		setNodeType(targetFolderNode, targetFolder);
-		TreeUtils.sortNode(targetFolderNode, new ContentTreeOrder(folderBusiness));
+		TreeUtils.sortNode(targetFolderNode, getContentTreeOrder());
 	}
 
 	/**
@@ -1393,6 +1528,37 @@ public class ContentTree {
 		this.removeExpandedNode = removeExpandedNode;
 	}
 
+	/**
+	 * Switches the tree to lazy mode: Only the folders are added when the tree is built. The courses and exercises of
+	 * a folder are loaded when the folder is expanded. The course and exercise lists should be empty in this case.
+	 *
+	 * @param numberOfContentsByFolderId
+	 *            Number of courses and exercises of each folder, to decide which folders can be expanded
+	 * @param courseLoader
+	 *            Loads the courses of the given folders
+	 * @param exerciseLoader
+	 *            Loads the exercises of the given folders
+	 */
+	public void enableLazyLoading(final Map<Long, Long> numberOfContentsByFolderId,
+			final Function<List<ContentFolder>, List<Course>> courseLoader,
+			final Function<List<ContentFolder>, List<Exercise>> exerciseLoader) {
+		this.numberOfContentsByFolderId = numberOfContentsByFolderId;
+		this.courseLoader = courseLoader;
+		this.exerciseLoader = exerciseLoader;
+	}
+
+	public boolean isLazy() {
+		return numberOfContentsByFolderId != null;
+	}
+
+	/**
+	 * @param onContentLoaded
+	 *            Called for every course and exercise that is loaded after the tree was built
+	 */
+	public void setOnContentLoaded(final Consumer<AbstractEntity> onContentLoaded) {
+		this.onContentLoaded = onContentLoaded;
+	}
+
 	////////////////////////	IN-DEV	///////////////////////////////////////
 
 }
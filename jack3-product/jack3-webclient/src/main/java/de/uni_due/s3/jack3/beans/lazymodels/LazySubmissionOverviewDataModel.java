@@ -0,0 +1,55 @@
+package de.uni_due.s3.jack3.beans.lazymodels;
+
+import java.util.List;
+import java.util.Map;
+
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortOrder;
+
+import de.uni_due.s3.jack3.beans.data.StatisticsStateHolder;
+import de.uni_due.s3.jack3.business.ExerciseBusiness;
+import de.uni_due.s3.jack3.entities.tenant.Exercise;
+import de.uni_due.s3.jack3.multitenancy.LoggerProvider;
+import de.uni_due.s3.jack3.services.utils.SubmissionOverview;
+import de.uni_due.s3.jack3.utils.StopWatch;
+
+/**
+ * Loads the submissions of an exercise and its frozen revisions page by page. Each page is loaded with one projection
+ * query. The submissions are always ordered with the latest first, grouped by revision if this is selected in the
+ * {@link StatisticsStateHolder}.
+ */
+public class LazySubmissionOverviewDataModel extends LazyDataModel<SubmissionOverview> {
+
+	private static final long serialVersionUID = 7379625373146911536L;
+
+	private final ExerciseBusiness exerciseBusiness;
+
+	private final Exercise exercise;
+
+	private final StatisticsStateHolder statisticsStateHolder;
+
+	public LazySubmissionOverviewDataModel(Exercise exercise, ExerciseBusiness exerciseBusiness,
+			StatisticsStateHolder statisticsStateHolder) {
+		this.exerciseBusiness = exerciseBusiness;
+		this.exercise = exercise;
+		this.statisticsStateHolder = statisticsStateHolder;
+	}
+
+	@Override
+	public List<SubmissionOverview> load(int first, int pageSize, String sortField, SortOrder sortOrder,
+			Map<String, FilterMeta> filterBy) {
+		StopWatch stopWatch = new StopWatch().start();
+
+		// The order is fixed, "sortField" only reflects the grouping of the table
+		List<SubmissionOverview> submissions = exerciseBusiness.getSubmissionOverviewsForExerciseAndFrozenVersions(
+				exercise, statisticsStateHolder.isGroupSubmissionsByVersion(), first, pageSize);
+
+		setRowCount(Math.toIntExact(exerciseBusiness.countAllSubmissionsForExercise(exercise)));
+
+		LoggerProvider.get(getClass())
+				.debug("Lazy loading submissions took " + stopWatch.stop().getElapsedMilliseconds());
+
+		return submissions;
+	}
+}
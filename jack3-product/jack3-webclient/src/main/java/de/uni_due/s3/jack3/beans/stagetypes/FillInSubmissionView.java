@@ -4,7 +4,6 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.inject.Inject;
 
@@ -60,8 +59,7 @@ public class FillInSubmissionView extends AbstractSubmissionView implements Seri
 				true);
 		fillInSubmissionViewFields = new ArrayList<>(stagesubmissionFields.size());
 
-		Pattern patternInputOrSelect = Pattern.compile(FillInStageBusiness.TASK_DESCRIPTION_DIVIDER_PATTERN);
-		Matcher matcherInputOrSelect = patternInputOrSelect.matcher(text);
+		Matcher matcherInputOrSelect = FillInStageBusiness.TASK_DESCRIPTION_DIVIDER.matcher(text);
 
 		int beginIndex = 0;
 		while (matcherInputOrSelect.find()) {
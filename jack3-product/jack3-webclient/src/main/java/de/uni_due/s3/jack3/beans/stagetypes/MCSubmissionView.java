@@ -46,17 +46,20 @@ public class MCSubmissionView extends AbstractSubmissionView implements Serializ
 	}
 
 	private void createMCSubmissionViewFields(Submission submission, MCSubmission stageSubmission, MCStage stage) {
-		taskDescription = exercisePlayerBusiness.resolvePlaceholders(stage.getTaskDescription(), submission,
-				stageSubmission,
-				stage, true);
+		// The task description and all answer options are resolved at once
+		final List<Integer> optionsOrder = stageSubmission.getOptionsOrder();
+		final List<String> texts = new ArrayList<>(optionsOrder.size() + 1);
+		texts.add(stage.getTaskDescription());
+		for (final int i : optionsOrder) {
+			texts.add(stage.getAnswerOptions().get(i).getText());
+		}
+		final List<String> resolvedTexts = exercisePlayerBusiness.resolvePlaceholders(texts, submission,
+				stageSubmission, stage, true);
 
+		taskDescription = resolvedTexts.get(0);
 		answerOptions = new LinkedList<>();
-		for (final int i : stageSubmission.getOptionsOrder()) {
-			String answerOptionText = stage.getAnswerOptions().get(i).getText();
-			answerOptionText = exercisePlayerBusiness.resolvePlaceholders(answerOptionText, submission,
-					stageSubmission,
-					stage, true);
-			SelectItem answerItem = new SelectItem(i, answerOptionText);
+		for (int position = 0; position < optionsOrder.size(); position++) {
+			SelectItem answerItem = new SelectItem(optionsOrder.get(position), resolvedTexts.get(position + 1));
 			answerItem.setEscape(false);
 			answerOptions.add(answerItem);
 		}
@@ -2,6 +2,9 @@ package de.uni_due.s3.jack3.comparators;
 
 import java.io.Serializable;
 import java.util.Comparator;
+import java.util.function.Function;
+
+import javax.enterprise.inject.spi.CDI;
 
 import org.primefaces.model.TreeNode;
 
@@ -9,6 +12,7 @@ import de.uni_due.s3.jack3.business.FolderBusiness;
 import de.uni_due.s3.jack3.entities.tenant.ContentFolder;
 import de.uni_due.s3.jack3.entities.tenant.Course;
 import de.uni_due.s3.jack3.entities.tenant.Exercise;
+import de.uni_due.s3.jack3.entities.tenant.User;
 import de.uni_due.s3.jack3.enums.ETreeNodeType;
 
 public class ContentTreeOrder implements Comparator<TreeNode>, Serializable {
@@ -18,10 +22,19 @@ public class ContentTreeOrder implements Comparator<TreeNode>, Serializable {
 	 */
 	private static final long serialVersionUID = -4328220709004256370L;
 	
-	private FolderBusiness folderBusiness;
-	
+	/** Not serialized, so it is {@code null} after deserialization until it is looked up again. */
+	private transient Function<ContentFolder, User> ownerOfContentFolder;
+
 	public ContentTreeOrder(FolderBusiness folderBusiness){
-		this.folderBusiness = folderBusiness;
+		this(folderBusiness::getOwnerOfContentFolder);
+	}
+
+	/**
+	 * @param ownerOfContentFolder
+	 *            Returns the owner of a personal folder, e.g. from a map of already known owners
+	 */
+	public ContentTreeOrder(Function<ContentFolder, User> ownerOfContentFolder) {
+		this.ownerOfContentFolder = ownerOfContentFolder;
 	}
 
 	@Override
@@ -66,14 +79,25 @@ public class ContentTreeOrder implements Comparator<TreeNode>, Serializable {
 				return ((ContentFolder) node0.getData()).getName()
 						.compareTo(((ContentFolder) node1.getData()).getName());
 			} else {
-				return folderBusiness.getOwnerOfContentFolder((ContentFolder) node0.getData()).getLoginName()
-						.compareTo(folderBusiness.getOwnerOfContentFolder((ContentFolder) node1.getData()).getLoginName());
+				return getOwnerOfContentFolder().apply((ContentFolder) node0.getData()).getLoginName()
+						.compareTo(getOwnerOfContentFolder().apply((ContentFolder) node1.getData()).getLoginName());
 			}
 
 		}
 		return 0;
 	}
 
+	/**
+	 * Returns the owner lookup, which is looked up again from the {@link FolderBusiness} after the comparator has been
+	 * deserialized, e.g. with the view state after a session failover.
+	 */
+	private Function<ContentFolder, User> getOwnerOfContentFolder() {
+		if (ownerOfContentFolder == null) {
+			ownerOfContentFolder = CDI.current().select(FolderBusiness.class).get()::getOwnerOfContentFolder;
+		}
+		return ownerOfContentFolder;
+	}
+
 	private boolean isUserRootNode(TreeNode node) {
 		return node.getType().contentEquals(ETreeNodeType.PERSONAL_FOLDER_TYPE.getName())
 				|| node.getType().contentEquals(ETreeNodeType.SHARED_FOLDER_TYPE.getName());
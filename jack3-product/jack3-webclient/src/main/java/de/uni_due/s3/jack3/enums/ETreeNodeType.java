@@ -33,7 +33,10 @@ public enum ETreeNodeType {
 	//Exercise
 	EXERCISE_TYPE("exercise"),
 	NO_DELETE_EXERCISE_TYPE("noDeleteExercise"),
-	NEW_EXERCISE("newExercise");
+	NEW_EXERCISE("newExercise"),
+
+	//Placeholder for the courses and exercises of a folder that are not loaded yet
+	UNLOADED_CONTENT_TYPE("unloadedContent");
 	
 
 
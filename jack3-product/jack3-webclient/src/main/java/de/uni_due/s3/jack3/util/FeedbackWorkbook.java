@@ -0,0 +1,227 @@
+package de.uni_due.s3.jack3.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaRenderer;
+import org.apache.poi.ss.formula.FormulaShifter;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Fills the import sheet of a feedback template with the results of many course records. The template is the course
+ * resource {@value #TEMPLATE_FILENAME}, its third sheet is the import sheet. The first row of the import sheet contains
+ * the exercise names and a column for the submission date. Each course record is written to its own row, starting
+ * with the third row.
+ *
+ * The third row of the import sheet is the template for all result rows, as in the export of a single course record.
+ * Its styles, values and formulas are copied to each written row, with relative references in formulas moved to that
+ * row. Rows below the third row are examples and are not exported.
+ *
+ * Rows are streamed: only the last {@value #ROW_WINDOW} rows are kept in memory, older rows are flushed to a
+ * compressed temporary file. Rows must thus be written in order and cannot be changed afterwards. Formulas are not
+ * evaluated here, the spreadsheet application recalculates them when the file is opened.
+ */
+public class FeedbackWorkbook implements Closeable {
+
+	/**
+	 * A cell of the template row.
+	 */
+	private static final class TemplateCell {
+
+		private final int column;
+		private final CellStyle style;
+		private final CellType type;
+		private final String formula;
+		private final String text;
+		private final double number;
+		private final boolean bool;
+
+		private TemplateCell(Cell cell) {
+			column = cell.getColumnIndex();
+			style = cell.getCellStyle();
+			type = cell.getCellTypeEnum();
+			formula = type == CellType.FORMULA ? cell.getCellFormula() : null;
+			text = type == CellType.STRING ? cell.getStringCellValue() : null;
+			number = type == CellType.NUMERIC ? cell.getNumericCellValue() : 0;
+			bool = type == CellType.BOOLEAN && cell.getBooleanCellValue();
+		}
+	}
+
+	public static final String TEMPLATE_FILENAME = "Feedback.xlsx";
+
+	private static final int IMPORT_SHEET = 2;
+	private static final int HEADER_ROW = 0;
+	private static final int FIRST_RESULT_ROW = 2;
+	private static final String SUBMISSION_DATE_HEADER = "Einreichungsdatum:";
+	private static final String DATE_FORMAT = "dd.MM.yy";
+	private static final int ROW_WINDOW = 100;
+
+	private final SXSSFWorkbook workbook;
+	private final SXSSFSheet importSheet;
+	private final XSSFEvaluationWorkbook formulaWorkbook;
+	private final String importSheetName;
+	private final CellStyle dateStyle;
+	private final List<TemplateCell> templateCells = new ArrayList<>();
+	private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
+
+	/** Column of each exercise, by exercise name */
+	private final Map<String, Integer> exerciseColumns = new HashMap<>();
+	private final List<Integer> dateColumns = new ArrayList<>();
+
+	private int nextRow = FIRST_RESULT_ROW;
+
+	/**
+	 * @param template
+	 *            Content of the {@value #TEMPLATE_FILENAME} course resource
+	 * @throws IOException
+	 *             If the template can't be read
+	 */
+	public FeedbackWorkbook(byte[] template) throws IOException {
+		final XSSFWorkbook templateWorkbook = new XSSFWorkbook(new ByteArrayInputStream(template));
+		final XSSFSheet templateSheet = templateWorkbook.getSheetAt(IMPORT_SHEET);
+
+		final DataFormatter formatter = new DataFormatter();
+		final XSSFRow header = templateSheet.getRow(HEADER_ROW);
+		for (int i = 1; header != null && i < header.getLastCellNum(); i++) {
+			final String title = formatter.formatCellValue(header.getCell(i));
+			if (SUBMISSION_DATE_HEADER.equalsIgnoreCase(title.strip())) {
+				dateColumns.add(i);
+			} else if (!title.isEmpty()) {
+				exerciseColumns.putIfAbsent(title, i);
+			}
+		}
+
+		final XSSFRow templateRow = templateSheet.getRow(FIRST_RESULT_ROW);
+		if (templateRow != null) {
+			for (final Cell cell : templateRow) {
+				templateCells.add(new TemplateCell(cell));
+			}
+		}
+
+		// The streaming sheet can only append rows, so the template row and the example rows are removed
+		final List<Row> exampleRows = new ArrayList<>();
+		for (final Row row : templateSheet) {
+			if (row.getRowNum() >= FIRST_RESULT_ROW) {
+				exampleRows.add(row);
+			}
+		}
+		exampleRows.forEach(templateSheet::removeRow);
+
+		dateStyle = templateWorkbook.createCellStyle();
+		dateStyle.setDataFormat(templateWorkbook.getCreationHelper().createDataFormat().getFormat(DATE_FORMAT));
+
+		formulaWorkbook = XSSFEvaluationWorkbook.create(templateWorkbook);
+		importSheetName = templateWorkbook.getSheetName(IMPORT_SHEET);
+		workbook = new SXSSFWorkbook(templateWorkbook, ROW_WINDOW);
+		workbook.setCompressTempFiles(true);
+		importSheet = workbook.getSheetAt(IMPORT_SHEET);
+	}
+
+	/**
+	 * Appends the results of a course record to the import sheet.
+	 *
+	 * @param participant
+	 *            Name written to the first column
+	 * @param startTime
+	 *            Written to the submission date column
+	 * @param pointsByExerciseName
+	 *            Points of the course record, exercises the template does not list are ignored
+	 */
+	public void addResults(String participant, LocalDateTime startTime, Map<String, Integer> pointsByExerciseName) {
+		final Row row = createRowFromTemplate(nextRow++);
+		getOrCreateCell(row, 0).setCellValue(participant);
+		for (final Map.Entry<String, Integer> points : pointsByExerciseName.entrySet()) {
+			final Integer column = exerciseColumns.get(points.getKey());
+			if (column != null) {
+				getOrCreateCell(row, column).setCellValue(points.getValue());
+			}
+		}
+		for (final int column : dateColumns) {
+			final Cell cell = getOrCreateCell(row, column);
+			cell.setCellValue(dateFormatter.format(startTime));
+			cell.setCellStyle(dateStyle);
+		}
+	}
+
+	private Row createRowFromTemplate(int rowIndex) {
+		final Row row = importSheet.createRow(rowIndex);
+		for (final TemplateCell templateCell : templateCells) {
+			final Cell cell = row.createCell(templateCell.column);
+			cell.setCellStyle(templateCell.style);
+			switch (templateCell.type) {
+			case FORMULA:
+				cell.setCellFormula(moveFormula(templateCell.formula, rowIndex));
+				break;
+			case STRING:
+				cell.setCellValue(templateCell.text);
+				break;
+			case NUMERIC:
+				cell.setCellValue(templateCell.number);
+				break;
+			case BOOLEAN:
+				cell.setCellValue(templateCell.bool);
+				break;
+			default:
+				// Blank cells only keep their style
+				break;
+			}
+		}
+		return row;
+	}
+
+	/**
+	 * Moves the relative references of a formula of the template row to the given row, like copying the row in a
+	 * spreadsheet application. Absolute references are kept.
+	 */
+	private String moveFormula(String formula, int rowIndex) {
+		final Ptg[] ptgs = FormulaParser.parse(formula, formulaWorkbook, FormulaType.CELL, IMPORT_SHEET, rowIndex);
+		final FormulaShifter shifter = FormulaShifter.createForRowCopy(IMPORT_SHEET, importSheetName,
+				FIRST_RESULT_ROW, FIRST_RESULT_ROW, rowIndex - FIRST_RESULT_ROW, SpreadsheetVersion.EXCEL2007);
+		return shifter.adjustFormula(ptgs, IMPORT_SHEET) ? FormulaRenderer.toFormulaString(formulaWorkbook, ptgs)
+				: formula;
+	}
+
+	private static Cell getOrCreateCell(Row row, int column) {
+		final Cell cell = row.getCell(column);
+		return cell != null ? cell : row.createCell(column);
+	}
+
+	/**
+	 * Writes the workbook. Afterwards no more results can be added.
+	 */
+	public void write(OutputStream out) throws IOException {
+		workbook.setForceFormulaRecalculation(true);
+		workbook.write(out);
+	}
+
+	/**
+	 * Deletes the temporary files of the flushed rows.
+	 */
+	@Override
+	public void close() throws IOException {
+		workbook.dispose();
+		workbook.close();
+	}
+}
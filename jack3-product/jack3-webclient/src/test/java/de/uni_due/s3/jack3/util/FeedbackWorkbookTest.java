@@ -0,0 +1,119 @@
+package de.uni_due.s3.jack3.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link FeedbackWorkbook} with a small template whose import sheet has a formula column.
+ */
+class FeedbackWorkbookTest {
+
+	private XSSFWorkbook result;
+
+	@BeforeEach
+	void exportResults() throws IOException {
+		try (FeedbackWorkbook workbook = new FeedbackWorkbook(createTemplate());
+				ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			workbook.addResults("Alice", LocalDateTime.of(2024, 1, 2, 10, 0), Map.of("A", 3, "B", 4, "Unknown", 5));
+			workbook.addResults("Bob", LocalDateTime.of(2024, 1, 3, 10, 0), Map.of("A", 7));
+			workbook.write(out);
+			result = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()));
+		}
+	}
+
+	@AfterEach
+	void closeResult() throws IOException {
+		result.close();
+	}
+
+	/**
+	 * Creates a template with the columns "A", "B", the submission date and the sum of the points. The third row of
+	 * the import sheet is the template row, the fourth row is an example.
+	 */
+	private static byte[] createTemplate() throws IOException {
+		try (XSSFWorkbook template = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+			template.createSheet("Feedback");
+			template.createSheet("Tasks");
+			final XSSFSheet importSheet = template.createSheet("Import");
+
+			final XSSFRow header = importSheet.createRow(0);
+			header.createCell(0).setCellValue("Name");
+			header.createCell(1).setCellValue("A");
+			header.createCell(2).setCellValue("B");
+			header.createCell(3).setCellValue("Einreichungsdatum:");
+			header.createCell(4).setCellValue("Sum");
+
+			final CellStyle pointsStyle = template.createCellStyle();
+			pointsStyle.setFillForegroundColor(IndexedColors.YELLOW.getIndex());
+			pointsStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+			final XSSFRow templateRow = importSheet.createRow(2);
+			templateRow.createCell(1).setCellStyle(pointsStyle);
+			templateRow.createCell(2).setCellStyle(pointsStyle);
+			templateRow.createCell(4).setCellFormula("SUM(B3:C3)*$B$1");
+			templateRow.createCell(5).setCellValue("constant");
+
+			importSheet.createRow(3).createCell(0).setCellValue("Example");
+
+			template.write(out);
+			return out.toByteArray();
+		}
+	}
+
+	private XSSFSheet getImportSheet() {
+		return result.getSheetAt(2);
+	}
+
+	@Test
+	void resultsAreWrittenToTheirColumns() {
+		final XSSFRow first = getImportSheet().getRow(2);
+		assertEquals("Alice", first.getCell(0).getStringCellValue());
+		assertEquals(3, first.getCell(1).getNumericCellValue());
+		assertEquals(4, first.getCell(2).getNumericCellValue());
+		assertEquals("02.01.24", first.getCell(3).getStringCellValue());
+
+		final XSSFRow second = getImportSheet().getRow(3);
+		assertEquals("Bob", second.getCell(0).getStringCellValue());
+		assertEquals(7, second.getCell(1).getNumericCellValue());
+		assertEquals("03.01.24", second.getCell(3).getStringCellValue());
+	}
+
+	@Test
+	void exampleRowsAreReplaced() {
+		assertEquals(3, getImportSheet().getLastRowNum());
+		assertEquals("Bob", getImportSheet().getRow(3).getCell(0).getStringCellValue());
+	}
+
+	@Test
+	void formulasAreMovedToEachRow() {
+		assertEquals("SUM(B3:C3)*$B$1", getImportSheet().getRow(2).getCell(4).getCellFormula());
+		assertEquals("SUM(B4:C4)*$B$1", getImportSheet().getRow(3).getCell(4).getCellFormula());
+	}
+
+	@Test
+	void stylesAndValuesOfTemplateRowAreCopied() {
+		for (int row = 2; row <= 3; row++) {
+			final XSSFRow written = getImportSheet().getRow(row);
+			assertEquals(FillPatternType.SOLID_FOREGROUND, written.getCell(1).getCellStyle().getFillPatternEnum());
+			assertEquals(FillPatternType.SOLID_FOREGROUND, written.getCell(2).getCellStyle().getFillPatternEnum());
+			assertEquals("constant", written.getCell(5).getStringCellValue());
+		}
+		// Points missing in a course record leave the template cell blank
+		assertNull(getImportSheet().getRow(3).getCell(2).getRawValue());
+	}
+}